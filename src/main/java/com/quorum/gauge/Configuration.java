@@ -22,6 +22,9 @@ package com.quorum.gauge;
 
 import com.quorum.gauge.common.Context;
 import com.quorum.gauge.common.QuorumNetworkProperty;
+import com.quorum.gauge.common.instrumentation.LiveMetrics;
+import com.quorum.gauge.common.instrumentation.RpcMetrics;
+import com.quorum.gauge.common.instrumentation.RpcMetricsInterceptor;
 import com.quorum.gauge.services.SocksProxyEmbeddedServer;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -55,7 +58,7 @@ public class Configuration {
     QuorumNetworkProperty networkProperty;
 
     @Bean
-    public OkHttpClient okHttpClient(Optional<SocksProxyEmbeddedServer> socksProxyEmbeddedServer) {
+    public OkHttpClient okHttpClient(Optional<SocksProxyEmbeddedServer> socksProxyEmbeddedServer, RpcMetrics rpcMetrics, LiveMetrics liveMetrics) {
         OkHttpClient.Builder builder = new OkHttpClient.Builder();
         builder.readTimeout(5, TimeUnit.MINUTES);
         builder.writeTimeout(5, TimeUnit.MINUTES);
@@ -78,6 +81,11 @@ public class Configuration {
             logging.setLevel(HttpLoggingInterceptor.Level.BODY);
             builder.addInterceptor(logging);
         }
+        QuorumNetworkProperty.InstrumentationProperty instrumentation = networkProperty.getInstrumentation();
+        if (instrumentation.isEnabled() || instrumentation.isFlightRecorder()) {
+            logger.info("JSON RPC instrumentation is enabled, reports are written to {}", instrumentation.getReportsDir());
+            builder.addInterceptor(new RpcMetricsInterceptor(rpcMetrics, liveMetrics));
+        }
         QuorumNetworkProperty.SocksProxy socksProxyConfig = networkProperty.getSocksProxy();
         if (socksProxyConfig != null) {
             InetSocketAddress address = null;
@@ -20,6 +20,7 @@
 package com.quorum.gauge;
 
 import com.quorum.gauge.common.QuorumNetworkProperty;
+import com.quorum.gauge.common.RetryPolicy;
 import com.quorum.gauge.services.DockerInfrastructureService;
 import io.reactivex.Observable;
 import org.apache.commons.lang.StringUtils;
@@ -39,7 +40,6 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -115,8 +115,9 @@ public class DockerWaitMain implements CommandLineRunner {
         Observable.just(new AtomicInteger(1))
                 .doOnNext(c -> logger.info("Waiting attempt {} for infra to be ready ...", c.getAndIncrement()))
                 .flatMap(c -> dockerService.info())
-                .retryWhen(o -> o.delay(5, TimeUnit.SECONDS))
-                .timeout(5, TimeUnit.MINUTES)
+                .retryWhen(RetryPolicy.exponential(Duration.ofSeconds(1))
+                        .withMaxDelay(Duration.ofSeconds(5))
+                        .withDeadline(Duration.ofMinutes(5)))
                 .blockingSubscribe(i -> {
                     logger.info("Infra is ready! {}", i.getName());
                 });
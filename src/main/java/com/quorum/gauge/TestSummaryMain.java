@@ -21,11 +21,13 @@ package com.quorum.gauge;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import com.quorum.gauge.common.instrumentation.StepMetrics;
 import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang.StringUtils;
 
@@ -47,6 +49,9 @@ import java.util.List;
  *
  * Also produce a json file to be read by Github Actions in order to aggregate multiple runs.
  *
+ * When instrumentation is enabled, step metrics are written next to the xml report folder
+ * and the slowest steps are printed.
+ *
  */
 public class TestSummaryMain {
     public static void main(String[] args) throws Exception {
@@ -140,12 +145,32 @@ public class TestSummaryMain {
                 .writeValue(scenarioTee, aggregatedScenarioSummary);
         scenarioTee.flush();
         System.out.println("\n");
+        printSlowestSteps(new File(xmlFile.getAbsoluteFile().getParentFile().getParentFile(), StepMetrics.REPORT_FILE));
         if (aggregatedSpecSummary.getFailed() > 0) {
             // delegate failing Gauge execution here
             System.exit(1);
         }
     }
 
+    private static void printSlowestSteps(File stepMetricsFile) throws Exception {
+        if (!stepMetricsFile.exists()) {
+            return;
+        }
+        JsonNode slowestSteps = new ObjectMapper().readTree(stepMetricsFile).path("slowestSteps");
+        System.out.println("Slowest Steps from " + stepMetricsFile.getPath());
+        System.out.printf("%10s %10s %6s %8s %12s  %s\n", "wall(ms)", "cpu(ms)", "runs", "rpc", "alloc(MB)", "step");
+        for (JsonNode step : slowestSteps) {
+            System.out.printf("%10d %10d %6d %8d %12.1f  %s\n",
+                    step.path("wallMillis").asLong(),
+                    step.path("cpuMillis").asLong(),
+                    step.path("executions").asLong(),
+                    step.path("rpcCalls").asLong(),
+                    step.path("allocatedBytes").asLong() / (1024.0 * 1024.0),
+                    step.path("step").asText());
+        }
+        System.out.println("\n");
+    }
+
     private static class Summary {
         private int executed;
         private int passed;
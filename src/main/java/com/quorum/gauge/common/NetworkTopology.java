@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.quorum.gauge.common;
+
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of the configured nodes with indexes for the lookups done on every transaction.
+ * <p>
+ * Built from {@link QuorumNetworkProperty#getNodes()}, see {@link QuorumNetworkProperty#getTopology()}.
+ * Node names are assigned once when building the snapshot.
+ */
+public final class NetworkTopology {
+    private final Map<String, Node> nodesByName;
+    private final Map<String, List<String>> privacyAddressesByAlias;
+    private final Map<String, Node> nodesByEnodeId;
+
+    private NetworkTopology(Map<String, Node> nodes) {
+        Map<String, Node> byName = new LinkedHashMap<>();
+        Map<String, List<String>> privacyAliases = new HashMap<>();
+        Map<String, Node> byEnodeId = new HashMap<>();
+        for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+            Node node = entry.getValue();
+            node.setName(entry.getKey());
+            byName.put(entry.getKey(), node);
+            node.getPrivacyAddressAliases().forEach((alias, address) -> privacyAliases.computeIfAbsent(alias, k -> new ArrayList<>()).add(address));
+            String enodeId = enodeId(node.getEnodeUrl());
+            if (enodeId != null) {
+                byEnodeId.put(enodeId, node);
+            }
+        }
+        this.nodesByName = Collections.unmodifiableMap(byName);
+        this.privacyAddressesByAlias = Collections.unmodifiableMap(privacyAliases);
+        this.nodesByEnodeId = Collections.unmodifiableMap(byEnodeId);
+    }
+
+    public static NetworkTopology build(Map<String, Node> nodes) {
+        return new NetworkTopology(nodes);
+    }
+
+    /**
+     * @return node ID (hex public key) from an enode URL or the ID itself, null if not available
+     */
+    public static String enodeId(String enodeUrl) {
+        if (StringUtils.isEmpty(enodeUrl)) {
+            return null;
+        }
+        String id = enodeUrl;
+        if (id.startsWith("enode://")) {
+            id = id.substring("enode://".length());
+        }
+        int at = id.indexOf('@');
+        if (at >= 0) {
+            id = id.substring(0, at);
+        }
+        return id.toLowerCase();
+    }
+
+    public Map<String, Node> getNodes() {
+        return nodesByName;
+    }
+
+    /**
+     * @return the first configured node, e.g.: Node1, which is asked about the state of the whole network such as the block height
+     */
+    public Node firstNode() {
+        return nodesByName.values().stream().findFirst().orElseThrow(() -> new RuntimeException("no nodes configured"));
+    }
+
+    public Optional<Node> node(String name) {
+        return Optional.ofNullable(nodesByName.get(name));
+    }
+
+    public Node mustHaveNode(String name) {
+        return node(name).orElseThrow(() -> new RuntimeException("no such node with name: " + name));
+    }
+
+    public Optional<Node> nodeByEnodeId(String enodeId) {
+        return Optional.ofNullable(nodesByEnodeId.get(enodeId(enodeId)));
+    }
+
+    /**
+     * @return privacy address of the alias which must be unique across the network
+     */
+    public String privacyAddress(String alias) {
+        return unique(privacyAddressesByAlias, alias, "private address alias");
+    }
+
+    private static String unique(Map<String, List<String>> index, String alias, String what) {
+        List<String> matches = index.getOrDefault(alias, Collections.emptyList());
+        if (matches.size() == 0) {
+            throw new RuntimeException(what + " not found: " + alias);
+        }
+        if (matches.size() > 1) {
+            throw new RuntimeException("there are " + matches.size() + " nodes having this " + what + ": " + alias);
+        }
+        return matches.get(0);
+    }
+}
@@ -32,13 +32,16 @@ import java.util.Optional;
 @Component
 @ConfigurationProperties(prefix = "quorum")
 public class QuorumNetworkProperty {
-    private Map<QuorumNode, Node> nodes = new HashMap<>();
+    private Map<String, Node> nodes = new LinkedHashMap<>();
     private Map<String, WalletData> wallets = new HashMap<>();
     private String consensus;
     private SocksProxy socksProxy;
     private HashicorpVaultServerProperty hashicorpVaultServer;
     private DockerInfrastructureProperty dockerInfrastructure = new DockerInfrastructureProperty();
     private OAuth2ServerProperty oauth2Server;
+    private InstrumentationProperty instrumentation = new InstrumentationProperty();
+
+    private volatile NetworkTopology topology;
 
     public SocksProxy getSocksProxy() {
         return socksProxy;
@@ -48,12 +51,16 @@ public class QuorumNetworkProperty {
         this.socksProxy = socksProxy;
     }
 
-    public Map<QuorumNode, Node> getNodes() {
+    /**
+     * @return nodes keyed by their names as configured in the YML, e.g.: Node1, Node2 ...
+     */
+    public Map<String, Node> getNodes() {
         return nodes;
     }
 
-    public void setNodes(Map<QuorumNode, Node> nodes) {
+    public void setNodes(Map<String, Node> nodes) {
         this.nodes = nodes;
+        this.topology = null;
     }
 
     public Map<String, WalletData> getWallets() {
@@ -64,18 +71,43 @@ public class QuorumNetworkProperty {
         this.wallets = wallets;
     }
 
+    /**
+     * @deprecated nodes are already keyed by names, use {@link #getNodes()} or {@link #getTopology()}
+     */
+    @Deprecated
     public Map<String, Node> getNodesAsString() {
-        Map<String, Node> converted = new HashMap<>();
-        for (Map.Entry<QuorumNode, Node> quorumNodeNodeEntry : nodes.entrySet()) {
-            converted.put(quorumNodeNodeEntry.getKey().name(), quorumNodeNodeEntry.getValue());
-        }
-        return converted;
+        return getTopology().getNodes();
     }
 
     public Node getNode(String nodeName) {
-        Node node = Optional.ofNullable(nodes.get(QuorumNode.valueOf(nodeName))).orElseThrow(() -> new RuntimeException("no such node with name: " + nodeName));
-        node.setName(nodeName);
-        return node;
+        return getTopology().mustHaveNode(nodeName);
+    }
+
+    /**
+     * Snapshot of {@link #getNodes()} which is built on first use.
+     * Call {@link #refreshTopology()} after changing the nodes.
+     */
+    public NetworkTopology getTopology() {
+        NetworkTopology t = topology;
+        if (t == null) {
+            synchronized (this) {
+                t = topology;
+                if (t == null) {
+                    t = buildTopology();
+                    topology = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    public synchronized NetworkTopology refreshTopology() {
+        topology = buildTopology();
+        return topology;
+    }
+
+    private NetworkTopology buildTopology() {
+        return NetworkTopology.build(nodes);
     }
 
     public HashicorpVaultServerProperty getHashicorpVaultServer() {
@@ -126,6 +158,14 @@ public class QuorumNetworkProperty {
         this.oauth2Server = oauth2Server;
     }
 
+    public InstrumentationProperty getInstrumentation() {
+        return instrumentation;
+    }
+
+    public void setInstrumentation(InstrumentationProperty instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
     public static class SocksProxy {
         /**
          * This configuration allows to create a proxy server that supports dynamic port forwarding
@@ -303,6 +343,15 @@ public class QuorumNetworkProperty {
         private boolean enabled;
         private String host;
         private Map<String, DockerContainerProperty> nodes = new HashMap<>();
+        // grace period for containers to stop before being deleted, zero kills them
+        private Duration stopTimeout = Duration.ofSeconds(10);
+        // connections to the Docker engine, also the number of Docker commands running concurrently
+        private int maxConnections = 100;
+        private Duration connectionTimeout = Duration.ofSeconds(30);
+        // unset by default as streaming commands (logs, stats) may be idle for long
+        private Duration responseTimeout;
+        // image providing tc, run in the network namespace of the node containers to shape their traffic
+        private String trafficControlImage = "nicolaka/netshoot";
 
         public DockerInfrastructureProperty() {
             this.enabled = false;
@@ -332,6 +381,46 @@ public class QuorumNetworkProperty {
             this.nodes = nodes;
         }
 
+        public Duration getStopTimeout() {
+            return stopTimeout;
+        }
+
+        public void setStopTimeout(Duration stopTimeout) {
+            this.stopTimeout = stopTimeout;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        public String getTrafficControlImage() {
+            return trafficControlImage;
+        }
+
+        public void setTrafficControlImage(String trafficControlImage) {
+            this.trafficControlImage = trafficControlImage;
+        }
+
         public static class DockerContainerProperty {
             private String quorumContainerId;
             private String tesseraContainerId;
@@ -485,4 +574,64 @@ public class QuorumNetworkProperty {
             this.pluginAcctDir = pluginAcctDir;
         }
     }
+
+    public static class InstrumentationProperty {
+        /**
+         * Record metrics of JSON RPC calls and write them as reports
+         */
+        private boolean enabled;
+        /**
+         * Where reports are written, default to Gauge reports directory
+         */
+        private String reportsDir;
+        /**
+         * Start a JDK Flight Recorder recording for each specification
+         */
+        private boolean flightRecorder;
+        /**
+         * JFR settings used by the recordings: {@code default} or {@code profile}
+         */
+        private String flightRecorderSettings;
+
+        public InstrumentationProperty() {
+            this.enabled = false;
+            this.flightRecorder = false;
+            this.flightRecorderSettings = "default";
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getReportsDir() {
+            if (reportsDir == null) {
+                return Optional.ofNullable(System.getenv("gauge_reports_dir")).orElse("target/gauge/reports");
+            }
+            return reportsDir;
+        }
+
+        public void setReportsDir(String reportsDir) {
+            this.reportsDir = reportsDir;
+        }
+
+        public boolean isFlightRecorder() {
+            return flightRecorder;
+        }
+
+        public void setFlightRecorder(boolean flightRecorder) {
+            this.flightRecorder = flightRecorder;
+        }
+
+        public String getFlightRecorderSettings() {
+            return flightRecorderSettings;
+        }
+
+        public void setFlightRecorderSettings(String flightRecorderSettings) {
+            this.flightRecorderSettings = flightRecorderSettings;
+        }
+    }
 }
@@ -44,11 +44,10 @@ public class QuorumNodeListParameterParser extends CustomParameterParser<List<No
         return Arrays.stream(nodes.split(","))
                 .map(String::trim)
                 .map(nodeName -> {
-                    final Node node = props.getNodesAsString().get(nodeName);
+                    final Node node = props.getTopology().node(nodeName).orElse(null);
                     if(node == null) {
                         throw new IllegalArgumentException("Node " + nodeName + " not found in network properties");
                     }
-                    node.setName(nodeName);
                     return node;
                 }).collect(Collectors.toList());
     }
@@ -34,11 +34,10 @@ public class QuorumNodeParameterParser extends CustomParameterParser<Node> {
         final QuorumNetworkProperty props
             = (QuorumNetworkProperty) DataStoreFactory.getSuiteDataStore().get("networkProperties");
 
-        final Node node = props.getNodesAsString().get(nodeName);
+        final Node node = props.getTopology().node(nodeName).orElse(null);
         if (node == null) {
             throw new IllegalArgumentException("Node " + nodeName + " not found in network properties");
         }
-        node.setName(nodeName);
         return node;
     }
 
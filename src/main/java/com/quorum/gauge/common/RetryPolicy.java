@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.common;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Retry an {@link Observable} with exponential backoff, jitter, a deadline and a retry predicate.
+ * E.g.:
+ * <pre>
+ *     observable.retryWhen(RetryPolicy.untilMined(blockTime, Duration.ofMinutes(1)))
+ * </pre>
+ * Policies are immutable and attempts and deadline are tracked per subscription, so the same policy can be reused.
+ * When retries are exhausted, {@link RetryExhaustedException} is emitted with the last error as the cause.
+ */
+public class RetryPolicy implements Function<Observable<? extends Throwable>, Observable<?>> {
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final double multiplier;
+    private final double jitter;
+    private final int maxAttempts;
+    private final Duration deadline;
+    private final Predicate<Throwable> retryIf;
+    private final Scheduler scheduler;
+
+    private RetryPolicy(Duration initialDelay, Duration maxDelay, double multiplier, double jitter, int maxAttempts,
+                        Duration deadline, Predicate<Throwable> retryIf, Scheduler scheduler) {
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.maxAttempts = maxAttempts;
+        this.deadline = deadline;
+        this.retryIf = retryIf;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Delays double from {@code initialDelay} up to 30 seconds, with 20% jitter, without limit
+     */
+    public static RetryPolicy exponential(Duration initialDelay) {
+        return new RetryPolicy(initialDelay, Duration.ofSeconds(30), 2, 0.2, Integer.MAX_VALUE, null, t -> true, Schedulers.computation());
+    }
+
+    /**
+     * Up to {@code maxRetries} attempts {@code delayMillis} apart
+     */
+    public static RetryPolicy fixed(int maxRetries, long delayMillis) {
+        return exponential(Duration.ofMillis(delayMillis))
+                .withMultiplier(1)
+                .withMaxDelay(Duration.ofMillis(delayMillis))
+                .withJitter(0)
+                .withMaxAttempts(maxRetries);
+    }
+
+    /**
+     * Wait for something expected within the next blocks, e.g.: a transaction receipt.
+     * First polls are a fraction of the block time so the result is seen soon after the block is produced,
+     * then delays grow up to the block time.
+     */
+    public static RetryPolicy untilMined(Duration blockTime, Duration deadline) {
+        Duration initial = Duration.ofMillis(Math.max(50, blockTime.toMillis() / 4));
+        return exponential(initial)
+                .withMultiplier(1.5)
+                .withMaxDelay(blockTime.compareTo(initial) > 0 ? blockTime : initial)
+                .withDeadline(deadline);
+    }
+
+    // policies are immutable as they are shared, e.g.: in static fields, each withXxx returns a copy
+
+    public RetryPolicy withMaxDelay(Duration maxDelay) {
+        return new RetryPolicy(initialDelay, maxDelay, multiplier, jitter, maxAttempts, deadline, retryIf, scheduler);
+    }
+
+    public RetryPolicy withMultiplier(double multiplier) {
+        return new RetryPolicy(initialDelay, maxDelay, multiplier, jitter, maxAttempts, deadline, retryIf, scheduler);
+    }
+
+    /**
+     * @param jitter fraction of the delay, between 0 and 1, added or removed randomly
+     */
+    public RetryPolicy withJitter(double jitter) {
+        return new RetryPolicy(initialDelay, maxDelay, multiplier, jitter, maxAttempts, deadline, retryIf, scheduler);
+    }
+
+    public RetryPolicy withMaxAttempts(int maxAttempts) {
+        return new RetryPolicy(initialDelay, maxDelay, multiplier, jitter, maxAttempts, deadline, retryIf, scheduler);
+    }
+
+    /**
+     * @param deadline how long after the first failure retries stop
+     */
+    public RetryPolicy withDeadline(Duration deadline) {
+        return new RetryPolicy(initialDelay, maxDelay, multiplier, jitter, maxAttempts, deadline, retryIf, scheduler);
+    }
+
+    /**
+     * Only retry errors matching the predicate, others are passed along
+     */
+    public RetryPolicy retryIf(Predicate<Throwable> retryIf) {
+        return new RetryPolicy(initialDelay, maxDelay, multiplier, jitter, maxAttempts, deadline, retryIf, scheduler);
+    }
+
+    public RetryPolicy withScheduler(Scheduler scheduler) {
+        return new RetryPolicy(initialDelay, maxDelay, multiplier, jitter, maxAttempts, deadline, retryIf, scheduler);
+    }
+
+    @Override
+    public Observable<?> apply(Observable<? extends Throwable> errors) {
+        // retryWhen invokes this for each subscription, so state must live here
+        AtomicInteger attempts = new AtomicInteger();
+        long[] firstFailureAt = {0};
+        return errors.flatMap(error -> {
+            int attempt = attempts.incrementAndGet();
+            if (!retryIf.test(error)) {
+                return Observable.error(error);
+            }
+            long now = System.nanoTime();
+            if (attempt == 1) {
+                firstFailureAt[0] = now;
+            }
+            if (attempt >= maxAttempts) {
+                return Observable.error(new RetryExhaustedException(attempt, error));
+            }
+            long delay = delayMillis(attempt);
+            if (deadline != null) {
+                long remaining = deadline.toMillis() - TimeUnit.NANOSECONDS.toMillis(now - firstFailureAt[0]);
+                if (remaining <= 0) {
+                    return Observable.error(new RetryExhaustedException(attempt, error));
+                }
+                delay = Math.min(delay, remaining);
+            }
+            return Observable.timer(delay, TimeUnit.MILLISECONDS, scheduler);
+        });
+    }
+
+    long delayMillis(int attempt) {
+        double base = Math.min(initialDelay.toMillis() * Math.pow(multiplier, attempt - 1), maxDelay.toMillis());
+        if (jitter > 0) {
+            base = base * (1 - jitter + ThreadLocalRandom.current().nextDouble() * 2 * jitter);
+        }
+        return Math.max(0, Math.round(base));
+    }
+
+    public static class RetryExhaustedException extends RuntimeException {
+        public RetryExhaustedException(int attempts, Throwable lastError) {
+            super("retry timed out after " + attempts + " attempts: " + lastError.getMessage(), lastError);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.common.instrumentation;
+
+import com.quorum.gauge.common.QuorumNetworkProperty;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+/**
+ * Flight Recorder recordings, one per specification, if {@code quorum.instrumentation.flight-recorder} is true.
+ * <p>
+ * A recording uses the configured JFR settings (e.g.: {@code default} or {@code profile})
+ * plus {@link StepEvent}, {@link RpcCallEvent} and {@link DockerOperationEvent}.
+ * It is written to {@code jfr} folder in the reports directory when the specification completes.
+ */
+@Component
+public class FlightRecordings {
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordings.class);
+
+    private final QuorumNetworkProperty networkProperty;
+    private Recording current;
+    private Path currentDestination;
+
+    public FlightRecordings(QuorumNetworkProperty networkProperty) {
+        this.networkProperty = networkProperty;
+    }
+
+    public boolean isEnabled() {
+        return networkProperty.getInstrumentation().isFlightRecorder();
+    }
+
+    public synchronized void start(String name) {
+        if (!isEnabled()) {
+            return;
+        }
+        stop();
+        QuorumNetworkProperty.InstrumentationProperty p = networkProperty.getInstrumentation();
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration(p.getFlightRecorderSettings()));
+            recording.setName(name);
+            recording.enable(StepEvent.class);
+            recording.enable(RpcCallEvent.class);
+            recording.enable(DockerOperationEvent.class);
+            recording.setToDisk(true);
+            currentDestination = Paths.get(p.getReportsDir(), "jfr", name.replaceAll("[^A-Za-z0-9._-]+", "_") + ".jfr");
+            recording.start();
+            current = recording;
+            logger.debug("Started flight recording {}", name);
+        } catch (IOException | ParseException e) {
+            logger.warn("Unable to start flight recording {}: {}", name, e.getMessage());
+        }
+    }
+
+    public synchronized void stop() {
+        if (current == null) {
+            return;
+        }
+        try {
+            current.stop();
+            Files.createDirectories(currentDestination.getParent());
+            current.dump(currentDestination);
+            logger.debug("Flight recording {} written to {}", current.getName(), currentDestination);
+        } catch (IOException e) {
+            logger.warn("Unable to write flight recording {} to {}: {}", current.getName(), currentDestination, e.getMessage());
+        } finally {
+            current.close();
+            current = null;
+            currentDestination = null;
+        }
+    }
+}
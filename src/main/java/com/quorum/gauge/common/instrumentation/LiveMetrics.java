@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.common.instrumentation;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Meters scraped from the Prometheus endpoint while long running (soak, load) specifications execute.
+ * <p>
+ * Unlike {@link RpcMetrics}, meters are never reset.
+ * Transactions are tracked by {@link RpcMetricsInterceptor} from the JSON RPC traffic:
+ * a transaction is submitted when a send method returns its hash and is confirmed when its receipt is first returned.
+ */
+@Component
+public class LiveMetrics {
+    // transactions whose receipts are never fetched must not pile up
+    private static final Duration IN_FLIGHT_EXPIRY = Duration.ofMinutes(30);
+
+    private final MeterRegistry registry;
+    private final Cache<String, Long> inFlightSubmittedAt = CacheBuilder.newBuilder()
+            .expireAfterWrite(IN_FLIGHT_EXPIRY.toMinutes(), TimeUnit.MINUTES)
+            .build();
+    private final Timer receiptLatency;
+    // executors backing custom schedulers, weakly referenced as they are created per step
+    private final Set<ThreadPoolExecutor> executors = Collections.newSetFromMap(new WeakHashMap<>());
+
+    public LiveMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.receiptLatency = Timer.builder("quorum.tx.receipt.latency")
+                .description("Time from submitting a transaction until its receipt is first returned")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+        registry.gauge("quorum.tx.inflight", Collections.emptyList(), inFlightSubmittedAt, Cache::size);
+        Gauge.builder("quorum.scheduler.queued", this, m -> m.sumOfExecutors(e -> e.getQueue().size()))
+                .description("Tasks waiting in custom schedulers")
+                .register(registry);
+        Gauge.builder("quorum.scheduler.active", this, m -> m.sumOfExecutors(ThreadPoolExecutor::getActiveCount))
+                .description("Threads running tasks in custom schedulers")
+                .register(registry);
+    }
+
+    public void transactionSubmitted(String node, String txHash) {
+        Counter.builder("quorum.tx.submitted").tag("node", node).register(registry).increment();
+        inFlightSubmittedAt.asMap().putIfAbsent(txHash, System.nanoTime());
+    }
+
+    public void transactionConfirmed(String node, String txHash, String status) {
+        Long submittedAt = inFlightSubmittedAt.asMap().remove(txHash);
+        if (submittedAt == null) {
+            // not submitted by us or already confirmed via another node
+            return;
+        }
+        Counter.builder("quorum.tx.confirmed").tag("node", node).tag("status", status).register(registry).increment();
+        receiptLatency.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+    }
+
+    public void rpcError(String node, String method, String code) {
+        Counter.builder("quorum.rpc.errors").tag("node", node).tag("method", method).tag("code", code).register(registry).increment();
+    }
+
+    /**
+     * @return transactions submitted so far, used to derive throughput over an interval
+     */
+    public double submittedCount() {
+        return registry.find("quorum.tx.submitted").counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    /**
+     * @return transactions confirmed so far
+     */
+    public long confirmedCount() {
+        return receiptLatency.count();
+    }
+
+    /**
+     * @return sum of receipt latencies of confirmed transactions so far, used to derive the mean latency over an interval
+     */
+    public double confirmedLatencyTotalMillis() {
+        return receiptLatency.totalTime(TimeUnit.MILLISECONDS);
+    }
+
+    public long inFlightCount() {
+        return inFlightSubmittedAt.size();
+    }
+
+    /**
+     * Include the executor's queue depth and active threads in {@code quorum.scheduler.*} gauges
+     */
+    public <T extends ThreadPoolExecutor> T monitor(T executor) {
+        synchronized (executors) {
+            executors.add(executor);
+        }
+        return executor;
+    }
+
+    private double sumOfExecutors(ToIntFunction<ThreadPoolExecutor> f) {
+        synchronized (executors) {
+            return executors.stream().mapToInt(f).sum();
+        }
+    }
+}
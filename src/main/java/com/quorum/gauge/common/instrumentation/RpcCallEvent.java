@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.common.instrumentation;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event spanning a JSON RPC HTTP exchange, a batch call is a single event
+ */
+@Name("com.quorum.gauge.RpcCall")
+@Label("JSON RPC Call")
+@Category({"Quorum Acceptance Tests", "JSON RPC"})
+@StackTrace(false)
+public class RpcCallEvent extends Event {
+    @Label("Node")
+    @Description("host:port of the node")
+    public String node;
+
+    @Label("Method")
+    @Description("JSON RPC method or <batch>")
+    public String method;
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Request Size")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount
+    public long responseBytes;
+
+    @Label("HTTP Status")
+    public int httpStatus;
+
+    @Label("Transport Failure")
+    public boolean transportFailure;
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.quorum.gauge.common.instrumentation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JSON RPC metrics per node ({@code host:port}) and per method, recorded by {@link RpcMetricsInterceptor}.
+ * <p>
+ * A batch request is recorded once under {@link #BATCH} with its latency and bytes,
+ * each of its entries is counted (calls and errors) under the entry's method.
+ */
+@Component
+public class RpcMetrics {
+    public static final String BATCH = "<batch>";
+    public static final String NON_JSON_RPC = "<non-json-rpc>";
+
+    private final ConcurrentMap<String, ConcurrentMap<String, MethodMetrics>> metrics = new ConcurrentHashMap<>();
+    private final LongAdder totalCalls = new LongAdder();
+
+    public MethodMetrics of(String node, String method) {
+        return metrics.computeIfAbsent(node, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(method, k -> new MethodMetrics());
+    }
+
+    void countCall() {
+        totalCalls.increment();
+    }
+
+    /**
+     * @return number of HTTP calls made since startup, never reset
+     */
+    public long getTotalCalls() {
+        return totalCalls.sum();
+    }
+
+    public void reset() {
+        metrics.clear();
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> s = new TreeMap<>();
+        metrics.forEach((node, methods) -> {
+            Map<String, Object> m = new TreeMap<>();
+            methods.forEach((method, mm) -> m.put(method, mm.snapshot()));
+            s.put(node, m);
+        });
+        return s;
+    }
+
+    public void writeReport(File file, Map<String, Object> header) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>(header);
+        report.put("nodes", snapshot());
+        file.getParentFile().mkdirs();
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, report);
+    }
+
+    public static class MethodMetrics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final LongAdder transportFailures = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        public void recordCall() {
+            calls.increment();
+        }
+
+        public void recordExchange(long reqBytes, long resBytes, long latencyNanos) {
+            requestBytes.add(reqBytes);
+            responseBytes.add(resBytes);
+            latency.record(latencyNanos);
+        }
+
+        public void recordError(String code) {
+            errors.computeIfAbsent(code, k -> new LongAdder()).increment();
+        }
+
+        public void recordTransportFailure() {
+            transportFailures.increment();
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("calls", calls.sum());
+            s.put("requestBytes", requestBytes.sum());
+            s.put("responseBytes", responseBytes.sum());
+            s.put("transportFailures", transportFailures.sum());
+            Map<String, Long> errorCounts = new TreeMap<>();
+            errors.forEach((code, n) -> errorCounts.put(code, n.sum()));
+            s.put("errors", errorCounts);
+            if (latency.getCount() > 0) {
+                s.put("latency", latency.snapshot());
+            }
+            return s;
+        }
+    }
+}
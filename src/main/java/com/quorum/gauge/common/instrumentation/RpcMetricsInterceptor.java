@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.quorum.gauge.common.instrumentation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Records {@link RpcMetrics} for each JSON RPC call, including each entry of a batch call.
+ * <p>
+ * Each HTTP exchange is also a {@link RpcCallEvent} for Flight Recorder.
+ * Errors, submitted transactions and their receipts are counted in {@link LiveMetrics}.
+ */
+public class RpcMetricsInterceptor implements Interceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RpcMetricsInterceptor.class);
+
+    // responses of calls tracking transactions are parsed up to this size, they are small unless batched
+    private static final long MAX_PARSED_RESPONSE_BYTES = 16 * 1024 * 1024;
+    // other responses, e.g.: blocks and logs, are only scanned for errors within this prefix.
+    // Errors of single calls come first, errors of batch entries past the prefix are not counted
+    private static final long ERROR_SCAN_BYTES = 8 * 1024;
+
+    private static final Set<String> SEND_TRANSACTION_METHODS = Set.of(
+            "eth_sendTransaction", "eth_sendRawTransaction", "eth_sendRawPrivateTransaction", "personal_sendTransaction");
+    private static final String GET_RECEIPT_METHOD = "eth_getTransactionReceipt";
+
+    private final RpcMetrics rpcMetrics;
+    private final LiveMetrics liveMetrics;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RpcMetricsInterceptor(RpcMetrics rpcMetrics, LiveMetrics liveMetrics) {
+        this.rpcMetrics = rpcMetrics;
+        this.liveMetrics = liveMetrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String node = request.url().host() + ":" + request.url().port();
+        RequestBody body = request.body();
+        long requestBytes = 0;
+        ParsedRequest parsed = ParsedRequest.NON_JSON_RPC;
+        if (body != null) {
+            Buffer buffer = new Buffer();
+            body.writeTo(buffer);
+            requestBytes = buffer.size();
+            parsed = parseRequest(buffer.readByteArray());
+        }
+        rpcMetrics.countCall();
+        parsed.methodsById.values().forEach(method -> rpcMetrics.of(node, method).recordCall());
+        RpcMetrics.MethodMetrics exchangeMetrics = rpcMetrics.of(node, parsed.exchangeKey());
+        if (parsed.batch || parsed.methodsById.isEmpty()) {
+            exchangeMetrics.recordCall();
+        }
+
+        RpcCallEvent event = new RpcCallEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            exchangeMetrics.recordTransportFailure();
+            liveMetrics.rpcError(node, parsed.exchangeKey(), "transport");
+            event.transportFailure = true;
+            commit(event, node, parsed, requestBytes, 0, 0);
+            throw e;
+        }
+        long latency = System.nanoTime() - start;
+
+        // the body is only copied when needed, don't read it just to count bytes. 0 when unknown, e.g.: chunked
+        long responseBytes = response.body() != null ? Math.max(0, response.body().contentLength()) : 0;
+        exchangeMetrics.recordExchange(requestBytes, responseBytes, latency);
+        commit(event, node, parsed, requestBytes, responseBytes, response.code());
+        if (!response.isSuccessful()) {
+            exchangeMetrics.recordError("http-" + response.code());
+            liveMetrics.rpcError(node, parsed.exchangeKey(), "http-" + response.code());
+        } else if (response.body() != null && !parsed.methodsById.isEmpty()) {
+            inspectResponse(node, parsed, response);
+        }
+        return response;
+    }
+
+    private void commit(RpcCallEvent event, String node, ParsedRequest parsed, long requestBytes, long responseBytes, int httpStatus) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.node = node;
+        event.method = parsed.exchangeKey();
+        event.batchSize = parsed.methodsById.size();
+        event.requestBytes = requestBytes;
+        event.responseBytes = responseBytes;
+        event.httpStatus = httpStatus;
+        event.commit();
+    }
+
+    private ParsedRequest parseRequest(byte[] body) {
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            if (json == null) {
+                return ParsedRequest.NON_JSON_RPC;
+            }
+            ParsedRequest parsed;
+            if (json.isArray()) {
+                parsed = new ParsedRequest(new LinkedHashMap<>(), true);
+                json.forEach(parsed::add);
+                return parsed;
+            }
+            if (!json.has("method")) {
+                return ParsedRequest.NON_JSON_RPC;
+            }
+            parsed = new ParsedRequest(new LinkedHashMap<>(), false);
+            parsed.add(json);
+            return parsed;
+        } catch (IOException e) {
+            return ParsedRequest.NON_JSON_RPC;
+        }
+    }
+
+    private void inspectResponse(String node, ParsedRequest parsed, Response response) throws IOException {
+        byte[] responseBody = response.peekBody(parsed.tracksTransactions ? MAX_PARSED_RESPONSE_BYTES : ERROR_SCAN_BYTES).bytes();
+        // avoid parsing the response when there's no error at all which is the common case
+        if (!parsed.tracksTransactions && !new String(responseBody, StandardCharsets.UTF_8).contains("\"error\"")) {
+            return;
+        }
+        try {
+            JsonNode json = objectMapper.readTree(responseBody);
+            List<JsonNode> entries = new ArrayList<>();
+            if (json.isArray()) {
+                json.forEach(entries::add);
+            } else {
+                entries.add(json);
+            }
+            for (JsonNode entry : entries) {
+                long id = entry.path("id").asLong();
+                String method = parsed.methodsById.getOrDefault(id, parsed.exchangeKey());
+                JsonNode error = entry.get("error");
+                if (error != null && !error.isNull()) {
+                    String code = error.path("code").asText("unknown");
+                    rpcMetrics.of(node, method).recordError(code);
+                    liveMetrics.rpcError(node, method, code);
+                    continue;
+                }
+                JsonNode result = entry.path("result");
+                if (SEND_TRANSACTION_METHODS.contains(method) && result.isTextual()) {
+                    liveMetrics.transactionSubmitted(node, result.asText());
+                } else if (GET_RECEIPT_METHOD.equals(method) && result.isObject() && parsed.txHashesById.containsKey(id)) {
+                    liveMetrics.transactionConfirmed(node, parsed.txHashesById.get(id), result.path("status").asText("unknown"));
+                }
+            }
+        } catch (IOException e) {
+            // e.g.: an error found in the prefix of a larger response
+            logger.debug("Unable to parse response from {}: {}", node, e.getMessage());
+            if (!parsed.tracksTransactions) {
+                rpcMetrics.of(node, parsed.exchangeKey()).recordError("unknown");
+                liveMetrics.rpcError(node, parsed.exchangeKey(), "unknown");
+            }
+        }
+    }
+
+    private static class ParsedRequest {
+        static final ParsedRequest NON_JSON_RPC = new ParsedRequest(Collections.emptyMap(), false);
+
+        final Map<Long, String> methodsById;
+        final Map<Long, String> txHashesById = new HashMap<>();
+        final boolean batch;
+        // response must be parsed to track transactions
+        boolean tracksTransactions;
+
+        ParsedRequest(Map<Long, String> methodsById, boolean batch) {
+            this.methodsById = methodsById;
+            this.batch = batch;
+        }
+
+        void add(JsonNode entry) {
+            long id = entry.path("id").asLong();
+            String method = entry.path("method").asText(RpcMetrics.NON_JSON_RPC);
+            methodsById.put(id, method);
+            if (SEND_TRANSACTION_METHODS.contains(method)) {
+                tracksTransactions = true;
+            } else if (GET_RECEIPT_METHOD.equals(method) && entry.path("params").path(0).isTextual()) {
+                txHashesById.put(id, entry.path("params").path(0).asText());
+                tracksTransactions = true;
+            }
+        }
+
+        // key under which latency and bytes are recorded
+        String exchangeKey() {
+            if (batch) {
+                return RpcMetrics.BATCH;
+            }
+            return methodsById.values().stream().findFirst().orElse(RpcMetrics.NON_JSON_RPC);
+        }
+    }
+}
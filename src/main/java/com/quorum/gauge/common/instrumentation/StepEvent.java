@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.common.instrumentation;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event spanning the execution of a Gauge step
+ */
+@Name("com.quorum.gauge.Step")
+@Label("Gauge Step")
+@Category({"Quorum Acceptance Tests", "Gauge"})
+@StackTrace(false)
+public class StepEvent extends Event {
+    @Label("Specification")
+    public String specification;
+
+    @Label("Scenario")
+    public String scenario;
+
+    @Label("Step")
+    public String step;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.common.instrumentation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Wall time, CPU time, allocated bytes and JSON RPC calls of Gauge step implementations,
+ * aggregated per specification, scenario and step.
+ * <p>
+ * CPU time and allocated bytes are measured for the thread running the step only,
+ * work offloaded to RxJava schedulers is not accounted for.
+ * RPC calls are the number of HTTP calls, recorded by {@link RpcMetricsInterceptor}, made while the step runs.
+ * Step calls run on RxJava schedulers so they can't be told apart from calls of background tasks, e.g.: the
+ * background load, which are then counted against the running step.
+ */
+@Component
+public class StepMetrics {
+    public static final String REPORT_FILE = "step-metrics.json";
+
+    private final RpcMetrics rpcMetrics;
+    private final ThreadMXBean threadMXBean;
+    private final boolean cpuTimeSupported;
+    private final boolean allocatedBytesSupported;
+
+    // key: specification -> scenario -> step
+    private final ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, Aggregate>>> metrics = new ConcurrentHashMap<>();
+    private volatile String currentSpecification = "<none>";
+    private volatile String currentScenario = "<none>";
+
+    public StepMetrics(RpcMetrics rpcMetrics) {
+        this.rpcMetrics = rpcMetrics;
+        this.threadMXBean = ManagementFactory.getThreadMXBean();
+        this.cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported();
+        this.allocatedBytesSupported = threadMXBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported();
+        if (cpuTimeSupported && !threadMXBean.isThreadCpuTimeEnabled()) {
+            threadMXBean.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    public void setCurrentSpecification(String specification) {
+        this.currentSpecification = specification;
+    }
+
+    public void setCurrentScenario(String scenario) {
+        this.currentScenario = scenario;
+    }
+
+    /**
+     * Take a sample of the current thread's counters, to be given back to {@link #record(String, Sample, boolean)}
+     * when the step completes
+     */
+    public Sample start() {
+        return new Sample(System.nanoTime(), cpuTime(), allocatedBytes(), rpcMetrics.getTotalCalls());
+    }
+
+    public void record(String step, Sample start, boolean failed) {
+        Sample end = start();
+        metrics.computeIfAbsent(currentSpecification, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(currentScenario, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(step, k -> new Aggregate())
+                .add(end.minus(start), failed);
+    }
+
+    private long cpuTime() {
+        return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long allocatedBytes() {
+        if (!allocatedBytesSupported) {
+            return 0;
+        }
+        return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return steps aggregated across all specifications and scenarios, slowest (total wall time) first
+     */
+    public List<Map<String, Object>> slowestSteps(int limit) {
+        Map<String, Aggregate> byStep = new LinkedHashMap<>();
+        metrics.values().forEach(scenarios -> scenarios.values().forEach(steps -> steps.forEach((step, a) ->
+                byStep.computeIfAbsent(step, k -> new Aggregate()).merge(a))));
+        return byStep.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Aggregate> e) -> e.getValue().wallNanos.sum()).reversed())
+                .limit(limit)
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .collect(Collectors.toList());
+    }
+
+    public Map<String, Object> snapshot() {
+        List<Map<String, Object>> specifications = new ArrayList<>();
+        metrics.forEach((spec, scenarios) -> {
+            List<Map<String, Object>> scenarioList = new ArrayList<>();
+            scenarios.forEach((scenario, steps) -> {
+                Aggregate total = new Aggregate();
+                List<Map<String, Object>> stepList = new ArrayList<>();
+                steps.forEach((step, a) -> {
+                    total.merge(a);
+                    stepList.add(a.snapshot(step));
+                });
+                Map<String, Object> s = total.snapshot(null);
+                s.put("scenario", scenario);
+                s.put("steps", stepList);
+                scenarioList.add(s);
+            });
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("specification", spec);
+            s.put("scenarios", scenarioList);
+            specifications.add(s);
+        });
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("cpuTimeSupported", cpuTimeSupported);
+        report.put("allocatedBytesSupported", allocatedBytesSupported);
+        report.put("slowestSteps", slowestSteps(20));
+        report.put("specifications", specifications);
+        return report;
+    }
+
+    public void writeReport(File file) throws IOException {
+        file.getParentFile().mkdirs();
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, snapshot());
+    }
+
+    public static class Sample {
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+        private final long rpcCalls;
+
+        Sample(long wallNanos, long cpuNanos, long allocatedBytes, long rpcCalls) {
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.rpcCalls = rpcCalls;
+        }
+
+        Sample minus(Sample other) {
+            return new Sample(wallNanos - other.wallNanos, cpuNanos - other.cpuNanos,
+                    allocatedBytes - other.allocatedBytes, rpcCalls - other.rpcCalls);
+        }
+    }
+
+    private static class Aggregate {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder rpcCalls = new LongAdder();
+
+        void add(Sample delta, boolean failed) {
+            executions.increment();
+            if (failed) {
+                failures.increment();
+            }
+            wallNanos.add(delta.wallNanos);
+            cpuNanos.add(delta.cpuNanos);
+            allocatedBytes.add(delta.allocatedBytes);
+            rpcCalls.add(delta.rpcCalls);
+        }
+
+        void merge(Aggregate other) {
+            executions.add(other.executions.sum());
+            failures.add(other.failures.sum());
+            wallNanos.add(other.wallNanos.sum());
+            cpuNanos.add(other.cpuNanos.sum());
+            allocatedBytes.add(other.allocatedBytes.sum());
+            rpcCalls.add(other.rpcCalls.sum());
+        }
+
+        Map<String, Object> snapshot(String step) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            if (step != null) {
+                s.put("step", step);
+            }
+            s.put("executions", executions.sum());
+            s.put("failures", failures.sum());
+            s.put("wallMillis", wallNanos.sum() / 1_000_000);
+            s.put("cpuMillis", cpuNanos.sum() / 1_000_000);
+            s.put("allocatedBytes", allocatedBytes.sum());
+            s.put("rpcCalls", rpcCalls.sum());
+            return s;
+        }
+    }
+}
@@ -29,6 +29,8 @@ import org.web3j.protocol.core.Response;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @JsonDeserialize(using = BatchResponse.Deserializer.class)
 public class BatchResponse extends Response<Object> {
@@ -42,6 +44,13 @@ public class BatchResponse extends Response<Object> {
         this.responses = responses;
     }
 
+    /**
+     * @return responses keyed by the ID of their request, as a batch may be answered in any order
+     */
+    public Map<Long, ObjectResponse> byId() {
+        return responses.stream().collect(Collectors.toMap(ObjectResponse::getId, r -> r, (a, b) -> a));
+    }
+
     public static class Deserializer extends JsonDeserializer<BatchResponse> {
         @Override
         public BatchResponse deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JsonProcessingException {
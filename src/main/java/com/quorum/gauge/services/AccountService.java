@@ -36,7 +36,15 @@ import java.util.Map;
 @Service
 public class AccountService extends AbstractService {
 
+    /**
+     * @deprecated use {@link #getAccountAddresses(QuorumNetworkProperty.Node)}
+     */
+    @Deprecated
     public Observable<String> getAccountAddresses(QuorumNode node) {
+        return getAccountAddresses(networkProperty().getNode(node.name()));
+    }
+
+    public Observable<String> getAccountAddresses(QuorumNetworkProperty.Node node) {
         return connectionFactory()
                 .getConnection(node)
                 .ethAccounts()
@@ -45,25 +53,24 @@ public class AccountService extends AbstractService {
                 .flatMap(ethAccounts -> Observable.fromIterable(ethAccounts.getAccounts()));
     }
 
+    /**
+     * @deprecated use {@link #getDefaultAccountAddress(QuorumNetworkProperty.Node)}
+     */
+    @Deprecated
     public Observable<String> getDefaultAccountAddress(QuorumNode node) {
-        QuorumNetworkProperty.Node qnode = networkProperty().getNode(node.name());
-        if (qnode != null) {
-            return getDefaultAccountAddress(qnode);
-        } else {
-            return getAccountAddresses(node).firstOrError().toObservable();
-        }
+        return getDefaultAccountAddress(networkProperty().getNode(node.name()));
     }
 
     public Observable<String> getDefaultAccountAddress(QuorumNetworkProperty.Node node) {
         Map<String, String> accountAliases = node.getAccountAliases();
         if (CollectionUtils.isEmpty(accountAliases) || !accountAliases.containsKey("Default")) {
-            return getAccountAddresses(QuorumNode.valueOf(node.getName())).firstOrError().toObservable();
+            return getAccountAddresses(node).firstOrError().toObservable();
         } else {
             return Observable.just(accountAliases.get("Default"));
         }
     }
 
-    public Observable<EthGetBalance> getDefaultAccountBalance(QuorumNode node) {
+    public Observable<EthGetBalance> getDefaultAccountBalance(QuorumNetworkProperty.Node node) {
         return getDefaultAccountAddress(node)
             .flatMap(s -> connectionFactory()
                 .getConnection(node)
@@ -73,6 +80,14 @@ public class AccountService extends AbstractService {
             );
     }
 
+    /**
+     * @deprecated use {@link #getDefaultAccountBalance(QuorumNetworkProperty.Node)}
+     */
+    @Deprecated
+    public Observable<EthGetBalance> getDefaultAccountBalance(QuorumNode node) {
+        return getDefaultAccountBalance(networkProperty().getNode(node.name()));
+    }
+
     public Observable<ListWalletsResponse> personalListWallets(QuorumNetworkProperty.Node node) {
         Request<?, ListWalletsResponse> request = new Request<>(
             "personal_listWallets",
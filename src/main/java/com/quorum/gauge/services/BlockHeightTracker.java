@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.common.RetryPolicy;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.Web3j;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Track block height of nodes so that any number of waiters can be notified when a height is reached.
+ * <p>
+ * Each node has at most one feed, shared by all waiters: a single poller running at half the block time.
+ * The feed stops when the last waiter is done.
+ */
+@Service
+public class BlockHeightTracker extends AbstractService {
+    private static final Logger logger = LoggerFactory.getLogger(BlockHeightTracker.class);
+
+    private static final long MIN_POLL_INTERVAL_MILLIS = 50;
+    private static final long MAX_POLL_INTERVAL_MILLIS = 1000;
+
+    @Autowired
+    UtilService utilService;
+
+    private final Map<String, Observable<BigInteger>> heights = new ConcurrentHashMap<>();
+
+    /**
+     * @return block heights of {@code node} as they change, starting with the latest known one
+     */
+    public Observable<BigInteger> heights(Node node) {
+        return heights.computeIfAbsent(node.getUrl(), url -> feed(node)
+                .distinctUntilChanged()
+                .replay(1)
+                .refCount());
+    }
+
+    /**
+     * @return the block height of {@code node} once it is at least {@code height},
+     * or a {@link java.util.concurrent.TimeoutException} error
+     */
+    public Observable<BigInteger> awaitHeight(Node node, BigInteger height, Duration timeout) {
+        return heights(node)
+                .filter(h -> h.compareTo(height) >= 0)
+                .take(1)
+                .timeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private Observable<BigInteger> feed(Node node) {
+        Web3j client = connectionFactory().getWeb3jConnection(node);
+        return Observable.defer(() -> {
+            long interval = Math.max(MIN_POLL_INTERVAL_MILLIS, Math.min(utilService.blockTimeHint(node).toMillis() / 2, MAX_POLL_INTERVAL_MILLIS));
+            logger.debug("Polling block height of {} every {}ms", node.getName(), interval);
+            return currentHeight(client)
+                    .repeatWhen(done -> done.delay(interval, TimeUnit.MILLISECONDS))
+                    .retryWhen(RetryPolicy.exponential(Duration.ofMillis(interval)).withMaxDelay(Duration.ofSeconds(5)));
+        }).subscribeOn(Schedulers.io());
+    }
+
+    private Observable<BigInteger> currentHeight(Web3j client) {
+        return Observable.fromCallable(() -> client.ethBlockNumber().send().getBlockNumber());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.ext.BatchRequest;
+import com.quorum.gauge.ext.BatchResponse;
+import com.quorum.gauge.ext.ObjectResponse;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Drive the chain to a target height by keeping cheap value transfers pending.
+ * <p>
+ * Every account of the sending nodes transfers 0 wei to itself, nonces being tracked locally so transactions
+ * are sent in one batch per node without waiting for the previous ones. Each time a block is produced,
+ * accounts are topped up to {@link #PENDING_PER_ACCOUNT} pending transactions so the next block always has
+ * something to include: Raft then mints a block per tick, other consensus a block per period.
+ * Accounts are topped up until the target is observed, as Raft stops minting once the pool is empty:
+ * the chain may therefore end up to one block past the target.
+ */
+@Service
+public class BlockPump extends AbstractService {
+    private static final Logger logger = LoggerFactory.getLogger(BlockPump.class);
+
+    private static final int PENDING_PER_ACCOUNT = 2;
+
+    @Autowired
+    RPCService rpcService;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    BlockHeightTracker blockHeightTracker;
+
+    /**
+     * @param observer node whose block height is tracked
+     * @param senders  nodes whose accounts send the transactions
+     * @return the block height of {@code observer} once it is at least {@code targetHeight}, at most one block more
+     */
+    public Observable<BigInteger> pumpUntil(Node observer, List<Node> senders, BigInteger targetHeight, Duration timeout) {
+        return Observable.fromCallable(() -> senders.stream()
+                .flatMap(node -> accountService.getAccountAddresses(node).toList().blockingGet().stream().map(addr -> new Sender(node, addr)))
+                .collect(Collectors.groupingBy(s -> s.node)))
+                .subscribeOn(Schedulers.io())
+                .flatMap(sendersByNode -> {
+                    logger.debug("Pumping blocks until {} with {} accounts", targetHeight, sendersByNode.values().stream().mapToInt(List::size).sum());
+                    return blockHeightTracker.heights(observer)
+                            .observeOn(Schedulers.io())
+                            .concatMap(height -> {
+                                if (height.compareTo(targetHeight) < 0) {
+                                    return Observable.fromIterable(sendersByNode.entrySet())
+                                            .flatMap(e -> topUp(e.getKey(), e.getValue()).subscribeOn(Schedulers.io()))
+                                            .ignoreElements()
+                                            .andThen(Observable.just(height));
+                                }
+                                return Observable.just(height);
+                            });
+                })
+                .filter(height -> height.compareTo(targetHeight) >= 0)
+                .take(1)
+                .timeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private Observable<Integer> topUp(Node node, List<Sender> senders) {
+        BatchRequest.Collector nonces = BatchRequest.Collector.create();
+        for (Sender s : senders) {
+            nonces.add("eth_getTransactionCount", Arrays.asList(s.address, "latest"));
+            nonces.add("eth_getTransactionCount", Arrays.asList(s.address, "pending"));
+        }
+        return rpcService.call(node, nonces).flatMap(res -> {
+            Map<Long, ObjectResponse> byId = res.byId();
+            BatchRequest.Collector transfers = BatchRequest.Collector.create();
+            List<Sender> submitted = new ArrayList<>();
+            for (int i = 0; i < senders.size(); i++) {
+                Sender s = senders.get(i);
+                ObjectResponse latest = byId.get(nonces.toList().get(2 * i).getId());
+                ObjectResponse pending = byId.get(nonces.toList().get(2 * i + 1).getId());
+                if (latest == null || latest.hasError() || pending == null || pending.hasError()) {
+                    continue;
+                }
+                s.sync(Numeric.decodeQuantity((String) latest.getResult()), Numeric.decodeQuantity((String) pending.getResult()));
+                while (s.pendingCount() < PENDING_PER_ACCOUNT) {
+                    transfers.add("eth_sendTransaction", Collections.singletonList(s.nextTransfer()));
+                    submitted.add(s);
+                }
+            }
+            if (transfers.size() == 0) {
+                return Observable.just(0);
+            }
+            return rpcService.call(node, transfers).map(sent -> {
+                Map<Long, ObjectResponse> sentById = sent.byId();
+                for (int i = 0; i < submitted.size(); i++) {
+                    ObjectResponse r = sentById.get(transfers.toList().get(i).getId());
+                    if (r == null || r.hasError()) {
+                        logger.debug("Transfer from {} in {} failed: {}", submitted.get(i).address, node.getName(), r == null ? "no response" : r.getError().getMessage());
+                        submitted.get(i).resync = true;
+                    }
+                }
+                return submitted.size();
+            });
+        });
+    }
+
+    private static class Sender {
+        final Node node;
+        final String address;
+        BigInteger nextNonce;
+        BigInteger minedNonce;
+        // set when a transfer failed, the local nonce may then be ahead of the node's
+        boolean resync = true;
+
+        Sender(Node node, String address) {
+            this.node = node;
+            this.address = address;
+        }
+
+        void sync(BigInteger latest, BigInteger pending) {
+            minedNonce = latest;
+            if (resync || nextNonce == null || nextNonce.compareTo(latest) < 0) {
+                nextNonce = pending;
+                resync = false;
+            }
+        }
+
+        int pendingCount() {
+            return nextNonce.subtract(minedNonce).intValue();
+        }
+
+        Map<String, Object> nextTransfer() {
+            Map<String, Object> tx = SelfTransfers.publicTransfer(address);
+            tx.put("nonce", Numeric.encodeQuantity(nextNonce));
+            nextNonce = nextNonce.add(BigInteger.ONE);
+            return tx;
+        }
+    }
+}
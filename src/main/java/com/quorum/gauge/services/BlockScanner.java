@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.ext.BatchRequest;
+import com.quorum.gauge.ext.BatchResponse;
+import com.quorum.gauge.ext.ObjectResponse;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Scan blocks of a node and index their transactions.
+ * <p>
+ * Blocks are fetched with full transactions via batches of {@code eth_getBlockByNumber},
+ * batches being sent in parallel. Each node has a cursor so a later scan only fetches blocks
+ * produced since the previous one. Blocks before the {@code fromBlock} of the latest scan are dropped
+ * from the index and at most {@value #MAX_INDEXED_BLOCKS} blocks are kept per node.
+ */
+@Service
+public class BlockScanner extends AbstractService {
+    private static final Logger logger = LoggerFactory.getLogger(BlockScanner.class);
+
+    // number of blocks in a JSON RPC batch
+    private static final int BLOCKS_PER_BATCH = 100;
+    // number of batches in flight per node
+    private static final int MAX_CONCURRENT_BATCHES = 4;
+    // bounds the memory of long runs, oldest blocks are evicted first
+    static final int MAX_INDEXED_BLOCKS = 10_000;
+
+    @Autowired
+    RPCService rpcService;
+
+    @Autowired
+    UtilService utilService;
+
+    private final ConcurrentMap<String, ChainIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Fetch blocks from {@code fromBlock} (or from the node's cursor if already scanned) up to the latest block
+     *
+     * @return index of the blocks scanned so far in {@code node}, starting from {@code fromBlock}
+     */
+    public Observable<ChainIndex> scan(Node node, long fromBlock) {
+        return Observable.fromCallable(() -> {
+            // an index can't be extended backward so start over if needed
+            long latest = utilService.getCurrentBlockNumberFrom(node).blockingFirst().getBlockNumber().longValue();
+            // a head below the cursor means the chain was recreated
+            ChainIndex index = indexes.compute(node.getName(), (name, existing) ->
+                    existing == null || fromBlock < existing.fromBlock || latest + 1 < existing.nextBlock ? new ChainIndex(name, fromBlock) : existing);
+            synchronized (index) {
+                if (fromBlock > index.fromBlock) {
+                    index.dropBefore(fromBlock);
+                }
+                if (latest >= index.nextBlock) {
+                    fetch(node, index.nextBlock, latest).blockingForEach(index::add);
+                    index.nextBlock = latest + 1;
+                }
+                return index;
+            }
+        }).subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Forget the cursor of the node, e.g.: after the network is recreated
+     */
+    public void reset(Node node) {
+        indexes.remove(node.getName());
+    }
+
+    private Observable<BlockSummary> fetch(Node node, long from, long to) {
+        logger.debug("Scanning blocks {}..{} in {}", from, to, node.getName());
+        List<long[]> ranges = new ArrayList<>();
+        for (long start = from; start <= to; start += BLOCKS_PER_BATCH) {
+            ranges.add(new long[]{start, Math.min(to, start + BLOCKS_PER_BATCH - 1)});
+        }
+        return Observable.fromIterable(ranges)
+                .flatMap(range -> fetchBatch(node, range[0], range[1]).subscribeOn(Schedulers.io()), MAX_CONCURRENT_BATCHES);
+    }
+
+    private Observable<BlockSummary> fetchBatch(Node node, long from, long to) {
+        BatchRequest.Collector collector = BatchRequest.Collector.create();
+        for (long n = from; n <= to; n++) {
+            collector.add("eth_getBlockByNumber", Arrays.asList(Numeric.encodeQuantity(BigInteger.valueOf(n)), true));
+        }
+        return rpcService.call(node, collector)
+                .flatMapIterable(BatchResponse::getResponses)
+                .map(res -> {
+                    if (res.hasError()) {
+                        throw new RuntimeException("unable to fetch block from " + node.getName() + ": " + res.getError().getMessage());
+                    }
+                    return BlockSummary.of(res);
+                });
+    }
+
+    public static class ChainIndex {
+        private final String node;
+        private volatile long fromBlock;
+        private volatile long nextBlock;
+        private final ConcurrentNavigableMap<Long, BlockSummary> blocks = new ConcurrentSkipListMap<>();
+        private final ConcurrentMap<String, Long> blockNumberByTxHash = new ConcurrentHashMap<>();
+
+        ChainIndex(String node, long fromBlock) {
+            this.node = node;
+            this.fromBlock = fromBlock;
+            this.nextBlock = fromBlock;
+        }
+
+        void add(BlockSummary block) {
+            blocks.put(block.getNumber(), block);
+            block.getTransactionHashes().forEach(h -> blockNumberByTxHash.put(h, block.getNumber()));
+            if (blocks.size() > MAX_INDEXED_BLOCKS) {
+                Map.Entry<Long, BlockSummary> oldest = blocks.pollFirstEntry();
+                if (oldest != null) {
+                    logger.warn("Evicting block {} from the index of {}, more than {} blocks scanned", oldest.getKey(), node, MAX_INDEXED_BLOCKS);
+                    forget(oldest.getValue());
+                }
+            }
+        }
+
+        void dropBefore(long block) {
+            ConcurrentNavigableMap<Long, BlockSummary> dropped = blocks.headMap(block);
+            dropped.values().forEach(this::forget);
+            dropped.clear();
+            fromBlock = block;
+            nextBlock = Math.max(nextBlock, block);
+        }
+
+        private void forget(BlockSummary block) {
+            block.getTransactionHashes().forEach(h -> blockNumberByTxHash.remove(h, block.getNumber()));
+        }
+
+        public String getNode() {
+            return node;
+        }
+
+        public long getFromBlock() {
+            return fromBlock;
+        }
+
+        /**
+         * @return the block number which the next scan starts from
+         */
+        public long getNextBlock() {
+            return nextBlock;
+        }
+
+        public Optional<Long> blockOf(String txHash) {
+            return Optional.ofNullable(blockNumberByTxHash.get(txHash.toLowerCase()));
+        }
+
+        public long countIncluded(Collection<String> txHashes) {
+            return txHashes.stream().filter(h -> blockOf(h).isPresent()).count();
+        }
+
+        public List<BlockSummary> blocks(long from, long to) {
+            return new ArrayList<>(blocks.subMap(from, true, to, true).values());
+        }
+
+        public int transactionCount(long from, long to) {
+            return blocks.subMap(from, true, to, true).values().stream().mapToInt(b -> b.getTransactionHashes().size()).sum();
+        }
+    }
+
+    public static class BlockSummary {
+        private final long number;
+        private final String hash;
+        // as returned by the node, seconds for Clique/Istanbul and nanoseconds for Raft
+        private final long timestamp;
+        private final long gasUsed;
+        private final List<String> transactionHashes;
+
+        BlockSummary(long number, String hash, long timestamp, long gasUsed, List<String> transactionHashes) {
+            this.number = number;
+            this.hash = hash;
+            this.timestamp = timestamp;
+            this.gasUsed = gasUsed;
+            this.transactionHashes = transactionHashes;
+        }
+
+        @SuppressWarnings("unchecked")
+        static BlockSummary of(ObjectResponse res) {
+            Map<String, Object> block = (Map<String, Object>) res.getResult();
+            if (block == null) {
+                throw new RuntimeException("block not found");
+            }
+            List<Object> txs = (List<Object>) block.getOrDefault("transactions", Collections.emptyList());
+            List<String> txHashes = txs.stream()
+                    .map(tx -> tx instanceof Map ? ((Map<String, Object>) tx).get("hash") : tx)
+                    .map(h -> String.valueOf(h).toLowerCase())
+                    .collect(Collectors.toList());
+            return new BlockSummary(
+                    Numeric.decodeQuantity((String) block.get("number")).longValue(),
+                    (String) block.get("hash"),
+                    Numeric.decodeQuantity((String) block.get("timestamp")).longValue(),
+                    Numeric.decodeQuantity((String) block.get("gasUsed")).longValue(),
+                    txHashes);
+        }
+
+        public long getNumber() {
+            return number;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public long getGasUsed() {
+            return gasUsed;
+        }
+
+        public List<String> getTransactionHashes() {
+            return transactionHashes;
+        }
+    }
+}
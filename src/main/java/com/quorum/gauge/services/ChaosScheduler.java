@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Crash node containers one at a time while a {@link LoadGenerator.Load} runs, then measure from the load's
+ * confirmed transactions how much the throughput dropped and how long it took to come back after each crash.
+ * <p>
+ * A random container is stopped, started again after the downtime and waited for until healthy.
+ * The next crash happens after the interval. Throughput is averaged over {@link #WINDOW_SECONDS} as blocks,
+ * hence confirmations, are not evenly spread over seconds.
+ */
+@Service
+public class ChaosScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(ChaosScheduler.class);
+
+    private static final int WINDOW_SECONDS = 5;
+    // throughput is considered recovered when it reaches this ratio of the throughput before the crash
+    private static final double RECOVERY_RATIO = 0.9;
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    InfrastructureService infraService;
+
+    /**
+     * @param targets resource ids keyed by a label used in the report, e.g.: {@code Node1-quorum}
+     */
+    public Run start(Map<String, String> targets, Duration downtime, Duration interval, LoadGenerator.Load load) {
+        return new Run(targets, downtime, interval, load.getStartedAt());
+    }
+
+    public class Run {
+        private final Map<String, String> targets;
+        private final long origin;
+        private final List<Fault> faults = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger failedCrashes = new AtomicInteger();
+        private final Disposable schedule;
+        // container stopped by the ongoing crash, restarted when the run is stopped
+        private volatile String down;
+
+        private Run(Map<String, String> targets, Duration downtime, Duration interval, long origin) {
+            this.targets = targets;
+            this.origin = origin;
+            List<String> labels = new ArrayList<>(targets.keySet());
+            Random random = new Random();
+            schedule = Observable.defer(() -> crash(labels.get(random.nextInt(labels.size())), downtime))
+                    .onErrorReturn(e -> {
+                        logger.warn("Crash failed: {}", e.getMessage());
+                        failedCrashes.incrementAndGet();
+                        restore();
+                        return false;
+                    })
+                    .repeatWhen(done -> done.delay(interval.toMillis(), TimeUnit.MILLISECONDS))
+                    .delaySubscription(interval.toMillis(), TimeUnit.MILLISECONDS, Schedulers.io())
+                    .subscribe();
+            logger.debug("Crashing one of {} for {}s every {}s", labels, downtime.getSeconds(), interval.getSeconds());
+        }
+
+        private Observable<Boolean> crash(String label, Duration downtime) {
+            String id = targets.get(label);
+            Fault fault = new Fault(label);
+            return Observable.fromCallable(() -> {
+                        logger.debug("Stopping {} ({})", label, StringUtils.substring(id, 0, 12));
+                        fault.stoppedAtMillis = elapsed();
+                        down = id;
+                        return id;
+                    })
+                    .flatMap(infraService::stopResource)
+                    .delay(downtime.toMillis(), TimeUnit.MILLISECONDS)
+                    .flatMap(ok -> infraService.startResource(id))
+                    .doOnNext(ok -> fault.restartedAtMillis = elapsed())
+                    .flatMap(ok -> infraService.wait(id))
+                    .doOnNext(ok -> {
+                        fault.upAtMillis = elapsed();
+                        down = null;
+                        faults.add(fault);
+                        logger.debug("{} is up again after {}ms", label, fault.upAtMillis - fault.stoppedAtMillis);
+                    });
+        }
+
+        /**
+         * @return crashes that could not be completed, e.g.: the container failed to stop or start
+         */
+        public int getFailedCrashes() {
+            return failedCrashes.get();
+        }
+
+        private long elapsed() {
+            return System.currentTimeMillis() - origin;
+        }
+
+        // start the container left down by a failed or interrupted crash
+        private void restore() {
+            String id = down;
+            if (id == null) {
+                return;
+            }
+            down = null;
+            logger.debug("Starting {} stopped by an unfinished crash", StringUtils.substring(id, 0, 12));
+            infraService.startResource(id)
+                    .flatMap(ok -> infraService.wait(id))
+                    .onErrorReturn(e -> {
+                        logger.warn("Unable to start {}: {}", StringUtils.substring(id, 0, 12), e.getMessage());
+                        return false;
+                    })
+                    .blockingSubscribe();
+        }
+
+        /**
+         * Stop crashing containers and start the one currently down, if any
+         *
+         * @return crashes completed so far
+         */
+        public List<Fault> stop() {
+            schedule.dispose();
+            restore();
+            synchronized (faults) {
+                return new ArrayList<>(faults);
+            }
+        }
+    }
+
+    /**
+     * Measure each crash against the confirmed transactions of the load that ran during it
+     */
+    public static Report analyze(List<Fault> faults, int failedCrashes, LoadGenerator.Report load) {
+        int[] timeline = load.getConfirmedTimeline();
+        for (Fault f : faults) {
+            int stoppedAt = (int) (f.stoppedAtMillis / 1000);
+            int restartedAt = (int) (f.restartedAtMillis / 1000);
+            f.baselinePerSecond = mean(timeline, stoppedAt - WINDOW_SECONDS, stoppedAt);
+            f.troughPerSecond = f.baselinePerSecond;
+            for (int t = stoppedAt + 1; t <= timeline.length; t++) {
+                double rate = mean(timeline, t - WINDOW_SECONDS, t);
+                f.troughPerSecond = Math.min(f.troughPerSecond, rate);
+                if (t > restartedAt && rate >= RECOVERY_RATIO * f.baselinePerSecond) {
+                    f.recoveryMillis = Math.max(0, t * 1000L - f.restartedAtMillis);
+                    break;
+                }
+            }
+        }
+        return new Report(load, faults, failedCrashes);
+    }
+
+    // mean of the seconds in [from, to)
+    private static double mean(int[] timeline, int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(timeline.length, to);
+        if (to <= from) {
+            return 0;
+        }
+        return Arrays.stream(timeline, from, to).sum() / (double) (to - from);
+    }
+
+    public static class Report {
+        private final LoadGenerator.Report load;
+        private final List<Fault> faults;
+        private final int failedCrashes;
+
+        Report(LoadGenerator.Report load, List<Fault> faults, int failedCrashes) {
+            this.load = load;
+            this.faults = faults;
+            this.failedCrashes = failedCrashes;
+        }
+
+        public LoadGenerator.Report getLoad() {
+            return load;
+        }
+
+        public List<Fault> getFaults() {
+            return faults;
+        }
+
+        public int getFailedCrashes() {
+            return failedCrashes;
+        }
+
+        /**
+         * @return the longest recovery, or empty if there was no crash or the throughput did not recover after some crash
+         */
+        public Optional<Duration> maxRecovery() {
+            if (faults.isEmpty() || faults.stream().anyMatch(f -> f.recoveryMillis == null)) {
+                return Optional.empty();
+            }
+            return Optional.of(Duration.ofMillis(faults.stream().mapToLong(Fault::getRecoveryMillis).max().orElse(0)));
+        }
+
+        public List<String> unrecovered() {
+            return faults.stream().filter(f -> f.recoveryMillis == null).map(Fault::getLabel).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * A crash, times are relative to the start of the load
+     */
+    public static class Fault {
+        private final String label;
+        private long stoppedAtMillis;
+        private long restartedAtMillis;
+        private long upAtMillis;
+        private double baselinePerSecond;
+        private double troughPerSecond;
+        private Long recoveryMillis;
+
+        Fault(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public long getStoppedAtMillis() {
+            return stoppedAtMillis;
+        }
+
+        public long getRestartedAtMillis() {
+            return restartedAtMillis;
+        }
+
+        public long getUpAtMillis() {
+            return upAtMillis;
+        }
+
+        /**
+         * @return confirmed transactions per second just before the crash
+         */
+        public double getBaselinePerSecond() {
+            return baselinePerSecond;
+        }
+
+        /**
+         * @return lowest confirmed transactions per second from the crash until recovery
+         */
+        public double getTroughPerSecond() {
+            return troughPerSecond;
+        }
+
+        /**
+         * @return time from restarting the container until the throughput recovered, {@code null} if it did not
+         */
+        public Long getRecoveryMillis() {
+            return recoveryMillis;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.quorum.gauge.services;
+
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.ext.BatchRequest;
+import com.quorum.gauge.ext.BatchResponse;
+import com.quorum.gauge.ext.ObjectResponse;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.Transaction;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reads contract state from many contracts in many nodes.
+ * <p>
+ * Reads are grouped per node and each group is sent as a single JSON RPC batch of {@code eth_call}.
+ * Batches to different nodes are sent in parallel and responses are decoded off the I/O threads.
+ */
+@Service
+public class ContractReadService extends AbstractService {
+    private static final Logger logger = LoggerFactory.getLogger(ContractReadService.class);
+
+    @Autowired
+    RPCService rpcService;
+
+    public Observable<ReadResults> read(List<ContractRead> reads) {
+        Map<String, List<ContractRead>> readsByNode = reads.stream()
+            .collect(Collectors.groupingBy(r -> r.getNode().getName(), LinkedHashMap::new, Collectors.toList()));
+        return Observable.fromIterable(readsByNode.values())
+            .flatMap(nodeReads -> readFromNode(nodeReads).subscribeOn(Schedulers.io()))
+            .flatMap(pair -> Observable.fromIterable(pair.getResponses())
+                .flatMap(res -> Observable.fromCallable(() -> decode(pair.readOf(res), res)).subscribeOn(Schedulers.computation())))
+            .collect(ReadResults::new, ReadResults::add)
+            .toObservable();
+    }
+
+    /**
+     * Convenient read of the same no-arg uint256 getter (e.g. {@code get()}) from many contracts in many nodes
+     */
+    public Observable<ReadResults> readUint256(List<Node> nodes, List<String> contractAddresses, String methodName) {
+        List<ContractRead> reads = new ArrayList<>();
+        for (Node node : nodes) {
+            for (String address : contractAddresses) {
+                reads.add(ContractRead.uint256(node, address, methodName));
+            }
+        }
+        return read(reads);
+    }
+
+    private Observable<NodeBatch> readFromNode(List<ContractRead> nodeReads) {
+        Node node = nodeReads.get(0).getNode();
+        BatchRequest.Collector collector = BatchRequest.Collector.create();
+        Map<Long, ContractRead> readById = new HashMap<>();
+        for (ContractRead r : nodeReads) {
+            Transaction tx = Transaction.createEthCallTransaction(null, r.getContractAddress(), r.getEncodedFunction());
+            collector.add("eth_call", Arrays.asList(tx, DefaultBlockParameterName.LATEST.getValue()));
+        }
+        List<Request<?, ObjectResponse>> requests = collector.toList();
+        for (int i = 0; i < requests.size(); i++) {
+            readById.put(requests.get(i).getId(), nodeReads.get(i));
+        }
+        logger.debug("Reading {} contract values from {} in a single batch", nodeReads.size(), node.getName());
+        return rpcService.call(node, collector).map(batchResponse -> new NodeBatch(batchResponse, readById));
+    }
+
+    private ReadResult decode(ContractRead read, ObjectResponse res) {
+        if (res.hasError()) {
+            return new ReadResult(read, Collections.emptyList(), res.getError());
+        }
+        String value = String.valueOf(res.getResult());
+        // contract does not exist in the node's state, e.g.: a private contract read from a non-participant
+        if ("0x".equals(value)) {
+            return new ReadResult(read, Collections.emptyList(), null);
+        }
+        return new ReadResult(read, FunctionReturnDecoder.decode(value, read.getFunction().getOutputParameters()), null);
+    }
+
+    private static class NodeBatch {
+        private final BatchResponse batchResponse;
+        private final Map<Long, ContractRead> readById;
+
+        NodeBatch(BatchResponse batchResponse, Map<Long, ContractRead> readById) {
+            this.batchResponse = batchResponse;
+            this.readById = readById;
+        }
+
+        List<ObjectResponse> getResponses() {
+            return batchResponse.getResponses();
+        }
+
+        ContractRead readOf(ObjectResponse res) {
+            return Optional.ofNullable(readById.get(res.getId()))
+                .orElseThrow(() -> new IllegalStateException("no read request for response ID " + res.getId()));
+        }
+    }
+
+    public static class ContractRead {
+        private final Node node;
+        private final String contractAddress;
+        private final Function function;
+        private final String encodedFunction;
+
+        private ContractRead(Node node, String contractAddress, Function function) {
+            this.node = Objects.requireNonNull(node, "node must not be null");
+            this.contractAddress = Objects.requireNonNull(contractAddress, "contract address must not be null");
+            this.function = Objects.requireNonNull(function, "function must not be null");
+            this.encodedFunction = FunctionEncoder.encode(function);
+        }
+
+        public static ContractRead of(Node node, String contractAddress, Function function) {
+            return new ContractRead(node, contractAddress, function);
+        }
+
+        @SuppressWarnings("unchecked")
+        public static ContractRead uint256(Node node, String contractAddress, String methodName) {
+            return new ContractRead(node, contractAddress, new Function(methodName,
+                Collections.emptyList(),
+                Collections.singletonList(new TypeReference<Uint256>() {})));
+        }
+
+        public Node getNode() {
+            return node;
+        }
+
+        public String getContractAddress() {
+            return contractAddress;
+        }
+
+        public Function getFunction() {
+            return function;
+        }
+
+        public String getEncodedFunction() {
+            return encodedFunction;
+        }
+
+        String key() {
+            return contractAddress.toLowerCase() + encodedFunction;
+        }
+    }
+
+    public static class ReadResult {
+        private final ContractRead read;
+        private final List<Type> values;
+        private final Response.Error error;
+
+        ReadResult(ContractRead read, List<Type> values, Response.Error error) {
+            this.read = read;
+            this.values = values;
+            this.error = error;
+        }
+
+        public ContractRead getRead() {
+            return read;
+        }
+
+        public List<Type> getValues() {
+            return values;
+        }
+
+        public Response.Error getError() {
+            return error;
+        }
+
+        public boolean hasError() {
+            return error != null;
+        }
+
+        /**
+         * @return first output value as a number, 0 if the call returns nothing
+         */
+        public BigInteger asBigInteger() {
+            if (hasError()) {
+                throw new RuntimeException("eth_call " + read.getFunction().getName() + " at " + read.getContractAddress()
+                    + " in " + read.getNode().getName() + " failed: " + error.getMessage());
+            }
+            if (values.isEmpty()) {
+                return BigInteger.ZERO;
+            }
+            return (BigInteger) values.get(0).getValue();
+        }
+
+        /**
+         * @return first output value as a boolean, false if the call returns nothing
+         */
+        public boolean asBoolean() {
+            if (hasError()) {
+                throw new RuntimeException("eth_call " + read.getFunction().getName() + " at " + read.getContractAddress()
+                    + " in " + read.getNode().getName() + " failed: " + error.getMessage());
+            }
+            if (values.isEmpty()) {
+                return false;
+            }
+            return (Boolean) values.get(0).getValue();
+        }
+    }
+
+    /**
+     * Results keyed by node name, then by contract address and encoded call data
+     */
+    public static class ReadResults {
+        private final Map<String, Map<String, ReadResult>> results = new LinkedHashMap<>();
+
+        void add(ReadResult result) {
+            results.computeIfAbsent(result.getRead().getNode().getName(), k -> new LinkedHashMap<>())
+                .put(result.getRead().key(), result);
+        }
+
+        public ReadResult get(ContractRead read) {
+            return Optional.ofNullable(results.getOrDefault(read.getNode().getName(), Collections.emptyMap()).get(read.key()))
+                .orElseThrow(() -> new IllegalArgumentException("no read of " + read.getFunction().getName() + " at " + read.getContractAddress() + " in " + read.getNode().getName()));
+        }
+
+        public ReadResult get(String nodeName, String contractAddress, String methodName) {
+            return results.getOrDefault(nodeName, Collections.emptyMap()).values().stream()
+                .filter(r -> r.getRead().getContractAddress().equalsIgnoreCase(contractAddress)
+                    && r.getRead().getFunction().getName().equals(methodName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("no read of " + methodName + " at " + contractAddress + " in " + nodeName));
+        }
+
+        public Map<String, Map<String, ReadResult>> asMap() {
+            return Collections.unmodifiableMap(results);
+        }
+
+        public int size() {
+            return results.values().stream().mapToInt(Map::size).sum();
+        }
+    }
+}
@@ -63,26 +63,46 @@ public class ContractService extends AbstractService {
     AccountService accountService;
 
     public Observable<? extends Contract> createSimpleContract(int initialValue, Node source, Node target) {
-        QuorumNode targetNode = null;
-        if (target != null) {
-            targetNode = QuorumNode.valueOf(target.getName());
-        }
-        return createSimpleContract(initialValue, QuorumNode.valueOf(source.getName()), targetNode, DEFAULT_GAS_LIMIT);
+        return createSimpleContract(initialValue, source, Arrays.asList(target), DEFAULT_GAS_LIMIT, Arrays.asList(PrivacyFlag.Legacy));
     }
 
+    /**
+     * @deprecated use {@link #createSimpleContract(int, Node, Node)}
+     */
+    @Deprecated
     public Observable<? extends Contract> createSimpleContract(int initialValue, QuorumNode source, QuorumNode target) {
-        return createSimpleContract(initialValue, source, target, DEFAULT_GAS_LIMIT);
+        return createSimpleContract(initialValue, networkProperty().getNode(source.name()), networkProperty().getNode(target.name()));
     }
 
-    public Observable<? extends Contract> createSimpleContract(int initialValue, QuorumNode source, QuorumNode target, BigInteger gas) {
+    public Observable<? extends Contract> createSimpleContract(int initialValue, Node source, Node target, BigInteger gas) {
         return createSimpleContract(initialValue, source, Arrays.asList(target), gas, Arrays.asList(PrivacyFlag.Legacy));
     }
 
+    /**
+     * @deprecated use {@link #createSimpleContract(int, Node, Node, BigInteger)}
+     */
+    @Deprecated
+    public Observable<? extends Contract> createSimpleContract(int initialValue, QuorumNode source, QuorumNode target, BigInteger gas) {
+        return createSimpleContract(initialValue, networkProperty().getNode(source.name()), networkProperty().getNode(target.name()), gas);
+    }
+
+    /**
+     * @deprecated use {@link #createSimpleContract(int, Node, List, BigInteger, List)}
+     */
+    @Deprecated
     public Observable<? extends Contract> createSimpleContract(int initialValue, QuorumNode source, List<QuorumNode> targets, BigInteger gas, List<PrivacyFlag> flags) {
+        List<Node> targetNodes = null;
+        if (null != targets) {
+            targetNodes = targets.stream().filter(q -> q != null).map(q -> networkProperty().getNode(q.name())).collect(Collectors.toList());
+        }
+        return createSimpleContract(initialValue, networkProperty().getNode(source.name()), targetNodes, gas, flags);
+    }
+
+    public Observable<? extends Contract> createSimpleContract(int initialValue, Node source, List<Node> targets, BigInteger gas, List<PrivacyFlag> flags) {
         Quorum client = connectionFactory().getConnection(source);
         final List<String> privateFor;
         if (null != targets) {
-            privateFor = targets.stream().filter(q -> q != null).map(q -> privacyService.id(q)).collect(Collectors.toList());
+            privateFor = targets.stream().filter(n -> n != null).map(n -> privacyService.id(n)).collect(Collectors.toList());
         } else {
             privateFor = null;
         }
@@ -106,7 +126,7 @@ public class ContractService extends AbstractService {
 
 
     // Read-only contract
-    public int readSimpleContractValue(QuorumNode node, String contractAddress) {
+    public int readSimpleContractValue(Node node, String contractAddress) {
         Quorum client = connectionFactory().getConnection(node);
         String address;
         try {
@@ -127,18 +147,44 @@ public class ContractService extends AbstractService {
         }
     }
 
-    public Observable<TransactionReceipt> updateSimpleContract(final QuorumNode source, List<QuorumNode> target,
+    /**
+     * @deprecated use {@link #readSimpleContractValue(Node, String)}
+     */
+    @Deprecated
+    public int readSimpleContractValue(QuorumNode node, String contractAddress) {
+        return readSimpleContractValue(networkProperty().getNode(node.name()), contractAddress);
+    }
+
+    public Observable<TransactionReceipt> updateSimpleContract(final Node source, List<Node> target,
                                                                final String contractAddress, final int newValue, List<PrivacyFlag> flags) {
         return this.updateSimpleContractWithGasLimit(source, target, contractAddress, DEFAULT_GAS_LIMIT, newValue, flags);
     }
 
-    public Observable<TransactionReceipt> updateSimpleContract(final QuorumNode source, final QuorumNode target,
+    /**
+     * @deprecated use {@link #updateSimpleContract(Node, List, String, int, List)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> updateSimpleContract(final QuorumNode source, List<QuorumNode> target,
+                                                               final String contractAddress, final int newValue, List<PrivacyFlag> flags) {
+        return updateSimpleContract(networkProperty().getNode(source.name()), target.stream().map(n -> networkProperty().getNode(n.name())).collect(Collectors.toList()), contractAddress, newValue, flags);
+    }
+
+    public Observable<TransactionReceipt> updateSimpleContract(final Node source, final Node target,
                                                                final String contractAddress, final int newValue, List<PrivacyFlag> flags) {
         return this.updateSimpleContractWithGasLimit(source, Arrays.asList(target), contractAddress, DEFAULT_GAS_LIMIT, newValue, flags);
     }
 
-    public Observable<TransactionReceipt> updateSimpleContractWithGasLimit(final QuorumNode source,
-                                                                           final List<QuorumNode> target,
+    /**
+     * @deprecated use {@link #updateSimpleContract(Node, Node, String, int, List)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> updateSimpleContract(final QuorumNode source, final QuorumNode target,
+                                                               final String contractAddress, final int newValue, List<PrivacyFlag> flags) {
+        return updateSimpleContract(networkProperty().getNode(source.name()), networkProperty().getNode(target.name()), contractAddress, newValue, flags);
+    }
+
+    public Observable<TransactionReceipt> updateSimpleContractWithGasLimit(final Node source,
+                                                                           final List<Node> target,
                                                                            final String contractAddress,
                                                                            final BigInteger gasLimit,
                                                                            final int newValue,
@@ -156,7 +202,20 @@ public class ContractService extends AbstractService {
             );
     }
 
-    public Observable<EthStorageRoot> getStorageRoot(QuorumNode node, String contractAddress) {
+    /**
+     * @deprecated use {@link #updateSimpleContractWithGasLimit(Node, List, String, BigInteger, int, List)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> updateSimpleContractWithGasLimit(final QuorumNode source,
+                                                                           final List<QuorumNode> target,
+                                                                           final String contractAddress,
+                                                                           final BigInteger gasLimit,
+                                                                           final int newValue,
+                                                                           final List<PrivacyFlag> flags) {
+        return updateSimpleContractWithGasLimit(networkProperty().getNode(source.name()), target.stream().map(n -> networkProperty().getNode(n.name())).collect(Collectors.toList()), contractAddress, gasLimit, newValue, flags);
+    }
+
+    public Observable<EthStorageRoot> getStorageRoot(Node node, String contractAddress) {
         Request<String, EthStorageRoot> request = new Request<>(
                 "eth_storageRoot",
                 Arrays.asList(contractAddress),
@@ -165,7 +224,23 @@ public class ContractService extends AbstractService {
         return request.flowable().toObservable();
     }
 
+    /**
+     * @deprecated use {@link #getStorageRoot(Node, String)}
+     */
+    @Deprecated
+    public Observable<EthStorageRoot> getStorageRoot(QuorumNode node, String contractAddress) {
+        return getStorageRoot(networkProperty().getNode(node.name()), contractAddress);
+    }
+
+    /**
+     * @deprecated use {@link #createClientReceiptSmartContract(Node)}
+     */
+    @Deprecated
     public Observable<? extends Contract> createClientReceiptSmartContract(QuorumNode node) {
+        return createClientReceiptSmartContract(networkProperty().getNode(node.name()));
+    }
+
+    public Observable<? extends Contract> createClientReceiptSmartContract(Node node) {
         Web3j client = connectionFactory().getWeb3jConnection(node);
         return accountService.getDefaultAccountAddress(node)
                 .flatMap(address -> {
@@ -182,7 +257,7 @@ public class ContractService extends AbstractService {
                 });
     }
 
-    public int readGenericStoreContractGetValue(QuorumNode node, String contractAddress, String contractName, String methodName) {
+    public int readGenericStoreContractGetValue(Node node, String contractAddress, String contractName, String methodName) {
         Quorum client = connectionFactory().getConnection(node);
         String address;
         try {
@@ -239,7 +314,15 @@ public class ContractService extends AbstractService {
         }
     }
 
-    public Observable<TransactionReceipt> setGenericStoreContractSetValue(QuorumNetworkProperty.Node node, String contractAddress, String contractName, String methodName, int value, boolean isPrivate, QuorumNode target) {
+    /**
+     * @deprecated use {@link #readGenericStoreContractGetValue(Node, String, String, String)}
+     */
+    @Deprecated
+    public int readGenericStoreContractGetValue(QuorumNode node, String contractAddress, String contractName, String methodName) {
+        return readGenericStoreContractGetValue(networkProperty().getNode(node.name()), contractAddress, contractName, methodName);
+    }
+
+    public Observable<TransactionReceipt> setGenericStoreContractSetValue(QuorumNetworkProperty.Node node, String contractAddress, String contractName, String methodName, int value, boolean isPrivate, Node target) {
         Quorum client = connectionFactory().getConnection(node);
 
         String fromAddress = accountService.getDefaultAccountAddress(node).blockingFirst();
@@ -311,7 +394,15 @@ public class ContractService extends AbstractService {
         }
     }
 
-    public Observable<? extends Contract> createGenericStoreContract(QuorumNetworkProperty.Node node, String contractName, int initalValue, String dpContractAddress, boolean isPrivate, QuorumNode target) {
+    /**
+     * @deprecated use {@link #setGenericStoreContractSetValue(QuorumNetworkProperty.Node, String, String, String, int, boolean, Node)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> setGenericStoreContractSetValue(QuorumNetworkProperty.Node node, String contractAddress, String contractName, String methodName, int value, boolean isPrivate, QuorumNode target) {
+        return setGenericStoreContractSetValue(node, contractAddress, contractName, methodName, value, isPrivate, networkProperty().getNode(target.name()));
+    }
+
+    public Observable<? extends Contract> createGenericStoreContract(QuorumNetworkProperty.Node node, String contractName, int initalValue, String dpContractAddress, boolean isPrivate, Node target) {
         Quorum client = connectionFactory().getConnection(node);
 
         String fromAddress = accountService.getDefaultAccountAddress(node).blockingFirst();
@@ -356,8 +447,16 @@ public class ContractService extends AbstractService {
         }
     }
 
+    /**
+     * @deprecated use {@link #createGenericStoreContract(QuorumNetworkProperty.Node, String, int, String, boolean, Node)}
+     */
+    @Deprecated
+    public Observable<? extends Contract> createGenericStoreContract(QuorumNetworkProperty.Node node, String contractName, int initalValue, String dpContractAddress, boolean isPrivate, QuorumNode target) {
+        return createGenericStoreContract(node, contractName, initalValue, dpContractAddress, isPrivate, networkProperty().getNode(target.name()));
+    }
 
-    public Observable<? extends Contract> createClientReceiptPrivateSmartContract(QuorumNode source, QuorumNode target) {
+
+    public Observable<? extends Contract> createClientReceiptPrivateSmartContract(Node source, Node target) {
         Quorum client = connectionFactory().getConnection(source);
         return accountService.getDefaultAccountAddress(source).flatMap(address -> {
             ClientTransactionManager clientTransactionManager = new ClientTransactionManager(
@@ -374,7 +473,15 @@ public class ContractService extends AbstractService {
         });
     }
 
-    public Observable<TransactionReceipt> updateClientReceipt(QuorumNode node, String contractAddress, BigInteger value) {
+    /**
+     * @deprecated use {@link #createClientReceiptPrivateSmartContract(Node, Node)}
+     */
+    @Deprecated
+    public Observable<? extends Contract> createClientReceiptPrivateSmartContract(QuorumNode source, QuorumNode target) {
+        return createClientReceiptPrivateSmartContract(networkProperty().getNode(source.name()), networkProperty().getNode(target.name()));
+    }
+
+    public Observable<TransactionReceipt> updateClientReceipt(Node node, String contractAddress, BigInteger value) {
         Web3j client = connectionFactory().getWeb3jConnection(node);
         return accountService.getDefaultAccountAddress(node)
                 .flatMap(address -> {
@@ -388,7 +495,15 @@ public class ContractService extends AbstractService {
                 });
     }
 
-    public Observable<TransactionReceipt> updateClientReceiptPrivate(QuorumNode source, QuorumNode target, String contractAddress, BigInteger value) {
+    /**
+     * @deprecated use {@link #updateClientReceipt(Node, String, BigInteger)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> updateClientReceipt(QuorumNode node, String contractAddress, BigInteger value) {
+        return updateClientReceipt(networkProperty().getNode(node.name()), contractAddress, value);
+    }
+
+    public Observable<TransactionReceipt> updateClientReceiptPrivate(Node source, Node target, String contractAddress, BigInteger value) {
         Quorum client = connectionFactory().getConnection(source);
         return accountService.getDefaultAccountAddress(source).flatMap(address -> {
             ClientTransactionManager txManager = new ClientTransactionManager(
@@ -404,7 +519,15 @@ public class ContractService extends AbstractService {
         });
     }
 
-    public Observable<EthSendTransactionAsync> createClientReceiptContractAsync(int initialValue, QuorumNode source, String sourceAccount, QuorumNode target, String callbackUrl) {
+    /**
+     * @deprecated use {@link #updateClientReceiptPrivate(Node, Node, String, BigInteger)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> updateClientReceiptPrivate(QuorumNode source, QuorumNode target, String contractAddress, BigInteger value) {
+        return updateClientReceiptPrivate(networkProperty().getNode(source.name()), networkProperty().getNode(target.name()), contractAddress, value);
+    }
+
+    public Observable<EthSendTransactionAsync> createClientReceiptContractAsync(int initialValue, Node source, String sourceAccount, Node target, String callbackUrl) {
         InputStream binaryStream = ClientReceipt.class.getResourceAsStream("/com.quorum.gauge.sol/ClientReceipt.bin");
         if (binaryStream == null) {
             throw new IllegalStateException("Can't find resource ClientReceipt.bin");
@@ -437,4 +560,12 @@ public class ContractService extends AbstractService {
                     }
                 });
     }
+
+    /**
+     * @deprecated use {@link #createClientReceiptContractAsync(int, Node, String, Node, String)}
+     */
+    @Deprecated
+    public Observable<EthSendTransactionAsync> createClientReceiptContractAsync(int initialValue, QuorumNode source, String sourceAccount, QuorumNode target, String callbackUrl) {
+        return createClientReceiptContractAsync(initialValue, networkProperty().getNode(source.name()), sourceAccount, networkProperty().getNode(target.name()), callbackUrl);
+    }
 }
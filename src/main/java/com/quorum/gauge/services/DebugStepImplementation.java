@@ -19,22 +19,33 @@
 
 package com.quorum.gauge.services;
 
+import com.quorum.gauge.common.QuorumNetworkProperty;
+import com.quorum.gauge.common.instrumentation.StepMetrics;
 import com.thoughtworks.gauge.Step;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 /**
- * Logging all methods implementing Gauge Step
+ * Logging all methods implementing Gauge Step.
+ * <p>
+ * When instrumentation is enabled, also record timing and resource usage of each step in {@link StepMetrics}
  */
 @Aspect
 @Service
 public class DebugStepImplementation {
     private static final Logger logger = LoggerFactory.getLogger(DebugStepImplementation.class);
 
+    @Autowired
+    QuorumNetworkProperty networkProperty;
+
+    @Autowired
+    StepMetrics stepMetrics;
+
     @Around("@annotation(step)")
     public Object logging(ProceedingJoinPoint jp, Step step) throws Throwable {
         if (logger.isDebugEnabled()) {
@@ -49,6 +60,17 @@ public class DebugStepImplementation {
             String methodName = jp.getSignature().getName();
             LoggerFactory.getLogger(clazzName).debug("{}::{}({})", step.value(), methodName, argStr);
         }
-        return jp.proceed();
+        if (!networkProperty.getInstrumentation().isEnabled()) {
+            return jp.proceed();
+        }
+        StepMetrics.Sample start = stepMetrics.start();
+        boolean failed = true;
+        try {
+            Object result = jp.proceed();
+            failed = false;
+            return result;
+        } finally {
+            stepMetrics.record(step.value()[0], start, failed);
+        }
     }
 }
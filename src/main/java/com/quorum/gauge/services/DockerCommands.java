@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.CreateContainerCmd;
+import com.github.dockerjava.api.command.ExecCreateCmdResponse;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.command.WaitContainerResultCallback;
+import com.github.dockerjava.api.exception.NotModifiedException;
+import com.github.dockerjava.api.model.Capability;
+import com.github.dockerjava.api.model.ContainerNetwork;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.HostConfig;
+import com.quorum.gauge.common.instrumentation.DockerOperationEvent;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Non-blocking facade over the Docker commands used to manage containers.
+ * <p>
+ * docker-java commands block until the Docker engine responds, so they run on a scheduler sized to the transport
+ * connection pool: callers don't tie up {@code Schedulers.io()} threads and requests don't queue inside the HTTP client.
+ * Exec completes from the Docker callback without holding a thread.
+ */
+public class DockerCommands {
+    private static final Logger logger = LoggerFactory.getLogger(DockerCommands.class);
+
+    private final DockerClient dockerClient;
+    private final Scheduler scheduler;
+
+    public DockerCommands(DockerClient dockerClient, Scheduler scheduler) {
+        this.dockerClient = dockerClient;
+        this.scheduler = scheduler;
+    }
+
+    public Single<InspectContainerResponse> inspect(String containerId) {
+        return call("inspect", containerId, () -> dockerClient.inspectContainerCmd(containerId).exec());
+    }
+
+    /**
+     * @param configure sets the container configuration on the create command
+     * @return ID of the new container
+     */
+    public Single<String> create(String image, UnaryOperator<CreateContainerCmd> configure) {
+        return call("create", image, () -> configure.apply(dockerClient.createContainerCmd(image)).exec().getId());
+    }
+
+    /**
+     * Inspect the container every {@code interval}, up to {@code maxAttempts} times, until it is healthy or not running.
+     * Attempts are timers on the Docker scheduler, no thread is held in between.
+     *
+     * @return the first state which is healthy or not running, otherwise the last state
+     */
+    public Single<DockerInfrastructureService.BasicContainerState> awaitHealthy(String containerId, Duration interval, int maxAttempts) {
+        return Observable.interval(0, interval.toMillis(), TimeUnit.MILLISECONDS, scheduler)
+                .take(maxAttempts)
+                .concatMapSingle(attempt -> inspect(containerId)
+                        .map(DockerInfrastructureService.BasicContainerState::new)
+                        .doOnSuccess(state -> logger.debug("Waiting attempt {} for container {}({}), status = {}, health = {}",
+                                attempt + 1, state.getContainerName(), StringUtils.substring(containerId, 0, 12), state.getStatus(), state.getHealthStatus())))
+                .takeUntil(state -> state.isDead() || !state.isOnGoing())
+                .lastOrError();
+    }
+
+    public Completable start(String containerId) {
+        return run("start", containerId, () -> dockerClient.startContainerCmd(containerId).exec());
+    }
+
+    /**
+     * Stop with Docker's default grace period
+     */
+    public Completable stop(String containerId) {
+        return run("stop", containerId, () -> {
+            try {
+                dockerClient.stopContainerCmd(containerId).exec();
+            } catch (NotModifiedException e) {
+                // already stopped
+            }
+        });
+    }
+
+    /**
+     * @param timeoutSeconds before the container is killed. Completes if the container is already stopped
+     */
+    public Completable stop(String containerId, int timeoutSeconds) {
+        return run("stop", containerId, () -> {
+            try {
+                dockerClient.stopContainerCmd(containerId).withTimeout(timeoutSeconds).exec();
+            } catch (NotModifiedException e) {
+                // already stopped
+            }
+        });
+    }
+
+    public Completable restart(String containerId) {
+        return run("restart", containerId, () -> dockerClient.restartContainerCmd(containerId).exec());
+    }
+
+    /**
+     * @param force kill the container if it's running
+     */
+    public Completable remove(String containerId, boolean force) {
+        return run("remove", containerId, () -> dockerClient.removeContainerCmd(containerId).withForce(force).exec());
+    }
+
+    public Completable disconnect(String containerId, String networkId) {
+        return run("network-disconnect", containerId, () -> dockerClient.disconnectFromNetworkCmd()
+                .withContainerId(containerId)
+                .withNetworkId(networkId)
+                .withForce(true)
+                .exec());
+    }
+
+    public Completable connect(String containerId, String networkId, ContainerNetwork endpoint) {
+        return run("network-connect", containerId, () -> dockerClient.connectToNetworkCmd()
+                .withContainerId(containerId)
+                .withNetworkId(networkId)
+                .withContainerNetwork(endpoint)
+                .exec());
+    }
+
+    /**
+     * Run the command in the container
+     *
+     * @return stdout and stderr of the command, error if the command exits with non-zero code
+     */
+    public Single<String> exec(String containerId, String... cmd) {
+        return call("exec-create", containerId, () -> dockerClient.execCreateCmd(containerId)
+                .withCmd(cmd)
+                .withAttachStdout(true)
+                .withAttachStderr(true)
+                .exec())
+                .map(ExecCreateCmdResponse::getId)
+                .flatMap(execId -> Single.<String>create(emitter -> {
+                    StringBuilder output = new StringBuilder();
+                    DockerOperationEvent event = new DockerOperationEvent();
+                    event.begin();
+                    ResultCallback.Adapter<Frame> callback = dockerClient.execStartCmd(execId).exec(new ResultCallback.Adapter<>() {
+                        @Override
+                        public void onNext(Frame frame) {
+                            output.append(new String(frame.getPayload(), StandardCharsets.UTF_8));
+                        }
+
+                        @Override
+                        public void onError(Throwable throwable) {
+                            commit(event, "exec-start", containerId, true);
+                            emitter.tryOnError(throwable);
+                        }
+
+                        @Override
+                        public void onComplete() {
+                            commit(event, "exec-start", containerId, false);
+                            Long exitCode = dockerClient.inspectExecCmd(execId).exec().getExitCodeLong();
+                            if (exitCode != null && exitCode != 0) {
+                                emitter.tryOnError(new RuntimeException("'" + String.join(" ", cmd) + "' exited with " + exitCode + ": " + output.toString().trim()));
+                            } else {
+                                emitter.onSuccess(output.toString());
+                            }
+                        }
+                    });
+                    emitter.setCancellable(callback::close);
+                }).subscribeOn(scheduler));
+    }
+
+    /**
+     * Run {@code cmd} in a throwaway container sharing the network stack of {@code containerId}, with {@code NET_ADMIN}
+     * so that the network of the container can be changed without the tools or the capability in its image.
+     *
+     * @return output of the command, errors if it exits with non zero
+     */
+    public Single<String> runInNetworkOf(String containerId, String image, String... cmd) {
+        return create(image, c -> c
+                .withEntrypoint(cmd)
+                .withHostConfig(HostConfig.newHostConfig()
+                        .withNetworkMode("container:" + containerId)
+                        .withCapAdd(Capability.NET_ADMIN)))
+                .flatMap(sidecarId -> call("sidecar-run", containerId, () -> {
+                    dockerClient.startContainerCmd(sidecarId).exec();
+                    int exitCode = dockerClient.waitContainerCmd(sidecarId).exec(new WaitContainerResultCallback()).awaitStatusCode();
+                    StringBuilder output = new StringBuilder();
+                    try {
+                        dockerClient.logContainerCmd(sidecarId)
+                                .withStdOut(true)
+                                .withStdErr(true)
+                                .exec(new ResultCallback.Adapter<Frame>() {
+                                    @Override
+                                    public void onNext(Frame frame) {
+                                        output.append(new String(frame.getPayload(), StandardCharsets.UTF_8));
+                                    }
+                                }).awaitCompletion();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (exitCode != 0) {
+                        throw new RuntimeException("'" + String.join(" ", cmd) + "' exited with " + exitCode + ": " + output.toString().trim());
+                    }
+                    return output.toString();
+                }).doFinally(() -> remove(sidecarId, true).onErrorComplete().subscribe()));
+    }
+
+    /**
+     * @param tar archive extracted into {@code remoteDir}
+     */
+    public Completable copyTo(String containerId, String remoteDir, InputStream tar) {
+        return run("copy-to", containerId, () -> dockerClient.copyArchiveToContainerCmd(containerId)
+                .withTarInputStream(tar)
+                .withRemotePath(remoteDir)
+                .exec());
+    }
+
+    /**
+     * @return tar archive of {@code path}, caller must close it
+     */
+    public Single<InputStream> copyFrom(String containerId, String path) {
+        return call("copy-from", containerId, () -> dockerClient.copyArchiveFromContainerCmd(containerId, path).exec());
+    }
+
+    private <T> Single<T> call(String operation, String containerId, Supplier<T> call) {
+        return Single.fromCallable(() -> traced(operation, containerId, call)).subscribeOn(scheduler);
+    }
+
+    private Completable run(String operation, String containerId, Runnable call) {
+        return Completable.fromAction(() -> traced(operation, containerId, () -> {
+            call.run();
+            return true;
+        })).subscribeOn(scheduler);
+    }
+
+    /**
+     * Record the call to the Docker engine as a {@link DockerOperationEvent}
+     */
+    static <T> T traced(String operation, String containerId, Supplier<T> call) {
+        DockerOperationEvent event = new DockerOperationEvent();
+        event.begin();
+        boolean failed = false;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            commit(event, operation, containerId, failed);
+        }
+    }
+
+    private static void commit(DockerOperationEvent event, String operation, String containerId, boolean failed) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.containerId = StringUtils.substring(containerId, 0, 12);
+            event.failed = failed;
+            event.commit();
+        }
+    }
+}
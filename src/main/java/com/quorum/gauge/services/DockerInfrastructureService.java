@@ -21,9 +21,10 @@ package com.quorum.gauge.services;
 
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
-import com.github.dockerjava.api.command.CreateContainerResponse;
 import com.github.dockerjava.api.command.HealthState;
 import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.command.PullImageResultCallback;
+import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.model.*;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientImpl;
@@ -33,7 +34,9 @@ import com.google.common.collect.ImmutableMap;
 import com.quorum.gauge.common.GethArgBuilder;
 import com.quorum.gauge.common.QuorumNetworkProperty;
 import com.quorum.gauge.common.QuorumNetworkProperty.DockerInfrastructureProperty.DockerContainerProperty;
+import io.reactivex.Completable;
 import io.reactivex.Observable;
+import io.reactivex.Single;
 import io.reactivex.schedulers.Schedulers;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
@@ -49,10 +52,19 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import java.io.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Using Docker to manage the Quorum Network infrastructure if quorum.docker-infrastructure.enabled is true
@@ -64,10 +76,24 @@ public class DockerInfrastructureService
         implements InfrastructureService, InitializingBean, DisposableBean {
     private static final Logger logger = LoggerFactory.getLogger(DockerInfrastructureService.class);
 
+    // containers deleted in parallel, more makes the Docker engine the bottleneck
+    private static final int TEARDOWN_CONCURRENCY = 8;
+    // a node container is expected to be healthy within 90 seconds
+    private static final Duration HEALTH_CHECK_INTERVAL = Duration.ofSeconds(3);
+    private static final int HEALTH_CHECK_ATTEMPTS = 30;
+
     private Map<String, QuorumImageConfig> quorumDockerImageCatalog = new HashMap<>();
     private Map<String, String> tesseraDockerImageCatalog = new HashMap<>();
     private QuorumNetworkProperty.DockerInfrastructureProperty infraProperty;
     private DockerClient dockerClient;
+    private ExecutorService dockerExecutor;
+    private DockerCommands commands;
+    // pulls are shared so that a node start waits for the pre-warm pull of the same image
+    private final ConcurrentMap<String, Observable<String>> imagePulls = new ConcurrentHashMap<>();
+    // networks of disconnected containers, to reconnect them with the same addresses
+    private final ConcurrentMap<String, Map<String, ContainerNetwork>> disconnectedNetworks = new ConcurrentHashMap<>();
+    // templates are never modified during the run
+    private final ConcurrentMap<String, InspectContainerResponse> templates = new ConcurrentHashMap<>();
 
     @Override
     public void afterPropertiesSet() throws Exception {
@@ -77,11 +103,28 @@ public class DockerInfrastructureService
         }
         DefaultDockerClientConfig config = configBuilder.build();
         infraProperty = networkProperty().getDockerInfrastructure();
-        DockerHttpClient httpClient = new ApacheDockerHttpClient.Builder()
+        ApacheDockerHttpClient.Builder httpClientBuilder = new ApacheDockerHttpClient.Builder()
                 .dockerHost(config.getDockerHost())
                 .sslConfig(config.getSSLConfig())
-                .build();
+                .maxConnections(infraProperty.getMaxConnections())
+                .connectionTimeout(infraProperty.getConnectionTimeout());
+        if (infraProperty.getResponseTimeout() != null) {
+            httpClientBuilder.responseTimeout(infraProperty.getResponseTimeout());
+        }
+        DockerHttpClient httpClient = httpClientBuilder.build();
         dockerClient = DockerClientImpl.getInstance(config, httpClient);
+        // one thread per connection so commands never wait for a connection while holding a thread
+        dockerExecutor = Executors.newFixedThreadPool(infraProperty.getMaxConnections(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "docker-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        commands = new DockerCommands(dockerClient, Schedulers.from(dockerExecutor));
         quorumDockerImageCatalog = ImmutableMap.of(
         "v2.5.0", new QuorumImageConfig("quorumengineering/quorum:2.5.0", GethArgBuilder.newBuilder()),
         "latest", new QuorumImageConfig("quorumengineering/quorum:latest", GethArgBuilder.newBuilder().allowInsecureUnlock(true))
@@ -110,34 +153,97 @@ public class DockerInfrastructureService
         }
         String tesseraImage = tesseraDockerImageCatalog.getOrDefault(attributes.getTesseraVersionKey(), "");
         return Observable.zip(
-                startContainerFromTemplate(p.getQuorumContainerId(), attributes, quorumImage, callback).subscribeOn(Schedulers.io()),
-                startContainerFromTemplate(p.getTesseraContainerId(), attributes, tesseraImage, callback).subscribeOn(Schedulers.io()),
+                startContainerFromTemplate(p.getQuorumContainerId(), attributes, quorumImage, callback),
+                startContainerFromTemplate(p.getTesseraContainerId(), attributes, tesseraImage, callback),
                 (q, t) -> q && t);
     }
 
+    /**
+     * Pull all images in the catalogs and inspect all template containers concurrently
+     */
+    @Override
+    public Observable<Boolean> prewarm() {
+        long start = System.nanoTime();
+        Set<String> images = new LinkedHashSet<>();
+        quorumDockerImageCatalog.values().forEach(c -> images.add(c.getImage()));
+        images.addAll(tesseraDockerImageCatalog.values());
+        List<String> templateIds = infraProperty.getNodes().values().stream()
+                .flatMap(p -> Stream.of(p.getQuorumContainerId(), p.getTesseraContainerId()))
+                .filter(StringUtils::isNotBlank)
+                .collect(Collectors.toList());
+        return Observable.merge(
+                Observable.fromIterable(images).flatMap(this::pullImage),
+                Observable.fromIterable(templateIds).flatMap(id -> inspectTemplate(id).map(InspectContainerResponse::getId).toObservable()))
+                .toList()
+                .doOnSuccess(done -> logger.info("Pre-warmed {} images and {} templates in {}ms", images.size(), templateIds.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)))
+                .map(done -> true)
+                .toObservable();
+    }
+
+    private Observable<String> pullImage(String image) {
+        return imagePulls.computeIfAbsent(image, img -> Observable.fromCallable(() -> {
+            try {
+                traced("inspect-image", img, () -> dockerClient.inspectImageCmd(img).exec());
+                logger.debug("Image {} is available", img);
+            } catch (NotFoundException e) {
+                logger.debug("Pulling image {}", img);
+                long start = System.nanoTime();
+                traced("pull", img, () -> dockerClient.pullImageCmd(img).exec(new PullImageResultCallback()))
+                        .awaitCompletion();
+                logger.info("Pulled image {} in {}ms", img, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            return img;
+        })
+                .doOnError(e -> imagePulls.remove(img))
+                .subscribeOn(Schedulers.io())
+                .cache());
+    }
+
+    private Single<InspectContainerResponse> inspectTemplate(String templateContainerId) {
+        return Single.defer(() -> {
+            InspectContainerResponse cached = templates.get(templateContainerId);
+            if (cached != null) {
+                return Single.just(cached);
+            }
+            return commands.inspect(templateContainerId).doOnSuccess(res -> templates.putIfAbsent(templateContainerId, res));
+        });
+    }
+
     @Override
     public Observable<Boolean> deleteResources(List<String> resourceIds) {
         return Observable.fromIterable(resourceIds)
-                .doOnNext(id -> logger.debug("Deleting container {}", StringUtils.substring(id, 0, 12)))
-                .map(id -> {
-                    dockerClient.stopContainerCmd(id).exec();
-                    dockerClient.removeContainerCmd(id).exec();
-                    return true;
-                });
+                .flatMap(this::deleteContainer, TEARDOWN_CONCURRENCY);
     }
 
+    /**
+     * Containers of all nodes are stopped and removed concurrently
+     */
     @Override
     public Observable<Boolean> deleteNetwork(NetworkResources networkResources) {
         if (CollectionUtils.isEmpty(networkResources)) {
             return Observable.just(true);
         }
-        return Observable.zip(
-                Observable.fromIterable(networkResources.getNodeNames())
-                        .doOnNext(node -> logger.debug("Cleaning up resources for node {}, resources={}", node, networkResources.get(node)))
-                        .map(networkResources::get)
-                        .map(r -> deleteResources(r).subscribeOn(Schedulers.io()))
-                        .toList().blockingGet()
-                , oks -> true);
+        logger.debug("Cleaning up resources {}", networkResources);
+        long start = System.nanoTime();
+        return deleteResources(networkResources.allResourceIds())
+                .toList()
+                .doOnSuccess(oks -> logger.info("Deleted {} containers in {}ms", oks.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)))
+                .map(oks -> true)
+                .toObservable();
+    }
+
+    private Observable<Boolean> deleteContainer(String containerId) {
+        String shortId = StringUtils.substring(containerId, 0, 12);
+        long stopTimeout = infraProperty.getStopTimeout().getSeconds();
+        return Observable.defer(() -> {
+            long start = System.nanoTime();
+            Completable stop = stopTimeout > 0 ? commands.stop(containerId, (int) stopTimeout) : Completable.complete();
+            return stop
+                    // force kills the container if it's still running
+                    .andThen(commands.remove(containerId, true))
+                    .doOnComplete(() -> logger.debug("Deleted container {} in {}ms", shortId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)))
+                    .andThen(Observable.just(true));
+        });
     }
 
     @Override
@@ -146,7 +252,7 @@ public class DockerInfrastructureService
                 .map(networkResources::get)
                 .flatMapIterable(ids -> ids)
                 .map(id ->
-                        Observable.just(dockerClient.inspectContainerCmd(id).exec())
+                        commands.inspect(id)
                                 .map(res -> {
                                     int status = STATUS_RUNNING | STATUS_HEALTHY;
                                     if (!StringUtils.equalsIgnoreCase("running", res.getState().getStatus())) {
@@ -158,7 +264,7 @@ public class DockerInfrastructureService
                                     logger.debug("Container {}: status={}", res.getName(), status);
                                     return status;
                                 })
-                                .subscribeOn(Schedulers.io()))
+                                .toObservable())
                 .toList().blockingGet()
                 , statuses -> Arrays.stream(statuses).mapToInt(s -> (int) s).reduce(STATUS_RUNNING | STATUS_HEALTHY, (a, b) -> a & b)
         );
@@ -182,13 +288,8 @@ public class DockerInfrastructureService
             baos.close();
             is = new ByteArrayInputStream(baos.toByteArray());
             return is;
-        }).map(inputStr -> {
-            dockerClient.copyArchiveToContainerCmd(resourceId)
-                .withTarInputStream(inputStr)
-                .withRemotePath(new File(filePath).getParent())
-                .exec();
-            return resourceId;
-        });
+        }).flatMap(inputStr -> commands.copyTo(resourceId, new File(filePath).getParent(), inputStr)
+                .andThen(Observable.just(resourceId)));
     }
 
     /**
@@ -201,7 +302,7 @@ public class DockerInfrastructureService
      */
     @Override
     public Observable<String> modifyFile(String resourceId, String filePath, FileContentModifier modifier) {
-        return Observable.just(dockerClient.copyArchiveFromContainerCmd(resourceId, filePath).exec())
+        return commands.copyFrom(resourceId, filePath).toObservable()
                 .map(is -> {
                     StringWriter writer = new StringWriter();
                     TarArchiveInputStream tis = new TarArchiveInputStream(is);
@@ -231,25 +332,22 @@ public class DockerInfrastructureService
                     baos.close();
                     return new ByteArrayInputStream(baos.toByteArray());
                 })
-                .map(is -> {
-                    dockerClient.copyArchiveToContainerCmd(resourceId)
-                            .withTarInputStream(is)
-                            .withRemotePath(new File(filePath).getParent())
-                            .exec();
-                    return resourceId;
-                });
+                .flatMap(is -> commands.copyTo(resourceId, new File(filePath).getParent(), is)
+                        .andThen(Observable.just(resourceId)));
     }
 
     @Override
     public Observable<Boolean> isGeth(String resourceId) {
-        return Observable.just(dockerClient.inspectContainerCmd(resourceId).exec())
+        return commands.inspect(resourceId).toObservable()
                 .map(InspectContainerResponse::getConfig)
                 .map(ContainerConfig::getLabels)
                 .map(l -> l.containsKey("QuorumContainer"));
     }
 
     /**
-     * Datadir in docker network is {@code /data/qdata}
+     * Datadir in docker network is {@code /data/qdata}, it's deleted in all Quorum containers concurrently.
+     * Datadirs live in volumes shared with the template containers so the volumes themselves can't be removed.
+     *
      * @param networkResources
      * @return
      */
@@ -258,50 +356,44 @@ public class DockerInfrastructureService
         if (CollectionUtils.isEmpty(networkResources)) {
             return Observable.just(true);
         }
+        long start = System.nanoTime();
         return Observable.fromIterable(networkResources.allResourceIds())
-                .filter(containerId -> this.isGeth(containerId).blockingFirst())
-                .doOnNext(id -> logger.debug("Deleting datadir in container {}", StringUtils.substring(id, 0, 12)))
-                .map(containerId -> dockerClient.execCreateCmd(containerId)
-                        .withCmd("rm", "-rf", "/data/qdata")
-                        .exec())
-                .map(execCreateCmdResponse -> dockerClient.execStartCmd(execCreateCmdResponse.getId())
-                        .withDetach(true)
-                        .exec(new ResultCallback.Adapter<>())
-                        .awaitCompletion())
-                .map(x -> true)
-                .doOnComplete(() -> {
-                    logger.debug("Datadir deletion completed");
-                });
+                .flatMap(containerId -> isGeth(containerId)
+                        .filter(isGeth -> isGeth)
+                        .flatMap(isGeth -> deleteDatadir(containerId)), TEARDOWN_CONCURRENCY)
+                .toList()
+                .doOnSuccess(deleted -> logger.info("Deleted {} datadirs in {}ms", deleted.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)))
+                .map(deleted -> true)
+                .toObservable();
+    }
+
+    private Observable<Boolean> deleteDatadir(String containerId) {
+        logger.debug("Deleting datadir in container {}", StringUtils.substring(containerId, 0, 12));
+        return commands.exec(containerId, "rm", "-rf", "/data/qdata")
+                .map(output -> true)
+                .toObservable();
     }
 
     @Override
     public Observable<Boolean> stopResource(String resourceId) {
         return Observable.just(resourceId)
                 .doOnNext(id -> logger.debug("Stopping container {}", StringUtils.substring(id, 0, 12)))
-                .map(id -> {
-                    dockerClient.stopContainerCmd(id).exec();
-                    return true;
-                });
+                // graceful as nodes are started again on the same datadir
+                .flatMap(id -> commands.stop(id).andThen(Observable.just(true)));
     }
 
     @Override
     public Observable<Boolean> startResource(String resourceId) {
         return Observable.just(resourceId)
                 .doOnNext(id -> logger.debug("Starting container {}", StringUtils.substring(id, 0, 12)))
-                .map(id -> {
-                    dockerClient.startContainerCmd(id).exec();
-                    return true;
-                });
+                .flatMap(id -> commands.start(id).andThen(Observable.just(true)));
     }
 
     @Override
     public Observable<Boolean> restartResource(String resourceId) {
         return Observable.just(resourceId)
             .doOnNext(id -> logger.debug("Restarting container {}", StringUtils.substring(id, 0, 12)))
-            .map(id -> {
-                dockerClient.restartContainerCmd(id).exec();
-                return true;
-            });
+            .flatMap(id -> commands.restart(id).andThen(Observable.just(true)));
     }
 
     /**
@@ -312,21 +404,9 @@ public class DockerInfrastructureService
      */
     @Override
     public Observable<Boolean> wait(String resourceId) {
-       return Observable.just(resourceId)
-               .map(id -> {
-                   for (int i = 1; i <= 30; i++) {
-                       BasicContainerState state = new BasicContainerState(dockerClient.inspectContainerCmd(id).exec());
-                       logger.debug("Waiting attempt {} for container {}({}), status = {}, health = {}", i, state.getContainerName(), StringUtils.substring(state.getContainerId(), 0, 12), state.getStatus(), state.getHealthStatus());
-                       if (state.isDead()) {
-                          return false;
-                       } else if (!state.isOnGoing()) {
-                           return true;
-                       } else {
-                           Thread.sleep(3000);
-                       }
-                   }
-                   return true;
-               });
+        return commands.awaitHealthy(resourceId, HEALTH_CHECK_INTERVAL, HEALTH_CHECK_ATTEMPTS)
+                .map(state -> !state.isDead())
+                .toObservable();
     }
 
     @Override
@@ -349,10 +429,163 @@ public class DockerInfrastructureService
                 );
     }
 
+    /**
+     * Docker streams stats of a running container every second.
+     * CPU usage is derived the same way as {@code docker stats} from the delta with the previous reading.
+     */
+    @Override
+    public Observable<ResourceUsage> streamResourceUsage(String resourceId) {
+        // limits come from the container configuration, stats report the host's memory when unlimited
+        return commands.inspect(resourceId).toObservable().flatMap(res -> Observable.<ResourceUsage>create(emitter -> {
+            HostConfig hostConfig = res.getHostConfig();
+            double cpuLimitPercent = cpuLimitPercent(hostConfig);
+            long memoryLimitBytes = Optional.ofNullable(hostConfig.getMemory()).orElse(0L);
+            ResultCallback.Adapter<Statistics> callback = dockerClient.statsCmd(resourceId).exec(new ResultCallback.Adapter<>() {
+                @Override
+                public void onNext(Statistics stats) {
+                    emitter.onNext(toResourceUsage(resourceId, stats, cpuLimitPercent, memoryLimitBytes));
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    emitter.tryOnError(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    emitter.onComplete();
+                }
+            });
+            emitter.setCancellable(callback::close);
+        }).subscribeOn(Schedulers.io()));
+    }
+
+    /**
+     * @return 100 per CPU allowed by {@code --cpus} or {@code --cpu-quota}, 0 if unlimited
+     */
+    private static double cpuLimitPercent(HostConfig hostConfig) {
+        long nanoCpus = Optional.ofNullable(hostConfig.getNanoCPUs()).orElse(0L);
+        if (nanoCpus > 0) {
+            return 100.0 * nanoCpus / 1_000_000_000L;
+        }
+        long quota = Optional.ofNullable(hostConfig.getCpuQuota()).orElse(0L);
+        if (quota > 0) {
+            long period = Optional.ofNullable(hostConfig.getCpuPeriod()).filter(p -> p > 0).orElse(100_000L);
+            return 100.0 * quota / period;
+        }
+        return 0;
+    }
+
+    private static ResourceUsage toResourceUsage(String resourceId, Statistics stats, double cpuLimitPercent, long memoryLimitBytes) {
+        CpuStatsConfig cpu = stats.getCpuStats();
+        CpuStatsConfig preCpu = stats.getPreCpuStats();
+        long onlineCpus = Optional.ofNullable(cpu.getOnlineCpus()).orElse(1L);
+        double cpuPercent = 0;
+        if (preCpu != null && preCpu.getCpuUsage() != null && preCpu.getSystemCpuUsage() != null) {
+            long cpuDelta = cpu.getCpuUsage().getTotalUsage() - preCpu.getCpuUsage().getTotalUsage();
+            long systemDelta = cpu.getSystemCpuUsage() - preCpu.getSystemCpuUsage();
+            if (cpuDelta > 0 && systemDelta > 0) {
+                cpuPercent = 100.0 * onlineCpus * cpuDelta / systemDelta;
+            }
+        }
+        MemoryStatsConfig memory = stats.getMemoryStats();
+        long rx = 0, tx = 0;
+        if (stats.getNetworks() != null) {
+            for (StatisticNetworksConfig n : stats.getNetworks().values()) {
+                rx += Optional.ofNullable(n.getRxBytes()).orElse(0L);
+                tx += Optional.ofNullable(n.getTxBytes()).orElse(0L);
+            }
+        }
+        long read = 0, write = 0;
+        if (stats.getBlkioStats() != null && stats.getBlkioStats().getIoServiceBytesRecursive() != null) {
+            for (BlkioStatEntry e : stats.getBlkioStats().getIoServiceBytesRecursive()) {
+                if (StringUtils.equalsIgnoreCase("read", e.getOp())) {
+                    read += e.getValue();
+                } else if (StringUtils.equalsIgnoreCase("write", e.getOp())) {
+                    write += e.getValue();
+                }
+            }
+        }
+        return new ResourceUsage(
+                resourceId,
+                System.currentTimeMillis(),
+                cpuPercent,
+                // without limit the container can use all CPUs of the host
+                cpuLimitPercent > 0 ? cpuLimitPercent : 100.0 * onlineCpus,
+                Optional.ofNullable(memory.getUsage()).orElse(0L),
+                memoryLimitBytes,
+                rx, tx, read, write);
+    }
+
+    @Override
+    public Observable<Boolean> disconnectFromNetwork(String resourceId) {
+        return commands.inspect(resourceId)
+                .flatMapCompletable(res -> {
+                    Map<String, ContainerNetwork> networks = res.getNetworkSettings().getNetworks();
+                    if (networks == null || networks.isEmpty()) {
+                        // already disconnected, keep the networks saved then
+                        logger.debug("Container {} is not connected to any network", res.getName());
+                        return Completable.complete();
+                    }
+                    logger.debug("Disconnecting container {} from {}", res.getName(), networks.keySet());
+                    disconnectedNetworks.putIfAbsent(resourceId, networks);
+                    return Completable.merge(networks.keySet().stream()
+                            .map(network -> commands.disconnect(resourceId, network))
+                            .collect(Collectors.toList()));
+                })
+                .andThen(Observable.just(true));
+    }
+
+    @Override
+    public Observable<Boolean> reconnectToNetwork(String resourceId) {
+        return Observable.defer(() -> {
+            Map<String, ContainerNetwork> networks = disconnectedNetworks.remove(resourceId);
+            if (networks == null) {
+                return Observable.just(false);
+            }
+            logger.debug("Reconnecting container {} to {}", StringUtils.substring(resourceId, 0, 12), networks.keySet());
+            return Completable.merge(networks.entrySet().stream()
+                    .map(e -> commands.connect(resourceId, e.getKey(), new ContainerNetwork()
+                            .withIpamConfig(e.getValue().getIpamConfig())
+                            .withAliases(e.getValue().getAliases())))
+                    .collect(Collectors.toList()))
+                    .andThen(Observable.just(true));
+        });
+    }
+
+    /**
+     * {@code tc} runs from {@link QuorumNetworkProperty.DockerInfrastructureProperty#getTrafficControlImage()} in the network namespace
+     * of the container. Traffic of the container's {@code eth0} interface is affected.
+     */
+    @Override
+    public Observable<Boolean> applyNetworkCondition(String resourceId, NetworkCondition condition) {
+        List<String> cmd = new ArrayList<>(Arrays.asList("tc", "qdisc", "replace", "dev", "eth0", "root", "netem"));
+        cmd.addAll(condition.toNetemArgs());
+        logger.debug("Applying '{}' to container {}", condition, StringUtils.substring(resourceId, 0, 12));
+        return trafficControl(resourceId, cmd.toArray(new String[0]))
+                .map(output -> true)
+                .toObservable();
+    }
+
+    @Override
+    public Observable<Boolean> clearNetworkCondition(String resourceId) {
+        return trafficControl(resourceId, "tc", "qdisc", "del", "dev", "eth0", "root")
+                .map(output -> true)
+                // there was no condition
+                .onErrorResumeNext(e -> StringUtils.contains(e.getMessage(), "No such file") || StringUtils.contains(e.getMessage(), "handle of zero")
+                        ? Single.just(true) : Single.error(e))
+                .toObservable();
+    }
+
+    private Single<String> trafficControl(String resourceId, String... cmd) {
+        String image = infraProperty.getTrafficControlImage();
+        return pullImage(image).singleOrError()
+                .flatMap(img -> commands.runInNetworkOf(resourceId, img, cmd));
+    }
+
     private Observable<Boolean> startContainerFromTemplate(String templateContainerId, NodeAttributes attr, String image, ResourceCreationCallback callback) {
-        return Observable.just(templateContainerId)
-                .map(id -> {
-                    InspectContainerResponse res = dockerClient.inspectContainerCmd(id).exec();
+        return inspectTemplate(templateContainerId)
+                .flatMap(res -> {
                     if (!StringUtils.equalsIgnoreCase("created", res.getState().getStatus())) {
                         throw new IllegalStateException("Container " + res.getName() + " status must be 'created' in order to be a template");
                     }
@@ -379,35 +612,41 @@ public class DockerInfrastructureService
                     if (StringUtils.isBlank(image)) {
                         containerImage = res.getConfig().getImage();
                     }
-                    Map<String, String> labels = res.getConfig().getLabels();
+                    // the template inspection is cached, don't modify it
+                    Map<String, String> labels = new HashMap<>(res.getConfig().getLabels());
                     labels.put("ClonedFromContainerId", templateContainerId);
                     labels.put("ClonedFromContainerName", res.getName());
-                    CreateContainerResponse cRes = dockerClient.createContainerCmd(containerImage)
-                            .withName(res.getName() + "-clone")
-                            .withHostName(res.getConfig().getHostName())
-                            .withDomainName(res.getConfig().getDomainName())
-                            .withExposedPorts(res.getConfig().getExposedPorts())
-                            .withEnv(env)
-                            .withHealthcheck(res.getConfig().getHealthcheck())
-                            .withEntrypoint(res.getConfig().getEntrypoint())
-                            .withHostConfig(hostConfig)
-                            .withIpv4Address(ip)
-                            .withAliases(aliases)
-                            .withLabels(labels)
-                            .exec();
-                    String newContainerId = cRes.getId();
-                    logger.debug("Created container {}", StringUtils.substring(newContainerId, 0, 12));
-                    dockerClient.startContainerCmd(newContainerId).exec();
-                    callback.onCreate(newContainerId);
-                    logger.debug("Started container {}", StringUtils.substring(newContainerId, 0, 12));
-                    return newContainerId;
+                    return pullImage(containerImage).singleOrError()
+                            .flatMap(cloneImage -> commands.create(cloneImage, c -> c
+                                    .withName(res.getName() + "-clone")
+                                    .withHostName(res.getConfig().getHostName())
+                                    .withDomainName(res.getConfig().getDomainName())
+                                    .withExposedPorts(res.getConfig().getExposedPorts())
+                                    .withEnv(env)
+                                    .withHealthcheck(res.getConfig().getHealthcheck())
+                                    .withEntrypoint(res.getConfig().getEntrypoint())
+                                    .withHostConfig(hostConfig)
+                                    .withIpv4Address(ip)
+                                    .withAliases(aliases)
+                                    .withLabels(labels)));
+                })
+                .doOnSuccess(id -> {
+                    logger.debug("Created container {}", StringUtils.substring(id, 0, 12));
+                    // recorded before starting so that the container is deleted even if it fails to start
+                    callback.onCreate(id);
                 })
-                .map(id -> this.wait(id).blockingFirst());
+                .flatMap(id -> commands.start(id)
+                        .doOnComplete(() -> logger.debug("Started container {}", StringUtils.substring(id, 0, 12)))
+                        .andThen(this.wait(id).singleOrError()))
+                .toObservable();
+    }
+
+    private <T> T traced(String operation, String containerId, Supplier<T> call) {
+        return DockerCommands.traced(operation, containerId, call);
     }
 
     public Observable<BasicContainerState> getState(String containerId) {
-        return Observable.just(containerId)
-                .map(id -> dockerClient.inspectContainerCmd(id).exec())
+        return commands.inspect(containerId).toObservable()
                 .map(s -> new BasicContainerState(containerId, s.getName(), s.getState().getStatus(), s.getState().getHealth().getStatus()));
     }
 
@@ -441,6 +680,7 @@ public class DockerInfrastructureService
     @Override
     public void destroy() throws Exception {
         dockerClient.close();
+        dockerExecutor.shutdownNow();
     }
 
     static class QuorumImageConfig {
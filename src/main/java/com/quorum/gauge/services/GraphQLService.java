@@ -39,38 +39,54 @@ public class GraphQLService extends AbstractService {
     @Autowired
     OkHttpClient httpClient;
 
-    public Single<Integer> getBlockNumber(QuorumNode node) {
+    public Single<Integer> getBlockNumber(QuorumNetworkProperty.Node node) {
         String query = "{ \"query\": \"{ block { number } }\" }";
         return executeGraphQL(node, query)
             .map( jsonObject -> Integer.decode(((Map<String, Object>)((Map<String, Object>)jsonObject.get("data")).get("block")).get("number").toString()));
     }
 
-    public Single<Boolean> getIsPrivate(QuorumNode node, String hash) {
+    public Single<Boolean> getIsPrivate(QuorumNetworkProperty.Node node, String hash) {
         String query = "{ \"query\": \"{ transaction(hash: \\\"" + hash + "\\\") { isPrivate } }\" }";
         return executeGraphQL(node, query)
             .map( jsonObject -> Boolean.parseBoolean(((Map<String, Object>)((Map<String, Object>)jsonObject.get("data")).get("transaction")).get("isPrivate").toString()));
     }
 
-    public Single<String> getPrivatePayload(QuorumNode node, String hash) {
+    public Single<String> getPrivatePayload(QuorumNetworkProperty.Node node, String hash) {
         String query = "{ \"query\": \"{ transaction(hash: \\\"" + hash + "\\\") { privateInputData } }\" }";
         return executeGraphQL(node, query)
             .map( jsonObject -> ((Map<String, Object>)((Map<String, Object>)jsonObject.get("data")).get("transaction")).get("privateInputData").toString());
     }
 
-    private String graphqlUrl(QuorumNode node) {
-        QuorumNetworkProperty.Node nodeConfig = networkProperty().getNodes().get(node);
-        if (nodeConfig == null) {
-            throw new IllegalArgumentException("Node " + node + " not found in config");
-        }
-        return nodeConfig.getGraphqlUrl();
+    /**
+     * @deprecated use {@link #getBlockNumber(QuorumNetworkProperty.Node)}
+     */
+    @Deprecated
+    public Single<Integer> getBlockNumber(QuorumNode node) {
+        return getBlockNumber(networkProperty().getNode(node.name()));
+    }
+
+    /**
+     * @deprecated use {@link #getIsPrivate(QuorumNetworkProperty.Node, String)}
+     */
+    @Deprecated
+    public Single<Boolean> getIsPrivate(QuorumNode node, String hash) {
+        return getIsPrivate(networkProperty().getNode(node.name()), hash);
+    }
+
+    /**
+     * @deprecated use {@link #getPrivatePayload(QuorumNetworkProperty.Node, String)}
+     */
+    @Deprecated
+    public Single<String> getPrivatePayload(QuorumNode node, String hash) {
+        return getPrivatePayload(networkProperty().getNode(node.name()), hash);
     }
 
-    private Single<Map<String, Object>> executeGraphQL(QuorumNode node, String query) {
+    private Single<Map<String, Object>> executeGraphQL(QuorumNetworkProperty.Node node, String query) {
         return Single.create( subscriber -> {
             RequestBody body = RequestBody.create(
                 MediaType.parse("application/json"), query);
             Request request = new Request.Builder()
-                .url(graphqlUrl(node))
+                .url(node.getGraphqlUrl())
                 .post(body)
                 .build();
             Call call = httpClient.newCall(request);
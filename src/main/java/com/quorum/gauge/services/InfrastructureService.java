@@ -26,6 +26,7 @@ import com.quorum.gauge.common.GethArgBuilder;
 import io.reactivex.Observable;
 import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -73,6 +74,42 @@ public interface InfrastructureService {
 
     Observable<Boolean> grepLog(String resourceId, String grepStr, long timeoutAmount, TimeUnit timeoutUnit);
 
+    /**
+     * @param resourceId
+     * @return resource usage of the resource as reported by the infrastructure, until unsubscribed
+     */
+    Observable<ResourceUsage> streamResourceUsage(String resourceId);
+
+    /**
+     * Cut the resource off its networks, remembering them so it can be reconnected
+     */
+    Observable<Boolean> disconnectFromNetwork(String resourceId);
+
+    /**
+     * @return true if the resource was disconnected and is now reconnected to the same networks with the same addresses,
+     * false if it was not disconnected
+     */
+    Observable<Boolean> reconnectToNetwork(String resourceId);
+
+    /**
+     * Degrade outgoing traffic of the resource, replacing any previous condition
+     */
+    Observable<Boolean> applyNetworkCondition(String resourceId, NetworkCondition condition);
+
+    /**
+     * Remove any condition applied to outgoing traffic of the resource
+     */
+    Observable<Boolean> clearNetworkCondition(String resourceId);
+
+    /**
+     * Prepare what starting nodes needs ahead of time, e.g.: images, so that it's not paid by the first scenario
+     *
+     * @return true when done
+     */
+    default Observable<Boolean> prewarm() {
+        return Observable.just(true);
+    }
+
     interface ResourceCreationCallback {
         void onCreate(String resourceId);
     }
@@ -179,4 +216,143 @@ public interface InfrastructureService {
         }
     }
 
+    /**
+     * CPU, memory, network and block IO usage of a resource at a point in time.
+     * Network and block IO are cumulative since the resource started.
+     */
+    class ResourceUsage {
+        private final String resourceId;
+        private final long timestamp;
+        private final double cpuPercent;
+        private final double cpuLimitPercent;
+        private final long memoryBytes;
+        private final long memoryLimitBytes;
+        private final long networkRxBytes;
+        private final long networkTxBytes;
+        private final long blockReadBytes;
+        private final long blockWriteBytes;
+
+        public ResourceUsage(String resourceId, long timestamp, double cpuPercent, double cpuLimitPercent, long memoryBytes, long memoryLimitBytes,
+                             long networkRxBytes, long networkTxBytes, long blockReadBytes, long blockWriteBytes) {
+            this.resourceId = resourceId;
+            this.timestamp = timestamp;
+            this.cpuPercent = cpuPercent;
+            this.cpuLimitPercent = cpuLimitPercent;
+            this.memoryBytes = memoryBytes;
+            this.memoryLimitBytes = memoryLimitBytes;
+            this.networkRxBytes = networkRxBytes;
+            this.networkTxBytes = networkTxBytes;
+            this.blockReadBytes = blockReadBytes;
+            this.blockWriteBytes = blockWriteBytes;
+        }
+
+        public String getResourceId() {
+            return resourceId;
+        }
+
+        /**
+         * @return epoch millis of the measurement
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * @return CPU usage where 100 is one CPU fully used
+         */
+        public double getCpuPercent() {
+            return cpuPercent;
+        }
+
+        /**
+         * @return maximum CPU usage allowed to the container, e.g.: 150 for 1.5 CPUs, 100 times the number of host CPUs if unlimited
+         */
+        public double getCpuLimitPercent() {
+            return cpuLimitPercent;
+        }
+
+        public long getMemoryBytes() {
+            return memoryBytes;
+        }
+
+        /**
+         * @return memory allowed to the container, 0 if unlimited
+         */
+        public long getMemoryLimitBytes() {
+            return memoryLimitBytes;
+        }
+
+        public long getNetworkRxBytes() {
+            return networkRxBytes;
+        }
+
+        public long getNetworkTxBytes() {
+            return networkTxBytes;
+        }
+
+        public long getBlockReadBytes() {
+            return blockReadBytes;
+        }
+
+        public long getBlockWriteBytes() {
+            return blockWriteBytes;
+        }
+    }
+
+    /**
+     * Delay, jitter and packet loss of a network link, as modelled by {@code tc netem}
+     */
+    class NetworkCondition {
+        private final long delayMillis;
+        private final long jitterMillis;
+        private final double lossPercent;
+
+        private NetworkCondition(long delayMillis, long jitterMillis, double lossPercent) {
+            this.delayMillis = delayMillis;
+            this.jitterMillis = jitterMillis;
+            this.lossPercent = lossPercent;
+        }
+
+        public static NetworkCondition delay(long delayMillis, long jitterMillis) {
+            return new NetworkCondition(delayMillis, jitterMillis, 0);
+        }
+
+        public NetworkCondition withLoss(double lossPercent) {
+            return new NetworkCondition(delayMillis, jitterMillis, lossPercent);
+        }
+
+        public long getDelayMillis() {
+            return delayMillis;
+        }
+
+        public long getJitterMillis() {
+            return jitterMillis;
+        }
+
+        public double getLossPercent() {
+            return lossPercent;
+        }
+
+        /**
+         * @return arguments following {@code netem}
+         */
+        public List<String> toNetemArgs() {
+            List<String> args = new ArrayList<>();
+            args.add("delay");
+            args.add(delayMillis + "ms");
+            if (jitterMillis > 0) {
+                args.add(jitterMillis + "ms");
+            }
+            if (lossPercent > 0) {
+                args.add("loss");
+                args.add(lossPercent + "%");
+            }
+            return args;
+        }
+
+        @Override
+        public String toString() {
+            return String.join(" ", toNetemArgs());
+        }
+    }
 }
@@ -19,6 +19,7 @@
 
 package com.quorum.gauge.services;
 
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.common.QuorumNode;
 import com.quorum.gauge.ext.IstanbulNodeAddress;
 import com.quorum.gauge.ext.IstanbulPropose;
@@ -37,8 +38,16 @@ public class IstanbulService extends AbstractService {
 
     private static final Logger logger = LoggerFactory.getLogger(IstanbulService.class);
 
+    /**
+     * @deprecated use {@link #stopMining(Node)}
+     */
+    @Deprecated
     public Observable<MinerStartStop> stopMining(final QuorumNode node) {
-        logger.debug("Request {} to stop mining", node);
+        return stopMining(networkProperty().getNode(node.name()));
+    }
+
+    public Observable<MinerStartStop> stopMining(final Node node) {
+        logger.debug("Request {} to stop mining", node.getName());
 
         return new Request<>(
             "miner_stop",
@@ -48,8 +57,16 @@ public class IstanbulService extends AbstractService {
         ).flowable().toObservable();
     }
 
+    /**
+     * @deprecated use {@link #startMining(Node)}
+     */
+    @Deprecated
     public Observable<MinerStartStop> startMining(final QuorumNode node) {
-        logger.debug("Request {} to start mining", node);
+        return startMining(networkProperty().getNode(node.name()));
+    }
+
+    public Observable<MinerStartStop> startMining(final Node node) {
+        logger.debug("Request {} to start mining", node.getName());
 
         return new Request<>(
             "miner_start",
@@ -59,8 +76,16 @@ public class IstanbulService extends AbstractService {
         ).flowable().toObservable();
     }
 
+    /**
+     * @deprecated use {@link #propose(Node, String, boolean)}
+     */
+    @Deprecated
     public Observable<IstanbulPropose> propose(final QuorumNode node, final String proposedValidatorAddress, boolean vote) {
-        logger.debug("Node {} proposing {}", node, proposedValidatorAddress);
+        return propose(networkProperty().getNode(node.name()), proposedValidatorAddress, vote);
+    }
+
+    public Observable<IstanbulPropose> propose(final Node node, final String proposedValidatorAddress, boolean vote) {
+        logger.debug("Node {} proposing {}", node.getName(), proposedValidatorAddress);
 
         return new Request<>(
             "istanbul_propose",
@@ -70,8 +95,16 @@ public class IstanbulService extends AbstractService {
         ).flowable().toObservable();
     }
 
+    /**
+     * @deprecated use {@link #nodeAddress(Node)}
+     */
+    @Deprecated
     public Observable<IstanbulNodeAddress> nodeAddress(final QuorumNode node) {
-        logger.debug("node address of node {}", node);
+        return nodeAddress(networkProperty().getNode(node.name()));
+    }
+
+    public Observable<IstanbulNodeAddress> nodeAddress(final Node node) {
+        logger.debug("node address of node {}", node.getName());
         return new Request<>(
             "istanbul_nodeAddress",
             Arrays.asList(),
@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import com.google.common.collect.Lists;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.ext.BatchRequest;
+import com.quorum.gauge.ext.BatchResponse;
+import com.quorum.gauge.ext.ObjectResponse;
+import io.reactivex.Observable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.core.Request;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Offer a steady transaction rate in the background and keep track of what happens to each transaction,
+ * so that the throughput can be observed while nodes are disrupted.
+ * <p>
+ * Accounts of the sending nodes take turns to transfer 0 wei to themselves, nonces being assigned by the nodes.
+ * A share of the transfers can be private for the next sending node, so that Tessera is part of the load.
+ * Transactions are sent in one batch per node every {@link #TICK_MILLIS}. A node still busy with its previous batch
+ * is skipped, so a hanging node lowers the offered rate instead of queuing up requests.
+ * Receipts are polled every second from the first sending node that answers.
+ */
+@Service
+public class LoadGenerator extends AbstractService {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final long TICK_MILLIS = 100;
+    private static final int RECEIPT_BATCH_SIZE = 500;
+
+    @Autowired
+    RPCService rpcService;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    PrivacyService privacyService;
+
+    /**
+     * @param senders nodes whose accounts send the transactions
+     */
+    public Load start(List<Node> senders, int transactionsPerSecond) {
+        return start(senders, transactionsPerSecond, 0);
+    }
+
+    /**
+     * @param privatePercent share of transfers private for the next sending node, ignored with a single sending node
+     */
+    public Load start(List<Node> senders, int transactionsPerSecond, int privatePercent) {
+        List<Sender> accounts = senders.stream()
+                .flatMap(node -> accountService.getAccountAddresses(node).toList().blockingGet().stream().map(addr -> new Sender(node, addr)))
+                .collect(Collectors.toList());
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("no accounts in " + senders);
+        }
+        return new Load(senders, accounts, transactionsPerSecond, senders.size() > 1 ? privatePercent : 0);
+    }
+
+    public class Load {
+        private final List<Node> nodes;
+        private final List<Sender> accounts;
+        private final int transactionsPerSecond;
+        private final int privatePercent;
+        private final long startedAt = System.currentTimeMillis();
+        // submitted transactions without receipt, hash to submission time
+        private final Map<String, Long> pending = new ConcurrentHashMap<>();
+        private final Map<String, AtomicBoolean> busy = new ConcurrentHashMap<>();
+        private final Map<Integer, AtomicInteger> confirmedPerSecond = new ConcurrentHashMap<>();
+        private final AtomicInteger submitted = new AtomicInteger();
+        private final AtomicInteger confirmed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger reverted = new AtomicInteger();
+        private final CompositeDisposable subscriptions = new CompositeDisposable();
+        private long offered;
+        private int nextAccount;
+        private volatile long maxConfirmationMillis;
+
+        private Load(List<Node> nodes, List<Sender> accounts, int transactionsPerSecond, int privatePercent) {
+            this.nodes = nodes;
+            this.accounts = accounts;
+            this.transactionsPerSecond = transactionsPerSecond;
+            this.privatePercent = privatePercent;
+            nodes.forEach(n -> busy.put(n.getName(), new AtomicBoolean()));
+            subscriptions.add(Observable.interval(TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS, Schedulers.single())
+                    .subscribe(t -> send()));
+            subscriptions.add(Observable.defer(this::pollReceipts)
+                    .repeatWhen(done -> done.delay(1, TimeUnit.SECONDS))
+                    .subscribeOn(Schedulers.io())
+                    .subscribe(n -> { }, e -> logger.warn("Stopped polling receipts: {}", e.getMessage())));
+            logger.debug("Sending {} transactions per second, {}% private, from {} accounts in {}", transactionsPerSecond, privatePercent, accounts.size(),
+                    nodes.stream().map(Node::getName).collect(Collectors.toList()));
+        }
+
+        private void send() {
+            long due = (System.currentTimeMillis() - startedAt) * transactionsPerSecond / 1000 - offered;
+            if (due <= 0) {
+                return;
+            }
+            Map<Node, List<Map<String, Object>>> batches = new LinkedHashMap<>();
+            for (long i = 0; i < due; i++) {
+                Sender s = accounts.get(nextAccount++ % accounts.size());
+                boolean isPrivate = (offered + i) % 100 < privatePercent;
+                batches.computeIfAbsent(s.node, k -> new ArrayList<>()).add(s.transfer(isPrivate ? privateFor(s.node) : null));
+            }
+            offered += due;
+            batches.forEach((node, txs) -> {
+                AtomicBoolean nodeBusy = busy.get(node.getName());
+                if (!nodeBusy.compareAndSet(false, true)) {
+                    return;
+                }
+                BatchRequest.Collector transfers = BatchRequest.Collector.create();
+                txs.forEach(tx -> transfers.add("eth_sendTransaction", Collections.singletonList(tx)));
+                rpcService.call(node, transfers)
+                        .subscribeOn(Schedulers.io())
+                        .doFinally(() -> nodeBusy.set(false))
+                        .subscribe(res -> {
+                            long now = System.currentTimeMillis();
+                            Map<Long, ObjectResponse> byId = res.byId();
+                            for (Request<?, ObjectResponse> r : transfers.toList()) {
+                                ObjectResponse sent = byId.get(r.getId());
+                                if (sent == null || sent.hasError()) {
+                                    failed.incrementAndGet();
+                                } else {
+                                    submitted.incrementAndGet();
+                                    pending.put((String) sent.getResult(), now);
+                                }
+                            }
+                        }, e -> {
+                            logger.debug("Sending {} transactions to {} failed: {}", transfers.size(), node.getName(), e.getMessage());
+                            failed.addAndGet(transfers.size());
+                        });
+            });
+        }
+
+        private List<String> privateFor(Node sender) {
+            return Collections.singletonList(privacyService.id(nodes.get((nodes.indexOf(sender) + 1) % nodes.size())));
+        }
+
+        private Observable<Integer> pollReceipts() {
+            return Observable.fromIterable(Lists.partition(new ArrayList<>(pending.keySet()), RECEIPT_BATCH_SIZE))
+                    .concatMap(hashes -> receipts(hashes, 0).map(res -> {
+                        long now = System.currentTimeMillis();
+                        int second = (int) ((now - startedAt) / 1000);
+                        int found = 0;
+                        for (ObjectResponse r : res.getResponses()) {
+                            if (r.hasError() || !(r.getResult() instanceof Map)) {
+                                continue;
+                            }
+                            Map<?, ?> receipt = (Map<?, ?>) r.getResult();
+                            Long submittedAt = pending.remove((String) receipt.get("transactionHash"));
+                            if (submittedAt == null) {
+                                continue;
+                            }
+                            found++;
+                            maxConfirmationMillis = Math.max(maxConfirmationMillis, now - submittedAt);
+                            if ("0x0".equals(receipt.get("status"))) {
+                                reverted.incrementAndGet();
+                            } else {
+                                confirmed.incrementAndGet();
+                                confirmedPerSecond.computeIfAbsent(second, k -> new AtomicInteger()).incrementAndGet();
+                            }
+                        }
+                        return found;
+                    }));
+        }
+
+        // receipts are the same everywhere, ask the next node when one is down
+        private Observable<BatchResponse> receipts(List<String> hashes, int nodeIndex) {
+            BatchRequest.Collector collector = BatchRequest.Collector.create();
+            hashes.forEach(h -> collector.add("eth_getTransactionReceipt", Collections.singletonList(h)));
+            Observable<BatchResponse> call = rpcService.call(nodes.get(nodeIndex), collector);
+            if (nodeIndex + 1 < nodes.size()) {
+                return call.onErrorResumeNext(receipts(hashes, nodeIndex + 1));
+            }
+            return call.onErrorReturn(e -> {
+                BatchResponse none = new BatchResponse();
+                none.setResponses(Collections.emptyList());
+                return none;
+            });
+        }
+
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        /**
+         * @return transactions confirmed during each second since the load started, up to now
+         */
+        public int[] confirmedTimeline() {
+            int[] timeline = new int[(int) ((System.currentTimeMillis() - startedAt) / 1000)];
+            confirmedPerSecond.forEach((second, count) -> {
+                if (second < timeline.length) {
+                    timeline[second] = count.get();
+                }
+            });
+            return timeline;
+        }
+
+        /**
+         * Stop sending and wait up to {@code drain} for receipts of pending transactions.
+         * Transactions still pending afterwards are reported as stuck.
+         */
+        public Report stop(Duration drain) {
+            long sendingStoppedAt = System.currentTimeMillis();
+            subscriptions.dispose();
+            long deadline = sendingStoppedAt + drain.toMillis();
+            while (!pending.isEmpty() && System.currentTimeMillis() < deadline) {
+                pollReceipts().blockingSubscribe();
+                if (!pending.isEmpty()) {
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+            return new Report(sendingStoppedAt - startedAt, transactionsPerSecond, privatePercent, submitted.get(), confirmed.get(),
+                    failed.get(), reverted.get(), pending.size(), maxConfirmationMillis, confirmedTimeline());
+        }
+    }
+
+    public static class Report {
+        private final long durationMillis;
+        private final int offeredPerSecond;
+        private final int privatePercent;
+        private final int submitted;
+        private final int confirmed;
+        private final int failed;
+        private final int reverted;
+        private final int stuck;
+        private final long maxConfirmationMillis;
+        private final int[] confirmedTimeline;
+
+        Report(long durationMillis, int offeredPerSecond, int privatePercent, int submitted, int confirmed, int failed, int reverted, int stuck, long maxConfirmationMillis, int[] confirmedTimeline) {
+            this.durationMillis = durationMillis;
+            this.offeredPerSecond = offeredPerSecond;
+            this.privatePercent = privatePercent;
+            this.submitted = submitted;
+            this.confirmed = confirmed;
+            this.failed = failed;
+            this.reverted = reverted;
+            this.stuck = stuck;
+            this.maxConfirmationMillis = maxConfirmationMillis;
+            this.confirmedTimeline = confirmedTimeline;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public int getOfferedPerSecond() {
+            return offeredPerSecond;
+        }
+
+        public int getPrivatePercent() {
+            return privatePercent;
+        }
+
+        public int getSubmitted() {
+            return submitted;
+        }
+
+        public int getConfirmed() {
+            return confirmed;
+        }
+
+        /**
+         * @return transactions rejected by the node or lost because the node could not be reached
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        public int getReverted() {
+            return reverted;
+        }
+
+        /**
+         * @return submitted transactions without receipt when the load stopped
+         */
+        public int getStuck() {
+            return stuck;
+        }
+
+        public long getMaxConfirmationMillis() {
+            return maxConfirmationMillis;
+        }
+
+        public int[] getConfirmedTimeline() {
+            return confirmedTimeline;
+        }
+    }
+
+    private static class Sender {
+        final Node node;
+        final String address;
+
+        Sender(Node node, String address) {
+            this.node = node;
+            this.address = address;
+        }
+
+        /**
+         * @param privateFor {@code null} for a public transfer
+         */
+        Map<String, Object> transfer(List<String> privateFor) {
+            return privateFor == null ? SelfTransfers.publicTransfer(address) : SelfTransfers.privateTransfer(address, privateFor);
+        }
+    }
+}
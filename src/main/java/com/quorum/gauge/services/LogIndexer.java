@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Follow new blocks of a node and index their logs by contract address and topic.
+ * <p>
+ * Each node has a cursor so {@code eth_getLogs} is only called for blocks produced since the previous indexing,
+ * instead of from block 0. Ranges are aligned with bloom bits sections (4096 blocks) so the node can
+ * serve complete sections from its bloom bits index. Logs include private logs visible in the node's private state.
+ */
+@Service
+public class LogIndexer extends AbstractService {
+    private static final Logger logger = LoggerFactory.getLogger(LogIndexer.class);
+
+    private static final long BLOOM_SECTION_SIZE = 4096;
+    private static final int MAX_CONCURRENT_QUERIES = 4;
+
+    @Autowired
+    RPCService rpcService;
+
+    @Autowired
+    UtilService utilService;
+
+    private final ConcurrentMap<String, LogIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Index logs from {@code fromBlock} (or from the node's cursor if already indexed) up to the latest block
+     */
+    public Observable<LogIndex> index(Node node, long fromBlock) {
+        return Observable.fromCallable(() -> {
+            // an index can't be extended backward so start over if needed
+            long latest = utilService.getCurrentBlockNumberFrom(node).blockingFirst().getBlockNumber().longValue();
+            // a head below the cursor means the chain was recreated
+            LogIndex index = indexes.compute(node.getName(), (name, existing) ->
+                    existing == null || fromBlock < existing.fromBlock || latest + 1 < existing.nextBlock ? new LogIndex(name, fromBlock) : existing);
+            synchronized (index) {
+                if (latest >= index.nextBlock) {
+                    fetch(node, index.nextBlock, latest).blockingForEach(index::add);
+                    index.nextBlock = latest + 1;
+                }
+                return index;
+            }
+        }).subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Forget the cursor of the node, e.g.: after the network is recreated
+     */
+    public void reset(Node node) {
+        indexes.remove(node.getName());
+    }
+
+    private Observable<Log> fetch(Node node, long from, long to) {
+        logger.debug("Indexing logs of blocks {}..{} in {}", from, to, node.getName());
+        List<long[]> ranges = new ArrayList<>();
+        long start = from;
+        while (start <= to) {
+            long end = Math.min(to, (start / BLOOM_SECTION_SIZE + 1) * BLOOM_SECTION_SIZE - 1);
+            ranges.add(new long[]{start, end});
+            start = end + 1;
+        }
+        return Observable.fromIterable(ranges)
+                .flatMap(range -> fetchRange(node, range[0], range[1]).subscribeOn(Schedulers.io()), MAX_CONCURRENT_QUERIES);
+    }
+
+    private Observable<Log> fetchRange(Node node, long from, long to) {
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("fromBlock", Numeric.encodeQuantity(BigInteger.valueOf(from)));
+        filter.put("toBlock", Numeric.encodeQuantity(BigInteger.valueOf(to)));
+        return rpcService.call(node, "eth_getLogs", Collections.singletonList(filter), EthLog.class)
+                .flatMapIterable(ethLog -> {
+                    if (ethLog.hasError()) {
+                        throw new RuntimeException("unable to get logs from " + node.getName() + ": " + ethLog.getError().getMessage());
+                    }
+                    List<Log> logs = new ArrayList<>();
+                    for (EthLog.LogResult<?> r : ethLog.getLogs()) {
+                        logs.add((Log) r.get());
+                    }
+                    return logs;
+                });
+    }
+
+    public static class LogIndex {
+        private static final String ANY_TOPIC = "";
+
+        private final String node;
+        private final long fromBlock;
+        private volatile long nextBlock;
+        // contract address -> topic0 -> logs
+        private final ConcurrentMap<String, ConcurrentMap<String, List<Log>>> logs = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, List<Log>> logsByTxHash = new ConcurrentHashMap<>();
+
+        LogIndex(String node, long fromBlock) {
+            this.node = node;
+            this.fromBlock = fromBlock;
+            this.nextBlock = fromBlock;
+        }
+
+        void add(Log log) {
+            String topic = log.getTopics() == null || log.getTopics().isEmpty() ? ANY_TOPIC : log.getTopics().get(0).toLowerCase();
+            logs.computeIfAbsent(log.getAddress().toLowerCase(), k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>())
+                    .add(log);
+            logsByTxHash.computeIfAbsent(log.getTransactionHash().toLowerCase(), k -> new CopyOnWriteArrayList<>()).add(log);
+        }
+
+        public String getNode() {
+            return node;
+        }
+
+        public long getNextBlock() {
+            return nextBlock;
+        }
+
+        public List<Log> logs(String contractAddress) {
+            List<Log> result = new ArrayList<>();
+            logs.getOrDefault(contractAddress.toLowerCase(), new ConcurrentHashMap<>()).values().forEach(result::addAll);
+            return result;
+        }
+
+        /**
+         * @param topic first topic of the log, i.e.: the event signature hash
+         */
+        public List<Log> logs(String contractAddress, String topic) {
+            return new ArrayList<>(logs.getOrDefault(contractAddress.toLowerCase(), new ConcurrentHashMap<>())
+                    .getOrDefault(topic.toLowerCase(), Collections.emptyList()));
+        }
+
+        public int countByTransactions(Collection<String> txHashes) {
+            return txHashes.stream()
+                    .mapToInt(h -> logsByTxHash.getOrDefault(h.toLowerCase(), Collections.emptyList()).size())
+                    .sum();
+        }
+    }
+}
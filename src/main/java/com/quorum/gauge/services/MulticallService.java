@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.quorum.gauge.services;
+
+import com.google.common.collect.Lists;
+import com.quorum.gauge.common.PrivacyFlag;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.ext.EnhancedClientTransactionManager;
+import com.quorum.gauge.services.ContractReadService.ContractRead;
+import com.quorum.gauge.services.ContractReadService.ReadResult;
+import com.quorum.gauge.services.ContractReadService.ReadResults;
+import com.quorum.gauge.sol.Multicall;
+import com.quorum.gauge.sol.PermissionsInterface;
+import io.reactivex.Observable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.*;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.quorum.Quorum;
+import org.web3j.tx.Contract;
+import org.web3j.utils.Numeric;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reads contract state via the {@code Multicall} helper contract so a node executes one EVM call for many reads.
+ * <p>
+ * A public {@code Multicall} only sees public state. In order to read private state, the helper contract must be
+ * deployed privately so it exists in the private state of the participant nodes.
+ * Aggregated calls are then sent via {@link ContractReadService} hence calls to the same node end up in a single batch.
+ */
+@Service
+public class MulticallService extends AbstractService {
+    private static final Logger logger = LoggerFactory.getLogger(MulticallService.class);
+
+    // keep each aggregated call well within the gas cap of eth_call
+    private static final int MAX_CALLS_PER_AGGREGATE = 500;
+
+    @Autowired
+    ContractReadService contractReadService;
+
+    @Autowired
+    PrivacyService privacyService;
+
+    @Autowired
+    AccountService accountService;
+
+    // node name -> address of the Multicall contract used to read from that node
+    private final Map<String, String> multicallAddresses = new ConcurrentHashMap<>();
+
+    // node names which have a private Multicall contract, these can read both public and private state
+    private final Set<String> privateScopes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Deploy the helper contract from {@code source}.
+     *
+     * @param participants if null, deploy a public contract, otherwise private for the given nodes
+     * @return address of the deployed contract
+     */
+    public Observable<String> deploy(Node source, List<Node> participants) {
+        Quorum client = connectionFactory().getConnection(source);
+        final List<String> privateFor;
+        if (participants != null) {
+            privateFor = participants.stream().map(n -> privacyService.id(n)).collect(Collectors.toList());
+        } else {
+            privateFor = null;
+        }
+        return accountService.getDefaultAccountAddress(source).flatMap(address -> {
+            EnhancedClientTransactionManager txManager = new EnhancedClientTransactionManager(
+                client,
+                address,
+                null,
+                privateFor,
+                Collections.singletonList(PrivacyFlag.Legacy),
+                DEFAULT_MAX_RETRY,
+                DEFAULT_SLEEP_DURATION_IN_MILLIS);
+            return Multicall.deploy(client, txManager, BigInteger.ZERO, DEFAULT_GAS_LIMIT).flowable().toObservable();
+        }).map(Contract::getContractAddress)
+            .doOnNext(contractAddress -> {
+                if (participants == null) {
+                    // don't replace a private one as it can read public state as well
+                    networkProperty().getNodes().keySet().forEach(name -> {
+                        if (!privateScopes.contains(name)) {
+                            multicallAddresses.put(name, contractAddress);
+                        }
+                    });
+                } else {
+                    List<Node> nodes = new ArrayList<>(participants);
+                    nodes.add(source);
+                    nodes.forEach(n -> {
+                        privateScopes.add(n.getName());
+                        multicallAddresses.put(n.getName(), contractAddress);
+                    });
+                }
+                logger.debug("Multicall deployed at {}, privateFor={}", contractAddress, privateFor);
+            });
+    }
+
+    /**
+     * Forget deployed contracts, e.g.: when the network is recreated
+     */
+    public void clearCaches() {
+        multicallAddresses.clear();
+        privateScopes.clear();
+    }
+
+    public Optional<String> multicallAddress(Node node) {
+        return Optional.ofNullable(multicallAddresses.get(node.getName()));
+    }
+
+    public Observable<ReadResults> readUint256(List<Node> nodes, List<String> contractAddresses, String methodName) {
+        List<ContractRead> reads = new ArrayList<>();
+        for (Node node : nodes) {
+            for (String address : contractAddresses) {
+                reads.add(ContractRead.uint256(node, address, methodName));
+            }
+        }
+        return read(reads);
+    }
+
+    /**
+     * Check many accounts against the permission model in one call per node
+     *
+     * @param interfaceAddress address of the {@code PermissionsInterface} contract
+     * @return results of {@code isNetworkAdmin(account)}, see {@link ReadResult#asBoolean()}
+     */
+    @SuppressWarnings("unchecked")
+    public Observable<ReadResults> readNetworkAdmins(List<Node> nodes, String interfaceAddress, List<String> accounts) {
+        List<ContractRead> reads = new ArrayList<>();
+        for (Node node : nodes) {
+            for (String account : accounts) {
+                reads.add(ContractRead.of(node, interfaceAddress, new Function(PermissionsInterface.FUNC_ISNETWORKADMIN,
+                    Collections.singletonList(new Address(account)),
+                    Collections.singletonList(new TypeReference<Bool>() {}))));
+            }
+        }
+        return read(reads);
+    }
+
+    /**
+     * Each read must return a single static value, e.g.: uint, bool, address
+     */
+    public Observable<ReadResults> read(List<ContractRead> reads) {
+        List<Aggregate> aggregates = new ArrayList<>();
+        Map<String, List<ContractRead>> readsByNode = reads.stream()
+            .collect(Collectors.groupingBy(r -> r.getNode().getName(), LinkedHashMap::new, Collectors.toList()));
+        for (List<ContractRead> nodeReads : readsByNode.values()) {
+            Node node = nodeReads.get(0).getNode();
+            String multicallAddress = multicallAddress(node)
+                .orElseThrow(() -> new IllegalStateException("Multicall contract has not been deployed for " + node.getName()));
+            for (List<ContractRead> part : Lists.partition(nodeReads, MAX_CALLS_PER_AGGREGATE)) {
+                aggregates.add(new Aggregate(ContractRead.of(node, multicallAddress, aggregateFunction(part)), part));
+            }
+        }
+        return contractReadService.read(aggregates.stream().map(a -> a.aggregateRead).collect(Collectors.toList()))
+            .map(aggregatedResults -> {
+                ReadResults results = new ReadResults();
+                for (Aggregate a : aggregates) {
+                    a.unpack(aggregatedResults.get(a.aggregateRead)).forEach(results::add);
+                }
+                return results;
+            });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Function aggregateFunction(List<ContractRead> reads) {
+        List<Address> targets = new ArrayList<>(reads.size());
+        List<Uint256> callLengths = new ArrayList<>(reads.size());
+        ByteArrayOutputStream packedCalls = new ByteArrayOutputStream();
+        for (ContractRead r : reads) {
+            byte[] callData = Numeric.hexStringToByteArray(r.getEncodedFunction());
+            targets.add(new Address(r.getContractAddress()));
+            callLengths.add(new Uint256(callData.length));
+            packedCalls.write(callData, 0, callData.length);
+        }
+        return new Function(Multicall.FUNC_AGGREGATE,
+            Arrays.asList(
+                new DynamicArray<>(Address.class, targets),
+                new DynamicBytes(packedCalls.toByteArray()),
+                new DynamicArray<>(Uint256.class, callLengths)),
+            Arrays.asList(
+                new TypeReference<Uint256>() {},
+                new TypeReference<DynamicArray<Bool>>() {},
+                new TypeReference<DynamicArray<Bytes32>>() {}));
+    }
+
+    private static class Aggregate {
+        private final ContractRead aggregateRead;
+        private final List<ContractRead> reads;
+
+        Aggregate(ContractRead aggregateRead, List<ContractRead> reads) {
+            this.aggregateRead = aggregateRead;
+            this.reads = reads;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<ReadResult> unpack(ReadResult aggregated) {
+            List<ReadResult> results = new ArrayList<>(reads.size());
+            if (aggregated.hasError() || aggregated.getValues().isEmpty()) {
+                // the Multicall contract itself is not callable, return the same outcome for all its reads
+                reads.forEach(r -> results.add(new ReadResult(r, Collections.emptyList(), aggregated.getError())));
+                return results;
+            }
+            List<Bool> successes = ((DynamicArray<Bool>) aggregated.getValues().get(1)).getValue();
+            List<Bytes32> words = ((DynamicArray<Bytes32>) aggregated.getValues().get(2)).getValue();
+            for (int i = 0; i < reads.size(); i++) {
+                ContractRead r = reads.get(i);
+                if (successes.get(i).getValue()) {
+                    String word = Numeric.toHexString(words.get(i).getValue());
+                    results.add(new ReadResult(r, FunctionReturnDecoder.decode(word, r.getFunction().getOutputParameters()), null));
+                } else {
+                    // same as an empty (0x) eth_call result, e.g.: contract doesn't exist in this node's state
+                    results.add(new ReadResult(r, Collections.emptyList(), null));
+                }
+            }
+            return results;
+        }
+    }
+}
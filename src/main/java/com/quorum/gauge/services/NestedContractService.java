@@ -20,6 +20,7 @@
 package com.quorum.gauge.services;
 
 import com.quorum.gauge.common.PrivacyFlag;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.common.QuorumNode;
 import com.quorum.gauge.ext.EnhancedClientTransactionManager;
 import com.quorum.gauge.ext.EthStorageRoot;
@@ -53,11 +54,19 @@ public class NestedContractService extends AbstractService {
     @Autowired
     AccountService accountService;
 
-    public Observable<? extends Contract> createC1Contract(int initialValue, QuorumNode source, QuorumNode target) {
+    public Observable<? extends Contract> createC1Contract(int initialValue, Node source, Node target) {
         return createC1Contract(initialValue, source, Arrays.asList(target), Arrays.asList(PrivacyFlag.Legacy));
     }
 
-    public Observable<? extends Contract> createC1Contract(int initialValue, QuorumNode source, List<QuorumNode> target, List<PrivacyFlag> flags) {
+    /**
+     * @deprecated use {@link #createC1Contract(int, Node, Node)}
+     */
+    @Deprecated
+    public Observable<? extends Contract> createC1Contract(int initialValue, QuorumNode source, QuorumNode target) {
+        return createC1Contract(initialValue, networkProperty().getNode(source.name()), networkProperty().getNode(target.name()));
+    }
+
+    public Observable<? extends Contract> createC1Contract(int initialValue, Node source, List<Node> target, List<PrivacyFlag> flags) {
         Quorum client = connectionFactory().getConnection(source);
         return accountService.getDefaultAccountAddress(source).flatMap(address -> {
             ClientTransactionManager clientTransactionManager = new EnhancedClientTransactionManager(
@@ -76,7 +85,15 @@ public class NestedContractService extends AbstractService {
         });
     }
 
-    public Observable<? extends Contract> createPublicC1Contract(int initialValue, QuorumNode source) {
+    /**
+     * @deprecated use {@link #createC1Contract(int, Node, List, List)}
+     */
+    @Deprecated
+    public Observable<? extends Contract> createC1Contract(int initialValue, QuorumNode source, List<QuorumNode> target, List<PrivacyFlag> flags) {
+        return createC1Contract(initialValue, networkProperty().getNode(source.name()), target.stream().map(n -> networkProperty().getNode(n.name())).collect(Collectors.toList()), flags);
+    }
+
+    public Observable<? extends Contract> createPublicC1Contract(int initialValue, Node source) {
         Quorum client = connectionFactory().getConnection(source);
         return accountService.getDefaultAccountAddress(source).flatMap(address -> {
             ClientTransactionManager clientTransactionManager = new ClientTransactionManager(
@@ -94,11 +111,27 @@ public class NestedContractService extends AbstractService {
         });
     }
 
-    public Observable<? extends Contract> createC2Contract(String c1Address, QuorumNode source, QuorumNode target) {
+    /**
+     * @deprecated use {@link #createPublicC1Contract(int, Node)}
+     */
+    @Deprecated
+    public Observable<? extends Contract> createPublicC1Contract(int initialValue, QuorumNode source) {
+        return createPublicC1Contract(initialValue, networkProperty().getNode(source.name()));
+    }
+
+    public Observable<? extends Contract> createC2Contract(String c1Address, Node source, Node target) {
         return createC2Contract(c1Address, source, Arrays.asList(target), Arrays.asList(PrivacyFlag.Legacy));
     }
 
-    public Observable<? extends Contract> createC2Contract(String c1Address, QuorumNode source, List<QuorumNode> target, List<PrivacyFlag> flags) {
+    /**
+     * @deprecated use {@link #createC2Contract(String, Node, Node)}
+     */
+    @Deprecated
+    public Observable<? extends Contract> createC2Contract(String c1Address, QuorumNode source, QuorumNode target) {
+        return createC2Contract(c1Address, networkProperty().getNode(source.name()), networkProperty().getNode(target.name()));
+    }
+
+    public Observable<? extends Contract> createC2Contract(String c1Address, Node source, List<Node> target, List<PrivacyFlag> flags) {
         Quorum client = connectionFactory().getConnection(source);
         return accountService.getDefaultAccountAddress(source).flatMap(address -> {
             ClientTransactionManager clientTransactionManager = new EnhancedClientTransactionManager(
@@ -117,8 +150,16 @@ public class NestedContractService extends AbstractService {
         });
     }
 
+    /**
+     * @deprecated use {@link #createC2Contract(String, Node, List, List)}
+     */
+    @Deprecated
+    public Observable<? extends Contract> createC2Contract(String c1Address, QuorumNode source, List<QuorumNode> target, List<PrivacyFlag> flags) {
+        return createC2Contract(c1Address, networkProperty().getNode(source.name()), target.stream().map(n -> networkProperty().getNode(n.name())).collect(Collectors.toList()), flags);
+    }
+
     // Read-only contract
-    public int readC1Value(QuorumNode node, String contractAddress) {
+    public int readC1Value(Node node, String contractAddress) {
         Quorum client = connectionFactory().getConnection(node);
         String address;
         try {
@@ -139,8 +180,16 @@ public class NestedContractService extends AbstractService {
         }
     }
 
+    /**
+     * @deprecated use {@link #readC1Value(Node, String)}
+     */
+    @Deprecated
+    public int readC1Value(QuorumNode node, String contractAddress) {
+        return readC1Value(networkProperty().getNode(node.name()), contractAddress);
+    }
+
     // Read-only contract
-    public int readC2Value(QuorumNode node, String contractAddress) {
+    public int readC2Value(Node node, String contractAddress) {
         Quorum client = connectionFactory().getConnection(node);
         String address;
         try {
@@ -161,7 +210,15 @@ public class NestedContractService extends AbstractService {
         }
     }
 
-    public Observable<TransactionReceipt> restoreFromC1(QuorumNode node, List<QuorumNode> target, String contractAddress, List<PrivacyFlag> flags) {
+    /**
+     * @deprecated use {@link #readC2Value(Node, String)}
+     */
+    @Deprecated
+    public int readC2Value(QuorumNode node, String contractAddress) {
+        return readC2Value(networkProperty().getNode(node.name()), contractAddress);
+    }
+
+    public Observable<TransactionReceipt> restoreFromC1(Node node, List<Node> target, String contractAddress, List<PrivacyFlag> flags) {
         Quorum client = connectionFactory().getConnection(node);
         return accountService.getDefaultAccountAddress(node).flatMap(address -> {
             EnhancedClientTransactionManager txManager = new EnhancedClientTransactionManager(
@@ -178,7 +235,15 @@ public class NestedContractService extends AbstractService {
         });
     }
 
-    public Observable<TransactionReceipt> updateC1Contract(QuorumNode source, List<QuorumNode> target, String contractAddress, int newValue) {
+    /**
+     * @deprecated use {@link #restoreFromC1(Node, List, String, List)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> restoreFromC1(QuorumNode node, List<QuorumNode> target, String contractAddress, List<PrivacyFlag> flags) {
+        return restoreFromC1(networkProperty().getNode(node.name()), target.stream().map(n -> networkProperty().getNode(n.name())).collect(Collectors.toList()), contractAddress, flags);
+    }
+
+    public Observable<TransactionReceipt> updateC1Contract(Node source, List<Node> target, String contractAddress, int newValue) {
         Quorum client = connectionFactory().getConnection(source);
         return accountService.getDefaultAccountAddress(source).flatMap(address -> {
             ClientTransactionManager txManager = new ClientTransactionManager(
@@ -194,7 +259,15 @@ public class NestedContractService extends AbstractService {
         });
     }
 
-    public Observable<TransactionReceipt> updateC2Contract(QuorumNode source, List<QuorumNode> target, String contractAddress, int newValue, List<PrivacyFlag> flags) {
+    /**
+     * @deprecated use {@link #updateC1Contract(Node, List, String, int)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> updateC1Contract(QuorumNode source, List<QuorumNode> target, String contractAddress, int newValue) {
+        return updateC1Contract(networkProperty().getNode(source.name()), target.stream().map(n -> networkProperty().getNode(n.name())).collect(Collectors.toList()), contractAddress, newValue);
+    }
+
+    public Observable<TransactionReceipt> updateC2Contract(Node source, List<Node> target, String contractAddress, int newValue, List<PrivacyFlag> flags) {
         Quorum client = connectionFactory().getConnection(source);
         return accountService.getDefaultAccountAddress(source).flatMap(address -> {
             EnhancedClientTransactionManager txManager = new EnhancedClientTransactionManager(
@@ -211,7 +284,15 @@ public class NestedContractService extends AbstractService {
         });
     }
 
-    public Observable<EthStorageRoot> getStorageRoot(QuorumNode node, String contractAddress) {
+    /**
+     * @deprecated use {@link #updateC2Contract(Node, List, String, int, List)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> updateC2Contract(QuorumNode source, List<QuorumNode> target, String contractAddress, int newValue, List<PrivacyFlag> flags) {
+        return updateC2Contract(networkProperty().getNode(source.name()), target.stream().map(n -> networkProperty().getNode(n.name())).collect(Collectors.toList()), contractAddress, newValue, flags);
+    }
+
+    public Observable<EthStorageRoot> getStorageRoot(Node node, String contractAddress) {
         Request<String, EthStorageRoot> request = new Request<>(
             "eth_storageRoot",
             Arrays.asList(contractAddress),
@@ -220,7 +301,15 @@ public class NestedContractService extends AbstractService {
         return request.flowable().toObservable();
     }
 
-    public Observable<TransactionReceipt> newContractC2(QuorumNode source, List<QuorumNode> target, String contractAddress, BigInteger newValue, List<PrivacyFlag> flags) {
+    /**
+     * @deprecated use {@link #getStorageRoot(Node, String)}
+     */
+    @Deprecated
+    public Observable<EthStorageRoot> getStorageRoot(QuorumNode node, String contractAddress) {
+        return getStorageRoot(networkProperty().getNode(node.name()), contractAddress);
+    }
+
+    public Observable<TransactionReceipt> newContractC2(Node source, List<Node> target, String contractAddress, BigInteger newValue, List<PrivacyFlag> flags) {
         Quorum client = connectionFactory().getConnection(source);
         return accountService.getDefaultAccountAddress(source).flatMap(address -> {
             EnhancedClientTransactionManager txManager = new EnhancedClientTransactionManager(
@@ -236,4 +325,12 @@ public class NestedContractService extends AbstractService {
                 DEFAULT_GAS_LIMIT).newContractC2(newValue).flowable().toObservable();
         });
     }
+
+    /**
+     * @deprecated use {@link #newContractC2(Node, List, String, BigInteger, List)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> newContractC2(QuorumNode source, List<QuorumNode> target, String contractAddress, BigInteger newValue, List<PrivacyFlag> flags) {
+        return newContractC2(networkProperty().getNode(source.name()), target.stream().map(n -> networkProperty().getNode(n.name())).collect(Collectors.toList()), contractAddress, newValue, flags);
+    }
 }
@@ -24,9 +24,6 @@ import com.quorum.gauge.common.QuorumNode;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Service
 public class PrivacyService extends AbstractService {
 
@@ -42,9 +39,12 @@ public class PrivacyService extends AbstractService {
         return v;
     }
 
+    /**
+     * @deprecated use {@link #id(QuorumNetworkProperty.Node)}
+     */
+    @Deprecated
     public String id(QuorumNode node) {
-        QuorumNetworkProperty.Node quorumNodeConfig = getQuorumNodeConfig(node);
-        return getPrivacyAddress(quorumNodeConfig);
+        return id(networkProperty().getNode(node.name()));
     }
 
     public String id(QuorumNetworkProperty.Node node) {
@@ -59,31 +59,19 @@ public class PrivacyService extends AbstractService {
     }
 
     public String id(String alias) {
-        List<String> matches = new ArrayList<>();
-        for (QuorumNetworkProperty.Node node : networkProperty().getNodes().values()) {
-            if (node.getPrivacyAddressAliases().containsKey(alias)) {
-                matches.add(node.getPrivacyAddressAliases().get(alias));
-            }
-        }
-        if (matches.size() == 0) {
-            throw new RuntimeException("private address alias not found: " + alias);
-        }
-        if (matches.size() > 1) {
-            throw new RuntimeException("there are " + matches.size() + " nodes having this privacy address alias: " + alias);
-        }
-        return matches.get(0);
+        return networkProperty().getTopology().privacyAddress(alias);
     }
 
-    public String thirdPartyUrl(QuorumNode node) {
-        return getQuorumNodeConfig(node).getThirdPartyUrl();
+    public String thirdPartyUrl(QuorumNetworkProperty.Node node) {
+        return node.getThirdPartyUrl();
     }
 
-    private QuorumNetworkProperty.Node getQuorumNodeConfig(QuorumNode node) {
-        QuorumNetworkProperty.Node nodeConfig = networkProperty().getNodes().get(node);
-        if (nodeConfig == null) {
-            throw new IllegalArgumentException("Node " + node + " not found in config");
-        }
-        return nodeConfig;
+    /**
+     * @deprecated use {@link #thirdPartyUrl(QuorumNetworkProperty.Node)}
+     */
+    @Deprecated
+    public String thirdPartyUrl(QuorumNode node) {
+        return thirdPartyUrl(networkProperty().getNode(node.name()));
     }
 
 }
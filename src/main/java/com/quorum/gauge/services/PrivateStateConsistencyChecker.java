@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.ext.BatchRequest;
+import com.quorum.gauge.ext.ObjectResponse;
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Check private states of contracts are consistent across nodes.
+ * <p>
+ * Storage roots ({@code eth_storageRoot}) of all contracts are fetched with a single JSON RPC batch per node,
+ * nodes being queried concurrently, then nodes are grouped by storage root for each contract.
+ * State is consistent when all participants share the same root and no other node has it.
+ */
+@Service
+public class PrivateStateConsistencyChecker extends AbstractService {
+    private static final Logger logger = LoggerFactory.getLogger(PrivateStateConsistencyChecker.class);
+
+    // root of nodes not having the contract in their private state or failing to return it
+    public static final String NO_ROOT = "<none>";
+
+    @Autowired
+    RPCService rpcService;
+
+    @Autowired
+    UtilService utilService;
+
+    /**
+     * Compare storage roots at the latest block of each node
+     */
+    public Observable<ConsistencyReport> check(List<ContractParties> contracts, Collection<Node> nodes) {
+        return check(contracts, nodes, DefaultBlockParameterName.LATEST.getValue());
+    }
+
+    /**
+     * Compare storage roots at the highest block all nodes have, so nodes catching up don't appear divergent
+     */
+    public Observable<ConsistencyReport> checkAtCommonBlock(List<ContractParties> contracts, Collection<Node> nodes) {
+        return Observable.fromIterable(nodes)
+                .flatMap(node -> utilService.getCurrentBlockNumberFrom(node).subscribeOn(Schedulers.io()))
+                .map(ethBlockNumber -> ethBlockNumber.getBlockNumber())
+                .reduce(BigInteger::min)
+                .toObservable()
+                .flatMap(block -> check(contracts, nodes, Numeric.encodeQuantity(block)));
+    }
+
+    /**
+     * Keep checking at common blocks until the monitor is stopped, e.g.: while a load is running
+     */
+    public ConsistencyMonitor monitor(List<ContractParties> contracts, Collection<Node> nodes, Duration interval) {
+        ConsistencyMonitor monitor = new ConsistencyMonitor();
+        monitor.subscription = Observable.interval(0, interval.toMillis(), TimeUnit.MILLISECONDS, Schedulers.io())
+                .concatMap(i -> checkAtCommonBlock(contracts, nodes)
+                        .doOnError(e -> logger.warn("Consistency check failed: {}", e.getMessage()))
+                        .onErrorResumeNext(Observable.empty()))
+                .subscribe(monitor::record);
+        return monitor;
+    }
+
+    private Observable<ConsistencyReport> check(List<ContractParties> contracts, Collection<Node> nodes, String block) {
+        return Observable.fromIterable(nodes)
+                .flatMap(node -> storageRoots(node, contracts, block).subscribeOn(Schedulers.io()))
+                .collect(() -> new ConsistencyReport(block, contracts), ConsistencyReport::add)
+                .toObservable();
+    }
+
+    private Observable<NodeRoots> storageRoots(Node node, List<ContractParties> contracts, String block) {
+        BatchRequest.Collector collector = BatchRequest.Collector.create();
+        for (ContractParties c : contracts) {
+            collector.add("eth_storageRoot", Arrays.asList(c.getContractAddress(), block));
+        }
+        Map<Long, String> addressById = new HashMap<>();
+        List<Request<?, ObjectResponse>> requests = collector.toList();
+        for (int i = 0; i < requests.size(); i++) {
+            addressById.put(requests.get(i).getId(), contracts.get(i).getContractAddress());
+        }
+        return rpcService.call(node, collector).map(batchResponse -> {
+            NodeRoots roots = new NodeRoots(node.getName());
+            for (ObjectResponse res : batchResponse.getResponses()) {
+                String root = res.hasError() || res.getResult() == null ? NO_ROOT : String.valueOf(res.getResult());
+                roots.rootByAddress.put(addressById.get(res.getId()), root);
+            }
+            return roots;
+        });
+    }
+
+    private static class NodeRoots {
+        private final String node;
+        private final Map<String, String> rootByAddress = new HashMap<>();
+
+        NodeRoots(String node) {
+            this.node = node;
+        }
+    }
+
+    public static class ContractParties {
+        private final String contractAddress;
+        private final Set<String> participants;
+
+        private ContractParties(String contractAddress, Set<String> participants) {
+            this.contractAddress = contractAddress;
+            this.participants = participants;
+        }
+
+        public static ContractParties of(String contractAddress, Collection<Node> participants) {
+            return new ContractParties(contractAddress, participants.stream().map(Node::getName).collect(Collectors.toCollection(TreeSet::new)));
+        }
+
+        public String getContractAddress() {
+            return contractAddress;
+        }
+
+        public Set<String> getParticipants() {
+            return participants;
+        }
+    }
+
+    public static class ConsistencyReport {
+        private final String block;
+        private final List<ContractParties> contracts;
+        // contract address -> storage root -> nodes
+        private final Map<String, Map<String, Set<String>>> nodesByRoot = new LinkedHashMap<>();
+
+        ConsistencyReport(String block, List<ContractParties> contracts) {
+            this.block = block;
+            this.contracts = contracts;
+            contracts.forEach(c -> nodesByRoot.put(c.getContractAddress(), new TreeMap<>()));
+        }
+
+        void add(NodeRoots roots) {
+            roots.rootByAddress.forEach((address, root) ->
+                    nodesByRoot.get(address).computeIfAbsent(root, k -> new TreeSet<>()).add(roots.node));
+        }
+
+        public String getBlock() {
+            return block;
+        }
+
+        /**
+         * @return nodes grouped by the storage root of the contract
+         */
+        public Map<String, Set<String>> nodesByRoot(String contractAddress) {
+            return nodesByRoot.getOrDefault(contractAddress, Collections.emptyMap());
+        }
+
+        public Optional<String> rootOf(String contractAddress, String node) {
+            return nodesByRoot(contractAddress).entrySet().stream()
+                    .filter(e -> e.getValue().contains(node))
+                    .map(Map.Entry::getKey)
+                    .findFirst();
+        }
+
+        /**
+         * @return description of each divergence, empty if private states are consistent
+         */
+        public List<String> divergences() {
+            List<String> divergences = new ArrayList<>();
+            for (ContractParties c : contracts) {
+                Map<String, Set<String>> groups = nodesByRoot(c.getContractAddress());
+                Set<String> participantRoots = groups.entrySet().stream()
+                        .filter(e -> !Collections.disjoint(e.getValue(), c.getParticipants()))
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toSet());
+                if (participantRoots.size() > 1 || participantRoots.contains(NO_ROOT)) {
+                    divergences.add(String.format("%s: participants %s diverge at block %s, nodes by root %s", c.getContractAddress(), c.getParticipants(), block, groups));
+                    continue;
+                }
+                for (String root : participantRoots) {
+                    Set<String> strangers = new TreeSet<>(groups.get(root));
+                    strangers.removeAll(c.getParticipants());
+                    if (!strangers.isEmpty()) {
+                        divergences.add(String.format("%s: non-participants %s share the participants' root at block %s", c.getContractAddress(), strangers, block));
+                    }
+                }
+            }
+            return divergences;
+        }
+
+        public boolean isConsistent() {
+            return divergences().isEmpty();
+        }
+    }
+
+    public static class ConsistencyMonitor {
+        private final AtomicLong checks = new AtomicLong();
+        private final List<ConsistencyReport> divergentReports = new CopyOnWriteArrayList<>();
+        private Disposable subscription;
+
+        void record(ConsistencyReport report) {
+            checks.incrementAndGet();
+            if (!report.isConsistent()) {
+                logger.warn("Private state divergence: {}", report.divergences());
+                divergentReports.add(report);
+            }
+        }
+
+        public void stop() {
+            subscription.dispose();
+        }
+
+        public long getChecks() {
+            return checks.get();
+        }
+
+        public List<ConsistencyReport> getDivergentReports() {
+            return divergentReports;
+        }
+    }
+}
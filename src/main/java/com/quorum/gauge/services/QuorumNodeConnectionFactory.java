@@ -29,6 +29,9 @@ import org.web3j.protocol.Web3jService;
 import org.web3j.protocol.http.HttpService;
 import org.web3j.quorum.Quorum;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 public class QuorumNodeConnectionFactory {
     @Autowired
@@ -37,32 +40,53 @@ public class QuorumNodeConnectionFactory {
     @Autowired
     OkHttpClient okHttpClient;
 
+    // connections are stateless hence shared per node url instead of being created per call
+    private final Map<String, Web3jService> web3jServices = new ConcurrentHashMap<>();
+    private final Map<String, Quorum> quorumConnections = new ConcurrentHashMap<>();
+    private final Map<String, Web3j> web3jConnections = new ConcurrentHashMap<>();
+
+    /**
+     * @deprecated use {@link #getConnection(QuorumNetworkProperty.Node)}
+     */
+    @Deprecated
     public Quorum getConnection(QuorumNode node) {
-        return Quorum.build(getWeb3jService(node));
+        return getConnection(nodeConfig(node));
     }
 
     public Quorum getConnection(QuorumNetworkProperty.Node node) {
-        return Quorum.build(getWeb3jService(node));
+        return quorumConnections.computeIfAbsent(node.getUrl(), url -> Quorum.build(getWeb3jService(node)));
     }
 
+    /**
+     * @deprecated use {@link #getWeb3jConnection(QuorumNetworkProperty.Node)}
+     */
+    @Deprecated
     public Web3j getWeb3jConnection(QuorumNode node) {
-        return Web3j.build(getWeb3jService(node));
+        return getWeb3jConnection(nodeConfig(node));
     }
 
     public Web3j getWeb3jConnection(QuorumNetworkProperty.Node node) {
-        return Web3j.build(getWeb3jService(node));
+        return web3jConnections.computeIfAbsent(node.getUrl(), url -> Web3j.build(getWeb3jService(node)));
     }
 
+    /**
+     * @deprecated use {@link #getWeb3jService(QuorumNetworkProperty.Node)}
+     */
+    @Deprecated
     public Web3jService getWeb3jService(QuorumNode node) {
-        QuorumNetworkProperty.Node nodeConfig = networkProperty.getNodes().get(node);
-        if (nodeConfig == null) {
-            throw new IllegalArgumentException("Can't find node " + node + " in the configuration");
-        }
-        return getWeb3jService(nodeConfig);
+        return getWeb3jService(nodeConfig(node));
     }
 
     public Web3jService getWeb3jService(QuorumNetworkProperty.Node node) {
-        return new HttpService(node.getUrl(), okHttpClient, false);
+        return web3jServices.computeIfAbsent(node.getUrl(), url -> new HttpService(url, okHttpClient, false));
+    }
+
+    private QuorumNetworkProperty.Node nodeConfig(QuorumNode node) {
+        QuorumNetworkProperty.Node nodeConfig = networkProperty.getNodes().get(node.name());
+        if (nodeConfig == null) {
+            throw new IllegalArgumentException("Can't find node " + node + " in the configuration");
+        }
+        return nodeConfig;
     }
 
     public QuorumNetworkProperty getNetworkProperty() {
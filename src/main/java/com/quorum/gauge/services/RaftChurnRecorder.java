@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quorum.gauge.common.NetworkTopology;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.ext.BatchRequest;
+import com.quorum.gauge.ext.ObjectResponse;
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.utils.Numeric;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record the Raft leader and block production of a network while its membership changes, to measure
+ * the cost of each change: how long block production stalls and how long a leader change takes.
+ * <p>
+ * {@code raft_leader} and {@code eth_blockNumber} are sampled in one batch at a fixed interval, from the first observer
+ * that answers so that restarting an observer does not interrupt the recording.
+ * Changes are marked as they begin, a change lasts until the next one begins or the recording stops.
+ */
+@Service
+public class RaftChurnRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(RaftChurnRecorder.class);
+
+    @Autowired
+    RPCService rpcService;
+
+    public Recording start(List<Node> observers, Duration interval) {
+        return new Recording(observers, interval);
+    }
+
+    public class Recording {
+        private final List<Node> observers;
+        private final long startedAt = System.currentTimeMillis();
+        // times new blocks were first seen
+        private final List<Long> blocks = new ArrayList<>();
+        // times the leader changed, null while there is no leader
+        private final List<Long> leaderChangedAt = new ArrayList<>();
+        private final List<String> leaders = new ArrayList<>();
+        private final List<Long> changeStartedAt = new ArrayList<>();
+        private final List<String> changes = new ArrayList<>();
+        private final Disposable sampling;
+        private BigInteger height;
+
+        private Recording(List<Node> observers, Duration interval) {
+            this.observers = observers;
+            sampling = Observable.defer(() -> sample(0))
+                    .repeatWhen(done -> done.delay(interval.toMillis(), TimeUnit.MILLISECONDS))
+                    .subscribeOn(Schedulers.io())
+                    .subscribe(this::record, e -> logger.warn("Stopped recording raft leader: {}", e.getMessage()));
+            logger.debug("Recording raft leader and block production of {} every {}ms", observers, interval.toMillis());
+        }
+
+        private Observable<Observation> sample(int observerIndex) {
+            BatchRequest.Collector collector = BatchRequest.Collector.create();
+            collector.add("raft_leader", Collections.emptyList());
+            collector.add("eth_blockNumber", Collections.emptyList());
+            long leaderId = collector.toList().get(0).getId();
+            long heightId = collector.toList().get(1).getId();
+            Observable<Observation> call = rpcService.call(observers.get(observerIndex), collector).map(res -> {
+                Observation o = new Observation();
+                for (ObjectResponse r : res.getResponses()) {
+                    // raft_leader fails while there is no leader
+                    if (r.hasError() || !(r.getResult() instanceof String)) {
+                        continue;
+                    }
+                    if (r.getId() == leaderId) {
+                        o.leader = StringUtils.defaultIfBlank(NetworkTopology.enodeId((String) r.getResult()), null);
+                    } else if (r.getId() == heightId) {
+                        o.height = Numeric.decodeQuantity((String) r.getResult());
+                    }
+                }
+                return o;
+            });
+            if (observerIndex + 1 < observers.size()) {
+                return call.onErrorResumeNext(sample(observerIndex + 1));
+            }
+            return call.onErrorResumeNext(Observable.empty());
+        }
+
+        private synchronized void record(Observation o) {
+            long now = System.currentTimeMillis() - startedAt;
+            if (leaders.isEmpty() || !Objects.equals(leaders.get(leaders.size() - 1), o.leader)) {
+                leaderChangedAt.add(now);
+                leaders.add(o.leader);
+            }
+            if (o.height != null && (height == null || o.height.compareTo(height) > 0)) {
+                height = o.height;
+                blocks.add(now);
+            }
+        }
+
+        /**
+         * Mark the beginning of a membership change
+         */
+        public synchronized void change(String name) {
+            logger.debug("Raft membership change: {}", name);
+            changeStartedAt.add(System.currentTimeMillis() - startedAt);
+            changes.add(name);
+        }
+
+        /**
+         * Stop sampling and write the report
+         */
+        public Report stop(File json) throws IOException {
+            sampling.dispose();
+            Report report;
+            synchronized (this) {
+                long stoppedAt = System.currentTimeMillis() - startedAt;
+                List<Change> measured = new ArrayList<>();
+                for (int i = 0; i < changes.size(); i++) {
+                    long from = changeStartedAt.get(i);
+                    long to = i + 1 < changes.size() ? changeStartedAt.get(i + 1) : stoppedAt;
+                    measured.add(measure(changes.get(i), from, to));
+                }
+                long firstChange = changeStartedAt.isEmpty() ? stoppedAt : changeStartedAt.get(0);
+                report = new Report(medianBlockGap(firstChange), measured);
+            }
+            json.getParentFile().mkdirs();
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(json, report);
+            logger.debug("Raft churn report written to {}", json);
+            return report;
+        }
+
+        private Change measure(String name, long from, long to) {
+            Change c = new Change(name, from, to - from);
+            // block production stalls from the beginning of the change or the last block before it
+            long previous = from;
+            for (long t : blocks) {
+                if (t <= from) {
+                    continue;
+                }
+                if (t > to) {
+                    break;
+                }
+                c.longestBlockGapMillis = Math.max(c.longestBlockGapMillis, t - previous);
+                previous = t;
+            }
+            c.longestBlockGapMillis = Math.max(c.longestBlockGapMillis, to - previous);
+            c.blocks = (int) blocks.stream().filter(t -> t > from && t <= to).count();
+            String before = leaderAt(from);
+            c.leaderBefore = shortId(before);
+            for (int i = 0; i < leaderChangedAt.size(); i++) {
+                long at = leaderChangedAt.get(i);
+                if (at > to) {
+                    break;
+                }
+                long end = i + 1 < leaderChangedAt.size() ? Math.min(leaderChangedAt.get(i + 1), to) : to;
+                if (leaders.get(i) == null && end > from) {
+                    c.leaderlessMillis += end - Math.max(at, from);
+                }
+                if (at > from && leaders.get(i) != null && !leaders.get(i).equals(before) && c.newLeaderAfterMillis == null) {
+                    c.newLeaderAfterMillis = at - from;
+                    c.leaderAfter = shortId(leaders.get(i));
+                }
+            }
+            return c;
+        }
+
+        private String leaderAt(long t) {
+            String leader = null;
+            for (int i = 0; i < leaderChangedAt.size() && leaderChangedAt.get(i) <= t; i++) {
+                leader = leaders.get(i);
+            }
+            return leader;
+        }
+
+        private long medianBlockGap(long until) {
+            List<Long> gaps = new ArrayList<>();
+            for (int i = 1; i < blocks.size() && blocks.get(i) <= until; i++) {
+                gaps.add(blocks.get(i) - blocks.get(i - 1));
+            }
+            if (gaps.isEmpty()) {
+                return 0;
+            }
+            Collections.sort(gaps);
+            return gaps.get(gaps.size() / 2);
+        }
+    }
+
+    private static class Observation {
+        String leader;
+        BigInteger height;
+    }
+
+    private static String shortId(String enodeId) {
+        return StringUtils.substring(enodeId, 0, 12);
+    }
+
+    public static class Report {
+        private final long baselineBlockGapMillis;
+        private final List<Change> changes;
+
+        Report(long baselineBlockGapMillis, List<Change> changes) {
+            this.baselineBlockGapMillis = baselineBlockGapMillis;
+            this.changes = changes;
+        }
+
+        /**
+         * @return median time between blocks before the first change
+         */
+        public long getBaselineBlockGapMillis() {
+            return baselineBlockGapMillis;
+        }
+
+        public List<Change> getChanges() {
+            return changes;
+        }
+    }
+
+    /**
+     * A membership change, times are relative to its beginning
+     */
+    public static class Change {
+        private final String name;
+        private final long startedAtMillis;
+        private final long durationMillis;
+        private int blocks;
+        private long longestBlockGapMillis;
+        private String leaderBefore;
+        private String leaderAfter;
+        private Long newLeaderAfterMillis;
+        private long leaderlessMillis;
+
+        Change(String name, long startedAtMillis, long durationMillis) {
+            this.name = name;
+            this.startedAtMillis = startedAtMillis;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return time from the beginning of the recording
+         */
+        public long getStartedAtMillis() {
+            return startedAtMillis;
+        }
+
+        /**
+         * @return time until the next change began or the recording stopped
+         */
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public int getBlocks() {
+            return blocks;
+        }
+
+        public long getLongestBlockGapMillis() {
+            return longestBlockGapMillis;
+        }
+
+        public String getLeaderBefore() {
+            return leaderBefore;
+        }
+
+        public String getLeaderAfter() {
+            return leaderAfter;
+        }
+
+        /**
+         * @return time until another node became leader, {@code null} if the leader did not change
+         */
+        public Long getNewLeaderAfterMillis() {
+            return newLeaderAfterMillis;
+        }
+
+        public long getLeaderlessMillis() {
+            return leaderlessMillis;
+        }
+    }
+}
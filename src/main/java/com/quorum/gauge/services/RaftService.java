@@ -19,6 +19,7 @@
 
 package com.quorum.gauge.services;
 
+import com.quorum.gauge.common.NetworkTopology;
 import com.quorum.gauge.common.NodeType;
 import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.common.QuorumNode;
@@ -35,16 +36,36 @@ import org.web3j.protocol.core.Response;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class RaftService extends AbstractService {
     private static final Logger logger = LoggerFactory.getLogger(RaftService.class);
 
+    // node url -> enode ID, only used when enode URLs are not configured
+    private final Map<String, String> enodeIdsByUrl = new ConcurrentHashMap<>();
+
+    /**
+     * Forget enode IDs retrieved from the nodes, e.g.: when the network is recreated with new node keys
+     */
+    public void clearCaches() {
+        enodeIdsByUrl.clear();
+    }
+
     public Observable<RaftAddPeer> addPeer(String existingNode, String enodeUrl, NodeType nodeType) {
-        return addPeer(QuorumNode.valueOf(existingNode), enodeUrl, nodeType);
+        return addPeer(networkProperty().getNode(existingNode), enodeUrl, nodeType);
     }
 
+    /**
+     * @deprecated use {@link #addPeer(Node, String, NodeType)}
+     */
+    @Deprecated
     public Observable<RaftAddPeer> addPeer(QuorumNode node, String enode, NodeType nodeType) {
+        return addPeer(networkProperty().getNode(node.name()), enode, nodeType);
+    }
+
+    public Observable<RaftAddPeer> addPeer(Node node, String enode, NodeType nodeType) {
         String rpcMethod = nodeType == NodeType.peer ? "raft_addPeer" : "raft_addLearner";
         Request<?, RaftService.RaftAddPeer> request = new Request<>(
                 rpcMethod,
@@ -59,23 +80,42 @@ public class RaftService extends AbstractService {
     }
 
     public Observable<RaftPromoteLearner> promoteToPeer(String frmNode, Integer learnerRaftId) {
+        Node node = networkProperty().getNode(frmNode);
         Request<?, RaftService.RaftPromoteLearner> request = new Request<>(
             "raft_promoteToPeer",
             Arrays.asList(learnerRaftId.intValue()),
-            connectionFactory().getWeb3jService(QuorumNode.valueOf(frmNode)),
+            connectionFactory().getWeb3jService(node),
             RaftService.RaftPromoteLearner.class
         );
         return request.flowable().toObservable().map(rf -> {
-            rf.setNode(QuorumNode.valueOf(frmNode));
+            rf.setNode(node);
             return rf;
         });
     }
 
+    public Observable<RaftRemovePeer> removePeer(Node node, Integer raftId) {
+        Request<?, RaftService.RaftRemovePeer> request = new Request<>(
+            "raft_removePeer",
+            Arrays.asList(raftId.intValue()),
+            connectionFactory().getWeb3jService(node),
+            RaftService.RaftRemovePeer.class
+        );
+        return request.flowable().toObservable();
+    }
+
     public Observable<RaftCluster> getCluster(String existingNode) {
-        return getCluster(QuorumNode.valueOf(existingNode));
+        return getCluster(networkProperty().getNode(existingNode));
     }
 
+    /**
+     * @deprecated use {@link #getCluster(Node)}
+     */
+    @Deprecated
     public Observable<RaftCluster> getCluster(QuorumNode node) {
+        return getCluster(networkProperty().getNode(node.name()));
+    }
+
+    public Observable<RaftCluster> getCluster(Node node) {
         Request<String, RaftCluster> request = new Request<>(
                 "raft_cluster",
                 null,
@@ -85,10 +125,19 @@ public class RaftService extends AbstractService {
     }
 
     /**
-     * Retrieve the enode for the raft leader and compare it with the enode of
-     * all the peers to convert it into a QuorumNode identity.
+     * @deprecated use {@link #getLeader(Node)}
      */
+    @Deprecated
     public QuorumNode getLeader(QuorumNode node) {
+        return QuorumNode.valueOf(getLeader(networkProperty().getNode(node.name())).getName());
+    }
+
+    /**
+     * Retrieve the enode for the raft leader and look it up in the network topology.
+     * If enode URLs are not configured, compare it with the enode of
+     * all the peers to convert it into a node identity.
+     */
+    public Node getLeader(Node node) {
         Request<String, RaftLeader> request = new Request<>(
                 "raft_leader",
                 null,
@@ -98,20 +147,26 @@ public class RaftService extends AbstractService {
         String leaderEnode = response.getResult();
         logger.debug("Retrieved leader enode: {}", leaderEnode);
 
-        Map<QuorumNode, Node> nodes = connectionFactory().getNetworkProperty().getNodes();
-        for (QuorumNode nodeId : nodes.keySet()) {
-            Request<?, NodeInfo> nodeInfoRequest = new Request<>(
-                    "admin_nodeInfo",
-                    null,
-                    connectionFactory().getWeb3jService(nodeId),
-                    NodeInfo.class
-            );
-
-            NodeInfo nodeInfo = nodeInfoRequest.flowable().toObservable().blockingFirst();
-            String thisEnode = nodeInfo.getEnode();
-            logger.debug("Retrieved enode info: {}", thisEnode);
-            if (thisEnode.contains(leaderEnode)) {
-                return nodeId;
+        String leaderId = NetworkTopology.enodeId(leaderEnode);
+        NetworkTopology topology = connectionFactory().getNetworkProperty().getTopology();
+        Optional<Node> leader = Optional.ofNullable(leaderId).flatMap(topology::nodeByEnodeId);
+        if (leader.isPresent()) {
+            return leader.get();
+        }
+        for (Node n : topology.getNodes().values()) {
+            String thisEnode = enodeIdsByUrl.computeIfAbsent(n.getUrl(), url -> {
+                Request<?, NodeInfo> nodeInfoRequest = new Request<>(
+                        "admin_nodeInfo",
+                        null,
+                        connectionFactory().getWeb3jService(n),
+                        NodeInfo.class
+                );
+                NodeInfo nodeInfo = nodeInfoRequest.flowable().toObservable().blockingFirst();
+                logger.debug("Retrieved enode info: {}", nodeInfo.getEnode());
+                return NetworkTopology.enodeId(nodeInfo.getEnode());
+            });
+            if (thisEnode != null && leaderId != null && thisEnode.contains(leaderId)) {
+                return n;
             }
         }
 
@@ -119,28 +174,31 @@ public class RaftService extends AbstractService {
     }
 
     public static class RaftAddPeer extends Response<Integer> {
-        private QuorumNode node;
+        private Node node;
 
         // node that perform addPeer
-        public QuorumNode getNode() {
+        public Node getNode() {
             return node;
         }
 
-        public void setNode(QuorumNode node) {
+        public void setNode(Node node) {
             this.node = node;
         }
     }
 
     public static class RaftPromoteLearner extends Response<Boolean> {
-        private QuorumNode node;
+        private Node node;
 
         // node that perform promoteToPeer
-        public QuorumNode getNode() {
+        public Node getNode() {
             return node;
         }
 
-        public void setNode(QuorumNode node) {
+        public void setNode(Node node) {
             this.node = node;
         }
     }
+
+    public static class RaftRemovePeer extends Response<Object> {
+    }
 }
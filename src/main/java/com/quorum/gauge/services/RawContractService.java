@@ -19,8 +19,8 @@
 
 package com.quorum.gauge.services;
 
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.common.QuorumNode;
-import com.quorum.gauge.common.RetryWithDelay;
 import com.quorum.gauge.common.config.WalletData;
 import com.quorum.gauge.ext.filltx.FillTransactionResponse;
 import com.quorum.gauge.ext.filltx.PrivateFillTransaction;
@@ -82,7 +82,10 @@ public class RawContractService extends AbstractService {
     @Autowired
     OkHttpClient httpClient;
 
-    public Observable<? extends Contract> createRawSimplePublicContract(int initialValue, WalletData wallet, QuorumNode source) {
+    @Autowired
+    UtilService utilService;
+
+    public Observable<? extends Contract> createRawSimplePublicContract(int initialValue, WalletData wallet, Node source) {
         Web3j web3j = connectionFactory().getWeb3jConnection(source);
 
         try {
@@ -109,7 +112,15 @@ public class RawContractService extends AbstractService {
         }
     }
 
-    public Observable<TransactionReceipt> updateRawSimplePublicContract(QuorumNode source, WalletData wallet, String contractAddress, int newValue) {
+    /**
+     * @deprecated use {@link #createRawSimplePublicContract(int, WalletData, Node)}
+     */
+    @Deprecated
+    public Observable<? extends Contract> createRawSimplePublicContract(int initialValue, WalletData wallet, QuorumNode source) {
+        return createRawSimplePublicContract(initialValue, wallet, networkProperty().getNode(source.name()));
+    }
+
+    public Observable<TransactionReceipt> updateRawSimplePublicContract(Node source, WalletData wallet, String contractAddress, int newValue) {
         Web3j web3j = connectionFactory().getWeb3jConnection(source);
 
         try {
@@ -135,8 +146,16 @@ public class RawContractService extends AbstractService {
         }
     }
 
+    /**
+     * @deprecated use {@link #updateRawSimplePublicContract(Node, WalletData, String, int)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> updateRawSimplePublicContract(QuorumNode source, WalletData wallet, String contractAddress, int newValue) {
+        return updateRawSimplePublicContract(networkProperty().getNode(source.name()), wallet, contractAddress, newValue);
+    }
 
-    public Observable<? extends Contract> createRawSimplePrivateContract(int initialValue, WalletData wallet, QuorumNode source, QuorumNode target) {
+
+    public Observable<? extends Contract> createRawSimplePrivateContract(int initialValue, WalletData wallet, Node source, Node target) {
         Quorum client = connectionFactory().getConnection(source);
         Enclave enclave = buildEnclave(source, client);
 
@@ -166,7 +185,15 @@ public class RawContractService extends AbstractService {
         }
     }
 
-    public Observable<TransactionReceipt> updateRawSimplePrivateContract(int newValue, String contractAddress, WalletData wallet, QuorumNode source, QuorumNode target) {
+    /**
+     * @deprecated use {@link #createRawSimplePrivateContract(int, WalletData, Node, Node)}
+     */
+    @Deprecated
+    public Observable<? extends Contract> createRawSimplePrivateContract(int initialValue, WalletData wallet, QuorumNode source, QuorumNode target) {
+        return createRawSimplePrivateContract(initialValue, wallet, networkProperty().getNode(source.name()), networkProperty().getNode(target.name()));
+    }
+
+    public Observable<TransactionReceipt> updateRawSimplePrivateContract(int newValue, String contractAddress, WalletData wallet, Node source, Node target) {
         Quorum client = connectionFactory().getConnection(source);
         Enclave enclave = buildEnclave(source, client);
 
@@ -195,7 +222,15 @@ public class RawContractService extends AbstractService {
         }
     }
 
-    public Observable<EthSendTransaction> createRawSimplePrivateContractUsingEthApi(String apiMethod, int initialValue, QuorumNode source, QuorumNode target) {
+    /**
+     * @deprecated use {@link #updateRawSimplePrivateContract(int, String, WalletData, Node, Node)}
+     */
+    @Deprecated
+    public Observable<TransactionReceipt> updateRawSimplePrivateContract(int newValue, String contractAddress, WalletData wallet, QuorumNode source, QuorumNode target) {
+        return updateRawSimplePrivateContract(newValue, contractAddress, wallet, networkProperty().getNode(source.name()), networkProperty().getNode(target.name()));
+    }
+
+    public Observable<EthSendTransaction> createRawSimplePrivateContractUsingEthApi(String apiMethod, int initialValue, Node source, Node target) {
         Quorum client = connectionFactory().getConnection(source);
         Enclave enclave = buildEnclave(source, client);
 
@@ -210,7 +245,15 @@ public class RawContractService extends AbstractService {
         return transactionService.sendSignedPrivateTransaction(apiMethod, tmHash, source, target, null);
     }
 
-    public Observable<EthGetTransactionReceipt> updateRawSimplePrivateContractUsingEthApi(String apiMethod, int newValue, String contractAddress, QuorumNode source, QuorumNode target) {
+    /**
+     * @deprecated use {@link #createRawSimplePrivateContractUsingEthApi(String, int, Node, Node)}
+     */
+    @Deprecated
+    public Observable<EthSendTransaction> createRawSimplePrivateContractUsingEthApi(String apiMethod, int initialValue, QuorumNode source, QuorumNode target) {
+        return createRawSimplePrivateContractUsingEthApi(apiMethod, initialValue, networkProperty().getNode(source.name()), networkProperty().getNode(target.name()));
+    }
+
+    public Observable<EthGetTransactionReceipt> updateRawSimplePrivateContractUsingEthApi(String apiMethod, int newValue, String contractAddress, Node source, Node target) {
         Quorum client = connectionFactory().getConnection(source);
         Enclave enclave = buildEnclave(source, client);
 
@@ -236,10 +279,18 @@ public class RawContractService extends AbstractService {
                 } else {
                     throw new RuntimeException("retry");
                 }
-            }).retryWhen(new RetryWithDelay(20, 3000));
+            }).retryWhen(utilService.untilMined(source));
     }
 
-    public Observable<FillTransactionResponse> fillTransaction(QuorumNode from, QuorumNode to, int initValue) {
+    /**
+     * @deprecated use {@link #updateRawSimplePrivateContractUsingEthApi(String, int, String, Node, Node)}
+     */
+    @Deprecated
+    public Observable<EthGetTransactionReceipt> updateRawSimplePrivateContractUsingEthApi(String apiMethod, int newValue, String contractAddress, QuorumNode source, QuorumNode target) {
+        return updateRawSimplePrivateContractUsingEthApi(apiMethod, newValue, contractAddress, networkProperty().getNode(source.name()), networkProperty().getNode(target.name()));
+    }
+
+    public Observable<FillTransactionResponse> fillTransaction(Node from, Node to, int initValue) {
         String data = base64ToHex(base64SimpleStorageConstructorBytecode(initValue));
         return Observable.zip(
             accountService.getDefaultAccountAddress(from).subscribeOn(Schedulers.io()),
@@ -265,7 +316,15 @@ public class RawContractService extends AbstractService {
             });
     }
 
-    public Observable<FillTransactionResponse> signTransaction(QuorumNode from, PrivateFillTransaction tx) {
+    /**
+     * @deprecated use {@link #fillTransaction(Node, Node, int)}
+     */
+    @Deprecated
+    public Observable<FillTransactionResponse> fillTransaction(QuorumNode from, QuorumNode to, int initValue) {
+        return fillTransaction(networkProperty().getNode(from.name()), networkProperty().getNode(to.name()), initValue);
+    }
+
+    public Observable<FillTransactionResponse> signTransaction(Node from, PrivateFillTransaction tx) {
         Web3j client = connectionFactory().getConnection(from);
 
         Request<?, FillTransactionResponse> request = new Request<>(
@@ -278,12 +337,28 @@ public class RawContractService extends AbstractService {
         return request.flowable().toObservable();
     }
 
-    public Observable<EthSendTransaction> sendRawPrivateTransaction(QuorumNode from, String rawHexString, QuorumNode privateFor) {
+    /**
+     * @deprecated use {@link #signTransaction(Node, PrivateFillTransaction)}
+     */
+    @Deprecated
+    public Observable<FillTransactionResponse> signTransaction(QuorumNode from, PrivateFillTransaction tx) {
+        return signTransaction(networkProperty().getNode(from.name()), tx);
+    }
+
+    public Observable<EthSendTransaction> sendRawPrivateTransaction(Node from, String rawHexString, Node privateFor) {
         Quorum quorumClient = connectionFactory().getConnection(from);
 
         return quorumClient.ethSendRawPrivateTransaction(rawHexString, Arrays.asList(privacyService.id(privateFor))).flowable().toObservable();
     }
 
+    /**
+     * @deprecated use {@link #sendRawPrivateTransaction(Node, String, Node)}
+     */
+    @Deprecated
+    public Observable<EthSendTransaction> sendRawPrivateTransaction(QuorumNode from, String rawHexString, QuorumNode privateFor) {
+        return sendRawPrivateTransaction(networkProperty().getNode(from.name()), rawHexString, networkProperty().getNode(privateFor.name()));
+    }
+
 
     private String base64SimpleStorageConstructorBytecode(int initialValue) {
         final InputStream binaryStream = SimpleStorage.class.getResourceAsStream("/com.quorum.gauge.sol/SimpleStorage.bin");
@@ -325,7 +400,7 @@ public class RawContractService extends AbstractService {
         return Numeric.toHexString(raw);
     }
 
-    private Enclave buildEnclave(QuorumNode source, Quorum client){
+    private Enclave buildEnclave(Node source, Quorum client){
         String thirdPartyURL = privacyService.thirdPartyUrl(source);
         if (thirdPartyURL.endsWith("ipc")){
             EnclaveService enclaveService = new EnclaveService("http://localhost", 12345, getIPCHttpClient(thirdPartyURL));
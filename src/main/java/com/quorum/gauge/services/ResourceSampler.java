@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quorum.gauge.common.QuorumNetworkProperty;
+import com.quorum.gauge.common.instrumentation.LiveMetrics;
+import com.quorum.gauge.services.InfrastructureService.ResourceUsage;
+import io.reactivex.Observable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Sample resource usage of node containers at a fixed interval, alongside the harness throughput and latency
+ * from {@link LiveMetrics}, so that when a node saturates under load we can tell whether Quorum or Tessera ran out
+ * of CPU or memory.
+ * <p>
+ * Each sample is a CSV row per container, the report is written next to it as JSON.
+ */
+@Service
+public class ResourceSampler {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceSampler.class);
+
+    static final String CSV_HEADER = "elapsed_ms,container,cpu_percent,cpu_limit_percent,memory_bytes,memory_limit_bytes,"
+            + "net_rx_bytes,net_tx_bytes,block_read_bytes,block_write_bytes,"
+            + "tx_submitted_per_s,tx_confirmed_per_s,receipt_latency_ms,tx_inflight";
+    // a resource is considered saturated when its usage reaches this ratio of its limit
+    private static final double SATURATION_RATIO = 0.9;
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    InfrastructureService infraService;
+
+    @Autowired
+    LiveMetrics liveMetrics;
+
+    @Autowired
+    QuorumNetworkProperty networkProperty;
+
+    /**
+     * @param resources resource ids keyed by a label used in the samples, e.g.: {@code Node1-quorum}
+     * @param csv       file where samples are written, the report goes to the same path with {@code .json} extension
+     */
+    public Recording start(Map<String, String> resources, Duration interval, File csv) throws IOException {
+        return new Recording(resources, interval, csv);
+    }
+
+    public class Recording {
+        private final File csv;
+        private final PrintWriter writer;
+        private final long startedAt = System.currentTimeMillis();
+        private final Map<String, ResourceUsage> latest = new ConcurrentHashMap<>();
+        private final Map<String, ContainerSummary> containers = new TreeMap<>();
+        private final CompositeDisposable subscriptions = new CompositeDisposable();
+        // LiveMetrics is only fed when JSON RPC calls are intercepted
+        private final boolean throughputRecorded;
+        private final double startSubmitted;
+        private final long startConfirmed;
+        private final double startLatencyTotal;
+        private long lastTick;
+        private double lastSubmitted;
+        private long lastConfirmed;
+        private double lastLatencyTotal;
+        private double peakConfirmedPerSecond;
+
+        private Recording(Map<String, String> resources, Duration interval, File csv) throws IOException {
+            this.csv = csv;
+            csv.getParentFile().mkdirs();
+            this.writer = new PrintWriter(new FileWriter(csv));
+            writer.println(CSV_HEADER);
+            QuorumNetworkProperty.InstrumentationProperty instrumentation = networkProperty.getInstrumentation();
+            throughputRecorded = instrumentation.isEnabled() || instrumentation.isFlightRecorder();
+            if (!throughputRecorded) {
+                logger.warn("JSON RPC instrumentation is disabled, throughput and latency are not recorded in {}. Set QUORUM_INSTRUMENTATION_ENABLED=true to record them", csv);
+            }
+            startSubmitted = lastSubmitted = liveMetrics.submittedCount();
+            startConfirmed = lastConfirmed = liveMetrics.confirmedCount();
+            startLatencyTotal = lastLatencyTotal = liveMetrics.confirmedLatencyTotalMillis();
+            lastTick = startedAt;
+            resources.forEach((label, id) -> {
+                containers.put(label, new ContainerSummary());
+                subscriptions.add(infraService.streamResourceUsage(id)
+                        .subscribe(u -> latest.put(label, u), e -> logger.warn("Stopped sampling {}: {}", label, e.getMessage())));
+            });
+            subscriptions.add(Observable.interval(interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS, Schedulers.single())
+                    .subscribe(t -> tick()));
+            logger.debug("Sampling resource usage of {} every {}ms into {}", resources.keySet(), interval.toMillis(), csv);
+        }
+
+        private synchronized void tick() {
+            long now = System.currentTimeMillis();
+            double seconds = Math.max(1, now - lastTick) / 1000.0;
+            double submitted = liveMetrics.submittedCount();
+            long confirmed = liveMetrics.confirmedCount();
+            double latencyTotal = liveMetrics.confirmedLatencyTotalMillis();
+            double submittedPerSecond = (submitted - lastSubmitted) / seconds;
+            double confirmedPerSecond = (confirmed - lastConfirmed) / seconds;
+            double latency = confirmed > lastConfirmed ? (latencyTotal - lastLatencyTotal) / (confirmed - lastConfirmed) : 0;
+            long inFlight = liveMetrics.inFlightCount();
+            peakConfirmedPerSecond = Math.max(peakConfirmedPerSecond, confirmedPerSecond);
+            for (Map.Entry<String, ContainerSummary> e : containers.entrySet()) {
+                ResourceUsage u = latest.get(e.getKey());
+                if (u == null) {
+                    continue;
+                }
+                e.getValue().add(u, confirmedPerSecond);
+                writer.printf(Locale.ROOT, "%d,%s,%.1f,%.0f,%d,%d,%d,%d,%d,%d,",
+                        now - startedAt, e.getKey(), u.getCpuPercent(), u.getCpuLimitPercent(), u.getMemoryBytes(), u.getMemoryLimitBytes(),
+                        u.getNetworkRxBytes(), u.getNetworkTxBytes(), u.getBlockReadBytes(), u.getBlockWriteBytes());
+                if (throughputRecorded) {
+                    writer.printf(Locale.ROOT, "%.1f,%.1f,%.1f,%d%n", submittedPerSecond, confirmedPerSecond, latency, inFlight);
+                } else {
+                    // empty rather than zeros which would read as no throughput
+                    writer.println(",,,");
+                }
+            }
+            writer.flush();
+            lastTick = now;
+            lastSubmitted = submitted;
+            lastConfirmed = confirmed;
+            lastLatencyTotal = latencyTotal;
+        }
+
+        /**
+         * Stop sampling and write the report
+         */
+        public synchronized Report stop() throws IOException {
+            subscriptions.dispose();
+            writer.close();
+            long confirmed = liveMetrics.confirmedCount() - startConfirmed;
+            Report report = new Report(
+                    System.currentTimeMillis() - startedAt,
+                    liveMetrics.submittedCount() - startSubmitted,
+                    confirmed,
+                    confirmed > 0 ? (liveMetrics.confirmedLatencyTotalMillis() - startLatencyTotal) / confirmed : 0,
+                    peakConfirmedPerSecond,
+                    containers);
+            File json = new File(csv.getParentFile(), csv.getName().replaceFirst("\\.csv$", "") + ".json");
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(json, report);
+            logger.debug("Resource usage report written to {}", json);
+            return report;
+        }
+    }
+
+    public static class Report {
+        private final long durationMillis;
+        private final double submitted;
+        private final long confirmed;
+        private final double meanReceiptLatencyMillis;
+        private final double peakConfirmedPerSecond;
+        private final Map<String, ContainerSummary> containers;
+
+        Report(long durationMillis, double submitted, long confirmed, double meanReceiptLatencyMillis, double peakConfirmedPerSecond, Map<String, ContainerSummary> containers) {
+            this.durationMillis = durationMillis;
+            this.submitted = submitted;
+            this.confirmed = confirmed;
+            this.meanReceiptLatencyMillis = meanReceiptLatencyMillis;
+            this.peakConfirmedPerSecond = peakConfirmedPerSecond;
+            this.containers = containers;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public double getSubmitted() {
+            return submitted;
+        }
+
+        public long getConfirmed() {
+            return confirmed;
+        }
+
+        public double getMeanReceiptLatencyMillis() {
+            return meanReceiptLatencyMillis;
+        }
+
+        public double getPeakConfirmedPerSecond() {
+            return peakConfirmedPerSecond;
+        }
+
+        public Map<String, ContainerSummary> getContainers() {
+            return containers;
+        }
+
+        /**
+         * @return labels of containers which ran out of CPU or memory at some point
+         */
+        public List<String> saturated() {
+            return containers.entrySet().stream()
+                    .filter(e -> e.getValue().isCpuSaturated() || e.getValue().isMemorySaturated())
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    public static class ContainerSummary {
+        private int samples;
+        private double totalCpuPercent;
+        private double maxCpuPercent;
+        private double cpuLimitPercent;
+        private long maxMemoryBytes;
+        private long memoryLimitBytes;
+        private double confirmedPerSecondAtMaxCpu;
+
+        void add(ResourceUsage u, double confirmedPerSecond) {
+            samples++;
+            totalCpuPercent += u.getCpuPercent();
+            if (u.getCpuPercent() >= maxCpuPercent) {
+                maxCpuPercent = u.getCpuPercent();
+                confirmedPerSecondAtMaxCpu = confirmedPerSecond;
+            }
+            cpuLimitPercent = u.getCpuLimitPercent();
+            maxMemoryBytes = Math.max(maxMemoryBytes, u.getMemoryBytes());
+            memoryLimitBytes = u.getMemoryLimitBytes();
+        }
+
+        public int getSamples() {
+            return samples;
+        }
+
+        public double getAvgCpuPercent() {
+            return samples == 0 ? 0 : totalCpuPercent / samples;
+        }
+
+        public double getMaxCpuPercent() {
+            return maxCpuPercent;
+        }
+
+        public double getCpuLimitPercent() {
+            return cpuLimitPercent;
+        }
+
+        public long getMaxMemoryBytes() {
+            return maxMemoryBytes;
+        }
+
+        public long getMemoryLimitBytes() {
+            return memoryLimitBytes;
+        }
+
+        public double getConfirmedPerSecondAtMaxCpu() {
+            return confirmedPerSecondAtMaxCpu;
+        }
+
+        public boolean isCpuSaturated() {
+            return cpuLimitPercent > 0 && maxCpuPercent >= SATURATION_RATIO * cpuLimitPercent;
+        }
+
+        /**
+         * @return false without memory limit as the container can use all of the host memory
+         */
+        public boolean isMemorySaturated() {
+            return memoryLimitBytes > 0 && maxMemoryBytes >= SATURATION_RATIO * memoryLimitBytes;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transfers of 0 wei from an account to itself, the cheapest transactions to load a network with.
+ * They are {@code eth_sendTransaction} parameters so that many of them can be sent in one batch.
+ */
+final class SelfTransfers {
+    private static final BigInteger TRANSFER_GAS = BigInteger.valueOf(21000);
+    // covers the intrinsic gas of the payload hash carried by the public transaction
+    private static final BigInteger PRIVATE_TRANSFER_GAS = BigInteger.valueOf(50000);
+    // private transactions need a payload to store in Tessera
+    private static final String PRIVATE_PAYLOAD = "0x00";
+
+    private SelfTransfers() {
+    }
+
+    static Map<String, Object> publicTransfer(String address) {
+        Map<String, Object> tx = new LinkedHashMap<>();
+        tx.put("from", address);
+        tx.put("to", address);
+        tx.put("value", "0x0");
+        tx.put("gas", Numeric.encodeQuantity(TRANSFER_GAS));
+        tx.put("gasPrice", "0x0");
+        return tx;
+    }
+
+    static Map<String, Object> privateTransfer(String address, List<String> privateFor) {
+        Map<String, Object> tx = publicTransfer(address);
+        tx.put("gas", Numeric.encodeQuantity(PRIVATE_TRANSFER_GAS));
+        tx.put("data", PRIVATE_PAYLOAD);
+        tx.put("privateFor", privateFor);
+        return tx;
+    }
+}
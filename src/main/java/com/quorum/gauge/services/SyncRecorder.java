@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record how a node joining the network catches up with the chain, by sampling its block height at a high
+ * frequency from the moment it is started.
+ * <p>
+ * Only height changes are kept so the sync curve stays small however long the node takes.
+ */
+@Service
+public class SyncRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(SyncRecorder.class);
+
+    @Autowired
+    UtilService utilService;
+
+    /**
+     * Start sampling before the node is started, samples are taken as soon as its RPC endpoint answers
+     */
+    public Recording start(Node node, BigInteger targetHeight, Duration interval) {
+        return new Recording(node, targetHeight, interval);
+    }
+
+    public class Recording {
+        private final Node node;
+        private final BigInteger targetHeight;
+        private final long startedAt = System.currentTimeMillis();
+        private final List<Sample> samples = new ArrayList<>();
+        private final CountDownLatch caughtUp = new CountDownLatch(1);
+        private final Disposable sampling;
+        private long rpcUpAtMillis = -1;
+        private long caughtUpAtMillis = -1;
+
+        private Recording(Node node, BigInteger targetHeight, Duration interval) {
+            this.node = node;
+            this.targetHeight = targetHeight;
+            sampling = Observable.defer(() -> utilService.getCurrentBlockNumberFrom(node)
+                            .map(res -> res.getBlockNumber())
+                            // not started yet
+                            .onErrorResumeNext(Observable.empty()))
+                    .repeatWhen(done -> done.delay(interval.toMillis(), TimeUnit.MILLISECONDS))
+                    .subscribeOn(Schedulers.io())
+                    .subscribe(this::sample);
+            logger.debug("Sampling block height of {} every {}ms until {}", node.getName(), interval.toMillis(), targetHeight);
+        }
+
+        private synchronized void sample(BigInteger height) {
+            long elapsed = System.currentTimeMillis() - startedAt;
+            if (rpcUpAtMillis < 0) {
+                rpcUpAtMillis = elapsed;
+            }
+            if (samples.isEmpty() || !samples.get(samples.size() - 1).height.equals(height)) {
+                samples.add(new Sample(elapsed, height));
+            }
+            // blocks keep coming until the recording stops, the first sample at the target is the one that counts
+            if (height.compareTo(targetHeight) >= 0 && caughtUpAtMillis < 0) {
+                caughtUpAtMillis = elapsed;
+                caughtUp.countDown();
+            }
+        }
+
+        /**
+         * Stop sampling without a report, e.g.: when the node fails to start
+         */
+        public void cancel() {
+            sampling.dispose();
+        }
+
+        /**
+         * Wait until the node reaches the target height, stop sampling and write the report
+         *
+         * @param json where the report is written
+         */
+        public Report await(Duration timeout, File json) throws InterruptedException, IOException {
+            boolean done = caughtUp.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            sampling.dispose();
+            Report report;
+            synchronized (this) {
+                report = new Report(node.getName(), targetHeight, rpcUpAtMillis, done ? caughtUpAtMillis : -1, samples);
+            }
+            json.getParentFile().mkdirs();
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(json, report);
+            logger.debug("Sync report written to {}", json);
+            return report;
+        }
+    }
+
+    public static class Report {
+        private final String node;
+        private final BigInteger targetHeight;
+        private final long rpcUpAtMillis;
+        private final long caughtUpAtMillis;
+        private final List<Sample> samples;
+
+        Report(String node, BigInteger targetHeight, long rpcUpAtMillis, long caughtUpAtMillis, List<Sample> samples) {
+            this.node = node;
+            this.targetHeight = targetHeight;
+            this.rpcUpAtMillis = rpcUpAtMillis;
+            this.caughtUpAtMillis = caughtUpAtMillis;
+            this.samples = samples;
+        }
+
+        public String getNode() {
+            return node;
+        }
+
+        public BigInteger getTargetHeight() {
+            return targetHeight;
+        }
+
+        /**
+         * @return time from the start of the recording until the node answered, -1 if it never did
+         */
+        public long getRpcUpAtMillis() {
+            return rpcUpAtMillis;
+        }
+
+        /**
+         * @return time from the start of the recording until the node reached the target height, -1 if it did not
+         */
+        public long getCaughtUpAtMillis() {
+            return caughtUpAtMillis;
+        }
+
+        public boolean isCaughtUp() {
+            return caughtUpAtMillis >= 0;
+        }
+
+        /**
+         * @return time from the first block imported until the target height, -1 if the node did not catch up
+         */
+        public long getSyncMillis() {
+            Sample first = firstImport();
+            return isCaughtUp() && first != null ? caughtUpAtMillis - first.elapsedMillis : -1;
+        }
+
+        /**
+         * @return blocks imported per second between the first block imported and the last sample
+         */
+        public double getBlocksPerSecond() {
+            Sample first = firstImport();
+            if (first == null) {
+                return 0;
+            }
+            Sample last = samples.get(samples.size() - 1);
+            long millis = last.elapsedMillis - first.elapsedMillis;
+            return millis == 0 ? 0 : last.height.subtract(first.height).doubleValue() * 1000 / millis;
+        }
+
+        /**
+         * @return height changes in chronological order
+         */
+        public List<Sample> getSamples() {
+            return samples;
+        }
+
+        // the node reports height 0 until it imports its first block
+        private Sample firstImport() {
+            return samples.stream().filter(s -> s.height.signum() > 0).findFirst().orElse(null);
+        }
+    }
+
+    public static class Sample {
+        private final long elapsedMillis;
+        private final BigInteger height;
+
+        Sample(long elapsedMillis, BigInteger height) {
+            this.elapsedMillis = elapsedMillis;
+            this.height = height;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public BigInteger getHeight() {
+            return height;
+        }
+    }
+}
@@ -19,11 +19,18 @@
 
 package com.quorum.gauge.services;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.quorum.gauge.common.PrivacyFlag;
 import com.quorum.gauge.common.QuorumNetworkProperty;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.ext.BatchRequest;
+import com.quorum.gauge.ext.EnhancedClientTransactionManager;
 import com.quorum.gauge.ext.EthGetQuorumPayload;
 import com.quorum.gauge.ext.EthSignTransaction;
 import com.quorum.gauge.ext.ExtendedPrivateTransaction;
+import com.quorum.gauge.ext.ObjectResponse;
 import com.quorum.gauge.ext.StringResponse;
 import io.reactivex.schedulers.Schedulers;
 import org.slf4j.Logger;
@@ -32,6 +39,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.web3j.abi.FunctionEncoder;
 import org.web3j.abi.datatypes.Function;
+import org.web3j.crypto.Hash;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterName;
@@ -42,15 +50,18 @@ import org.web3j.protocol.core.methods.response.EthEstimateGas;
 import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
 import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.EthTransaction;
 import org.web3j.quorum.Quorum;
-import org.web3j.quorum.methods.request.PrivateTransaction;
 import org.web3j.tx.Contract;
+import org.web3j.utils.Numeric;
 import io.reactivex.Observable;
 
-import java.io.IOException;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.quorum.gauge.sol.SimpleStorage.FUNC_SET;
 
@@ -65,17 +76,93 @@ public class TransactionService extends AbstractService {
     @Autowired
     PrivacyService privacyService;
 
+    @Autowired
+    RPCService rpcService;
+
+    // estimates depend on the state, so they are only reused at the same block
+    private final Cache<String, BigInteger> gasEstimateCache = CacheBuilder.newBuilder()
+        .maximumSize(10_000)
+        .build();
+
+    // node url -> coinbase address
+    private final Map<String, String> coinbaseByUrl = new ConcurrentHashMap<>();
+
+    // receipts and transactions don't change once mined so they are only fetched once per node
+    // key: node url + transaction hash
+    private final Cache<String, EthGetTransactionReceipt> receiptCache = CacheBuilder.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterAccess(30, TimeUnit.MINUTES)
+        .build();
+    private final Cache<String, EthTransaction> transactionCache = CacheBuilder.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterAccess(30, TimeUnit.MINUTES)
+        .build();
+
+    /**
+     * @deprecated use {@link #getTransactionReceipt(Node, String)}
+     */
+    @Deprecated
     public Observable<EthGetTransactionReceipt> getTransactionReceipt(QuorumNode node, String transactionHash) {
-        Quorum client = connectionFactory().getConnection(node);
-        return client.ethGetTransactionReceipt(transactionHash).flowable().toObservable();
+        return getTransactionReceipt(networkProperty().getNode(node.name()), transactionHash);
     }
 
+    /**
+     * Receipt is served from the cache if it has been fetched from the node before.
+     * Only present receipts are cached so pending transactions keep being polled.
+     */
     public Observable<EthGetTransactionReceipt> getTransactionReceipt(QuorumNetworkProperty.Node node, String transactionHash) {
-        Quorum client = connectionFactory().getConnection(node);
-        return client.ethGetTransactionReceipt(transactionHash).flowable().toObservable();
+        String key = cacheKey(node, transactionHash);
+        return Observable.defer(() -> {
+            EthGetTransactionReceipt cached = receiptCache.getIfPresent(key);
+            if (cached != null) {
+                return Observable.just(cached);
+            }
+            Quorum client = connectionFactory().getConnection(node);
+            return client.ethGetTransactionReceipt(transactionHash).flowable().toObservable()
+                .doOnNext(res -> {
+                    if (!res.hasError() && res.getTransactionReceipt().isPresent()) {
+                        receiptCache.put(key, res);
+                    }
+                });
+        });
     }
 
-    public Observable<EthSendTransaction> sendPublicTransaction(int value, QuorumNode from, QuorumNode to) {
+    /**
+     * Transaction is served from the cache if it has been fetched from the node after it was mined
+     */
+    public Observable<EthTransaction> getTransaction(QuorumNetworkProperty.Node node, String transactionHash) {
+        String key = cacheKey(node, transactionHash);
+        return Observable.defer(() -> {
+            EthTransaction cached = transactionCache.getIfPresent(key);
+            if (cached != null) {
+                return Observable.just(cached);
+            }
+            Web3j client = connectionFactory().getWeb3jConnection(node);
+            return client.ethGetTransactionByHash(transactionHash).flowable().toObservable()
+                .doOnNext(res -> {
+                    if (!res.hasError() && res.getTransaction().map(tx -> tx.getBlockHash() != null).orElse(false)) {
+                        transactionCache.put(key, res);
+                    }
+                });
+        });
+    }
+
+    /**
+     * Forget cached receipts, transactions, gas estimates and coinbases, e.g.: when the network is recreated
+     * as the same node urls then serve another chain
+     */
+    public void clearCaches() {
+        receiptCache.invalidateAll();
+        transactionCache.invalidateAll();
+        gasEstimateCache.invalidateAll();
+        coinbaseByUrl.clear();
+    }
+
+    private static String cacheKey(QuorumNetworkProperty.Node node, String transactionHash) {
+        return node.getUrl() + "/" + transactionHash.toLowerCase();
+    }
+
+    public Observable<EthSendTransaction> sendPublicTransaction(int value, Node from, Node to) {
         Web3j client = connectionFactory().getWeb3jConnection(from);
         return Observable.zip(
                 accountService.getDefaultAccountAddress(from).subscribeOn(Schedulers.io()),
@@ -98,7 +185,15 @@ public class TransactionService extends AbstractService {
                 });
     }
 
-    public Observable<EthSendTransaction> sendSignedPublicTransaction(int value, QuorumNode from, QuorumNode to) {
+    /**
+     * @deprecated use {@link #sendPublicTransaction(int, Node, Node)}
+     */
+    @Deprecated
+    public Observable<EthSendTransaction> sendPublicTransaction(int value, QuorumNode from, QuorumNode to) {
+        return sendPublicTransaction(value, networkProperty().getNode(from.name()), networkProperty().getNode(to.name()));
+    }
+
+    public Observable<EthSendTransaction> sendSignedPublicTransaction(int value, Node from, Node to) {
         Web3j client = connectionFactory().getWeb3jConnection(from);
         return Observable.zip(
                 accountService.getDefaultAccountAddress(from).subscribeOn(Schedulers.io()),
@@ -130,7 +225,15 @@ public class TransactionService extends AbstractService {
                 });
     }
 
-    public Observable<EthSendTransaction> sendPrivateTransaction(int value, QuorumNode from, QuorumNode to) {
+    /**
+     * @deprecated use {@link #sendSignedPublicTransaction(int, Node, Node)}
+     */
+    @Deprecated
+    public Observable<EthSendTransaction> sendSignedPublicTransaction(int value, QuorumNode from, QuorumNode to) {
+        return sendSignedPublicTransaction(value, networkProperty().getNode(from.name()), networkProperty().getNode(to.name()));
+    }
+
+    public Observable<EthSendTransaction> sendPrivateTransaction(int value, Node from, Node to) {
         Quorum client = connectionFactory().getConnection(from);
         return Observable.zip(
                 accountService.getDefaultAccountAddress(from).subscribeOn(Schedulers.io()),
@@ -149,7 +252,15 @@ public class TransactionService extends AbstractService {
                 .flatMap(tx -> client.ethSendTransaction(tx).flowable().toObservable());
     }
 
-    public Observable<EthSendTransaction> sendSignedPrivateTransaction(int value, QuorumNode from, QuorumNode to) {
+    /**
+     * @deprecated use {@link #sendPrivateTransaction(int, Node, Node)}
+     */
+    @Deprecated
+    public Observable<EthSendTransaction> sendPrivateTransaction(int value, QuorumNode from, QuorumNode to) {
+        return sendPrivateTransaction(value, networkProperty().getNode(from.name()), networkProperty().getNode(to.name()));
+    }
+
+    public Observable<EthSendTransaction> sendSignedPrivateTransaction(int value, Node from, Node to) {
         Web3j client = connectionFactory().getWeb3jConnection(from);
         return Observable.zip(
                 accountService.getDefaultAccountAddress(from).subscribeOn(Schedulers.io()),
@@ -186,7 +297,15 @@ public class TransactionService extends AbstractService {
                 });
     }
 
-    public Observable<EthSendTransaction> sendSignedPrivateTransaction(String apiMethod, String txData, QuorumNode from, QuorumNode privateFor, String targetContract) {
+    /**
+     * @deprecated use {@link #sendSignedPrivateTransaction(int, Node, Node)}
+     */
+    @Deprecated
+    public Observable<EthSendTransaction> sendSignedPrivateTransaction(int value, QuorumNode from, QuorumNode to) {
+        return sendSignedPrivateTransaction(value, networkProperty().getNode(from.name()), networkProperty().getNode(to.name()));
+    }
+
+    public Observable<EthSendTransaction> sendSignedPrivateTransaction(String apiMethod, String txData, Node from, Node privateFor, String targetContract) {
         Quorum quorumClient = connectionFactory().getConnection(from);
 
         // sleep to allow time for previous tx to be minted so that nonce is updated
@@ -235,10 +354,17 @@ public class TransactionService extends AbstractService {
         return quorumClient.ethSendRawPrivateTransaction(rawHexString, Arrays.asList(privacyService.id(privateFor))).flowable().toObservable();
     }
 
+    /**
+     * @deprecated use {@link #sendSignedPrivateTransaction(String, String, Node, Node, String)}
+     */
+    @Deprecated
+    public Observable<EthSendTransaction> sendSignedPrivateTransaction(String apiMethod, String txData, QuorumNode from, QuorumNode privateFor, String targetContract) {
+        return sendSignedPrivateTransaction(apiMethod, txData, networkProperty().getNode(from.name()), networkProperty().getNode(privateFor.name()), targetContract);
+    }
+
     // Invoking eth_getQuorumPayload
-    public Observable<EthGetQuorumPayload> getPrivateTransactionPayload(QuorumNode node, String transactionHash) {
-        Web3j client = connectionFactory().getWeb3jConnection(node);
-        return client.ethGetTransactionByHash(transactionHash).flowable().toObservable()
+    public Observable<EthGetQuorumPayload> getPrivateTransactionPayload(Node node, String transactionHash) {
+        return getTransaction(node, transactionHash)
                 .flatMap(ethTransaction -> Observable.just(ethTransaction.getTransaction().orElseThrow(() -> new RuntimeException("no such transaction")).getInput()))
                 .flatMap(payloadHash -> {
                     Request<?, EthGetQuorumPayload> request = new Request<>(
@@ -251,15 +377,31 @@ public class TransactionService extends AbstractService {
                 });
     }
 
+    /**
+     * @deprecated use {@link #getPrivateTransactionPayload(Node, String)}
+     */
+    @Deprecated
+    public Observable<EthGetQuorumPayload> getPrivateTransactionPayload(QuorumNode node, String transactionHash) {
+        return getPrivateTransactionPayload(networkProperty().getNode(node.name()), transactionHash);
+    }
+
     // Invoking eth_getLogs
-    public Observable<EthLog> getLogsUsingFilter(QuorumNode node, String contractAddress) {
+    public Observable<EthLog> getLogsUsingFilter(Node node, String contractAddress) {
         Web3j client = connectionFactory().getWeb3jConnection(node);
         EthFilter filter = new EthFilter(DefaultBlockParameter.valueOf(BigInteger.ZERO), DefaultBlockParameter.valueOf("latest"), contractAddress);
 
         return client.ethGetLogs(filter).flowable().toObservable();
     }
 
-    public Observable<EthEstimateGas> estimateGasForTransaction(int value, QuorumNode from, QuorumNode to) {
+    /**
+     * @deprecated use {@link #getLogsUsingFilter(Node, String)}
+     */
+    @Deprecated
+    public Observable<EthLog> getLogsUsingFilter(QuorumNode node, String contractAddress) {
+        return getLogsUsingFilter(networkProperty().getNode(node.name()), contractAddress);
+    }
+
+    public Observable<EthEstimateGas> estimateGasForTransaction(int value, Node from, Node to) {
         Web3j client = connectionFactory().getWeb3jConnection(from);
         return Observable.zip(
                 accountService.getDefaultAccountAddress(from).subscribeOn(Schedulers.io()),
@@ -282,122 +424,261 @@ public class TransactionService extends AbstractService {
                 });
     }
 
+    /**
+     * @deprecated use {@link #estimateGasForTransaction(int, Node, Node)}
+     */
+    @Deprecated
+    public Observable<EthEstimateGas> estimateGasForTransaction(int value, QuorumNode from, QuorumNode to) {
+        return estimateGasForTransaction(value, networkProperty().getNode(from.name()), networkProperty().getNode(to.name()));
+    }
+
     public Observable<EthEstimateGas> estimateGasForPublicContract(QuorumNetworkProperty.Node from, Contract c) {
-        Web3j client = connectionFactory().getWeb3jConnection(from);
-        String fromAddress;
-        try {
-            fromAddress = client.ethCoinbase().send().getAddress();
-        } catch (IOException e) {
-            logger.error("Unable to get default account for node " + from, e);
-            throw new RuntimeException(e);
-        }
+        return estimateGas(GasEstimateRequest.from(from).withData(c.getContractBinary()));
+    }
 
-        String data = c.getContractBinary();
-        return client.ethGetTransactionCount(fromAddress, DefaultBlockParameterName.LATEST)
-            .flowable().toObservable()
-                .flatMap(ethGetTransactionCount -> {
-                    Transaction tx = Transaction.createContractTransaction(fromAddress,
-                            ethGetTransactionCount.getTransactionCount(),
-                            BigInteger.ZERO,
-                            DEFAULT_GAS_LIMIT,
-                            BigInteger.ZERO,
-                            data);
-                    return client.ethEstimateGas(tx).flowable().toObservable();
-                });
+    public Observable<EthEstimateGas> estimateGasForPrivateContract(Node from, Node privateFor, Contract c) {
+        return estimateGas(GasEstimateRequest.from(from)
+            .withData(c.getContractBinary())
+            .withPrivateFor(Arrays.asList(privacyService.id(privateFor))));
     }
 
+    /**
+     * @deprecated use {@link #estimateGasForPrivateContract(Node, Node, Contract)}
+     */
+    @Deprecated
     public Observable<EthEstimateGas> estimateGasForPrivateContract(QuorumNode from, QuorumNode privateFor, Contract c) {
-        Web3j client = connectionFactory().getWeb3jConnection(from);
-        String fromAddress;
-        try {
-            fromAddress = client.ethCoinbase().send().getAddress();
-        } catch (IOException e) {
-            logger.error("Unable to get default account for node " + from, e);
-            throw new RuntimeException(e);
-        }
+        return estimateGasForPrivateContract(networkProperty().getNode(from.name()), networkProperty().getNode(privateFor.name()), c);
+    }
 
-        String data = c.getContractBinary();
-        return client.ethGetTransactionCount(fromAddress, DefaultBlockParameterName.LATEST)
-            .flowable().toObservable()
-                .flatMap(ethGetTransactionCount -> {
-                    Transaction tx = new PrivateTransaction(
-                            fromAddress,
-                            ethGetTransactionCount.getTransactionCount(),
-                            DEFAULT_GAS_LIMIT,
-                            null,
-                            BigInteger.ZERO,
-                            data,
-                            null,
-                            Arrays.asList(privacyService.id(privateFor))
-                    );
-                    return client.ethEstimateGas(tx).flowable().toObservable();
-                });
+    public Observable<EthEstimateGas> estimateGasForPublicContractCall(Node from, Contract c) {
+        return estimateGas(GasEstimateRequest.from(from)
+            .withTo(c.getContractAddress())
+            .withData(encodedSimpleStorageSet()));
     }
 
+    /**
+     * @deprecated use {@link #estimateGasForPublicContractCall(Node, Contract)}
+     */
+    @Deprecated
     public Observable<EthEstimateGas> estimateGasForPublicContractCall(QuorumNode from, Contract c) {
-        Web3j client = connectionFactory().getWeb3jConnection(from);
-        String fromAddress;
-        try {
-            fromAddress = client.ethCoinbase().send().getAddress();
-        } catch (IOException e) {
-            logger.error("Unable to get default account for node " + from, e);
-            throw new RuntimeException(e);
-        }
+        return estimateGasForPublicContractCall(networkProperty().getNode(from.name()), c);
+    }
 
+    public Observable<EthEstimateGas> estimateGasForPrivateContractCall(Node from, Node privateFor, Contract c) {
+        return estimateGas(GasEstimateRequest.from(from)
+            .withTo(c.getContractAddress())
+            .withData(encodedSimpleStorageSet())
+            .withPrivateFor(Arrays.asList(privacyService.id(privateFor))));
+    }
+
+    /**
+     * @deprecated use {@link #estimateGasForPrivateContractCall(Node, Node, Contract)}
+     */
+    @Deprecated
+    public Observable<EthEstimateGas> estimateGasForPrivateContractCall(QuorumNode from, QuorumNode privateFor, Contract c) {
+        return estimateGasForPrivateContractCall(networkProperty().getNode(from.name()), networkProperty().getNode(privateFor.name()), c);
+    }
+
+    private String encodedSimpleStorageSet() {
+        return encodedSimpleStorageSet(99);
+    }
+
+    private String encodedSimpleStorageSet(int value) {
         //create the encoded smart contract call
         Function function = new Function(
                 FUNC_SET,
-                Arrays.asList(new org.web3j.abi.datatypes.generated.Uint256(99)),
+                Arrays.asList(new org.web3j.abi.datatypes.generated.Uint256(value)),
                 Collections.emptyList());
-        String data = FunctionEncoder.encode(function);
+        return FunctionEncoder.encode(function);
+    }
 
-        return client.ethGetTransactionCount(fromAddress, DefaultBlockParameterName.LATEST)
-            .flowable().toObservable()
-                .flatMap(ethGetTransactionCount -> {
-                    Transaction tx = Transaction.createFunctionCallTransaction(
-                            fromAddress,
-                            ethGetTransactionCount.getTransactionCount(),
-                            BigInteger.ZERO,
-                            DEFAULT_GAS_LIMIT,
-                            c.getContractAddress(),
-                            BigInteger.ZERO,
-                            data);
-                    return client.ethEstimateGas(tx).flowable().toObservable();
+    /**
+     * Call {@code SimpleStorage.set(value)} in a private transaction sent from the default account of {@code from}
+     */
+    public Observable<EthSendTransaction> sendPrivateSimpleStorageSet(QuorumNetworkProperty.Node from, String contractAddress, int value, List<QuorumNetworkProperty.Node> privateFor) {
+        Quorum client = connectionFactory().getConnection(from);
+        return accountService.getDefaultAccountAddress(from)
+                .map(fromAddress -> new ExtendedPrivateTransaction(
+                        fromAddress,
+                        null,
+                        BigInteger.ZERO,
+                        DEFAULT_GAS_LIMIT,
+                        contractAddress,
+                        null,
+                        encodedSimpleStorageSet(value),
+                        null,
+                        privateFor.stream().map(privacyService::id).collect(Collectors.toList())
+                ))
+                .flatMap(tx -> client.ethSendTransaction(tx).flowable().toObservable());
+    }
+
+    public Observable<EthEstimateGas> estimateGas(GasEstimateRequest request) {
+        return estimateGas(Collections.singletonList(request)).map(estimates -> estimates.get(0));
+    }
+
+    /**
+     * Estimate gas for many transactions, sent from the node's coinbase account.
+     * <p>
+     * Estimates are cached until the next block. Estimates which are not in the cache
+     * are sent as a single JSON RPC batch per node and nodes are queried in parallel.
+     *
+     * @return estimates in the same order as the requests. Failed estimates are not cached and carry the RPC error
+     */
+    public Observable<List<EthEstimateGas>> estimateGas(List<GasEstimateRequest> requests) {
+        Map<QuorumNetworkProperty.Node, List<Integer>> indexesByNode = IntStream.range(0, requests.size()).boxed()
+            .collect(Collectors.groupingBy(i -> requests.get(i).getFrom(), LinkedHashMap::new, Collectors.toList()));
+        return Observable.fromIterable(indexesByNode.entrySet())
+            .flatMap(e -> estimateGas(e.getKey(), e.getValue(), requests).subscribeOn(Schedulers.io()))
+            .collect(() -> new TreeMap<Integer, EthEstimateGas>(), Map::putAll)
+            .map(estimates -> (List<EthEstimateGas>) new ArrayList<>(estimates.values()))
+            .toObservable();
+    }
+
+    private Observable<Map<Integer, EthEstimateGas>> estimateGas(QuorumNetworkProperty.Node node, List<Integer> indexes, List<GasEstimateRequest> requests) {
+        Web3j client = connectionFactory().getWeb3jConnection(node);
+        return Observable.zip(
+            coinbase(node).subscribeOn(Schedulers.io()),
+            client.ethBlockNumber().flowable().toObservable().subscribeOn(Schedulers.io()),
+            (fromAddress, ethBlockNumber) -> {
+                BigInteger blockNumber = ethBlockNumber.getBlockNumber();
+                Map<Integer, EthEstimateGas> estimates = new HashMap<>();
+                Map<Long, Integer> indexById = new HashMap<>();
+                Map<Integer, String> cacheKeys = new HashMap<>();
+                BatchRequest.Collector collector = BatchRequest.Collector.create();
+                for (Integer i : indexes) {
+                    GasEstimateRequest r = requests.get(i);
+                    String cacheKey = r.cacheKey(node, blockNumber);
+                    BigInteger cachedAmount = gasEstimateCache.getIfPresent(cacheKey);
+                    if (cachedAmount != null) {
+                        EthEstimateGas estimate = new EthEstimateGas();
+                        estimate.setResult(Numeric.encodeQuantity(cachedAmount));
+                        estimates.put(i, estimate);
+                        continue;
+                    }
+                    collector.add("eth_estimateGas", Collections.singletonList(r.toTransaction(fromAddress, DEFAULT_GAS_LIMIT)));
+                    indexById.put(collector.toList().get(collector.size() - 1).getId(), i);
+                    cacheKeys.put(i, cacheKey);
+                }
+                logger.debug("Estimating gas in {}: {} cached, {} to estimate", node.getName(), estimates.size(), collector.size());
+                return new PendingGasEstimates(estimates, collector, indexById, cacheKeys);
+            })
+            .flatMap(pending -> {
+                if (pending.collector.size() == 0) {
+                    return Observable.just(pending.estimates);
+                }
+                return rpcService.call(node, pending.collector).map(batchResponse -> {
+                    for (ObjectResponse res : batchResponse.getResponses()) {
+                        Integer i = pending.indexById.get(res.getId());
+                        EthEstimateGas estimate = new EthEstimateGas();
+                        estimate.setId(res.getId());
+                        estimate.setJsonrpc(res.getJsonrpc());
+                        if (res.hasError()) {
+                            estimate.setError(res.getError());
+                        } else {
+                            estimate.setResult(String.valueOf(res.getResult()));
+                            gasEstimateCache.put(pending.cacheKeys.get(i), estimate.getAmountUsed());
+                        }
+                        pending.estimates.put(i, estimate);
+                    }
+                    return pending.estimates;
                 });
+            });
     }
 
-    public Observable<EthEstimateGas> estimateGasForPrivateContractCall(QuorumNode from, QuorumNode privateFor, Contract c) {
-        Web3j client = connectionFactory().getWeb3jConnection(from);
-        String fromAddress;
-        try {
-            fromAddress = client.ethCoinbase().send().getAddress();
-        } catch (IOException e) {
-            logger.error("Unable to get default account for node " + from, e);
-            throw new RuntimeException(e);
+    private Observable<String> coinbase(QuorumNetworkProperty.Node node) {
+        return Observable.defer(() -> {
+            String cached = coinbaseByUrl.get(node.getUrl());
+            if (cached != null) {
+                return Observable.just(cached);
+            }
+            return connectionFactory().getWeb3jConnection(node).ethCoinbase().flowable().toObservable()
+                .map(ethCoinbase -> {
+                    if (ethCoinbase.hasError()) {
+                        throw new RuntimeException("Unable to get default account for node " + node.getName() + ": " + ethCoinbase.getError().getMessage());
+                    }
+                    return ethCoinbase.getAddress();
+                })
+                .doOnNext(address -> coinbaseByUrl.put(node.getUrl(), address));
+        });
+    }
+
+    private static class PendingGasEstimates {
+        private final Map<Integer, EthEstimateGas> estimates;
+        private final BatchRequest.Collector collector;
+        private final Map<Long, Integer> indexById;
+        private final Map<Integer, String> cacheKeys;
+
+        PendingGasEstimates(Map<Integer, EthEstimateGas> estimates, BatchRequest.Collector collector, Map<Long, Integer> indexById, Map<Integer, String> cacheKeys) {
+            this.estimates = estimates;
+            this.collector = collector;
+            this.indexById = indexById;
+            this.cacheKeys = cacheKeys;
         }
+    }
 
-        //create the encoded smart contract call
-        Function function = new Function(
-                FUNC_SET,
-                Arrays.asList(new org.web3j.abi.datatypes.generated.Uint256(99)),
-                Collections.emptyList());
-        String data = FunctionEncoder.encode(function);
+    public static class GasEstimateRequest {
+        private final QuorumNetworkProperty.Node from;
+        private String to;
+        private String data;
+        private BigInteger value;
+        private List<String> privateFor;
+        private List<PrivacyFlag> privacyFlags = Collections.emptyList();
+
+        private GasEstimateRequest(QuorumNetworkProperty.Node from) {
+            this.from = Objects.requireNonNull(from, "from node must not be null");
+            this.value = BigInteger.ZERO;
+        }
 
-        return client.ethGetTransactionCount(fromAddress, DefaultBlockParameterName.LATEST)
-            .flowable().toObservable()
-                .flatMap(ethGetTransactionCount -> {
-                    Transaction tx = new PrivateTransaction(
-                            fromAddress,
-                            ethGetTransactionCount.getTransactionCount(),
-                            DEFAULT_GAS_LIMIT,
-                            c.getContractAddress(),
-                            BigInteger.ZERO,
-                            data,
-                            null,
-                            Arrays.asList(privacyService.id(privateFor))
-                    );
-                    return client.ethEstimateGas(tx).flowable().toObservable();
-                });
+        public static GasEstimateRequest from(QuorumNetworkProperty.Node from) {
+            return new GasEstimateRequest(from);
+        }
+
+        public GasEstimateRequest withTo(String to) {
+            this.to = to;
+            return this;
+        }
+
+        public GasEstimateRequest withData(String data) {
+            this.data = data;
+            return this;
+        }
+
+        public GasEstimateRequest withValue(BigInteger value) {
+            this.value = value;
+            return this;
+        }
+
+        public GasEstimateRequest withPrivateFor(List<String> privateFor) {
+            this.privateFor = privateFor;
+            return this;
+        }
+
+        /**
+         * Only used with {@link #withPrivateFor(List)}, no flags means {@link PrivacyFlag#Legacy}
+         */
+        public GasEstimateRequest withPrivacyFlags(List<PrivacyFlag> privacyFlags) {
+            this.privacyFlags = privacyFlags;
+            return this;
+        }
+
+        public QuorumNetworkProperty.Node getFrom() {
+            return from;
+        }
+
+        Transaction toTransaction(String fromAddress, BigInteger gasLimit) {
+            if (privateFor == null) {
+                return new Transaction(fromAddress, null, BigInteger.ZERO, gasLimit, to, value, data);
+            }
+            return new EnhancedClientTransactionManager.EnhancedPrivateTransaction(fromAddress, null, gasLimit, to, value, data, null, privateFor, privacyFlags);
+        }
+
+        String cacheKey(QuorumNetworkProperty.Node node, BigInteger blockNumber) {
+            String dataHash = data == null ? "" : Hash.sha3(data);
+            // the flags change the privacy checks done when estimating, e.g.: state validation
+            String privacy = privateFor == null ? "public"
+                : privateFor.stream().sorted().collect(Collectors.joining(",")) + "/" + privacyFlags.stream().mapToInt(PrivacyFlag::intValue).reduce(0, (a, b) -> a | b);
+            return String.join("|", node.getUrl(), blockNumber.toString(), String.valueOf(to).toLowerCase(), value.toString(), dataHash, privacy);
+        }
     }
 
     public Observable<EthSignTransaction> personalSignTransaction(QuorumNetworkProperty.Node node, Transaction toSign, String acctPwd) {
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.ext.BatchRequest;
+import com.quorum.gauge.ext.ObjectResponse;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Trace the lifecycle of a private transaction by timestamping each stage:
+ * <ol>
+ *     <li>{@code submit}: the sender returns the transaction hash, i.e.: payload has been distributed by Tessera</li>
+ *     <li>{@code txpool}: the transaction is seen in the sender's {@code eth_pendingTransactions}</li>
+ *     <li>{@code block}: the transaction is included in a block</li>
+ *     <li>{@code receipt}: the receipt is available in each party, i.e.: private state has been applied</li>
+ *     <li>{@code payload}: {@code eth_getQuorumPayload} returns the private payload in each party</li>
+ * </ol>
+ * All parties are polled together, each poll sending a single JSON RPC batch per party.
+ * Timestamps are in milliseconds since the submission started.
+ * A stage is missing from the trace when it is not observed, e.g.: the transaction is mined between 2 polls of the txpool.
+ */
+@Service
+public class TransactionTraceService extends AbstractService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionTraceService.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    @Autowired
+    RPCService rpcService;
+
+    /**
+     * @param sender       node submitting the transaction
+     * @param participants nodes in {@code privateFor}
+     * @param submission   not yet subscribed submission of the transaction
+     * @param timeout      how long to wait for all stages
+     */
+    public Observable<TransactionTrace> trace(Node sender, List<Node> participants, Observable<EthSendTransaction> submission, Duration timeout) {
+        return Observable.defer(() -> {
+            long startedAt = System.nanoTime();
+            return submission.map(res -> {
+                if (res.hasError()) {
+                    throw new RuntimeException("unable to submit transaction: " + res.getError().getMessage());
+                }
+                TransactionTrace trace = new TransactionTrace(res.getTransactionHash(), sender, participants, startedAt);
+                trace.mark(TransactionTrace.SUBMIT);
+                return trace;
+            });
+        }).flatMap(trace -> poll(trace)
+                // next poll only starts after the previous one completes
+                .repeatWhen(completed -> completed.delay(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS, Schedulers.io()))
+                .filter(TransactionTrace::isComplete)
+                .take(1)
+                .timeout(timeout.toMillis(), TimeUnit.MILLISECONDS, Observable.error(() ->
+                        new RuntimeException("Timed out tracing transaction " + trace.getTransactionHash() + ", observed stages: " + trace.getStages().keySet()))))
+                .doOnNext(trace -> logger.debug("Trace of {}: {}", trace.getTransactionHash(), trace.getBreakdown()));
+    }
+
+    public void writeTraces(File file, List<TransactionTrace> traces) throws IOException {
+        file.getParentFile().mkdirs();
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, traces.stream().map(TransactionTrace::toMap).collect(Collectors.toList()));
+    }
+
+    private Observable<TransactionTrace> poll(TransactionTrace trace) {
+        return Observable.fromIterable(trace.getParties())
+                .flatMap(node -> pollParty(trace, node).subscribeOn(Schedulers.io()))
+                .toList()
+                .map(ignored -> trace)
+                .toObservable();
+    }
+
+    private Observable<Boolean> pollParty(TransactionTrace trace, Node node) {
+        boolean isSender = node.getName().equals(trace.getSender());
+        BatchRequest.Collector collector = BatchRequest.Collector.create();
+        Map<Long, String> stageById = new HashMap<>();
+        if (isSender && !trace.has(TransactionTrace.BLOCK)) {
+            if (!trace.has(TransactionTrace.TXPOOL)) {
+                stageById.put(add(collector, "eth_pendingTransactions", Collections.emptyList()), TransactionTrace.TXPOOL);
+            }
+            stageById.put(add(collector, "eth_getTransactionByHash", Collections.singletonList(trace.getTransactionHash())), TransactionTrace.BLOCK);
+        }
+        String receipt = TransactionTrace.RECEIPT + "/" + node.getName();
+        if (!trace.has(receipt)) {
+            stageById.put(add(collector, "eth_getTransactionReceipt", Collections.singletonList(trace.getTransactionHash())), receipt);
+        }
+        String payload = TransactionTrace.PAYLOAD + "/" + node.getName();
+        if (!trace.has(payload) && trace.payloadHash != null) {
+            stageById.put(add(collector, "eth_getQuorumPayload", Collections.singletonList(trace.payloadHash)), payload);
+        }
+        if (collector.size() == 0) {
+            return Observable.just(true);
+        }
+        return rpcService.call(node, collector).map(batchResponse -> {
+            for (ObjectResponse res : batchResponse.getResponses()) {
+                String stage = stageById.get(res.getId());
+                if (stage == null || res.hasError() || res.getResult() == null) {
+                    continue;
+                }
+                if (isObserved(trace, stage, res.getResult())) {
+                    trace.mark(stage);
+                }
+            }
+            return true;
+        });
+    }
+
+    private static long add(BatchRequest.Collector collector, String method, List<Object> params) {
+        collector.add(method, params);
+        List<Request<?, ObjectResponse>> requests = collector.toList();
+        return requests.get(requests.size() - 1).getId();
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isObserved(TransactionTrace trace, String stage, Object result) {
+        if (TransactionTrace.TXPOOL.equals(stage)) {
+            return ((List<Map<String, Object>>) result).stream()
+                    .anyMatch(tx -> trace.getTransactionHash().equalsIgnoreCase(String.valueOf(tx.get("hash"))));
+        }
+        if (TransactionTrace.BLOCK.equals(stage)) {
+            Map<String, Object> tx = (Map<String, Object>) result;
+            // input of a private transaction is the hash of the encrypted payload
+            trace.payloadHash = (String) tx.get("input");
+            Object blockNumber = tx.get("blockNumber");
+            if (blockNumber == null) {
+                return false;
+            }
+            trace.blockNumber = Long.decode(String.valueOf(blockNumber));
+            return true;
+        }
+        if (stage.startsWith(TransactionTrace.PAYLOAD)) {
+            // empty payload is returned by parties not having the transaction (yet)
+            return !"0x".equals(result);
+        }
+        return true;
+    }
+
+    public static class TransactionTrace {
+        public static final String SUBMIT = "submit";
+        public static final String TXPOOL = "txpool";
+        public static final String BLOCK = "block";
+        public static final String RECEIPT = "receipt";
+        public static final String PAYLOAD = "payload";
+
+        private final String transactionHash;
+        private final String sender;
+        private final List<Node> parties;
+        private final long startedAt;
+        // stage -> millis since started
+        private final Map<String, Long> stages = new ConcurrentHashMap<>();
+        private volatile String payloadHash;
+        private volatile Long blockNumber;
+
+        TransactionTrace(String transactionHash, Node sender, List<Node> participants, long startedAt) {
+            this.transactionHash = transactionHash;
+            this.sender = sender.getName();
+            this.parties = new ArrayList<>();
+            this.parties.add(sender);
+            participants.stream().filter(p -> !p.getName().equals(this.sender)).forEach(this.parties::add);
+            this.startedAt = startedAt;
+        }
+
+        void mark(String stage) {
+            stages.putIfAbsent(stage, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+
+        boolean has(String stage) {
+            return stages.containsKey(stage);
+        }
+
+        boolean isComplete() {
+            return has(BLOCK) && parties.stream().allMatch(p -> has(RECEIPT + "/" + p.getName()) && has(PAYLOAD + "/" + p.getName()));
+        }
+
+        public String getTransactionHash() {
+            return transactionHash;
+        }
+
+        public String getSender() {
+            return sender;
+        }
+
+        public List<Node> getParties() {
+            return parties;
+        }
+
+        public Long getBlockNumber() {
+            return blockNumber;
+        }
+
+        public Map<String, Long> getStages() {
+            return new TreeMap<>(stages);
+        }
+
+        /**
+         * Latency of each stage from the previous one:
+         * {@code distribution} (submit), {@code txpool}, {@code mining} (to block inclusion),
+         * per party {@code privateStateApplication} (block to receipt) and {@code payload} (submit to payload)
+         */
+        public Map<String, Long> getBreakdown() {
+            Map<String, Long> b = new LinkedHashMap<>();
+            Long submit = stages.get(SUBMIT);
+            Long block = stages.get(BLOCK);
+            Long txpool = stages.get(TXPOOL);
+            b.put("distribution", submit);
+            if (txpool != null) {
+                b.put("txpool", txpool - submit);
+            }
+            if (block != null) {
+                b.put("mining", block - Optional.ofNullable(txpool).orElse(submit));
+            }
+            for (Node p : parties) {
+                Long receipt = stages.get(RECEIPT + "/" + p.getName());
+                if (receipt != null && block != null) {
+                    b.put("privateStateApplication/" + p.getName(), Math.max(0, receipt - block));
+                }
+                Long payload = stages.get(PAYLOAD + "/" + p.getName());
+                if (payload != null) {
+                    b.put("payload/" + p.getName(), Math.max(0, payload - submit));
+                }
+            }
+            return b;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("transactionHash", transactionHash);
+            m.put("sender", sender);
+            m.put("parties", parties.stream().map(Node::getName).collect(Collectors.toList()));
+            m.put("blockNumber", blockNumber);
+            m.put("stagesMillis", getStages());
+            m.put("breakdownMillis", getBreakdown());
+            return m;
+        }
+    }
+}
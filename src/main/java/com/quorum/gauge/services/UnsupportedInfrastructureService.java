@@ -107,4 +107,29 @@ public class UnsupportedInfrastructureService implements InfrastructureService,
     public Observable<Boolean> grepLog(String resourceId, String grepStr, long timeoutAmount, TimeUnit timeoutUnit) {
         throw new UnsupportedOperationException();
     }
+
+    @Override
+    public Observable<ResourceUsage> streamResourceUsage(String resourceId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Observable<Boolean> disconnectFromNetwork(String resourceId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Observable<Boolean> reconnectToNetwork(String resourceId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Observable<Boolean> applyNetworkCondition(String resourceId, NetworkCondition condition) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Observable<Boolean> clearNetworkCondition(String resourceId) {
+        throw new UnsupportedOperationException();
+    }
 }
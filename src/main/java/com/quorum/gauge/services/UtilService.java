@@ -19,36 +19,61 @@
 
 package com.quorum.gauge.services;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.RetryPolicy;
 import com.quorum.gauge.ext.PendingTransaction;
 import io.reactivex.Observable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.core.methods.response.EthBlockNumber;
 import org.web3j.protocol.core.methods.response.NetPeerCount;
 import org.web3j.protocol.core.methods.response.Transaction;
 
+import java.math.BigInteger;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class UtilService extends AbstractService {
+    private static final Logger logger = LoggerFactory.getLogger(UtilService.class);
+
+    static final Duration DEFAULT_BLOCK_TIME = Duration.ofSeconds(1);
+    private static final int BLOCK_TIME_SAMPLE = 10;
+    // same overall wait as the fixed 20 x 3s retries used before
+    static final Duration MINING_DEADLINE = Duration.ofMinutes(1);
+
+    private final Cache<String, Duration> blockTimes = CacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
 
     public Observable<EthBlockNumber> getCurrentBlockNumber() {
-        return getCurrentBlockNumberFrom(QuorumNode.Node1);
+        return getCurrentBlockNumberFrom(networkProperty().getTopology().firstNode());
     }
 
     public Observable<EthBlockNumber> getCurrentBlockNumberFrom(Node node) {
-        return getCurrentBlockNumberFrom(QuorumNode.valueOf(node.getName()));
+        Web3j client = connectionFactory().getWeb3jConnection(node);
+        return client.ethBlockNumber().flowable().toObservable();
     }
 
+    /**
+     * @deprecated use {@link #getCurrentBlockNumberFrom(Node)}
+     */
+    @Deprecated
     public Observable<EthBlockNumber> getCurrentBlockNumberFrom(QuorumNode node) {
-        Web3j client = connectionFactory().getWeb3jConnection(node);
-        return client.ethBlockNumber().flowable().toObservable();
+        return getCurrentBlockNumberFrom(networkProperty().getNode(node.name()));
     }
 
-    public List<Transaction> getPendingTransactions(QuorumNode node) {
+    public List<Transaction> getPendingTransactions(Node node) {
         Request<?, PendingTransaction> request = new Request<>(
                 "eth_pendingTransactions",
                 null,
@@ -59,14 +84,84 @@ public class UtilService extends AbstractService {
         return request.flowable().toObservable().blockingFirst().getTransactions();
     }
 
+    /**
+     * @deprecated use {@link #getPendingTransactions(Node)}
+     */
+    @Deprecated
+    public List<Transaction> getPendingTransactions(QuorumNode node) {
+        return getPendingTransactions(networkProperty().getNode(node.name()));
+    }
+
     /**
      * @param node
      * @return number of peers from the view of {@code node}
      */
-    public int getNumberOfNodes(QuorumNode node) {
+    public int getNumberOfNodes(Node node) {
         Web3j client = connectionFactory().getWeb3jConnection(node);
         NetPeerCount peerCount = client.netPeerCount().flowable().toObservable().blockingFirst();
 
         return peerCount.getQuantity().intValue();
     }
+
+    /**
+     * @deprecated use {@link #getNumberOfNodes(Node)}
+     */
+    @Deprecated
+    public int getNumberOfNodes(QuorumNode node) {
+        return getNumberOfNodes(networkProperty().getNode(node.name()));
+    }
+
+    /**
+     * Average time between the last blocks seen by {@code node}, used as a hint on how long to wait for a transaction
+     * to be mined. Raft timestamps are in nanoseconds, others in seconds.
+     *
+     * @return the estimate, cached for a minute, or 1 second if there are not enough blocks to tell
+     */
+    public Duration blockTimeHint(Node node) {
+        try {
+            return blockTimes.get(node.getUrl(), () -> estimateBlockTime(node));
+        } catch (ExecutionException e) {
+            logger.debug("Unable to estimate block time for {}: {}", node.getName(), e.getMessage());
+            return DEFAULT_BLOCK_TIME;
+        }
+    }
+
+    /**
+     * @deprecated use {@link #blockTimeHint(Node)}
+     */
+    @Deprecated
+    public Duration blockTimeHint(QuorumNode node) {
+        return blockTimeHint(networkProperty().getNode(node.name()));
+    }
+
+    /**
+     * Retry policy for waiting on something to be mined in {@code node}, e.g.: a transaction receipt
+     */
+    public RetryPolicy untilMined(Node node) {
+        return RetryPolicy.untilMined(blockTimeHint(node), MINING_DEADLINE);
+    }
+
+    /**
+     * @deprecated use {@link #untilMined(Node)}
+     */
+    @Deprecated
+    public RetryPolicy untilMined(QuorumNode node) {
+        return untilMined(networkProperty().getNode(node.name()));
+    }
+
+    private Duration estimateBlockTime(Node node) {
+        Web3j client = connectionFactory().getWeb3jConnection(node);
+        EthBlock.Block latest = client.ethGetBlockByNumber(DefaultBlockParameter.valueOf("latest"), false).send().getBlock();
+        long sample = Math.min(BLOCK_TIME_SAMPLE, latest.getNumber().longValue());
+        if (sample < 1) {
+            return DEFAULT_BLOCK_TIME;
+        }
+        EthBlock.Block earlier = client.ethGetBlockByNumber(DefaultBlockParameter.valueOf(latest.getNumber().subtract(BigInteger.valueOf(sample))), false).send().getBlock();
+        long elapsed = latest.getTimestamp().subtract(earlier.getTimestamp()).longValue();
+        // a timestamp in seconds would not exceed 10^12 for a long while
+        long millis = latest.getTimestamp().compareTo(BigInteger.TEN.pow(12)) > 0
+                ? TimeUnit.NANOSECONDS.toMillis(elapsed / sample)
+                : TimeUnit.SECONDS.toMillis(elapsed) / sample;
+        return Duration.ofMillis(Math.max(50, Math.min(millis, 10_000)));
+    }
 }
@@ -0,0 +1,32 @@
+pragma solidity ^0.5.0;
+
+// Aggregates read-only calls so a node executes a single EVM call instead of one per call.
+// Call data are packed back to back in packedCalls, callLengths tells where each call ends.
+// Only the first word of each return data is kept which covers getters returning a single static value.
+contract Multicall {
+
+    function aggregate(address[] memory targets, bytes memory packedCalls, uint[] memory callLengths) public view returns (uint blockNumber, bool[] memory successes, bytes32[] memory results) {
+        require(targets.length == callLengths.length, "targets and callLengths must have the same length");
+        blockNumber = block.number;
+        successes = new bool[](targets.length);
+        results = new bytes32[](targets.length);
+        uint offset = 0;
+        for (uint i = 0; i < targets.length; i++) {
+            bytes memory callData = new bytes(callLengths[i]);
+            for (uint j = 0; j < callLengths[i]; j++) {
+                callData[j] = packedCalls[offset + j];
+            }
+            offset += callLengths[i];
+            (bool success, bytes memory returnData) = targets[i].staticcall(callData);
+            // calling an address without code succeeds with empty return data
+            if (success && returnData.length >= 32) {
+                bytes32 word;
+                assembly {
+                    word := mload(add(returnData, 32))
+                }
+                successes[i] = true;
+                results[i] = word;
+            }
+        }
+    }
+}
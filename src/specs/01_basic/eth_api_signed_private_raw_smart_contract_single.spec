@@ -48,9 +48,7 @@ contract SimpleStorage {
 
  Tags: raw
 
-* "contract31"'s `get()` function execution in "Node1" returns "23"
-* "contract31"'s `get()` function execution in "Node4" returns "23"
-* "contract31"'s `get()` function execution in "Node3" returns "0"
+* Batch read `get()` of "contract31" in "Node1,Node4,Node3" returns "23,23,0" respectively
 
 ## When there's an update, privacy is still enforced
 
@@ -60,3 +58,5 @@ contract SimpleStorage {
 * "contract31"'s `get()` function execution in "Node1" returns "5"
 * "contract31"'s `get()` function execution in "Node4" returns "5"
 * "contract31"'s `get()` function execution in "Node3" returns "0"
+* Deploy `Multicall` helper contract in "Node1"'s default account and it's private for "Node4"
+* Aggregated read `get()` of "contract31" in "Node1,Node4" using `Multicall` returns "5,5" respectively
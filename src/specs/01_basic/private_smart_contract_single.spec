@@ -65,3 +65,11 @@ contract SimpleStorage {
 * "contract17"'s `get()` function execution in "Node1" returns "5"
 * "contract17"'s `get()` function execution in "Node4" returns "5"
 * "contract17"'s `get()` function execution in "Node3" returns "0"
+
+## Private transaction lifecycle is traced across parties
+
+ Tags: private, trace
+
+* Start monitoring private state consistency of "contract17" between "Node1,Node4" across all nodes every "500" milliseconds
+* Trace "3" private transactions executing "contract17"'s `set()` function in "Node1" and it's private for "Node4", all stages complete within "60" seconds
+* Private state consistency monitoring reports no divergence
@@ -4,6 +4,8 @@
 
 ## Send transactions from one node to others
 
+* Start sampling resource usage of all nodes every "1000" milliseconds
 * Send "10" simple private smart contracts from a default account in "Node1" and it's separately private for "Node2,Node3"
 * Send "10" simple private smart contracts from a default account in "Node2" and it's separately private for "Node1,Node3"
 * Send "10" simple private smart contracts from a default account in "Node3" and it's separately private for "Node1,Node2"
+* Stop sampling resource usage
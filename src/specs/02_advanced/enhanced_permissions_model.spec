@@ -29,6 +29,7 @@ This role will be assigned to the network admin accounts
 * Validate that org "NWADMIN" is approved, has "Node2" linked and has role "NWADMIN"
 * Validate that org "NWADMIN" is approved, has "Node3" linked and has role "NWADMIN"
 * Check "Node1"'s default account is from org "NWADMIN" and has role "NWADMIN" and is org admin and is active
+* Using `Multicall` deployed from "Node1", check "Node1"'s default account is network admin in "Node1,Node2,Node3" according to "interface"
 
 ## Proposing a new organization into the network
 
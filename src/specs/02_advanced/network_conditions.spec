@@ -0,0 +1,28 @@
+# Consensus under partitions and degraded links
+
+ Tags: advanced, network-conditions
+
+ Nodes are disconnected from the Docker network or their links are degraded with `tc netem`, run from a sidecar container sharing the node's network.
+ Only Quorum containers are affected.
+
+## A partitioned node catches up once reconnected
+
+* Disconnect "Node4" from the network
+* Deploy `ClientReceipt` smart contract from a default account in "Node1", named this contract as "partitionedContract"
+* "partitionedContract" is mined
+* Execute "partitionedContract"'s `deposit()` function "10" times with arbitrary id and value from "Node1"
+* Reconnect "Node4" to the network
+* "Node4" has received "10" transactions which contain "10" log events in total
+
+## Transactions are mined over delayed and lossy links
+
+* Add "200" ms delay with "50" ms jitter and "1" % packet loss to the network of "Node1,Node2,Node3,Node4"
+* Deploy `ClientReceipt` smart contract from a default account in "Node1", named this contract as "degradedContract"
+* "degradedContract" is mined
+* Execute "degradedContract"'s `deposit()` function "10" times with arbitrary id and value from "Node1"
+* "Node2" has received "10" transactions which contain "10" log events in total
+* Clear network conditions of "Node1,Node2,Node3,Node4"
+
+___
+* Reconnect "Node4" to the network
+* Clear network conditions of "Node1,Node2,Node3,Node4"
@@ -0,0 +1,22 @@
+# Recover from node crashes under sustained load
+
+ Tags: advanced, recoverability, chaos
+
+ While every node sends value transfers at a steady rate, half of them private for another node, containers of random nodes are stopped and started again.
+ Private transfers go through Tessera, so a Tessera crash shows in the throughput as well.
+ For each crash, we measure how much the confirmed throughput drops and how long it takes to get back to the throughput before the crash.
+ Transactions sent to a stopped node fail, transactions still without receipt once the load stops are stuck.
+ The report is written to the `chaos` folder of the reports directory.
+
+     |component|
+     |quorum   |
+     |any      |
+
+## Crash nodes while sending transactions
+
+* Start sending "50" transactions per second, "50" % of them private, from "Node1,Node2,Node3,Node4" in the background
+* In the background, stop a random <component> container of "Node1,Node2,Node3,Node4" for "10" seconds, waiting "30" seconds between crashes
+* Keep the load running for "180" seconds
+* Stop crashing containers and the background load
+* Throughput recovered to its previous level within "60" seconds after every crash
+* No more than "0" transactions are stuck
@@ -0,0 +1,22 @@
+# Catch-up synchronization of new nodes when using Raft consensus
+
+  Tags: networks/template::raft-3plus1, pre-condition/no-record-blocknumber, benchmark
+
+  A node joining a long running network has to import the whole chain before it is useful.
+  This specification measures how fast a new peer or learner catches up with a chain of a given length, with the following permutations.
+  The block height of the new node is sampled from the moment it is started, the sync curve is written to the `sync` folder of the reports directory.
+
+      |id    |nodeType |gcmode |blocks|contracts|
+      |raft1 |peer     |full   |1000  |20       |
+      |raft2 |peer     |archive|1000  |20       |
+      |raft3 |learner  |full   |1000  |20       |
+      |raft4 |learner  |archive|1000  |20       |
+
+## Measure how long a new node takes to catch up
+
+  Tags: post-condition/datadir-cleanup, post-condition/network-cleanup
+
+* Start a "non-permissioned" Quorum Network, named it <id>, consisting of "Node1,Node2,Node3" with <gcmode> `gcmode`
+* Grow the chain of network <id> to <blocks> blocks after deploying <contracts> public and private contracts from "Node1,Node2,Node3", and capture the block height as "chainHeight"
+* Add new node with <gcmode> `gcmode`, named it "Node4", join the network <id> as <nodeType> and record how it catches up with "chainHeight", sampling its block height every "100" milliseconds
+* Verify node "Node4" caught up within "300" seconds
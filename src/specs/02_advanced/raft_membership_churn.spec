@@ -0,0 +1,30 @@
+# Throughput cost of Raft membership changes
+
+  Tags: networks/template::raft-3plus1, pre-condition/no-record-blocknumber, benchmark
+
+  Raft clusters are scaled up and down during maintenance while transactions keep flowing.
+  This specification adds a learner, promotes it, restarts peers and the leader and finally removes the new peer,
+  and measures for each change how long block production stalls and how long it takes for a new leader to be elected.
+  The leader and block height are sampled every 100ms, the report is written to the `raft-churn` folder of the reports directory.
+
+## Change membership while sending transactions
+
+  Tags: post-condition/datadir-cleanup, post-condition/network-cleanup
+
+* Start a Quorum Network, named it "churn", consisting of "Node1,Node2,Node3"
+* Start sending "50" transactions per second from "Node1,Node2,Node3" in the background
+* Start recording raft leader and block production of the network "churn" every "100" milliseconds
+* Keep the load running for "20" seconds
+* Raft membership change "add learner Node4" begins
+* Add new node, named it "Node4", and join the network "churn" as "learner"
+* Raft membership change "promote Node4" begins
+* Promote learner node "Node4" from node "Node1", in the network "churn"
+* Keep the load running for "10" seconds
+* Restart "Node2" in the network "churn" "3" times, waiting "10" seconds in between
+* Restart the raft leader of the network "churn" "3" times, waiting "10" seconds in between
+* Remove raft peer "Node4" from "Node1" in the network "churn"
+* Keep the load running for "10" seconds
+* Stop recording raft leader and block production
+* Stop crashing containers and the background load
+* Block production did not stall for more than "30" seconds during any membership change
+* Every leader change took less than "10" seconds
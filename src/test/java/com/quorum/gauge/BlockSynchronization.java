@@ -22,7 +22,6 @@ package com.quorum.gauge;
 import com.quorum.gauge.common.GethArgBuilder;
 import com.quorum.gauge.common.NodeType;
 import com.quorum.gauge.common.QuorumNetworkProperty.Node;
-import com.quorum.gauge.common.QuorumNode;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.quorum.gauge.ext.IstanbulNodeAddress;
 import com.quorum.gauge.services.InfrastructureService;
@@ -30,6 +29,8 @@ import com.quorum.gauge.services.InfrastructureService.NetworkResources;
 import com.quorum.gauge.services.InfrastructureService.NodeAttributes;
 import com.quorum.gauge.services.IstanbulService;
 import com.quorum.gauge.services.RaftService;
+import com.quorum.gauge.services.SyncRecorder;
+import com.thoughtworks.gauge.Gauge;
 import com.thoughtworks.gauge.Step;
 import com.thoughtworks.gauge.datastore.DataStoreFactory;
 import io.reactivex.Observable;
@@ -43,7 +44,9 @@ import org.web3j.protocol.core.Response;
 import org.web3j.protocol.core.methods.response.EthBlockNumber;
 import org.web3j.tx.Contract;
 
+import java.io.File;
 import java.math.BigInteger;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
@@ -58,6 +61,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class BlockSynchronization extends AbstractSpecImplementation {
     private static final Logger logger = LoggerFactory.getLogger(BlockSynchronization.class);
 
+    // how long a new node is given to catch up once started
+    private static final Duration SYNC_TIMEOUT = Duration.ofMinutes(10);
+
     @Autowired
     private InfrastructureService infraService;
 
@@ -67,6 +73,9 @@ public class BlockSynchronization extends AbstractSpecImplementation {
     @Autowired
     private IstanbulService istanbulService;
 
+    @Autowired
+    private SyncRecorder syncRecorder;
+
     @Step("Start a <networkType> Quorum Network, named it <id>, consisting of <nodes>")
     public void startNetwork(String networkType, String id, List<Node> nodes) {
         startNetwork(networkType, id, nodes, null);
@@ -163,14 +172,14 @@ public class BlockSynchronization extends AbstractSpecImplementation {
     }
 
     public void proposeValidatorImpl(Node targetNode, List<Node> nodes, boolean vote) {
-        IstanbulNodeAddress nodeAddressRes = istanbulService.nodeAddress(QuorumNode.valueOf(targetNode.getName())).blockingFirst();
+        IstanbulNodeAddress nodeAddressRes = istanbulService.nodeAddress(targetNode).blockingFirst();
         Response.Error err1 = Optional.ofNullable(nodeAddressRes.getError()).orElse(new Response.Error());
         assertThat(err1.getMessage()).as("istanbul.nodeAddress must succeed").isBlank();
         String nodeAddr = nodeAddressRes.getResult();
         logger.debug("node {} node address: {}", targetNode.getName(), nodeAddr);
         nodes.stream().forEach(n -> {
             logger.debug("istanbul.propose targetNode:{} fromNode:{} vote:{} nodeAddr:{}", targetNode.getName(), n.getName(), vote, nodeAddr);
-            istanbulService.propose(QuorumNode.valueOf(n.getName()), nodeAddr, vote)
+            istanbulService.propose(n, nodeAddr, vote)
                     .doOnNext(res -> {
                         Response.Error err2 = Optional.ofNullable(res.getError()).orElse(new Response.Error());
                         assertThat(err2.getMessage()).as("istanbul.propose must succeed").isBlank();
@@ -233,6 +242,43 @@ public class BlockSynchronization extends AbstractSpecImplementation {
                 .blockingSubscribe();
     }
 
+    @Step("Grow the chain of network <id> to <blocks> blocks after deploying <contracts> public and private contracts from <nodes>, and capture the block height as <heightName>")
+    public void growChain(String id, int blocks, int contracts, List<Node> nodes, String heightName) {
+        if (contracts > 0) {
+            sendSomeTransactionFromNodes(nodes, heightName, 1, contracts);
+        }
+        BigInteger target = BigInteger.valueOf(blocks);
+        Duration timeout = utilService.blockTimeHint(nodes.get(0)).multipliedBy(2L * blocks).plusSeconds(30);
+        BigInteger height = blockPump.pumpUntil(nodes.get(0), nodes, target, timeout).blockingFirst();
+        logger.debug("Chain of network {} grown to {} blocks", id, height);
+        DataStoreFactory.getScenarioDataStore().put(heightName, height);
+    }
+
+    @Step("Add new node with <gcmode> `gcmode`, named it <newNode>, join the network <id> as <nodeType> and record how it catches up with <heightName>, sampling its block height every <intervalMillis> milliseconds")
+    public void recordCatchUp(String gcmode, Node newNode, String id, NodeType nodeType, String heightName, int intervalMillis) throws Exception {
+        BigInteger target = mustHaveValue(DataStoreFactory.getScenarioDataStore(), heightName, BigInteger.class);
+        SyncRecorder.Recording recording = syncRecorder.start(newNode, target, Duration.ofMillis(intervalMillis));
+        SyncRecorder.Report report;
+        try {
+            addNewNode(gcmode, newNode, id, nodeType);
+            File json = Paths.get(networkProperty.getInstrumentation().getReportsDir(), "sync",
+                    String.format("%s-%s-%s-%d.json", newNode.getName(), nodeType, StringUtils.defaultIfBlank(gcmode, "default"), System.currentTimeMillis())).toFile();
+            report = recording.await(SYNC_TIMEOUT, json);
+        } finally {
+            recording.cancel();
+        }
+        Gauge.writeMessage(String.format("%s synced %s blocks in %dms (%.1f blocks/s), RPC up after %dms",
+                newNode.getName(), target, report.getSyncMillis(), report.getBlocksPerSecond(), report.getRpcUpAtMillis()));
+        DataStoreFactory.getScenarioDataStore().put(newNode.getName() + "_syncReport", report);
+    }
+
+    @Step("Verify node <node> caught up within <seconds> seconds")
+    public void verifyCaughtUpWithin(Node node, int seconds) {
+        SyncRecorder.Report report = mustHaveValue(DataStoreFactory.getScenarioDataStore(), node.getName() + "_syncReport", SyncRecorder.Report.class);
+        assertThat(report.isCaughtUp()).as(node.getName() + " reached block " + report.getTargetHeight()).isTrue();
+        assertThat(report.getCaughtUpAtMillis()).as("Time to catch up").isLessThanOrEqualTo(Duration.ofSeconds(seconds).toMillis());
+    }
+
     @Step("Verify node <node> has the block height greater or equal to <latestBlockHeightName>")
     public void verifyBlockHeightGreaterThanOrEqualTo(Node node, String latestBlockHeightName) {
         verifyBlockHeight(node, latestBlockHeightName, ">=");
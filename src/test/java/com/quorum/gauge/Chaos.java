@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quorum.gauge.common.QuorumNetworkProperty.DockerInfrastructureProperty;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.core.AbstractSpecImplementation;
+import com.quorum.gauge.services.ChaosScheduler;
+import com.quorum.gauge.services.InfrastructureService;
+import com.quorum.gauge.services.InfrastructureService.NetworkResources;
+import com.quorum.gauge.services.LoadGenerator;
+import com.thoughtworks.gauge.Gauge;
+import com.thoughtworks.gauge.Step;
+import com.thoughtworks.gauge.datastore.DataStoreFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Crash nodes under sustained load to measure how fast the network recovers
+ */
+@Service
+public class Chaos extends AbstractSpecImplementation {
+    private static final Logger logger = LoggerFactory.getLogger(Chaos.class);
+
+    static final String LOAD = "chaosLoad";
+    static final String RUN = "chaosRun";
+    // time given to pending transactions to be mined once the load stops
+    private static final Duration DRAIN = Duration.ofSeconds(30);
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private InfrastructureService infraService;
+
+    @Autowired
+    private LoadGenerator loadGenerator;
+
+    @Autowired
+    private ChaosScheduler chaosScheduler;
+
+    @Step("Start sending <transactionsPerSecond> transactions per second from <nodes> in the background")
+    public void startLoad(int transactionsPerSecond, List<Node> nodes) {
+        DataStoreFactory.getScenarioDataStore().put(LOAD, loadGenerator.start(nodes, transactionsPerSecond));
+    }
+
+    @Step("Start sending <transactionsPerSecond> transactions per second, <privatePercent> % of them private, from <nodes> in the background")
+    public void startLoad(int transactionsPerSecond, int privatePercent, List<Node> nodes) {
+        DataStoreFactory.getScenarioDataStore().put(LOAD, loadGenerator.start(nodes, transactionsPerSecond, privatePercent));
+    }
+
+    @Step("In the background, stop a random <component> container of <nodes> for <downSeconds> seconds, waiting <intervalSeconds> seconds between crashes")
+    public void startChaos(String component, List<Node> nodes, int downSeconds, int intervalSeconds) {
+        LoadGenerator.Load load = mustHaveValue(DataStoreFactory.getScenarioDataStore(), LOAD, LoadGenerator.Load.class);
+        Map<String, String> targets = targets(component, nodes);
+        assertThat(targets).as("Containers to crash").isNotEmpty();
+        DataStoreFactory.getScenarioDataStore().put(RUN, chaosScheduler.start(targets,
+                Duration.ofSeconds(downSeconds), Duration.ofSeconds(intervalSeconds), load));
+    }
+
+    @Step("Keep the load running for <seconds> seconds")
+    public void keepRunning(int seconds) throws InterruptedException {
+        Thread.sleep(Duration.ofSeconds(seconds).toMillis());
+    }
+
+    @Step("Stop crashing containers and the background load")
+    public void stop() throws Exception {
+        ChaosScheduler.Run run = (ChaosScheduler.Run) DataStoreFactory.getScenarioDataStore().get(RUN);
+        LoadGenerator.Load load = (LoadGenerator.Load) DataStoreFactory.getScenarioDataStore().get(LOAD);
+        DataStoreFactory.getScenarioDataStore().remove(RUN);
+        DataStoreFactory.getScenarioDataStore().remove(LOAD);
+        List<ChaosScheduler.Fault> faults = run == null ? Collections.emptyList() : run.stop();
+        int failedCrashes = run == null ? 0 : run.getFailedCrashes();
+        if (load == null) {
+            return;
+        }
+        ChaosScheduler.Report report = ChaosScheduler.analyze(faults, failedCrashes, load.stop(DRAIN));
+        File json = Paths.get(networkProperty.getInstrumentation().getReportsDir(), "chaos",
+                "chaos-" + System.currentTimeMillis() + ".json").toFile();
+        json.getParentFile().mkdirs();
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(json, report);
+        LoadGenerator.Report l = report.getLoad();
+        Gauge.writeMessage(String.format("%d crashes (%d failed), %d confirmed, %d failed, %d stuck transactions, longest recovery %s",
+                faults.size(), failedCrashes, l.getConfirmed(), l.getFailed(), l.getStuck(),
+                report.maxRecovery().map(d -> d.toMillis() + "ms").orElse("never")));
+        logger.debug("Chaos report written to {}", json);
+        DataStoreFactory.getScenarioDataStore().put("chaosReport", report);
+    }
+
+    @Step("Throughput recovered to its previous level within <seconds> seconds after every crash")
+    public void verifyRecovery(int seconds) {
+        ChaosScheduler.Report report = mustHaveValue(DataStoreFactory.getScenarioDataStore(), "chaosReport", ChaosScheduler.Report.class);
+        assertThat(report.getFaults()).as("Completed crashes").isNotEmpty();
+        assertThat(report.getFailedCrashes()).as("Crashes that could not be completed").isZero();
+        assertThat(report.unrecovered()).as("Crashes the throughput did not recover from").isEmpty();
+        assertThat(report.maxRecovery().get()).as("Longest recovery").isLessThanOrEqualTo(Duration.ofSeconds(seconds));
+    }
+
+    @Step("No more than <count> transactions are stuck")
+    public void verifyStuck(int count) {
+        ChaosScheduler.Report report = mustHaveValue(DataStoreFactory.getScenarioDataStore(), "chaosReport", ChaosScheduler.Report.class);
+        assertThat(report.getLoad().getStuck()).as("Transactions without receipt").isLessThanOrEqualTo(count);
+    }
+
+    /**
+     * @param component {@code quorum}, {@code tessera} or {@code any}
+     */
+    private Map<String, String> targets(String component, List<Node> nodes) {
+        boolean quorum = !"tessera".equalsIgnoreCase(component);
+        boolean tessera = !"quorum".equalsIgnoreCase(component);
+        NetworkResources networkResources = (NetworkResources) DataStoreFactory.getScenarioDataStore().get("networkResources");
+        DockerInfrastructureProperty docker = networkProperty.getDockerInfrastructure();
+        Map<String, String> targets = new LinkedHashMap<>();
+        for (Node n : nodes) {
+            if (networkResources != null && networkResources.containsKey(n.getName())) {
+                // containers started by the scenario take precedence over the configured ones
+                for (String id : networkResources.get(n.getName())) {
+                    boolean geth = infraService.isGeth(id).blockingFirst();
+                    if (geth ? quorum : tessera) {
+                        targets.put(n.getName() + (geth ? "-quorum" : "-tessera"), id);
+                    }
+                }
+            } else if (docker.getNodes().containsKey(n.getName())) {
+                if (quorum) {
+                    targets.put(n.getName() + "-quorum", docker.getNodes().get(n.getName()).getQuorumContainerId());
+                }
+                if (tessera) {
+                    targets.put(n.getName() + "-tessera", docker.getNodes().get(n.getName()).getTesseraContainerId());
+                }
+            }
+        }
+        return targets;
+    }
+}
@@ -19,8 +19,7 @@
 
 package com.quorum.gauge;
 
-import com.quorum.gauge.common.QuorumNode;
-import com.quorum.gauge.common.RetryWithDelay;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.thoughtworks.gauge.Step;
 import com.thoughtworks.gauge.datastore.DataStoreFactory;
@@ -62,7 +61,7 @@ public class ContractDeployment extends AbstractSpecImplementation {
         String transactionHash = mustHaveValue(contractName + "_transactionHash", String.class);
         List<Observable<Optional<TransactionReceipt>>> receiptObsevables = new ArrayList<>();
         for (String nodeStr : nodes) {
-            QuorumNode node = QuorumNode.valueOf(nodeStr);
+            Node node = networkProperty.getNode(nodeStr);
             receiptObsevables.add(transactionService.getTransactionReceipt(node, transactionHash)
                 .map(ethGetTransactionReceipt -> {
                     if (ethGetTransactionReceipt.getTransactionReceipt().isPresent()) {
@@ -70,7 +69,7 @@ public class ContractDeployment extends AbstractSpecImplementation {
                     } else {
                         throw new RuntimeException("retry");
                     }
-                }).retryWhen(new RetryWithDelay(20, 3000))
+                }).retryWhen(utilService.untilMined(node))
                 .map(ethReceipt -> ethReceipt.getTransactionReceipt())
                 .subscribeOn(Schedulers.io()));
         }
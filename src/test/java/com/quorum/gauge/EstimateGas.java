@@ -19,8 +19,7 @@
 package com.quorum.gauge;
 
 import com.quorum.gauge.common.PrivacyFlag;
-import com.quorum.gauge.common.QuorumNetworkProperty;
-import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.thoughtworks.gauge.Step;
 import com.thoughtworks.gauge.datastore.DataStore;
@@ -43,28 +42,28 @@ import static org.assertj.core.api.Assertions.fail;
 public class EstimateGas extends AbstractSpecImplementation {
 
     @Step("Estimate gas for public transaction transferring some Wei from a default account in <from> to a default account in <to>")
-    public void estimatePublicTransaction(QuorumNode from, QuorumNode to) {
+    public void estimatePublicTransaction(Node from, Node to) {
         EthEstimateGas estimatedValue = transactionService.estimateGasForTransaction(new Random().nextInt(10) + 1, from, to).blockingFirst();
 
         DataStoreFactory.getScenarioDataStore().put("estimatedValue", estimatedValue);
     }
 
     @Step("Estimate gas for public transaction transferring zero Wei from a default account in <from> to a default account in <to>")
-    public void estimatePublicTransactionZeroValue(QuorumNode from, QuorumNode to) {
+    public void estimatePublicTransactionZeroValue(Node from, Node to) {
         EthEstimateGas estimatedValue = transactionService.estimateGasForTransaction(0, from, to).blockingFirst();
 
         DataStoreFactory.getScenarioDataStore().put("estimatedValue", estimatedValue);
     }
 
     @Step("Deploy `SimpleContract` public smart contract from a default account in <from>")
-    public void createContract(QuorumNode from) {
+    public void createContract(Node from) {
         Contract c = contractService.createSimpleContract(0, from, null).blockingFirst();
 
         DataStoreFactory.getSpecDataStore().put("publicContract1", c);
     }
 
     @Step("Estimate gas for deploying `SimpleContract` public smart contract from a default account in <from>")
-    public void estimatePublicContract(QuorumNetworkProperty.Node from) {
+    public void estimatePublicContract(Node from) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), "publicContract1", Contract.class);
 
         EthEstimateGas estimatedValue = transactionService.estimateGasForPublicContract(from, c).blockingFirst();
@@ -73,7 +72,7 @@ public class EstimateGas extends AbstractSpecImplementation {
     }
 
     @Step("Estimate gas for calling the `SimpleContract` public smart contract from a default account in <from>")
-    public void estimatePublicContractCall(QuorumNode from) {
+    public void estimatePublicContractCall(Node from) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), "publicContract1", Contract.class);
 
         EthEstimateGas estimatedValue = transactionService.estimateGasForPublicContractCall(from, c).blockingFirst();
@@ -83,14 +82,14 @@ public class EstimateGas extends AbstractSpecImplementation {
 
 
     @Step("Deploy `SimpleContract` private smart contract from a default account in <from> and private for <privateFor>")
-    public void createPrivateContract(QuorumNode from, QuorumNode privateFor) {
+    public void createPrivateContract(Node from, Node privateFor) {
         Contract c = contractService.createSimpleContract(0, from, privateFor).blockingFirst();
 
         DataStoreFactory.getSpecDataStore().put("privateContract1", c);
     }
 
     @Step("Estimate gas for deploying `SimpleContract` private smart contract from a default account in <from> and private for <privateFor>")
-    public void estimatePrivateContract(QuorumNode from, QuorumNode privateFor) {
+    public void estimatePrivateContract(Node from, Node privateFor) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), "privateContract1", Contract.class);
 
         EthEstimateGas estimatedValue = transactionService.estimateGasForPrivateContract(from, privateFor, c).blockingFirst();
@@ -99,7 +98,7 @@ public class EstimateGas extends AbstractSpecImplementation {
     }
 
     @Step("Estimate gas for calling the `SimpleContract` private smart contract from a default account in <from> and private for <privateFor>")
-    public void estimatePrivateContractCall(QuorumNode from, QuorumNode privateFor) {
+    public void estimatePrivateContractCall(Node from, Node privateFor) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), "privateContract1", Contract.class);
 
         EthEstimateGas estimatedValue = transactionService.estimateGasForPrivateContractCall(from, privateFor, c).blockingFirst();
@@ -122,7 +121,7 @@ public class EstimateGas extends AbstractSpecImplementation {
 
     @Step("Update contract <contractName> with value <value>, from <from> to <privateFor> using estimated gas")
     public void updateContractUsingEstimatedGas(final String contractName, final int value,
-                                                final QuorumNode from, final QuorumNode privateFor) {
+                                                final Node from, final Node privateFor) {
         final DataStore specStore = DataStoreFactory.getSpecDataStore();
         final DataStore scenarioStore = DataStoreFactory.getScenarioDataStore();
 
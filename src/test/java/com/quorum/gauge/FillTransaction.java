@@ -20,7 +20,7 @@
 package com.quorum.gauge;
 
 import com.quorum.gauge.common.Context;
-import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.quorum.gauge.ext.EthGetQuorumPayload;
 import com.quorum.gauge.ext.filltx.PrivateFillTransaction;
@@ -48,7 +48,7 @@ public class FillTransaction extends AbstractSpecImplementation {
     private static final Logger logger = LoggerFactory.getLogger(Context.class);
 
     @Step("Deploy Simple Storage contract using fillTransaction api with an initial value of <initValue> called from <from> private for <to>. Name this contract as <contractName>")
-    public void sendFillTransaction(int initValue, QuorumNode from, QuorumNode to, String contractName) {
+    public void sendFillTransaction(int initValue, Node from, Node to, String contractName) {
         com.quorum.gauge.ext.filltx.FillTransaction filledTx = rawContractService.fillTransaction(from, to, initValue).blockingFirst().getResponseObject();
         if (filledTx == null) {
             // possible that tessera is older version which is leading to test case failure. skip
@@ -70,7 +70,7 @@ public class FillTransaction extends AbstractSpecImplementation {
             Predicate<? super EthGetTransactionReceipt> isReceiptPresent
                 = ethGetTransactionReceipt -> ethGetTransactionReceipt.getTransactionReceipt().isPresent();
 
-            Optional<TransactionReceipt> receipt = transactionService.getTransactionReceipt(QuorumNode.Node1, txHash)
+            Optional<TransactionReceipt> receipt = transactionService.getTransactionReceipt(networkProperty.getTopology().firstNode(), txHash)
                 .repeatWhen(completed -> completed.delay(2, TimeUnit.SECONDS))
                 .takeUntil(isReceiptPresent)
                 .timeout(10, TimeUnit.SECONDS)
@@ -100,22 +100,22 @@ public class FillTransaction extends AbstractSpecImplementation {
     }
 
     @Step("If fillTransaction is successful, verify that <contractKey>'s payload is retrievable from <node>")
-    public void verifyContractDeploy(String contractKey, QuorumNode node) {
+    public void verifyContractDeploy(String contractKey, Node node) {
         boolean skipTest = mustHaveValue(DataStoreFactory.getSpecDataStore(), "skipFillTXTests", java.lang.Boolean.class);
 
         if (!skipTest) {
-            logger.debug("executing test to verify that payload is retrievable for {} from node {}", contractKey, node);
+            logger.debug("executing test to verify that payload is retrievable for {} from node {}", contractKey, node.getName());
             Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractKey, Contract.class);
             EthGetQuorumPayload payload = transactionService.getPrivateTransactionPayload(node, c.getTransactionReceipt().get().getTransactionHash()).blockingFirst();
 
             AssertionsForClassTypes.assertThat(payload.getResult()).isNotEqualTo("0x");
         } else {
-            logger.debug("skipping test to verify that payload is retrievable for {} from node {}", contractKey, node);
+            logger.debug("skipping test to verify that payload is retrievable for {} from node {}", contractKey, node.getName());
         }
     }
 
     @Step("If fillTransaction is successful, verify that <contractKey>'s payload is not retrievable from <node>")
-    public void verifyContractNonDeploy(String contractKey, QuorumNode node) {
+    public void verifyContractNonDeploy(String contractKey, Node node) {
         boolean skipTest = mustHaveValue(DataStoreFactory.getSpecDataStore(), "skipFillTXTests", java.lang.Boolean.class);
         if (!skipTest) {
             Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractKey, Contract.class);
@@ -123,13 +123,13 @@ public class FillTransaction extends AbstractSpecImplementation {
 
             AssertionsForClassTypes.assertThat(payload.getResult()).isEqualTo("0x");
         } else {
-            logger.debug("skipping test to verify that payload is not retrievable for {} from node {}", contractKey, node);
+            logger.debug("skipping test to verify that payload is not retrievable for {} from node {}", contractKey, node.getName());
         }
 
     }
 
     @Step("If fillTransaction is successful, verify that <contractKey>'s `get()` function execution in <node> returns <expectedValue>")
-    public void verifyStorageValueForParticipant(String contractKey, QuorumNode node, int expectedValue) {
+    public void verifyStorageValueForParticipant(String contractKey, Node node, int expectedValue) {
         boolean skipTest = mustHaveValue(DataStoreFactory.getSpecDataStore(), "skipFillTXTests", java.lang.Boolean.class);
         if (!skipTest) {
             Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractKey, Contract.class);
@@ -138,7 +138,7 @@ public class FillTransaction extends AbstractSpecImplementation {
             AssertionsForClassTypes.assertThat(actualValue).isEqualTo(expectedValue);
 
         } else {
-            logger.debug("skipping test to verify storage value for {} from node {}", contractKey, node);
+            logger.debug("skipping test to verify storage value for {} from node {}", contractKey, node.getName());
         }
     }
 
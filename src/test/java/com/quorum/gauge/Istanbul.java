@@ -19,7 +19,7 @@
 
 package com.quorum.gauge;
 
-import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.quorum.gauge.services.IstanbulService;
 import com.thoughtworks.gauge.ContinueOnFailure;
@@ -33,6 +33,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -55,7 +56,7 @@ public class Istanbul extends AbstractSpecImplementation {
 
     @Step("Among all validators, stop some validators so there are less than 2F + 1 validators in the network")
     public void stopValidators() {
-        int totalNodesLive = utilService.getNumberOfNodes(QuorumNode.Node1) + 1;
+        int totalNodesLive = utilService.getNumberOfNodes(networkProperty.getTopology().firstNode()) + 1;
         int totalNodesConfigured = numberOfQuorumNodes();
         int numOfValidatorsToStop = Math.round((totalNodesLive - 1) / 2.0f);
         // we only can stop validators that are configured
@@ -63,11 +64,11 @@ public class Istanbul extends AbstractSpecImplementation {
 
         Gauge.writeMessage(String.format("Stopping %d validators from total of %d validators", numOfValidatorsToStop, totalNodesLive));
 
-        List<QuorumNode> nodes = Observable.fromArray(QuorumNode.values()).take(totalNodesConfigured).toList().blockingGet();
+        List<Node> nodes = new ArrayList<>(networkProperty.getNodes().values());
         Collections.shuffle(nodes);
-        List<QuorumNode> stoppedNodes = nodes.subList(0, numOfValidatorsToStop);
+        List<Node> stoppedNodes = nodes.subList(0, numOfValidatorsToStop);
         Observable.fromIterable(stoppedNodes)
-                .flatMap(istanbulService::stopMining)
+                .flatMap(n -> istanbulService.stopMining(n))
                 .blockingSubscribe();
 
         DataStoreFactory.getScenarioDataStore().put("stoppedNodes", stoppedNodes);
@@ -85,9 +86,9 @@ public class Istanbul extends AbstractSpecImplementation {
 
     @Step("Resume the stopped validators")
     public void startValidators() {
-        List<QuorumNode> nodes = mustHaveValue(DataStoreFactory.getScenarioDataStore(), "stoppedNodes", List.class);
+        List<Node> nodes = mustHaveValue(DataStoreFactory.getScenarioDataStore(), "stoppedNodes", List.class);
         Observable.fromIterable(nodes)
-                .flatMap(istanbulService::startMining)
+                .flatMap(n -> istanbulService.startMining(n))
                 .blockingSubscribe();
     }
 }
@@ -20,7 +20,7 @@
 package com.quorum.gauge;
 
 import com.quorum.gauge.common.PrivacyFlag;
-import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.thoughtworks.gauge.Gauge;
 import com.thoughtworks.gauge.Step;
@@ -41,8 +41,8 @@ public class NestedPrivateContract extends AbstractSpecImplementation {
     private static final Logger logger = LoggerFactory.getLogger(NestedPrivateContract.class);
 
     @Step("Deploy a C1 contract with initial value <initialValue> in <source>'s default account and it's private for <target>, named this contract as <contractName>")
-    public void setupC1Contract(int initialValue, QuorumNode source, QuorumNode target, String contractName) {
-        logger.debug("Setting up contract from {} to {}", source, target);
+    public void setupC1Contract(int initialValue, Node source, Node target, String contractName) {
+        logger.debug("Setting up contract from {} to {}", source.getName(), target.getName());
         saveCurrentBlockNumber();
         Contract contract = nestedContractService.createC1Contract(initialValue, source, target).blockingFirst();
 
@@ -51,8 +51,8 @@ public class NestedPrivateContract extends AbstractSpecImplementation {
     }
 
     @Step("Deploy a <privacyFlags> C1 contract with initial value <initialValue> in <source>'s default account and it's private for <target>, named this contract as <contractName>")
-    public void setupC1Contract(String privacyFlags, int initialValue, QuorumNode source, QuorumNode target, String contractName) {
-        logger.debug("Setting up contract from {} to {}", source, target);
+    public void setupC1Contract(String privacyFlags, int initialValue, Node source, Node target, String contractName) {
+        logger.debug("Setting up contract from {} to {}", source.getName(), target.getName());
         saveCurrentBlockNumber();
         Contract contract = nestedContractService.createC1Contract(
             initialValue,
@@ -66,8 +66,8 @@ public class NestedPrivateContract extends AbstractSpecImplementation {
     }
 
     @Step("Deploy a C2 contract with initial value <c1Address> in <source>'s default account and it's private for <target>, named this contract as <contractName>")
-    public void setupC2Contract(String c1Address, QuorumNode source, QuorumNode target, String contractName) {
-        logger.debug("Setting up contract from {} to {}", source, target);
+    public void setupC2Contract(String c1Address, Node source, Node target, String contractName) {
+        logger.debug("Setting up contract from {} to {}", source.getName(), target.getName());
         Contract c1 = (Contract) DataStoreFactory.getSpecDataStore().get(c1Address);
         Contract contract = nestedContractService.createC2Contract(c1.getContractAddress(), source, target).blockingFirst();
 
@@ -76,8 +76,8 @@ public class NestedPrivateContract extends AbstractSpecImplementation {
     }
 
     @Step("Deploy a <privacyFlags> C2 contract with initial value <c1Address> in <source>'s default account and it's private for <target>, named this contract as <contractName>")
-    public void setupC2Contract(String privacyFlags, String c1Address, QuorumNode source, QuorumNode target, String contractName) {
-        logger.debug("Setting up contract from {} to {}", source, target);
+    public void setupC2Contract(String privacyFlags, String c1Address, Node source, Node target, String contractName) {
+        logger.debug("Setting up contract from {} to {}", source.getName(), target.getName());
         Contract c1 = (Contract) DataStoreFactory.getSpecDataStore().get(c1Address);
         Contract contract = nestedContractService.createC2Contract(
             c1.getContractAddress(),
@@ -91,12 +91,12 @@ public class NestedPrivateContract extends AbstractSpecImplementation {
     }
 
     @Step("Execute <privacyFlags> <contractName>'s `newContractC2()` function with new value <newValue> in <source> and it's private for <target>")
-    public void callNewContractC2(String privacyFlags, String contractName, int newValue, QuorumNode source, String target) {
+    public void callNewContractC2(String privacyFlags, String contractName, int newValue, Node source, String target) {
         Contract c1 = mustHaveValue(contractName, Contract.class);
 
         TransactionReceipt receipt = nestedContractService.newContractC2(
             source,
-            Arrays.stream(target.split(",")).map(s -> QuorumNode.valueOf(s)).collect(Collectors.toList()),
+            Arrays.stream(target.split(",")).map(s -> networkProperty.getNode(s)).collect(Collectors.toList()),
             c1.getContractAddress(),
             BigInteger.valueOf(newValue),
             Arrays.stream(privacyFlags.split(",")).map(PrivacyFlag::valueOf).collect(Collectors.toList())).blockingFirst();
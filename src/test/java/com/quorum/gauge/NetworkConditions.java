@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge;
+
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.core.AbstractSpecImplementation;
+import com.quorum.gauge.services.InfrastructureService;
+import com.quorum.gauge.services.InfrastructureService.NetworkCondition;
+import com.quorum.gauge.services.InfrastructureService.NetworkResources;
+import com.thoughtworks.gauge.Step;
+import com.thoughtworks.gauge.datastore.DataStoreFactory;
+import io.reactivex.Observable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Partition nodes and degrade their links to measure consensus under bad networking.
+ * Only Quorum containers are affected, Tessera traffic is left alone.
+ */
+@Service
+public class NetworkConditions extends AbstractSpecImplementation {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkConditions.class);
+
+    static final String DISRUPTIONS = "networkDisruptions";
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private InfrastructureService infraService;
+
+    @Step("Disconnect <nodes> from the network")
+    public void disconnect(List<Node> nodes) {
+        forEachQuorumContainer(nodes, infraService::disconnectFromNetwork);
+    }
+
+    @Step("Reconnect <nodes> to the network")
+    public void reconnect(List<Node> nodes) {
+        forEachQuorumContainer(nodes, infraService::reconnectToNetwork);
+    }
+
+    @Step("Add <delayMillis> ms delay with <jitterMillis> ms jitter and <lossPercent> % packet loss to the network of <nodes>")
+    public void degrade(int delayMillis, int jitterMillis, double lossPercent, List<Node> nodes) {
+        NetworkCondition condition = NetworkCondition.delay(delayMillis, jitterMillis).withLoss(lossPercent);
+        forEachQuorumContainer(nodes, id -> infraService.applyNetworkCondition(id, condition));
+    }
+
+    @Step("Clear network conditions of <nodes>")
+    public void clear(List<Node> nodes) {
+        forEachQuorumContainer(nodes, infraService::clearNetworkCondition);
+    }
+
+    @Step("In the background, disconnect <nodes> from the network for <downSeconds> seconds every <periodSeconds> seconds")
+    public void disconnectPeriodically(List<Node> nodes, int downSeconds, int periodSeconds) {
+        List<String> ids = quorumContainers(nodes);
+        schedule(periodSeconds,
+                () -> all(ids, infraService::disconnectFromNetwork)
+                        .delay(downSeconds, TimeUnit.SECONDS)
+                        .flatMap(ok -> all(ids, infraService::reconnectToNetwork)),
+                () -> all(ids, infraService::reconnectToNetwork));
+    }
+
+    @Step("In the background, add <delayMillis> ms delay and <lossPercent> % packet loss to the network of <nodes> for <onSeconds> seconds every <periodSeconds> seconds")
+    public void degradePeriodically(int delayMillis, double lossPercent, List<Node> nodes, int onSeconds, int periodSeconds) {
+        List<String> ids = quorumContainers(nodes);
+        NetworkCondition condition = NetworkCondition.delay(delayMillis, 0).withLoss(lossPercent);
+        schedule(periodSeconds,
+                () -> all(ids, id -> infraService.applyNetworkCondition(id, condition))
+                        .delay(onSeconds, TimeUnit.SECONDS)
+                        .flatMap(ok -> all(ids, infraService::clearNetworkCondition)),
+                () -> all(ids, infraService::clearNetworkCondition));
+    }
+
+    @Step("Stop network disruptions")
+    public void stopDisruptions() {
+        CompositeDisposable disruptions = (CompositeDisposable) DataStoreFactory.getScenarioDataStore().get(DISRUPTIONS);
+        if (disruptions != null) {
+            DataStoreFactory.getScenarioDataStore().remove(DISRUPTIONS);
+            disruptions.dispose();
+        }
+    }
+
+    /**
+     * Run {@code disruption} every {@code periodSeconds} until disruptions are stopped, then {@code restore}
+     */
+    private void schedule(int periodSeconds, Supplier<Observable<Boolean>> disruption, Supplier<Observable<Boolean>> restore) {
+        CompositeDisposable disruptions = (CompositeDisposable) DataStoreFactory.getScenarioDataStore().get(DISRUPTIONS);
+        if (disruptions == null) {
+            disruptions = new CompositeDisposable();
+            DataStoreFactory.getScenarioDataStore().put(DISRUPTIONS, disruptions);
+        }
+        disruptions.add(Observable.interval(0, periodSeconds, TimeUnit.SECONDS, Schedulers.io())
+                .concatMap(tick -> disruption.get().onErrorReturn(e -> {
+                    logger.warn("Network disruption failed: {}", e.getMessage());
+                    return false;
+                }))
+                .doOnDispose(() -> restore.get().onErrorReturnItem(false).blockingSubscribe())
+                .subscribe());
+    }
+
+    private Observable<Boolean> all(List<String> ids, Function<String, Observable<Boolean>> op) {
+        return Observable.fromIterable(ids)
+                .flatMap(op::apply)
+                .all(ok -> ok)
+                .toObservable();
+    }
+
+    private void forEachQuorumContainer(List<Node> nodes, Function<String, Observable<Boolean>> op) {
+        all(quorumContainers(nodes), op).blockingSubscribe();
+    }
+
+    /**
+     * Containers started by the scenario take precedence over the configured ones
+     */
+    private List<String> quorumContainers(List<Node> nodes) {
+        NetworkResources networkResources = (NetworkResources) DataStoreFactory.getScenarioDataStore().get("networkResources");
+        return nodes.stream()
+                .flatMap(n -> {
+                    if (networkResources != null && networkResources.containsKey(n.getName())) {
+                        return networkResources.get(n.getName()).stream()
+                                .filter(id -> infraService.isGeth(id).blockingFirst());
+                    }
+                    return Stream.of(networkProperty.getDockerInfrastructure().getNodes().get(n.getName()).getQuorumContainerId());
+                })
+                .collect(Collectors.toList());
+    }
+}
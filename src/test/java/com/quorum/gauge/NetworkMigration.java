@@ -19,7 +19,7 @@
 
 package com.quorum.gauge;
 
-import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.quorum.gauge.services.ContractService;
 import com.quorum.gauge.services.InfrastructureService;
@@ -144,24 +144,24 @@ public class NetworkMigration extends AbstractSpecImplementation {
         }
         List<Observable<?>> parallelNodes = new ArrayList<>();
         for (String n : nodes) {
-            parallelNodes.add(sendTxs(QuorumNode.valueOf(n), txCountPerNode, threadsPerNode).subscribeOn(Schedulers.io()));
+            parallelNodes.add(sendTxs(networkProperty.getNode(n), txCountPerNode, threadsPerNode).subscribeOn(Schedulers.io()));
         }
         Observable.zip(parallelNodes, oks -> true).blockingSubscribe();
     }
 
-    private Observable<? extends Contract> sendTxs(QuorumNode n, int txCountPerNode, int threadsPerNode) {
+    private Observable<? extends Contract> sendTxs(Node n, int txCountPerNode, int threadsPerNode) {
         return Observable.range(0, txCountPerNode)
-                .doOnNext(c -> logger.debug("Sending tx {} to {}", c, n))
+                .doOnNext(c -> logger.debug("Sending tx {} to {}", c, n.getName()))
                 .flatMap(v -> Observable.just(v)
                         .flatMap(num -> contractService.createSimpleContract(40, n, null))
                         .subscribeOn(Schedulers.io())
                         , threadsPerNode);
     }
 
-    private QuorumNode randomNode(List<String> nodes, QuorumNode n) {
-        List<String> nodesLessN = nodes.stream().filter(s -> !n.name().equalsIgnoreCase(s)).collect(Collectors.toList());
+    private Node randomNode(List<String> nodes, Node n) {
+        List<String> nodesLessN = nodes.stream().filter(s -> !n.getName().equalsIgnoreCase(s)).collect(Collectors.toList());
         Random rand = new Random();
-        return QuorumNode.valueOf(nodesLessN.get(rand.nextInt(nodesLessN.size())));
+        return networkProperty.getNode(nodesLessN.get(rand.nextInt(nodesLessN.size())));
     }
 
     @Step("Verify block number in <nodes> in sync with <name>")
@@ -25,10 +25,13 @@ import com.quorum.gauge.common.GethArgBuilder;
 import com.quorum.gauge.common.NodeType;
 import com.quorum.gauge.common.PermissionsConfig;
 import com.quorum.gauge.common.QuorumNetworkProperty;
+import com.quorum.gauge.common.RetryPolicy;
 import com.quorum.gauge.core.AbstractSpecImplementation;
+import com.quorum.gauge.services.ContractReadService;
 import com.quorum.gauge.services.InfrastructureService;
 import com.quorum.gauge.services.RaftService;
 import com.quorum.gauge.services.UtilService;
+import com.quorum.gauge.sol.PermissionsInterface;
 import com.thoughtworks.gauge.Step;
 import com.thoughtworks.gauge.datastore.DataStoreFactory;
 import io.reactivex.Observable;
@@ -43,8 +46,8 @@ import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.quorum.methods.response.permissioning.*;
 import org.web3j.tx.Contract;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -95,6 +98,11 @@ public class Permissions extends AbstractSpecImplementation {
 
     private static final Logger logger = LoggerFactory.getLogger(SmartContractDualState.class);
 
+    // permission updates show up after the next block, poll early and back off
+    private static final RetryPolicy PERMISSION_UPDATE_RETRY = RetryPolicy.exponential(Duration.ofMillis(250))
+        .withMaxDelay(Duration.ofMillis(1500))
+        .withDeadline(Duration.ofSeconds(6));
+
     public Permissions() {
     }
 
@@ -426,6 +434,20 @@ public class Permissions extends AbstractSpecImplementation {
         assertThat(isPresent).isTrue();
     }
 
+    @Step("Using `Multicall` deployed from <source>, check <node>'s default account is network admin in <nodes> according to <interfaceContractKey>")
+    public void checkNetworkAdminWithMulticall(QuorumNetworkProperty.Node source, QuorumNetworkProperty.Node node, List<QuorumNetworkProperty.Node> nodes, String interfaceContractKey) {
+        String interfaceContractAddress = mustHaveValue(DataStoreFactory.getScenarioDataStore(), interfaceContractKey, Contract.class).getContractAddress();
+        String acct = accountService.getDefaultAccountAddress(node).blockingFirst();
+        multicallService.deploy(source, null).blockingFirst();
+
+        ContractReadService.ReadResults results = multicallService.readNetworkAdmins(nodes, interfaceContractAddress, Collections.singletonList(acct)).blockingFirst();
+
+        for (QuorumNetworkProperty.Node n : nodes) {
+            boolean isNetworkAdmin = results.get(n.getName(), interfaceContractAddress, PermissionsInterface.FUNC_ISNETWORKADMIN).asBoolean();
+            assertThat(isNetworkAdmin).as(acct + " is network admin in " + n.getName()).isTrue();
+        }
+    }
+
     private void waitForOrgStatus(QuorumNetworkProperty.Node proposingNode, String orgId, String status) {
         assertThat(permissionService.getPermissionOrgList(proposingNode)
             .map(orgList -> {
@@ -442,9 +464,7 @@ public class Permissions extends AbstractSpecImplementation {
                 return true;
             })
             .doOnNext(found -> logger.debug("Org = {}, expected status = {}, ready = {}", orgId, status, found))
-            .retryWhen(errors -> errors
-                .zipWith(Observable.range(1, 5), (n, i) -> i) // how many retries
-                .flatMap(retryCount -> Observable.timer(1, TimeUnit.SECONDS))) // sleep x seconds between retry
+            .retryWhen(PERMISSION_UPDATE_RETRY)
             .blockingFirst()
         ).as("wait for the org " + orgId + " status to be " + status).isTrue();
     }
@@ -465,9 +485,7 @@ public class Permissions extends AbstractSpecImplementation {
                 return true;
             })
             .doOnNext(found -> logger.debug("Enode Id = {}, expected status = {}, ready = {}", enodeId, status, found))
-            .retryWhen(errors -> errors
-                .zipWith(Observable.range(1, 5), (n, i) -> i) // how many retries
-                .flatMap(retryCount -> Observable.timer(1, TimeUnit.SECONDS))) // sleep x seconds between retry
+            .retryWhen(PERMISSION_UPDATE_RETRY)
             .blockingFirst()
         ).as("wait for the node id " + enodeId + " status to be " + status).isTrue();
     }
@@ -488,9 +506,7 @@ public class Permissions extends AbstractSpecImplementation {
                 return true;
             })
             .doOnNext(found -> logger.debug("Org = {}, Role Id = {} is active", orgId, roleId))
-            .retryWhen(errors -> errors
-                .zipWith(Observable.range(1, 5), (n, i) -> i) // how many retries
-                .flatMap(retryCount -> Observable.timer(1, TimeUnit.SECONDS))) // sleep x seconds between retry
+            .retryWhen(PERMISSION_UPDATE_RETRY)
             .blockingFirst()
         ).as("wait for the role id " + roleId + " status to be active").isTrue();
     }
@@ -511,9 +527,7 @@ public class Permissions extends AbstractSpecImplementation {
                 return true;
             })
             .doOnNext(found -> logger.debug("AccountId = {}, status = {}", account, status))
-            .retryWhen(errors -> errors
-                .zipWith(Observable.range(1, 5), (n, i) -> i) // how many retries
-                .flatMap(retryCount -> Observable.timer(1, TimeUnit.SECONDS))) // sleep x seconds between retry
+            .retryWhen(PERMISSION_UPDATE_RETRY)
             .blockingFirst()
         ).as("wait for the account id " + account + " status to be {}" + status).isTrue();
     }
@@ -590,7 +604,7 @@ public class Permissions extends AbstractSpecImplementation {
         Contract c = null;
         String exMsg = "";
         try {
-            c = contractService.createGenericStoreContract(node, contractName, initialValue, null, false, null).blockingFirst();
+            c = contractService.createGenericStoreContract(node, contractName, initialValue, null, false, (QuorumNetworkProperty.Node) null).blockingFirst();
 
         } catch (Exception ex) {
             exMsg = ex.getMessage();
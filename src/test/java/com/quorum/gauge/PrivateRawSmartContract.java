@@ -19,8 +19,7 @@
 
 package com.quorum.gauge;
 
-import com.quorum.gauge.common.QuorumNode;
-import com.quorum.gauge.common.RetryWithDelay;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.common.config.WalletData;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.thoughtworks.gauge.Step;
@@ -44,9 +43,9 @@ public class PrivateRawSmartContract extends AbstractSpecImplementation {
     private static final Logger logger = LoggerFactory.getLogger(PrivateRawSmartContract.class);
 
     @Step("Deploy a simple smart contract with initial value <initialValue> signed by external wallet <wallet> in <source> and it's private for <target>, name this contract as <contractName>")
-    public void setupContract(int initialValue, WalletData wallet, QuorumNode source, QuorumNode target, String contractName) {
+    public void setupContract(int initialValue, WalletData wallet, Node source, Node target, String contractName) {
         saveCurrentBlockNumber();
-        logger.debug("Setting up contract from {} to {}", source, target);
+        logger.debug("Setting up contract from {} to {}", source.getName(), target.getName());
         Contract contract = rawContractService.createRawSimplePrivateContract(initialValue, wallet, source, target).blockingFirst();
 
         DataStoreFactory.getSpecDataStore().put(contractName, contract);
@@ -54,7 +53,7 @@ public class PrivateRawSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Execute <contractName>'s `set()` function with new value <newValue> signed by external wallet <wallet> in <source> and it's private for <target>")
-    public void updateNewValue(String contractName, int newValue, WalletData wallet, QuorumNode source, QuorumNode target) {
+    public void updateNewValue(String contractName, int newValue, WalletData wallet, Node source, Node target) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         TransactionReceipt receipt = rawContractService.updateRawSimplePrivateContract(newValue, c.getContractAddress(), wallet, source, target).blockingFirst();
 
@@ -63,7 +62,7 @@ public class PrivateRawSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Transaction Receipt is present in <node> for <contractName> from external wallet <wallet>")
-    public void verifyTransactionReceipt(QuorumNode node, String contractName, WalletData wallet) {
+    public void verifyTransactionReceipt(Node node, String contractName, WalletData wallet) {
         String transactionHash = mustHaveValue(DataStoreFactory.getScenarioDataStore(), contractName + "_transactionHash", String.class);
         Optional<TransactionReceipt> receipt = transactionService.getTransactionReceipt(node, transactionHash)
             .map(ethGetTransactionReceipt -> {
@@ -72,7 +71,7 @@ public class PrivateRawSmartContract extends AbstractSpecImplementation {
                 } else {
                     throw new RuntimeException("retry");
                 }
-            }).retryWhen(new RetryWithDelay(20, 3000))
+            }).retryWhen(utilService.untilMined(node))
             .blockingFirst().getTransactionReceipt();
 
         assertThat(receipt.isPresent()).isTrue();
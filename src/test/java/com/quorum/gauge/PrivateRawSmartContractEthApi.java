@@ -19,8 +19,7 @@
 
 package com.quorum.gauge;
 
-import com.quorum.gauge.common.QuorumNode;
-import com.quorum.gauge.common.RetryWithDelay;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.quorum.gauge.sol.SimpleStorage;
 import com.thoughtworks.gauge.Step;
@@ -43,9 +42,9 @@ public class PrivateRawSmartContractEthApi extends AbstractSpecImplementation {
     private static final Logger logger = LoggerFactory.getLogger(PrivateRawSmartContractEthApi.class);
 
     @Step("Deploy a simple smart contract with initial value <initialValue> signed with <apiMethod> using <source>'s default account and it's private for <target>, name this contract as <contractName>")
-    public void setupContractUsingEthApi(int initialValue, String apiMethod, QuorumNode source, QuorumNode target, String contractName) {
+    public void setupContractUsingEthApi(int initialValue, String apiMethod, Node source, Node target, String contractName) {
         saveCurrentBlockNumber();
-        logger.debug("Setting up contract from {} to {}", source, target);
+        logger.debug("Setting up contract from {} to {}", source.getName(), target.getName());
         EthSendTransaction sendTransactionResponse = rawContractService.createRawSimplePrivateContractUsingEthApi(apiMethod, initialValue, source, target).blockingFirst();
 
         Optional<String> responseError = Optional.ofNullable(sendTransactionResponse.getError()).map(Response.Error::getMessage);
@@ -55,7 +54,7 @@ public class PrivateRawSmartContractEthApi extends AbstractSpecImplementation {
     }
 
     @Step("Execute <contractName>'s `set()` function with new value <newValue> signed with <apiMethod> using <source>'s default account and it's private for <target>")
-    public void updateNewValueUsingEthApi(String contractName, int newValue, String apiMethod, QuorumNode source, QuorumNode target) {
+    public void updateNewValueUsingEthApi(String contractName, int newValue, String apiMethod, Node source, Node target) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         Optional<TransactionReceipt> receipt = rawContractService.updateRawSimplePrivateContractUsingEthApi(apiMethod, newValue, c.getContractAddress(), source, target).blockingFirst().getTransactionReceipt();
 
@@ -72,7 +71,7 @@ public class PrivateRawSmartContractEthApi extends AbstractSpecImplementation {
     }
 
     @Step("Transaction Receipt is present in <node> for eth_signTransaction signed <contractName> from <node>'s default account")
-    public void verifyTransactionReceipt(QuorumNode node, String contractName, QuorumNode source) {
+    public void verifyTransactionReceipt(Node node, String contractName, Node source) {
         String transactionHash = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName + "_transactionHash", String.class);
         Optional<TransactionReceipt> receipt = transactionService.getTransactionReceipt(node, transactionHash)
             .map(ethGetTransactionReceipt -> {
@@ -81,7 +80,7 @@ public class PrivateRawSmartContractEthApi extends AbstractSpecImplementation {
                 } else {
                     throw new RuntimeException("retry");
                 }
-            }).retryWhen(new RetryWithDelay(20, 3000))
+            }).retryWhen(utilService.untilMined(node))
             .blockingFirst().getTransactionReceipt();
 
         assertThat(receipt.isPresent()).isTrue();
@@ -22,11 +22,17 @@ package com.quorum.gauge;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quorum.gauge.common.PrivacyFlag;
-import com.quorum.gauge.common.QuorumNode;
-import com.quorum.gauge.common.RetryWithDelay;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.common.RetryPolicy;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.quorum.gauge.ext.EthGetQuorumPayload;
 import com.quorum.gauge.services.AbstractService;
+import com.quorum.gauge.services.BlockScanner;
+import com.quorum.gauge.services.ContractReadService;
+import com.quorum.gauge.services.LogIndexer;
+import com.quorum.gauge.services.PrivateStateConsistencyChecker;
+import com.quorum.gauge.services.TransactionTraceService;
+import com.quorum.gauge.sol.SimpleStorage;
 import com.thoughtworks.gauge.Step;
 import com.thoughtworks.gauge.datastore.DataStoreFactory;
 import io.reactivex.Observable;
@@ -41,13 +47,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
-import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.tx.Contract;
 
+import java.io.File;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -61,9 +68,9 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
     private static final Logger logger = LoggerFactory.getLogger(PrivateSmartContract.class);
 
     @Step("Deploy a simple smart contract with initial value <initialValue> in <source>'s default account and it's private for <target>, named this contract as <contractName>")
-    public void setupContract(int initialValue, QuorumNode source, QuorumNode target, String contractName) {
+    public void setupContract(int initialValue, Node source, Node target, String contractName) {
         saveCurrentBlockNumber();
-        logger.debug("Setting up contract from {} to {}", source, target);
+        logger.debug("Setting up contract from {} to {}", source.getName(), target.getName());
         Contract contract = contractService.createSimpleContract(initialValue, source, target).blockingFirst();
 
         DataStoreFactory.getSpecDataStore().put(contractName, contract);
@@ -71,9 +78,9 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Deploy a <privacyFlags> simple smart contract with initial value <initialValue> in <source>'s default account and it's private for <target>, named this contract as <contractName>")
-    public void setupContract(String privacyFlags, int initialValue, QuorumNode source, QuorumNode target, String contractName) {
+    public void setupContract(String privacyFlags, int initialValue, Node source, Node target, String contractName) {
         saveCurrentBlockNumber();
-        logger.debug("Setting up contract from {} to {}", source, target);
+        logger.debug("Setting up contract from {} to {}", source.getName(), target.getName());
         Contract contract = contractService.createSimpleContract(
             initialValue,
             source,
@@ -97,7 +104,7 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Transaction Receipt is present in <node> for <contractName> from <node>'s default account")
-    public void verifyTransactionReceipt(QuorumNode node, String contractName, QuorumNode source) {
+    public void verifyTransactionReceipt(Node node, String contractName, Node source) {
         String transactionHash = mustHaveValue(DataStoreFactory.getScenarioDataStore(), contractName + "_transactionHash", String.class);
         Optional<TransactionReceipt> receipt = transactionService.getTransactionReceipt(node, transactionHash)
                 .map(ethGetTransactionReceipt -> {
@@ -106,7 +113,7 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
                     } else {
                         throw new RuntimeException("retry");
                     }
-                }).retryWhen(new RetryWithDelay(20, 3000))
+                }).retryWhen(utilService.untilMined(node))
                 .blockingFirst().getTransactionReceipt();
 
         assertThat(receipt.isPresent()).isTrue();
@@ -117,27 +124,52 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("<contractName> stored in <source> and <target> must have the same storage root")
-    public void verifyStorageRoot(String contractName, QuorumNode source, QuorumNode target) {
+    public void verifyStorageRoot(String contractName, Node source, Node target) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
-        Observable.zip(
-            contractService.getStorageRoot(source, c.getContractAddress()).subscribeOn(Schedulers.io()),
-            contractService.getStorageRoot(target, c.getContractAddress()).subscribeOn(Schedulers.io()),
-            (s, t) -> assertThat(s).isEqualTo(t)
-        );
+        PrivateStateConsistencyChecker.ConsistencyReport report = privateStateConsistencyChecker.check(
+            Collections.singletonList(PrivateStateConsistencyChecker.ContractParties.of(c.getContractAddress(), Arrays.asList(source, target))),
+            Arrays.asList(source, target)).blockingFirst();
+
+        assertThat(report.rootOf(c.getContractAddress(), source.getName()).orElse(null)).as("Storage root in " + source.getName())
+            .isNotEqualTo(PrivateStateConsistencyChecker.NO_ROOT)
+            .isEqualTo(report.rootOf(c.getContractAddress(), target.getName()).orElse(null));
     }
 
     @Step("<contractName> stored in <source> and <stranger> must not have the same storage root")
-    public void verifyStorageRootForNonParticipatedNode(String contractName, QuorumNode source, QuorumNode stranger) {
+    public void verifyStorageRootForNonParticipatedNode(String contractName, Node source, Node stranger) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
-        Observable.zip(
-            contractService.getStorageRoot(source, c.getContractAddress()).subscribeOn(Schedulers.io()),
-            contractService.getStorageRoot(stranger, c.getContractAddress()).subscribeOn(Schedulers.io()),
-            (s, t) -> assertThat(s).isNotEqualTo(t)
-        );
+        PrivateStateConsistencyChecker.ConsistencyReport report = privateStateConsistencyChecker.check(
+            Collections.singletonList(PrivateStateConsistencyChecker.ContractParties.of(c.getContractAddress(), Collections.singletonList(source))),
+            Arrays.asList(source, stranger)).blockingFirst();
+
+        assertThat(report.rootOf(c.getContractAddress(), source.getName()).orElse(null)).as("Storage root in " + source.getName())
+            .isNotEqualTo(report.rootOf(c.getContractAddress(), stranger.getName()).orElse(null));
+    }
+
+    @Step("Start monitoring private state consistency of <contractNames> between <participants> across all nodes every <intervalMillis> milliseconds")
+    public void startConsistencyMonitor(String contractNames, List<Node> participants, int intervalMillis) {
+        List<PrivateStateConsistencyChecker.ContractParties> contracts = contractAddresses(contractNames).stream()
+            .map(address -> PrivateStateConsistencyChecker.ContractParties.of(address, participants))
+            .collect(Collectors.toList());
+        PrivateStateConsistencyChecker.ConsistencyMonitor monitor = privateStateConsistencyChecker.monitor(
+            contracts, networkProperty.getNodes().values(), Duration.ofMillis(intervalMillis));
+
+        DataStoreFactory.getScenarioDataStore().put("consistencyMonitor", monitor);
+    }
+
+    @Step("Private state consistency monitoring reports no divergence")
+    public void verifyConsistencyMonitor() {
+        PrivateStateConsistencyChecker.ConsistencyMonitor monitor = mustHaveValue(DataStoreFactory.getScenarioDataStore(), "consistencyMonitor", PrivateStateConsistencyChecker.ConsistencyMonitor.class);
+        monitor.stop();
+
+        List<String> divergences = monitor.getDivergentReports().stream().flatMap(r -> r.divergences().stream()).collect(Collectors.toList());
+
+        assertThat(monitor.getChecks()).as("Number of consistency checks").isGreaterThan(0);
+        assertThat(divergences.isEmpty()).as("Private state divergences: " + divergences).isTrue();
     }
 
     @Step("<contractName>'s `get()` function execution in <node> returns <expectedValue>")
-    public void verifyPrivacyWithParticipatedNodes(String contractName, QuorumNode node, int expectedValue) {
+    public void verifyPrivacyWithParticipatedNodes(String contractName, Node node, int expectedValue) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         // check transaction receipt to make sure the state is ready
         assertThat(c.getTransactionReceipt().isPresent()).isTrue();
@@ -148,15 +180,60 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
                     } else {
                         throw new RuntimeException("retry");
                     }
-                }).retryWhen(new RetryWithDelay(5, 1000))
+                }).retryWhen(RetryPolicy.untilMined(utilService.blockTimeHint(node), Duration.ofSeconds(5)))
                 .blockingSubscribe();
         int actualValue = contractService.readSimpleContractValue(node, c.getContractAddress());
 
         assertThat(actualValue).isEqualTo(expectedValue);
     }
 
+    @Step("Batch read `get()` of <contractNames> in <nodes> returns <expectedValues> respectively")
+    public void verifyPrivacyWithBatchRead(String contractNames, List<Node> nodes, String expectedValues) {
+        List<String> contractAddresses = contractAddresses(contractNames);
+        ContractReadService.ReadResults results = contractReadService.readUint256(nodes, contractAddresses, SimpleStorage.FUNC_GET).blockingFirst();
+
+        verifyReadResults(results, contractAddresses, nodes, expectedValues);
+    }
+
+    @Step("Deploy `Multicall` helper contract in <source>'s default account and it's private for <targets>")
+    public void deployMulticall(Node source, List<Node> targets) {
+        String address = multicallService.deploy(source, targets).blockingFirst();
+
+        assertThat(address).as("Multicall contract address").isNotBlank();
+    }
+
+    @Step("Aggregated read `get()` of <contractNames> in <nodes> using `Multicall` returns <expectedValues> respectively")
+    public void verifyPrivacyWithMulticall(String contractNames, List<Node> nodes, String expectedValues) {
+        List<String> contractAddresses = contractAddresses(contractNames);
+        ContractReadService.ReadResults results = multicallService.readUint256(nodes, contractAddresses, SimpleStorage.FUNC_GET).blockingFirst();
+
+        verifyReadResults(results, contractAddresses, nodes, expectedValues);
+    }
+
+    private List<String> contractAddresses(String contractNames) {
+        return Arrays.stream(contractNames.split(","))
+            .map(String::trim)
+            .map(name -> mustHaveValue(DataStoreFactory.getSpecDataStore(), name, Contract.class).getContractAddress())
+            .collect(Collectors.toList());
+    }
+
+    private void verifyReadResults(ContractReadService.ReadResults results, List<String> contractAddresses, List<Node> nodes, String expectedValues) {
+        List<Integer> expected = Arrays.stream(expectedValues.split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .collect(Collectors.toList());
+        assertThat(expected.size()).as("Number of expected values").isEqualTo(nodes.size());
+
+        for (int i = 0; i < nodes.size(); i++) {
+            for (String address : contractAddresses) {
+                int actualValue = results.get(nodes.get(i).getName(), address, SimpleStorage.FUNC_GET).asBigInteger().intValue();
+                assertThat(actualValue).as("Value of " + address + " in " + nodes.get(i).getName()).isEqualTo(expected.get(i));
+            }
+        }
+    }
+
     @Step("Execute <contractName>'s `set()` function with new value <newValue> in <source> and it's private for <target>")
-    public void updateNewValue(String contractName, int newValue, QuorumNode source, QuorumNode target) {
+    public void updateNewValue(String contractName, int newValue, Node source, Node target) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         TransactionReceipt receipt = contractService.updateSimpleContract(source, target, c.getContractAddress(), newValue, Arrays.asList(PrivacyFlag.Legacy)).blockingFirst();
 
@@ -164,9 +241,44 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
         assertThat(receipt.getBlockNumber()).isNotEqualTo(currentBlockNumber());
     }
 
+    @Step("Trace <count> private transactions executing <contractName>'s `set()` function in <source> and it's private for <targets>, all stages complete within <timeoutSeconds> seconds")
+    public void traceSetTransactions(int count, String contractName, Node source, List<Node> targets, int timeoutSeconds) throws IOException {
+        Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
+        List<TransactionTraceService.TransactionTrace> traces = new ArrayList<>();
+        // one at a time so stages of different transactions don't compete with each other
+        for (int i = 0; i < count; i++) {
+            TransactionTraceService.TransactionTrace trace = transactionTraceService.trace(
+                source,
+                targets,
+                transactionService.sendPrivateSimpleStorageSet(source, c.getContractAddress(), i + 1, targets),
+                Duration.ofSeconds(timeoutSeconds)).blockingFirst();
+            logger.info("Transaction {} latency breakdown (ms): {}", trace.getTransactionHash(), trace.getBreakdown());
+            traces.add(trace);
+        }
+        if (networkProperty.getInstrumentation().isEnabled()) {
+            File traceFile = Paths.get(networkProperty.getInstrumentation().getReportsDir(), "tx-traces",
+                contractName + "-" + System.currentTimeMillis() + ".json").toFile();
+            transactionTraceService.writeTraces(traceFile, traces);
+        }
+
+        for (TransactionTraceService.TransactionTrace trace : traces) {
+            String tx = trace.getTransactionHash();
+            assertThat(trace.getBlockNumber()).as("Block of " + tx).isNotNull();
+            Map<String, Long> breakdown = trace.getBreakdown();
+            List<String> phases = new ArrayList<>(Arrays.asList("distribution", "mining"));
+            for (Node party : trace.getParties()) {
+                // every party must have seen the receipt and the payload
+                phases.add("privateStateApplication/" + party.getName());
+                phases.add("payload/" + party.getName());
+            }
+            for (String phase : phases) {
+                assertThat(breakdown.get(phase)).as(phase + " of " + tx).isNotNull().isGreaterThanOrEqualTo(0L);
+            }
+        }
+    }
 
     @Step("Deploy <count> private smart contracts between a default account in <source> and a default account in <target>")
-    public void createMultiple(int count, QuorumNode source, QuorumNode target) {
+    public void createMultiple(int count, Node source, Node target) {
         int arbitraryValue = 10;
         List<Observable<? extends Contract>> allObservableContracts = new ArrayList<>();
         for (int i = 0; i < count; i++) {
@@ -180,51 +292,33 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
             return tmp;
         }).blockingFirst();
 
-        DataStoreFactory.getSpecDataStore().put(String.format("%s_source_contract", source), contracts);
-        DataStoreFactory.getSpecDataStore().put(String.format("%s_target_contract", target), contracts);
-        DataStoreFactory.getScenarioDataStore().put(String.format("%s_source_contract", source), contracts);
-        DataStoreFactory.getScenarioDataStore().put(String.format("%s_target_contract", target), contracts);
+        DataStoreFactory.getSpecDataStore().put(String.format("%s_source_contract", source.getName()), contracts);
+        DataStoreFactory.getSpecDataStore().put(String.format("%s_target_contract", target.getName()), contracts);
+        DataStoreFactory.getScenarioDataStore().put(String.format("%s_source_contract", source.getName()), contracts);
+        DataStoreFactory.getScenarioDataStore().put(String.format("%s_target_contract", target.getName()), contracts);
     }
 
     @Step("<node> has received <expectedCount> transactions")
-    public void verifyNumberOfTransactions(QuorumNode node, int expectedCount) {
-        List<Contract> sourceContracts = haveValue(DataStoreFactory.getSpecDataStore(), String.format("%s_source_contract", node), List.class, new ArrayList<Contract>());
-        List<Contract> targetContracts = haveValue(DataStoreFactory.getSpecDataStore(), String.format("%s_target_contract", node), List.class, new ArrayList<Contract>());
+    public void verifyNumberOfTransactions(Node node, int expectedCount) {
+        List<Contract> sourceContracts = haveValue(DataStoreFactory.getSpecDataStore(), String.format("%s_source_contract", node.getName()), List.class, new ArrayList<Contract>());
+        List<Contract> targetContracts = haveValue(DataStoreFactory.getSpecDataStore(), String.format("%s_target_contract", node.getName()), List.class, new ArrayList<Contract>());
         List<Contract> contracts = new ArrayList<>(sourceContracts);
         if (targetContracts != null) {
             contracts.addAll(targetContracts);
         }
-        Scheduler scheduler = threadLocalDelegateScheduler(contracts.size());
-        List<Observable<EthGetTransactionReceipt>> allObservableReceipts = new ArrayList<>();
-        for (Contract c : contracts) {
-            String txHash = c.getTransactionReceipt().orElseThrow(() -> new RuntimeException("no receipt for contract")).getTransactionHash();
-            allObservableReceipts.add(transactionService.getTransactionReceipt(node, txHash)
-                .map(ethGetTransactionReceipt -> {
-                    if (ethGetTransactionReceipt.getTransactionReceipt().isPresent()) {
-                        return ethGetTransactionReceipt;
-                    } else {
-                        throw new RuntimeException("retry");
-                    }
-                })
-                .retryWhen(new RetryWithDelay(20, 3000))
-                .subscribeOn(scheduler));
-        }
-        Integer actualCount = Observable.zip(allObservableReceipts, args -> {
-            int count = 0;
-            for (Object o : args) {
-                EthGetTransactionReceipt r = (EthGetTransactionReceipt) o;
-                if (r.getTransactionReceipt().isPresent() && r.getTransactionReceipt().get().getBlockNumber().compareTo(BigInteger.valueOf(0)) != 0) {
-                    count++;
-                }
-            }
-            return count;
-        }).blockingFirst();
+        List<TransactionReceipt> receipts = contracts.stream()
+            .map(c -> c.getTransactionReceipt().orElseThrow(() -> new RuntimeException("no receipt for contract")))
+            .collect(Collectors.toList());
+        Set<String> txHashes = receipts.stream().map(TransactionReceipt::getTransactionHash).collect(Collectors.toSet());
+        long fromBlock = receipts.stream().mapToLong(r -> r.getBlockNumber().longValue()).min().orElse(0);
+        BlockScanner.ChainIndex index = waitForTransactionsIncluded(node, txHashes, fromBlock);
+        long actualCount = index.countIncluded(txHashes);
 
         assertThat(actualCount).isEqualTo(expectedCount);
     }
 
     @Step("<contractName>'s payload is retrievable from <node>")
-    public void verifyPrivateContractPayloadIsAccessible(String contractName, QuorumNode node) {
+    public void verifyPrivateContractPayloadIsAccessible(String contractName, Node node) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         EthGetQuorumPayload payload = transactionService.getPrivateTransactionPayload(node, c.getTransactionReceipt().get().getTransactionHash()).blockingFirst();
 
@@ -232,7 +326,7 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("<contractName>'s payload is not retrievable from <node>")
-    public void verifyPrivateContractPayloadIsNotAccessible(String contractName, QuorumNode node) {
+    public void verifyPrivateContractPayloadIsNotAccessible(String contractName, Node node) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         EthGetQuorumPayload payload = transactionService.getPrivateTransactionPayload(node, c.getTransactionReceipt().get().getTransactionHash()).blockingFirst();
 
@@ -240,7 +334,7 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Asynchronously deploy a simple smart contract with initial value <initialValue> in <source>'s default account and it's private for <target>, named this contract as <contractName>")
-    public void setupContractAsync(int initialValue, QuorumNode source, QuorumNode target, String contractName) {
+    public void setupContractAsync(int initialValue, Node source, Node target, String contractName) {
         // sourceAccount == null indicates that we are using the default account
         setupContractAsyncWithAccount(initialValue, source, null, target, contractName);
     }
@@ -249,7 +343,7 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
      * This depends on waithook Docker container to be available. The solution here is to use "localhost" for websocket listener of the callback
      * and use the container hostname for Quorum to send the response.
      */
-    private void setupContractAsyncWithAccount(int initialValue, QuorumNode source, String sourceAccount, QuorumNode target, String contractName) {
+    private void setupContractAsyncWithAccount(int initialValue, Node source, String sourceAccount, Node target, String contractName) {
         CountDownLatch waitForCallback = new CountDownLatch(1);
         CountDownLatch waitForWebSocket = new CountDownLatch(1);
 
@@ -304,7 +398,7 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Asynchronously deploy a simple smart contract with initial value <initialValue> in <source>'s non-existed account and it's private for <target>, named this contract as <contractName>")
-    public void setupContractAsyncWithInvalidAccount(int initialValue, QuorumNode source, QuorumNode target, String contractName) {
+    public void setupContractAsyncWithInvalidAccount(int initialValue, Node source, Node target, String contractName) {
         byte[] randomBytes = new byte[20];
         new Random().nextBytes(randomBytes);
         String nonExistedAccount = "0x" + Hex.toHexString(randomBytes);
@@ -319,7 +413,7 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Deploy `ClientReceipt` smart contract from a default account in <source> and it's private for <target>, named this contract as <contractName>")
-    public void deployClientReceiptSmartContract(QuorumNode source, QuorumNode target, String contractName) {
+    public void deployClientReceiptSmartContract(Node source, Node target, String contractName) {
         Contract c = contractService.createClientReceiptPrivateSmartContract(source, target).blockingFirst();
 
         DataStoreFactory.getSpecDataStore().put(contractName, c);
@@ -329,7 +423,7 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Execute <contractName>'s `deposit()` function <count> times with arbitrary id and value from <source>. And it's private for <target>")
-    public void executeDeposit(String contractName, int count, QuorumNode source, QuorumNode target) {
+    public void executeDeposit(String contractName, int count, Node source, Node target) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         Scheduler scheduler = threadLocalDelegateScheduler(count);
         List<Observable<TransactionReceipt>> observables = new ArrayList<>();
@@ -348,8 +442,8 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
         String[] contractNames = contractName.split(",");
         for (String cName : contractNames) {
             Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), cName, Contract.class);
-            QuorumNode source = mustHaveValue(DataStoreFactory.getScenarioDataStore(), cName + "_source", QuorumNode.class);
-            QuorumNode target = mustHaveValue(DataStoreFactory.getScenarioDataStore(), cName + "_target", QuorumNode.class);
+            Node source = mustHaveValue(DataStoreFactory.getScenarioDataStore(), cName + "_source", Node.class);
+            Node target = mustHaveValue(DataStoreFactory.getScenarioDataStore(), cName + "_target", Node.class);
             for (int i = 0; i < count; i++) {
                 observables.add(contractService.updateClientReceiptPrivate(source, target, c.getContractAddress(), BigInteger.ZERO).subscribeOn(Schedulers.io()));
             }
@@ -360,24 +454,24 @@ public class PrivateSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("<node> has received transactions from <contractName> which contain <expectedEventCount> log events in state")
-    public void verifyLogEvents(QuorumNode node, String contractName, int expectedEventCount) {
+    public void verifyLogEvents(Node node, String contractName, int expectedEventCount) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
 
-        EthLog ethLog = transactionService.getLogsUsingFilter(node, c.getContractAddress()).blockingFirst();
-        List<EthLog.LogResult> logResults = ethLog.getLogs();
+        long fromBlock = c.getTransactionReceipt().map(r -> r.getBlockNumber().longValue()).orElse(0L);
+        LogIndexer.LogIndex logIndex = logIndexer.index(node, fromBlock).blockingFirst();
 
-        assertThat(logResults.size()).as("Log Event Count").isEqualTo(expectedEventCount);
+        assertThat(logIndex.logs(c.getContractAddress()).size()).as("Log Event Count").isEqualTo(expectedEventCount);
     }
 
     @Step("Send <count> simple private smart contracts from a default account in <source> and it's separately private for <targets>")
-    public void sendPrivateSmartContracts(int count, QuorumNode source, String targets) {
+    public void sendPrivateSmartContracts(int count, Node source, String targets) {
         String[] target = targets.split(",");
-        QuorumNode[] targetNodes = new QuorumNode[target.length];
+        Node[] targetNodes = new Node[target.length];
         for (int i = 0; i < targetNodes.length; i++) {
-            targetNodes[i] = QuorumNode.valueOf(target[i]);
+            targetNodes[i] = networkProperty.getNode(target[i]);
         }
         List<Observable<? extends Contract>> allObservableContracts = new ArrayList<>();
-        for (QuorumNode targetNode : targetNodes) {
+        for (Node targetNode : targetNodes) {
             for (int i = 0; i < count; i++) {
                 int arbitraryValue = new Random().nextInt(50) + 1;
                 allObservableContracts.add(contractService.createSimpleContract(arbitraryValue, source, targetNode).subscribeOn(Schedulers.io()));
@@ -19,7 +19,7 @@
 package com.quorum.gauge;
 
 import com.quorum.gauge.common.PrivacyFlag;
-import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.quorum.gauge.services.AbstractService;
 import com.thoughtworks.gauge.Step;
@@ -44,12 +44,12 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     private static final Logger logger = LoggerFactory.getLogger(PrivateStateValidation.class);
 
     @Step("Deploy a <flag> contract `SimpleStorage` with initial value <initialValue> in <source>'s default account and it's private for <privateFor>, named this contract as <contractName>")
-    public void deploySimpleContract(PrivacyFlag flag, int initialValue, QuorumNode source, String privateFor, String contractName) {
+    public void deploySimpleContract(PrivacyFlag flag, int initialValue, Node source, String privateFor, String contractName) {
         Contract contract = contractService.createSimpleContract(
             initialValue,
             source,
             Arrays.stream(privateFor.split(","))
-                .map(s -> QuorumNode.valueOf(s))
+                .map(s -> networkProperty.getNode(s))
                 .collect(Collectors.toList()),
             AbstractService.DEFAULT_GAS_LIMIT,
             Arrays.asList(flag)
@@ -60,7 +60,7 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Deploy a public contract `C1` with initial value <initialValue> in <source>'s default account, named this contract as <contractName>")
-    public void deployPublicC1Contract(int initialValue, QuorumNode source, String contractName) {
+    public void deployPublicC1Contract(int initialValue, Node source, String contractName) {
         Contract contract = nestedContractService.createPublicC1Contract(
             initialValue,
             source
@@ -71,12 +71,12 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Deploy a <flag> contract `C1` with initial value <initialValue> in <source>'s default account and it's private for <privateFor>, named this contract as <contractName>")
-    public void deployC1Contract(PrivacyFlag flag, int initialValue, QuorumNode source, String privateFor, String contractName) {
+    public void deployC1Contract(PrivacyFlag flag, int initialValue, Node source, String privateFor, String contractName) {
         Contract contract = nestedContractService.createC1Contract(
             initialValue,
             source,
             Arrays.stream(privateFor.split(","))
-                .map(s -> QuorumNode.valueOf(s))
+                .map(s -> networkProperty.getNode(s))
                 .collect(Collectors.toList()),
             Arrays.asList(flag)
         ).blockingFirst();
@@ -86,13 +86,13 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Deploy a <flag> contract `C2` with initial value <c1ContractName> in <source>'s default account and it's private for <privateFor>, named this contract as <contractName>")
-    public void deployC2Contract(PrivacyFlag flag, String c1ContractName, QuorumNode source, String privateFor, String contractName) {
+    public void deployC2Contract(PrivacyFlag flag, String c1ContractName, Node source, String privateFor, String contractName) {
         Contract c1 = mustHaveValue(c1ContractName, Contract.class);
         Contract contract = nestedContractService.createC2Contract(
             c1.getContractAddress(),
             source,
             Arrays.stream(privateFor.split(","))
-                .map(s -> QuorumNode.valueOf(s))
+                .map(s -> networkProperty.getNode(s))
                 .collect(Collectors.toList()),
             Arrays.asList(flag)
         ).blockingFirst();
@@ -102,7 +102,7 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Contract `C1`(<contractName>)'s `get()` function execution in <node> returns <expectedValue>")
-    public void readC1Contract(String contractName, QuorumNode node, int expectedValue) {
+    public void readC1Contract(String contractName, Node node, int expectedValue) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         int actualValue = nestedContractService.readC1Value(node, c.getContractAddress());
 
@@ -110,7 +110,7 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Contract `C2`(<contractName>)'s `get()` function execution in <node> returns <expectedValue>")
-    public void readC2Contract(String contractName, QuorumNode node, int expectedValue) {
+    public void readC2Contract(String contractName, Node node, int expectedValue) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         int actualValue = nestedContractService.readC2Value(node, c.getContractAddress());
 
@@ -118,12 +118,12 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Fail to execute <flag> contract `C2`(<contractName>)'s `restoreFromC1()` function in <node> and it's private for <privateFor>")
-    public void failRestoreFromC1Execution(PrivacyFlag flag, String contractName, QuorumNode node, String privateFor) {
+    public void failRestoreFromC1Execution(PrivacyFlag flag, String contractName, Node node, String privateFor) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
 
         assertThatThrownBy(
             () -> nestedContractService.restoreFromC1(node,
-                Arrays.stream(privateFor.split(",")).map(s -> QuorumNode.valueOf(s)).collect(Collectors.toList()),
+                Arrays.stream(privateFor.split(",")).map(s -> networkProperty.getNode(s)).collect(Collectors.toList()),
                 c.getContractAddress(),
                 Arrays.asList(flag)).blockingFirst()
         ).as("Expected exception thrown")
@@ -131,11 +131,11 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Execute <flag> contract `C2`(<contractName>)'s `restoreFromC1()` function in <source> and it's private for <privateFor>")
-    public void succeedRestoreFromC1Execution(PrivacyFlag flag, String contractName, QuorumNode source, String privateFor) {
+    public void succeedRestoreFromC1Execution(PrivacyFlag flag, String contractName, Node source, String privateFor) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         TransactionReceipt receipt = nestedContractService.restoreFromC1(
             source,
-            Arrays.stream(privateFor.split(",")).map(s -> QuorumNode.valueOf(s)).collect(Collectors.toList()),
+            Arrays.stream(privateFor.split(",")).map(s -> networkProperty.getNode(s)).collect(Collectors.toList()),
             c.getContractAddress(),  Arrays.asList(flag)).blockingFirst();
 
         assertThat(receipt.getTransactionHash()).isNotBlank();
@@ -143,14 +143,14 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Fail to execute <flag> contract `C2`(<contractName>)'s `set()` function with new arbitrary value in <node> and it's private for <privateFor>")
-    public void failSetExecution(PrivacyFlag flag, String contractName, QuorumNode node, String privateFor) {
+    public void failSetExecution(PrivacyFlag flag, String contractName, Node node, String privateFor) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         int arbitraryValue = new Random().nextInt(100) + 1000;
 
         assertThatThrownBy(
             () -> nestedContractService.updateC2Contract(
                 node,
-                Arrays.stream(privateFor.split(",")).map(s -> QuorumNode.valueOf(s)).collect(Collectors.toList()),
+                Arrays.stream(privateFor.split(",")).map(s -> networkProperty.getNode(s)).collect(Collectors.toList()),
                 c.getContractAddress(),
                 arbitraryValue,
                 Arrays.asList(flag)).blockingFirst()
@@ -159,14 +159,14 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Fail to execute <flag> simple contract(<contractName>)'s `set()` function with new arbitrary value in <node> and it's private for <privateFor>")
-    public void failSetExecutionSimpleContract(PrivacyFlag flag, String contractName, QuorumNode node, String privateFor) {
+    public void failSetExecutionSimpleContract(PrivacyFlag flag, String contractName, Node node, String privateFor) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         int arbitraryValue = new Random().nextInt(100) + 1000;
 
         assertThatThrownBy(
             () -> contractService.updateSimpleContract(
                 node,
-                Arrays.stream(privateFor.split(",")).map(s -> QuorumNode.valueOf(s)).collect(Collectors.toList()),
+                Arrays.stream(privateFor.split(",")).map(s -> networkProperty.getNode(s)).collect(Collectors.toList()),
                 c.getContractAddress(),
                 arbitraryValue,
                 Arrays.asList(flag)).blockingFirst()
@@ -175,14 +175,14 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Fire and forget execution of <flag> contract `C2`(<contractName>)'s `set()` function with new arbitrary value in <node> and it's private for <privateFor>")
-    public void fireAndForget(PrivacyFlag flag, String contractName, QuorumNode node, String privateFor) {
+    public void fireAndForget(PrivacyFlag flag, String contractName, Node node, String privateFor) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         int arbitraryValue = new Random().nextInt(100) + 1000;
 
 
         TransactionReceipt receipt = nestedContractService.updateC2Contract(
             node,
-            Arrays.stream(privateFor.split(",")).map(s -> QuorumNode.valueOf(s)).collect(Collectors.toList()),
+            Arrays.stream(privateFor.split(",")).map(s -> networkProperty.getNode(s)).collect(Collectors.toList()),
             c.getContractAddress(),
             arbitraryValue,
             Arrays.asList(flag)).onExceptionResumeNext(Observable.just(null)).blockingFirst();
@@ -194,18 +194,18 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Fire and forget execution of simple contract(<contractName>)'s `set()` function with new arbitrary value in <node> and it's private for <privateFor>")
-    public void fireAndForgetSimpleContractNoFlag(String contractName, QuorumNode node, String privateFor) {
+    public void fireAndForgetSimpleContractNoFlag(String contractName, Node node, String privateFor) {
         fireAndForgetSimpleContract(PrivacyFlag.Legacy, contractName, node, privateFor);
     }
 
     @Step("Fire and forget execution of <flag> simple contract(<contractName>)'s `set()` function with new arbitrary value in <node> and it's private for <privateFor>")
-    public void fireAndForgetSimpleContract(PrivacyFlag flag, String contractName, QuorumNode node, String privateFor) {
+    public void fireAndForgetSimpleContract(PrivacyFlag flag, String contractName, Node node, String privateFor) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         int arbitraryValue = new Random().nextInt(100) + 1000;
 
         TransactionReceipt receipt = contractService.updateSimpleContract(
             node,
-            Arrays.stream(privateFor.split(",")).map(s -> QuorumNode.valueOf(s)).collect(Collectors.toList()),
+            Arrays.stream(privateFor.split(",")).map(s -> networkProperty.getNode(s)).collect(Collectors.toList()),
             c.getContractAddress(),
             arbitraryValue,
             Arrays.asList(flag)).onExceptionResumeNext(Observable.just(null)).blockingFirst();
@@ -217,13 +217,13 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Fire and forget execution of <flag> simple contract(<contractName>)'s `set()` function with value <value> in <node> and it's private for <privateFor>")
-    public void fireAndForgetSimpleContractWithValue(PrivacyFlag flag, String contractName, String value, QuorumNode node, String privateFor) {
+    public void fireAndForgetSimpleContractWithValue(PrivacyFlag flag, String contractName, String value, Node node, String privateFor) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         int arbitraryValue = Integer.valueOf(value);
 
         TransactionReceipt receipt = contractService.updateSimpleContract(
             node,
-            Arrays.stream(privateFor.split(",")).map(s -> QuorumNode.valueOf(s)).collect(Collectors.toList()),
+            Arrays.stream(privateFor.split(",")).map(s -> networkProperty.getNode(s)).collect(Collectors.toList()),
             c.getContractAddress(),
             arbitraryValue,
             Arrays.asList(flag)).onExceptionResumeNext(Observable.just(null)).blockingFirst();
@@ -235,11 +235,11 @@ public class PrivateStateValidation extends AbstractSpecImplementation {
     }
 
     @Step("Execute contract `C2`(<contractName>)'s `set()` function with new value <newValue> in <source> and it's private for <privateFor>")
-    public void updateNewValue(String contractName, int newValue, QuorumNode source, String privateFor) {
+    public void updateNewValue(String contractName, int newValue, Node source, String privateFor) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         TransactionReceipt receipt = nestedContractService.updateC2Contract(
             source,
-            Arrays.stream(privateFor.split(",")).map(s -> QuorumNode.valueOf(s)).collect(Collectors.toList()),
+            Arrays.stream(privateFor.split(",")).map(s -> networkProperty.getNode(s)).collect(Collectors.toList()),
             c.getContractAddress(), newValue,  Arrays.asList(PrivacyFlag.Legacy)).blockingFirst();
 
         assertThat(receipt.getTransactionHash()).isNotBlank();
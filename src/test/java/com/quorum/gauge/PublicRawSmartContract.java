@@ -19,7 +19,7 @@
 
 package com.quorum.gauge;
 
-import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.common.config.WalletData;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.thoughtworks.gauge.Step;
@@ -33,7 +33,7 @@ import org.web3j.tx.Contract;
 public class PublicRawSmartContract extends AbstractSpecImplementation {
 
     @Step("Deploy `SimpleStorage` public smart contract with initial value <initialValue> signed by external wallet <wallet> on node <node>, name this contract as <contractName>")
-    public void deployClientReceiptSmartContract(Integer initialValue, WalletData wallet, QuorumNode node, String contractName) {
+    public void deployClientReceiptSmartContract(Integer initialValue, WalletData wallet, Node node, String contractName) {
         Contract c = rawContractService.createRawSimplePublicContract(initialValue, wallet, node).blockingFirst();
 
         DataStoreFactory.getSpecDataStore().put(contractName, c);
@@ -41,7 +41,7 @@ public class PublicRawSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Execute <contractName>'s `set()` function with new value <newValue> signed by external wallet <wallet> in <source>")
-    public void updateNewValue(String contractName, int newValue, WalletData wallet, QuorumNode source) {
+    public void updateNewValue(String contractName, int newValue, WalletData wallet, Node source) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         TransactionReceipt receipt = rawContractService.updateRawSimplePublicContract(source, wallet, c.getContractAddress(), newValue).blockingFirst();
 
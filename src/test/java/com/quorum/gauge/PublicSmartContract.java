@@ -19,14 +19,15 @@
 
 package com.quorum.gauge;
 
-import com.quorum.gauge.common.QuorumNode;
-import com.quorum.gauge.common.RetryWithDelay;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
+import com.quorum.gauge.services.BlockScanner;
+import com.quorum.gauge.services.LogIndexer;
 import com.thoughtworks.gauge.Step;
 import com.thoughtworks.gauge.datastore.DataStoreFactory;
 import io.reactivex.Observable;
 import io.reactivex.Scheduler;
-import io.reactivex.schedulers.Schedulers;
+import io.reactivex.disposables.Disposable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -34,9 +35,12 @@ import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.tx.Contract;
 
 import java.math.BigInteger;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -46,7 +50,7 @@ public class PublicSmartContract extends AbstractSpecImplementation {
     private static final Logger logger = LoggerFactory.getLogger(PublicSmartContract.class);
 
     @Step("Deploy `ClientReceipt` smart contract from a default account in <node>, named this contract as <contractName>")
-    public void deployClientReceiptSmartContract(QuorumNode node, String contractName) {
+    public void deployClientReceiptSmartContract(Node node, String contractName) {
         Contract c = contractService.createClientReceiptSmartContract(node).blockingFirst();
 
         DataStoreFactory.getSpecDataStore().put(contractName, c);
@@ -54,9 +58,9 @@ public class PublicSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Deploy a simple smart contract with initial value <initialValue> in <source>'s default account, named this contract as <contractName>")
-    public void setupContract(int initialValue, QuorumNode source, String contractName) {
+    public void setupContract(int initialValue, Node source, String contractName) {
         saveCurrentBlockNumber();
-        logger.debug("Setting up contract from {}", source);
+        logger.debug("Setting up contract from {}", source.getName());
         Contract contract = contractService.createSimpleContract(initialValue, source, null).blockingFirst();
 
         DataStoreFactory.getSpecDataStore().put(contractName, contract);
@@ -64,8 +68,8 @@ public class PublicSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Deploy a simple smart contract from <source>, verify it does not get mined")
-    public void setupContractFailsToBeMined(QuorumNode source) {
-        logger.debug("Setting up contract from {}", source);
+    public void setupContractFailsToBeMined(Node source) {
+        logger.debug("Setting up contract from {}", source.getName());
         String txFailedMsg = "Transaction receipt was not generated after";
         boolean failed = false;
         try {
@@ -80,8 +84,8 @@ public class PublicSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Deploy a simple smart contract from <source>, verify it gets mined")
-    public void setupContractGetsMined(QuorumNode source) {
-        logger.debug("Setting up contract from {}", source);
+    public void setupContractGetsMined(Node source) {
+        logger.debug("Setting up contract from {}", source.getName());
         String txFailedMsg = "Transaction receipt was not generated after";
         boolean failed = false;
         Contract c = null;
@@ -107,7 +111,7 @@ public class PublicSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("Execute <contractName>'s `deposit()` function <count> times with arbitrary id and value from <node>")
-    public void excuteDesposit(String contractName, int count, QuorumNode node) {
+    public void excuteDesposit(String contractName, int count, Node node) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractName, Contract.class);
         List<Observable<TransactionReceipt>> observables = new ArrayList<>();
         Scheduler scheduler = threadLocalDelegateScheduler(count);
@@ -120,41 +124,21 @@ public class PublicSmartContract extends AbstractSpecImplementation {
     }
 
     @Step("<node> has received <expectedTxCount> transactions which contain <expectedEventCount> log events in total")
-    public void verifyLogEvents(QuorumNode node, int expectedTxCount, int expectedEventCount) {
+    public void verifyLogEvents(Node node, int expectedTxCount, int expectedEventCount) {
         List<TransactionReceipt> originalReceipts = (List<TransactionReceipt>) DataStoreFactory.getScenarioDataStore().get("receipts");
-
-        List<Observable<TransactionReceipt>> receiptsInNode = new ArrayList<>();
-        Scheduler scheduler = threadLocalDelegateScheduler(expectedTxCount);
         for (TransactionReceipt r : originalReceipts) {
-            receiptsInNode.add(transactionService.getTransactionReceipt(node, r.getTransactionHash())
-                    .map(tr -> {
-                        if (tr.getTransactionReceipt().isPresent()) {
-                            return tr.getTransactionReceipt().get();
-                        } else {
-                            throw new RuntimeException("retry");
-                        }
-                    })
-                    .retryWhen(new RetryWithDelay(20, 3000))
-                    .subscribeOn(scheduler));
+            assertThat(r.isStatusOK()).as("Status of " + r.getTransactionHash()).isTrue();
+            assertThat(r.getBlockNumber()).isNotEqualTo(BigInteger.ZERO);
         }
 
-        AtomicInteger actualTxCount = new AtomicInteger();
-        AtomicInteger actualEventCount = new AtomicInteger();
-        Observable.zip(receiptsInNode, args -> {
-            for (Object o : args) {
-                TransactionReceipt r = (TransactionReceipt) o;
-                assertThat(r.isStatusOK()).isTrue();
-                assertThat(r.getBlockNumber()).isNotEqualTo(BigInteger.ZERO);
-                actualTxCount.getAndIncrement();
-                actualEventCount.addAndGet(r.getLogs().size());
-            }
-            // Observable.zip complains when it receives a null result,
-            // but we dont care about the real result so return a dummy instead
-            return new Object();
-        }).blockingFirst();
+        Set<String> txHashes = originalReceipts.stream().map(TransactionReceipt::getTransactionHash).collect(Collectors.toSet());
+        long fromBlock = originalReceipts.stream().mapToLong(r -> r.getBlockNumber().longValue()).min().orElse(0);
+        // count transactions in the node's chain and their logs visible in the node's state from local indexes
+        BlockScanner.ChainIndex chainIndex = waitForTransactionsIncluded(node, txHashes, fromBlock);
+        LogIndexer.LogIndex logIndex = logIndexer.index(node, fromBlock).blockingFirst();
 
-        assertThat(actualTxCount.get()).as("Transaction Count").isEqualTo(expectedTxCount);
-        assertThat(actualEventCount.get()).as("Log Event Count").isEqualTo(expectedEventCount);
+        assertThat(chainIndex.countIncluded(txHashes)).as("Transaction Count").isEqualTo(expectedTxCount);
+        assertThat(logIndex.countByTransactions(txHashes)).as("Log Event Count").isEqualTo(expectedEventCount);
     }
 
     @Step("Wait for block height is multiple of <count> by sending arbitrary public transactions")
@@ -163,19 +147,19 @@ public class PublicSmartContract extends AbstractSpecImplementation {
         int delta = 20; // marginal tollerance
         BigInteger currentBlockHeight = currentBlockNumber();
         int targetBlockHeight = currentBlockHeight.intValue() + (count - currentBlockHeight.intValue() % count) + bloomConfirmations + delta;
-        List<Observable<? extends Contract>> contractObservables = new ArrayList<>();
-        for (int i = 0; i < 100; i++) {
-            QuorumNode node = QuorumNode.values()[i % numberOfQuorumNodes()];
-            contractObservables.add(contractService.createClientReceiptSmartContract(node).subscribeOn(Schedulers.io()));
-        }
-        while (currentBlockHeight.intValue() < targetBlockHeight) {
-            // as this test will take time to complete so this log is important
-            // to tell Travis not to kill the CI
-            logger.warn("[Travis] Current block height = {}, targetBlockHeight = {}", currentBlockHeight.intValue(), targetBlockHeight);
-            currentBlockHeight = Observable.zip(contractObservables, args -> args.length)
-                    .flatMap(i -> utilService.getCurrentBlockNumber())
-                    .blockingFirst()
-                    .getBlockNumber();
+        int blocks = targetBlockHeight - currentBlockHeight.intValue();
+        List<Node> nodes = new ArrayList<>(networkProperty.getNodes().values());
+        // as this test will take time to complete so this log is important
+        // to tell Travis not to kill the CI
+        Disposable heartbeat = blockHeightTracker.heights(nodes.get(0))
+                .sample(30, TimeUnit.SECONDS)
+                .subscribe(h -> logger.warn("[Travis] Current block height = {}, targetBlockHeight = {}", h, targetBlockHeight));
+        try {
+            BigInteger reached = blockPump.pumpUntil(nodes.get(0), nodes, BigInteger.valueOf(targetBlockHeight), Duration.ofSeconds(60 + blocks))
+                    .blockingFirst();
+            logger.debug("Block height = {}, targetBlockHeight = {}", reached, targetBlockHeight);
+        } finally {
+            heartbeat.dispose();
         }
     }
 }
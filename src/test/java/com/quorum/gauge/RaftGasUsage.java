@@ -19,7 +19,7 @@
 
 package com.quorum.gauge;
 
-import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.quorum.gauge.services.RaftService;
 import com.thoughtworks.gauge.Step;
@@ -45,23 +45,23 @@ public class RaftGasUsage extends AbstractSpecImplementation {
 
     @Step("Get number of nodes and store as <storageKey>")
     public void getPeerCount(String storageKey) {
-        int peerCount = utilService.getNumberOfNodes(QuorumNode.Node1);
+        int peerCount = utilService.getNumberOfNodes(networkProperty.getTopology().firstNode());
         DataStoreFactory.getScenarioDataStore().put(storageKey, peerCount);
     }
 
     @Step("Check <storageKey> nodes are still running")
     public void checkPeerCount(String storageKey) {
-        int currentPeerCount = utilService.getNumberOfNodes(QuorumNode.Node1);
+        int currentPeerCount = utilService.getNumberOfNodes(networkProperty.getTopology().firstNode());
         int expectedPeerCount = mustHaveValue(DataStoreFactory.getScenarioDataStore(), storageKey, Integer.class);
         assertThat(currentPeerCount).isEqualTo(expectedPeerCount);
     }
 
     @Step("Private transaction where minter is a participant and gas value is <gas>, name this contract as <contractName>")
     public void sendPrivateTransactionWithParticipantMinter(int gas, String contractName) {
-        QuorumNode source = raftService.getLeader(QuorumNode.Node1);
-        QuorumNode target = QuorumNode.Node2;
-        if (source.equals(target)) {
-            target = QuorumNode.Node3;
+        Node source = raftService.getLeader(networkProperty.getTopology().firstNode());
+        Node target = networkProperty.getNode("Node2");
+        if (source.getName().equals(target.getName())) {
+            target = networkProperty.getNode("Node3");
         }
 
         createContract(gas, source, target, contractName);
@@ -69,12 +69,12 @@ public class RaftGasUsage extends AbstractSpecImplementation {
 
     @Step("Private transaction where minter is not a participant and gas value is <gas>, name this contract as <contractName>")
     public void sendPrivateTransactionWithNonParticipantMinter(int gas, String contractName) {
-        QuorumNode minter = raftService.getLeader(QuorumNode.Node1);
-        QuorumNode source = QuorumNode.Node1;
-        QuorumNode target = QuorumNode.Node2;
-        if (source.equals(minter) || target.equals(minter)) {
-            source = QuorumNode.Node3;
-            target = QuorumNode.Node4;
+        Node minter = raftService.getLeader(networkProperty.getTopology().firstNode());
+        Node source = networkProperty.getNode("Node1");
+        Node target = networkProperty.getNode("Node2");
+        if (source.getName().equals(minter.getName()) || target.getName().equals(minter.getName())) {
+            source = networkProperty.getNode("Node3");
+            target = networkProperty.getNode("Node4");
         }
 
         createContract(gas, source, target, contractName);
@@ -116,7 +116,7 @@ public class RaftGasUsage extends AbstractSpecImplementation {
     /**
      * Create contract, storing result in Scenario Data Store:
      */
-    private void createContract(int gas, QuorumNode source, QuorumNode target, String contractName) {
+    private void createContract(int gas, Node source, Node target, String contractName) {
         try {
             Contract contract = contractService.createSimpleContract(42, source, target, BigInteger.valueOf(gas)).blockingFirst();
             DataStoreFactory.getScenarioDataStore().put(contractName,
@@ -132,10 +132,10 @@ public class RaftGasUsage extends AbstractSpecImplementation {
 
         private final CreationResultTypes result;
         private final Contract contract;
-        private final QuorumNode node;
+        private final Node node;
         private final String errorMessage;
 
-        public CreationResult(CreationResultTypes result, Contract contract, QuorumNode node, String errorMessage) {
+        public CreationResult(CreationResultTypes result, Contract contract, Node node, String errorMessage) {
             this.result = result;
             this.contract = contract;
             this.node = node;
@@ -146,7 +146,7 @@ public class RaftGasUsage extends AbstractSpecImplementation {
             return result;
         }
 
-        public QuorumNode getNode() {
+        public Node getNode() {
             return node;
         }
 
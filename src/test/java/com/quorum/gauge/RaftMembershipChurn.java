@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge;
+
+import com.quorum.gauge.common.NetworkTopology;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
+import com.quorum.gauge.core.AbstractSpecImplementation;
+import com.quorum.gauge.ext.RaftCluster;
+import com.quorum.gauge.services.InfrastructureService;
+import com.quorum.gauge.services.InfrastructureService.NetworkResources;
+import com.quorum.gauge.services.RaftChurnRecorder;
+import com.quorum.gauge.services.RaftService;
+import com.thoughtworks.gauge.Gauge;
+import com.thoughtworks.gauge.Step;
+import com.thoughtworks.gauge.datastore.DataStoreFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.core.Response;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Change the membership of a Raft network while transactions flow, recording the cost of each change
+ */
+@Service
+public class RaftMembershipChurn extends AbstractSpecImplementation {
+    private static final Logger logger = LoggerFactory.getLogger(RaftMembershipChurn.class);
+
+    static final String RECORDING = "raftChurnRecording";
+    private static final String REPORT = "raftChurnReport";
+
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private InfrastructureService infraService;
+
+    @Autowired
+    private RaftService raftService;
+
+    @Autowired
+    private RaftChurnRecorder raftChurnRecorder;
+
+    @Step("Start recording raft leader and block production of the network <id> every <intervalMillis> milliseconds")
+    public void startRecording(String id, int intervalMillis) {
+        List<Node> nodes = (List<Node>) mustHaveValue(DataStoreFactory.getScenarioDataStore(), "nodes_" + id, List.class);
+        DataStoreFactory.getScenarioDataStore().put(RECORDING, raftChurnRecorder.start(nodes, Duration.ofMillis(intervalMillis)));
+    }
+
+    @Step("Raft membership change <name> begins")
+    public void change(String name) {
+        RaftChurnRecorder.Recording recording = (RaftChurnRecorder.Recording) DataStoreFactory.getScenarioDataStore().get(RECORDING);
+        if (recording != null) {
+            recording.change(name);
+        }
+    }
+
+    @Step("Remove raft peer <node> from <fromNode> in the network <id>")
+    public void removePeer(Node node, Node fromNode, String id) {
+        Integer raftId = (Integer) DataStoreFactory.getScenarioDataStore().get(node.getName() + "_raftId");
+        if (raftId == null) {
+            raftId = raftId(fromNode, node);
+        }
+        logger.debug("Removing {} with raft id {}", node.getName(), raftId);
+        change("remove " + node.getName());
+        raftService.removePeer(fromNode, raftId)
+                .doOnNext(res -> {
+                    Response.Error err = Optional.ofNullable(res.getError()).orElse(new Response.Error());
+                    assertThat(err.getMessage()).as("raft.removePeer must succeed").isBlank();
+                })
+                .blockingSubscribe();
+    }
+
+    @Step("Restart <node> in the network <id> <times> times, waiting <pauseSeconds> seconds in between")
+    public void restartNode(Node node, String id, int times, int pauseSeconds) throws InterruptedException {
+        for (int i = 1; i <= times; i++) {
+            change("restart " + node.getName() + " #" + i);
+            restart(node);
+            Thread.sleep(Duration.ofSeconds(pauseSeconds).toMillis());
+        }
+    }
+
+    @Step("Restart the raft leader of the network <id> <times> times, waiting <pauseSeconds> seconds in between")
+    public void restartLeader(String id, int times, int pauseSeconds) throws InterruptedException {
+        List<Node> nodes = (List<Node>) mustHaveValue(DataStoreFactory.getScenarioDataStore(), "nodes_" + id, List.class);
+        for (int i = 1; i <= times; i++) {
+            Node leader = raftService.getLeader(nodes.get(0));
+            change("restart leader " + leader.getName() + " #" + i);
+            restart(leader);
+            Thread.sleep(Duration.ofSeconds(pauseSeconds).toMillis());
+        }
+    }
+
+    @Step("Stop recording raft leader and block production")
+    public void stopRecording() throws Exception {
+        RaftChurnRecorder.Recording recording = mustHaveValue(DataStoreFactory.getScenarioDataStore(), RECORDING, RaftChurnRecorder.Recording.class);
+        DataStoreFactory.getScenarioDataStore().remove(RECORDING);
+        File json = Paths.get(networkProperty.getInstrumentation().getReportsDir(), "raft-churn",
+                "raft-churn-" + System.currentTimeMillis() + ".json").toFile();
+        RaftChurnRecorder.Report report = recording.stop(json);
+        for (RaftChurnRecorder.Change c : report.getChanges()) {
+            Gauge.writeMessage(String.format("%s: longest block gap %dms (baseline %dms), leader %s -> %s after %s, leaderless for %dms",
+                    c.getName(), c.getLongestBlockGapMillis(), report.getBaselineBlockGapMillis(), c.getLeaderBefore(),
+                    c.getLeaderAfter() == null ? c.getLeaderBefore() : c.getLeaderAfter(),
+                    c.getNewLeaderAfterMillis() == null ? "-" : c.getNewLeaderAfterMillis() + "ms", c.getLeaderlessMillis()));
+        }
+        DataStoreFactory.getScenarioDataStore().put(REPORT, report);
+    }
+
+    @Step("Block production did not stall for more than <seconds> seconds during any membership change")
+    public void verifyStalls(int seconds) {
+        RaftChurnRecorder.Report report = mustHaveValue(DataStoreFactory.getScenarioDataStore(), REPORT, RaftChurnRecorder.Report.class);
+        for (RaftChurnRecorder.Change c : report.getChanges()) {
+            assertThat(c.getLongestBlockGapMillis()).as("Longest block gap during " + c.getName())
+                    .isLessThanOrEqualTo(Duration.ofSeconds(seconds).toMillis());
+        }
+    }
+
+    @Step("Every leader change took less than <seconds> seconds")
+    public void verifyLeaderChanges(int seconds) {
+        RaftChurnRecorder.Report report = mustHaveValue(DataStoreFactory.getScenarioDataStore(), REPORT, RaftChurnRecorder.Report.class);
+        for (RaftChurnRecorder.Change c : report.getChanges()) {
+            if (c.getNewLeaderAfterMillis() != null) {
+                assertThat(c.getNewLeaderAfterMillis()).as("Leader change during " + c.getName())
+                        .isLessThan(Duration.ofSeconds(seconds).toMillis());
+            }
+        }
+    }
+
+    // restarts only the geth process of the node
+    private void restart(Node node) {
+        NetworkResources networkResources = mustHaveValue(DataStoreFactory.getScenarioDataStore(), "networkResources", NetworkResources.class);
+        String resourceId = networkResources.getResourceId(node.getName()).stream().filter(i -> infraService.isGeth(i).blockingFirst()).findFirst().get();
+        infraService.stopResource(resourceId)
+                .flatMap(ok -> infraService.startResource(resourceId))
+                .flatMap(ok -> infraService.wait(resourceId))
+                .doOnNext(ok -> assertThat(ok).as(node.getName() + " must be up").isTrue())
+                .blockingSubscribe();
+    }
+
+    private Integer raftId(Node fromNode, Node node) {
+        String enodeId = NetworkTopology.enodeId(node.getEnodeUrl());
+        RaftCluster cluster = raftService.getCluster(fromNode).blockingFirst();
+        for (Map<String, String> member : cluster.getCluster()) {
+            if (String.valueOf(member.get("nodeId")).equalsIgnoreCase(enodeId)) {
+                return Integer.valueOf(String.valueOf(member.get("raftId")));
+            }
+        }
+        throw new IllegalStateException(node.getName() + " is not a member of the raft cluster");
+    }
+}
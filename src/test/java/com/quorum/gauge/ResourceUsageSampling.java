@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.quorum.gauge;
+
+import com.quorum.gauge.common.QuorumNetworkProperty.DockerInfrastructureProperty;
+import com.quorum.gauge.core.AbstractSpecImplementation;
+import com.quorum.gauge.services.InfrastructureService.NetworkResources;
+import com.quorum.gauge.services.ResourceSampler;
+import com.thoughtworks.gauge.Step;
+import com.thoughtworks.gauge.datastore.DataStoreFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Service
+public class ResourceUsageSampling extends AbstractSpecImplementation {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceUsageSampling.class);
+
+    @Autowired
+    private ResourceSampler resourceSampler;
+
+    @Step("Start sampling resource usage of all nodes every <intervalMillis> milliseconds")
+    public void startSampling(int intervalMillis) throws Exception {
+        DockerInfrastructureProperty docker = networkProperty.getDockerInfrastructure();
+        if (!docker.isEnabled()) {
+            logger.warn("Resource usage sampling requires docker infrastructure, skipped");
+            return;
+        }
+        Map<String, String> resources = new LinkedHashMap<>();
+        docker.getNodes().forEach((node, p) -> {
+            resources.put(node + "-quorum", p.getQuorumContainerId());
+            resources.put(node + "-tessera", p.getTesseraContainerId());
+        });
+        // nodes started by the scenario
+        NetworkResources networkResources = (NetworkResources) DataStoreFactory.getScenarioDataStore().get("networkResources");
+        if (networkResources != null) {
+            networkResources.forEach((node, ids) -> {
+                for (int i = 0; i < ids.size(); i++) {
+                    resources.put(node + "-" + i, ids.get(i));
+                }
+            });
+        }
+        File csv = Paths.get(networkProperty.getInstrumentation().getReportsDir(), "resources",
+            "resources-" + System.currentTimeMillis() + ".csv").toFile();
+        DataStoreFactory.getScenarioDataStore().put("resourceRecording", resourceSampler.start(resources, Duration.ofMillis(intervalMillis), csv));
+    }
+
+    @Step("Stop sampling resource usage")
+    public void stopSampling() throws Exception {
+        ResourceSampler.Recording recording = (ResourceSampler.Recording) DataStoreFactory.getScenarioDataStore().get("resourceRecording");
+        if (recording == null) {
+            return;
+        }
+        DataStoreFactory.getScenarioDataStore().remove("resourceRecording");
+        ResourceSampler.Report report = recording.stop();
+        logger.info("Resource usage: {} confirmed transactions, peak {}/s, saturated containers {}",
+            report.getConfirmed(), report.getPeakConfirmedPerSecond(), report.saturated());
+        DataStoreFactory.getScenarioDataStore().put("resourceReport", report);
+    }
+
+    @Step("No node container ran out of CPU or memory while sampling")
+    public void verifyNotSaturated() {
+        ResourceSampler.Report report = (ResourceSampler.Report) DataStoreFactory.getScenarioDataStore().get("resourceReport");
+        if (report == null) {
+            logger.warn("No resource usage report, skipped");
+            return;
+        }
+        assertThat(report.saturated()).as("Saturated containers").isEmpty();
+    }
+}
@@ -19,8 +19,7 @@
 
 package com.quorum.gauge;
 
-import com.quorum.gauge.common.QuorumNetworkProperty;
-import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.thoughtworks.gauge.Step;
 import com.thoughtworks.gauge.datastore.DataStoreFactory;
@@ -38,8 +37,8 @@ public class SmartContractDualState extends AbstractSpecImplementation {
     private static final Logger logger = LoggerFactory.getLogger(SmartContractDualState.class);
 
     @Step("Deploy <contractName> smart contract with initial value <initialValue> from a default account in <node>, named this contract as <contractNameKey>")
-    public void setupStorecAsPublicDependentContract(String contractName, int initialValue, QuorumNetworkProperty.Node node, String contractNameKey) {
-        Contract c = contractService.createGenericStoreContract(node, contractName, initialValue, null, false, null).blockingFirst();
+    public void setupStorecAsPublicDependentContract(String contractName, int initialValue, Node node, String contractNameKey) {
+        Contract c = contractService.createGenericStoreContract(node, contractName, initialValue, null, false, (Node) null).blockingFirst();
         logger.debug("{} contract address is:{}", contractName, c.getContractAddress());
 
         assertThat(c.getContractAddress()).isNotBlank();
@@ -52,7 +51,7 @@ public class SmartContractDualState extends AbstractSpecImplementation {
     }
 
     @Step("Deploy <contractName> smart contract with initial value <initialValue> from a default account in <node> and it's private for <target>, named this contract as <contractNameKey>")
-    public void setupStorecAsPrivateDependentContract(String contractName, int initialValue, QuorumNetworkProperty.Node node, QuorumNode target, String contractNameKey) {
+    public void setupStorecAsPrivateDependentContract(String contractName, int initialValue, Node node, Node target, String contractNameKey) {
         Contract c = contractService.createGenericStoreContract(node, contractName, initialValue, null, true, target).blockingFirst();
         logger.debug("{} contract address is:{}", contractName, c.getContractAddress());
 
@@ -67,9 +66,9 @@ public class SmartContractDualState extends AbstractSpecImplementation {
     }
 
     @Step("Deploy <contractName> smart contract with contract <depContractName> initial value <initialValue> from a default account in <node>, named this contract as <contractNameKey>")
-    public void setupStoreaOrStorebAsPublicContract(String contractName, String depContractName, int initialValue, QuorumNetworkProperty.Node node, String contractNameKey) {
+    public void setupStoreaOrStorebAsPublicContract(String contractName, String depContractName, int initialValue, Node node, String contractNameKey) {
         Contract dc = mustHaveValue(DataStoreFactory.getSpecDataStore(), depContractName, Contract.class);
-        Contract c = contractService.createGenericStoreContract(node, contractName, initialValue, dc.getContractAddress(), false, null).blockingFirst();
+        Contract c = contractService.createGenericStoreContract(node, contractName, initialValue, dc.getContractAddress(), false, (Node) null).blockingFirst();
         logger.debug("{} contract address is:{} with dc contract address: {}", contractName, c.getContractAddress(), dc.getContractAddress());
 
         assertThat(c.getContractAddress()).isNotBlank();
@@ -82,9 +81,9 @@ public class SmartContractDualState extends AbstractSpecImplementation {
     }
 
     @Step("Deploy <contractName> smart contract with contract <dependentContractName> initial value <initialValue> from a default account in <source> and it's private for <target>, named this contract as <contractNameKey>")
-    public void setupStoreaOrStorebAsPrivateContract(String contractName, String dependentContractName, int initialValue, QuorumNetworkProperty.Node source, QuorumNode target, String contractNameKey) {
+    public void setupStoreaOrStorebAsPrivateContract(String contractName, String dependentContractName, int initialValue, Node source, Node target, String contractNameKey) {
         Contract dc = mustHaveValue(DataStoreFactory.getSpecDataStore(), dependentContractName, Contract.class);
-        logger.debug("Setting up contract from {} to {}", source, target);
+        logger.debug("Setting up contract from {} to {}", source.getName(), target.getName());
         Contract contract = contractService.createGenericStoreContract(source, contractName, initialValue, dc.getContractAddress(), true, target).blockingFirst();
         logger.debug("{} contract address is:{} with dc contract address: {}", contractName, contract.getContractAddress(), dc.getContractAddress());
 
@@ -98,7 +97,7 @@ public class SmartContractDualState extends AbstractSpecImplementation {
     }
 
     @Step("<contractNameKey>'s <methodName> function execution in <node> returns <expectedValue>")
-    public void verifyStoreContractGetValue(String contractNameKey, String methodName, QuorumNode node, int expectedValue) {
+    public void verifyStoreContractGetValue(String contractNameKey, String methodName, Node node, int expectedValue) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey, Contract.class);
         String contractName = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey + "Type", String.class);
         int actualValue = contractService.readGenericStoreContractGetValue(node, c.getContractAddress(), contractName, methodName);
@@ -108,7 +107,7 @@ public class SmartContractDualState extends AbstractSpecImplementation {
     }
 
     @Step("<contractNameKey>'s <methodName> function execution in <node> with value <value> and its private for <target>")
-    public void setStoreContractValueInPrivate(String contractNameKey, String methodName, QuorumNetworkProperty.Node node, int value, QuorumNode target) {
+    public void setStoreContractValueInPrivate(String contractNameKey, String methodName, Node node, int value, Node target) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey, Contract.class);
         String contractName = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey + "Type", String.class);
         logger.debug("{} contract address is:{}", contractNameKey, c.getContractAddress());
@@ -119,7 +118,7 @@ public class SmartContractDualState extends AbstractSpecImplementation {
     }
 
     @Step("<contractNameKey>'s <methodName> function execution in <node> with value <value> and its private for <target>, should fail")
-    public void setStoreContractValueInPrivateShouldFail(String contractNameKey, String methodName, QuorumNetworkProperty.Node node, int value, QuorumNode target) {
+    public void setStoreContractValueInPrivateShouldFail(String contractNameKey, String methodName, Node node, int value, Node target) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey, Contract.class);
         String contractName = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey + "Type", String.class);
         logger.debug("{} contract address is:{}", contractNameKey, c.getContractAddress());
@@ -133,18 +132,18 @@ public class SmartContractDualState extends AbstractSpecImplementation {
     }
 
     @Step("<contractNameKey>'s <methodName> function execution in <node> with value <value>")
-    public void setStoreContractValueInPublic(String contractNameKey, String methodName, QuorumNetworkProperty.Node node, int value) {
+    public void setStoreContractValueInPublic(String contractNameKey, String methodName, Node node, int value) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey, Contract.class);
         String contractName = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey + "Type", String.class);
         logger.debug("{} contract address is:{}, {} {}", contractNameKey, c.getContractAddress(), methodName, value);
-        TransactionReceipt tr = contractService.setGenericStoreContractSetValue(node, c.getContractAddress(), contractName, methodName, value, false, null).blockingFirst();
+        TransactionReceipt tr = contractService.setGenericStoreContractSetValue(node, c.getContractAddress(), contractName, methodName, value, false, (Node) null).blockingFirst();
         logger.debug("{} {} {}, txHash = {}", contractNameKey, contractName, methodName, tr.getTransactionHash());
 
         assertThat(tr.getTransactionHash()).isNotBlank();
     }
 
     @Step("<contractNameKey>'s <methodName> function execution in <node> should fail")
-    public void setStoreContractValueInPublic(String contractNameKey, String methodName, QuorumNode node) {
+    public void setStoreContractValueInPublic(String contractNameKey, String methodName, Node node) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey, Contract.class);
         String contractName = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey + "Type", String.class);
         try {
@@ -155,12 +154,12 @@ public class SmartContractDualState extends AbstractSpecImplementation {
     }
 
     @Step("<contractNameKey>'s <methodName> function execution in <node> with value <value>, should fail")
-    public void setStoreContractValueInPublicShouldFail(String contractNameKey, String methodName, QuorumNetworkProperty.Node node, int value) {
+    public void setStoreContractValueInPublicShouldFail(String contractNameKey, String methodName, Node node, int value) {
         Contract c = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey, Contract.class);
         String contractName = mustHaveValue(DataStoreFactory.getSpecDataStore(), contractNameKey + "Type", String.class);
         logger.debug("{} contract address is:{}", contractNameKey, c.getContractAddress());
         try {
-            TransactionReceipt tr = contractService.setGenericStoreContractSetValue(node, c.getContractAddress(), contractName, methodName, value, false, null).blockingFirst();
+            TransactionReceipt tr = contractService.setGenericStoreContractSetValue(node, c.getContractAddress(), contractName, methodName, value, false, (Node) null).blockingFirst();
             logger.debug("{} {} {}, txHash = {}", contractNameKey, contractName, methodName, tr.getTransactionHash());
         } catch (Exception txe) {
             logger.debug("expected exception", txe);
@@ -19,7 +19,7 @@
 
 package com.quorum.gauge;
 
-import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.thoughtworks.gauge.Step;
 import com.thoughtworks.gauge.datastore.DataStoreFactory;
@@ -34,14 +34,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class ValueTransferPrivateTransaction extends AbstractSpecImplementation {
 
     @Step("Send some Wei from a default account in <from> to a default account in <to> in a private transaction")
-    public void sendTransaction(QuorumNode from, QuorumNode to) {
+    public void sendTransaction(Node from, Node to) {
         Response.Error err = transactionService.sendPrivateTransaction(new Random().nextInt(10) + 1, from, to).blockingFirst().getError();
 
         DataStoreFactory.getScenarioDataStore().put("error", err);
     }
 
     @Step("Send some Wei from a default account in <from> to a default account in <to> in a signed private transaction")
-    public void sendSignedTransaction(QuorumNode from, QuorumNode to) {
+    public void sendSignedTransaction(Node from, Node to) {
         Response.Error err = transactionService.sendSignedPrivateTransaction(new Random().nextInt(10) + 1, from, to).blockingFirst().getError();
 
         DataStoreFactory.getScenarioDataStore().put("error", err);
@@ -19,7 +19,7 @@
 
 package com.quorum.gauge;
 
-import com.quorum.gauge.common.QuorumNode;
+import com.quorum.gauge.common.QuorumNetworkProperty.Node;
 import com.quorum.gauge.core.AbstractSpecImplementation;
 import com.thoughtworks.gauge.Gauge;
 import com.thoughtworks.gauge.Step;
@@ -41,14 +41,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class ValueTransferPublicTransaction extends AbstractSpecImplementation {
 
     @Step("Send <value> Wei from a default account in <from> to a default account in <to> in a public transaction")
-    public void sendTransaction(int value, QuorumNode from, QuorumNode to) {
+    public void sendTransaction(int value, Node from, Node to) {
         // backup the current balance
         String txHash = Observable.zip(
                 accountService.getDefaultAccountBalance(from).subscribeOn(Schedulers.io()),
                 accountService.getDefaultAccountBalance(to).subscribeOn(Schedulers.io()),
                 (fromBalance, toBalance) -> {
-                    DataStoreFactory.getScenarioDataStore().put(String.format("%s_balance", from), fromBalance.getBalance());
-                    DataStoreFactory.getScenarioDataStore().put(String.format("%s_balance", to), toBalance.getBalance());
+                    DataStoreFactory.getScenarioDataStore().put(String.format("%s_balance", from.getName()), fromBalance.getBalance());
+                    DataStoreFactory.getScenarioDataStore().put(String.format("%s_balance", to.getName()), toBalance.getBalance());
                     return true;
                 })
                 .flatMap( r -> transactionService.sendPublicTransaction(value, from, to))
@@ -64,7 +64,7 @@ public class ValueTransferPublicTransaction extends AbstractSpecImplementation {
         Predicate<? super EthGetTransactionReceipt> isReceiptPresent
             = ethGetTransactionReceipt -> ethGetTransactionReceipt.getTransactionReceipt().isPresent();
 
-        Optional<TransactionReceipt> receipt = transactionService.getTransactionReceipt(QuorumNode.Node1, txHash)
+        Optional<TransactionReceipt> receipt = transactionService.getTransactionReceipt(networkProperty.getTopology().firstNode(), txHash)
                 .repeatWhen(completed -> completed.delay(2, TimeUnit.SECONDS))
                 .takeUntil(isReceiptPresent)
                 .timeout(10, TimeUnit.SECONDS)
@@ -75,30 +75,30 @@ public class ValueTransferPublicTransaction extends AbstractSpecImplementation {
     }
 
     @Step("In <node>, the default account's balance is now less than its previous balance")
-    public void verifyLesserBalance(QuorumNode node) {
-        BigInteger prevBalance = mustHaveValue(DataStoreFactory.getScenarioDataStore(), String.format("%s_balance", node), BigInteger.class);
+    public void verifyLesserBalance(Node node) {
+        BigInteger prevBalance = mustHaveValue(DataStoreFactory.getScenarioDataStore(), String.format("%s_balance", node.getName()), BigInteger.class);
         BigInteger actualBalance = accountService.getDefaultAccountBalance(node).blockingFirst().getBalance();
 
         assertThat(actualBalance).isLessThan(prevBalance);
     }
 
     @Step("In <node>, the default account's balance is now greater than its previous balance")
-    public void verifyMoreBalance(QuorumNode node) {
-        BigInteger prevBalance = mustHaveValue(DataStoreFactory.getScenarioDataStore(), String.format("%s_balance", node), BigInteger.class);
+    public void verifyMoreBalance(Node node) {
+        BigInteger prevBalance = mustHaveValue(DataStoreFactory.getScenarioDataStore(), String.format("%s_balance", node.getName()), BigInteger.class);
         BigInteger actualBalance = accountService.getDefaultAccountBalance(node).blockingFirst().getBalance();
 
         assertThat(actualBalance).isGreaterThan(prevBalance);
     }
 
     @Step("Send <value> Wei from a default account in <from> to a default account in <to> in a signed public transaction")
-    public void sendSignedTransaction(int value, QuorumNode from, QuorumNode to) {
+    public void sendSignedTransaction(int value, Node from, Node to) {
         // backup the current balance
         String txHash = Observable.zip(
                 accountService.getDefaultAccountBalance(from).subscribeOn(Schedulers.io()),
                 accountService.getDefaultAccountBalance(to).subscribeOn(Schedulers.io()),
                 (fromBalance, toBalance) -> {
-                    DataStoreFactory.getScenarioDataStore().put(String.format("%s_balance", from), fromBalance.getBalance());
-                    DataStoreFactory.getScenarioDataStore().put(String.format("%s_balance", to), toBalance.getBalance());
+                    DataStoreFactory.getScenarioDataStore().put(String.format("%s_balance", from.getName()), fromBalance.getBalance());
+                    DataStoreFactory.getScenarioDataStore().put(String.format("%s_balance", to.getName()), toBalance.getBalance());
                     return true;
                 })
                 .flatMap(r -> transactionService.sendSignedPublicTransaction(value, from, to))
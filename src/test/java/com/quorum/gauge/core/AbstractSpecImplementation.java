@@ -21,6 +21,8 @@ package com.quorum.gauge.core;
 
 import com.quorum.gauge.common.Context;
 import com.quorum.gauge.common.QuorumNetworkProperty;
+import com.quorum.gauge.common.RetryPolicy;
+import com.quorum.gauge.common.instrumentation.LiveMetrics;
 import com.quorum.gauge.services.*;
 import com.thoughtworks.gauge.datastore.DataStore;
 import com.thoughtworks.gauge.datastore.DataStoreFactory;
@@ -33,11 +35,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigInteger;
-import java.util.concurrent.Executor;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -75,12 +77,36 @@ public abstract class AbstractSpecImplementation {
     @Autowired
     protected UtilService utilService;
 
+    @Autowired
+    protected BlockHeightTracker blockHeightTracker;
+
+    @Autowired
+    protected BlockPump blockPump;
+
     @Autowired
     protected QuorumNetworkProperty networkProperty;
 
     @Autowired
     protected RPCService rpcService;
 
+    @Autowired
+    protected ContractReadService contractReadService;
+
+    @Autowired
+    protected MulticallService multicallService;
+
+    @Autowired
+    protected TransactionTraceService transactionTraceService;
+
+    @Autowired
+    protected BlockScanner blockScanner;
+
+    @Autowired
+    protected LogIndexer logIndexer;
+
+    @Autowired
+    protected PrivateStateConsistencyChecker privateStateConsistencyChecker;
+
     @Autowired
     protected GraphQLService graphQLService;
 
@@ -93,6 +119,9 @@ public abstract class AbstractSpecImplementation {
     @Autowired
     protected HashicorpVaultSigningService hashicorpVaultSigningService;
 
+    @Autowired
+    protected LiveMetrics liveMetrics;
+
     protected BigInteger currentBlockNumber() {
         return mustHaveValue(DataStoreFactory.getScenarioDataStore(), "blocknumber", BigInteger.class);
     }
@@ -140,29 +169,53 @@ public abstract class AbstractSpecImplementation {
         return mustHaveValue(ds, key, clazz);
     }
 
+    /**
+     * Block until the first node reaches {@code untilBlockHeight}, as notified by {@link BlockHeightTracker}.
+     * Allows up to 3 seconds per remaining block.
+     */
     protected void waitForBlockHeight(int currentBlockHeight, int untilBlockHeight) {
-        AtomicInteger lastBlockHeight = new AtomicInteger(currentBlockHeight);
-        utilService.getCurrentBlockNumber().flatMap(ethBlockNumber -> {
-            if (ethBlockNumber.getBlockNumber().intValue() < untilBlockHeight) {
-                logger.debug("Current block height is {}, wait until {}", ethBlockNumber.getBlockNumber(), untilBlockHeight);
-                lastBlockHeight.set(ethBlockNumber.getBlockNumber().intValue());
-                throw new RuntimeException("let's wait and retry");
-            }
-            return Observable.just(true);
-        }).retryWhen(
-                attempts -> attempts.zipWith(Observable.range(1, untilBlockHeight), (total, i) -> i)
-                        .flatMap(i -> Observable.timer(3, TimeUnit.SECONDS))
-                        .doOnComplete(() -> {
-                            throw new RuntimeException("Timed out! Can't wait until block height is " + untilBlockHeight + " higher. Last block height was " + lastBlockHeight.get());
-                        })
-        ).blockingFirst();
+        QuorumNetworkProperty.Node node = networkProperty.getTopology().firstNode();
+        Duration timeout = Duration.ofSeconds(30 + 3L * Math.max(0, untilBlockHeight - currentBlockHeight));
+        logger.debug("Current block height is {}, wait until {}", currentBlockHeight, untilBlockHeight);
+        blockHeightTracker.awaitHeight(node, BigInteger.valueOf(untilBlockHeight), timeout)
+            .onErrorResumeNext((Throwable e) -> Observable.error(new RuntimeException("Timed out! Can't wait until block height is " + untilBlockHeight + " higher", e)))
+            .blockingFirst();
+    }
+
+    /**
+     * Scan the node's chain, only fetching new blocks in subsequent attempts, until all transactions are included
+     * or retries are exhausted
+     */
+    protected BlockScanner.ChainIndex waitForTransactionsIncluded(QuorumNetworkProperty.Node node, Collection<String> txHashes, long fromBlock) {
+        return blockScanner.scan(node, fromBlock)
+            .map(i -> {
+                if (i.countIncluded(txHashes) < txHashes.size()) {
+                    throw new NotAllIncludedException(i);
+                }
+                return i;
+            })
+            .retryWhen(utilService.untilMined(node).retryIf(e -> e instanceof NotAllIncludedException))
+            // the caller asserts on what was included, other errors (e.g.: RPC failures) are rethrown
+            .onErrorResumeNext((Throwable e) -> e instanceof RetryPolicy.RetryExhaustedException && e.getCause() instanceof NotAllIncludedException
+                ? Observable.just(((NotAllIncludedException) e.getCause()).index)
+                : Observable.error(e))
+            .blockingFirst();
+    }
+
+    private static class NotAllIncludedException extends RuntimeException {
+        final BlockScanner.ChainIndex index;
+
+        NotAllIncludedException(BlockScanner.ChainIndex index) {
+            super("retry");
+            this.index = index;
+        }
     }
 
     // created a fixed thread pool executor and inject ThreadLocal values into the scheduled thread
     protected Scheduler threadLocalDelegateScheduler(int threadCount) {
         QuorumNodeConnectionFactory connectionFactory = Context.getConnectionFactory();
         String accessToken = Context.retrieveAccessToken();
-        Executor executor = Executors.newFixedThreadPool(Math.min(threadCount, 100), new ThreadFactory() {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(Math.min(threadCount, 100), new ThreadFactory() {
             private int count = 0;
 
             @Override
@@ -177,7 +230,7 @@ public abstract class AbstractSpecImplementation {
                 };
             }
         });
-        return Schedulers.from(executor);
+        return Schedulers.from(liveMetrics.monitor(executor));
     }
 
     /**
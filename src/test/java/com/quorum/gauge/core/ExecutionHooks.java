@@ -21,12 +21,28 @@ package com.quorum.gauge.core;
 
 import com.google.common.collect.ImmutableMap;
 import com.quorum.gauge.common.QuorumNetworkProperty;
+import com.quorum.gauge.common.instrumentation.FlightRecordings;
+import com.quorum.gauge.common.instrumentation.RpcMetrics;
+import com.quorum.gauge.common.instrumentation.StepEvent;
+import com.quorum.gauge.common.instrumentation.StepMetrics;
 import com.quorum.gauge.ext.ObjectResponse;
+import com.quorum.gauge.services.BlockScanner;
+import com.quorum.gauge.services.ChaosScheduler;
 import com.quorum.gauge.services.InfrastructureService;
 import com.quorum.gauge.services.InfrastructureService.NetworkResources;
+import com.quorum.gauge.services.LoadGenerator;
+import com.quorum.gauge.services.LogIndexer;
+import com.quorum.gauge.services.MulticallService;
+import com.quorum.gauge.services.PrivateStateConsistencyChecker;
+import com.quorum.gauge.services.RaftService;
+import com.quorum.gauge.services.RaftChurnRecorder;
+import com.quorum.gauge.services.ResourceSampler;
+import com.quorum.gauge.services.TransactionService;
 import com.quorum.gauge.services.UtilService;
 import com.thoughtworks.gauge.*;
 import com.thoughtworks.gauge.datastore.DataStoreFactory;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,7 +50,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.web3j.protocol.core.Request;
 
+import java.io.File;
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -53,10 +73,36 @@ public class ExecutionHooks {
     @Autowired
     UtilService utilService;
 
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    BlockScanner blockScanner;
+
+    @Autowired
+    LogIndexer logIndexer;
+
+    @Autowired
+    RaftService raftService;
+
+    @Autowired
+    MulticallService multicallService;
+
     @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
     @Autowired
     InfrastructureService infraService;
 
+    @Autowired
+    RpcMetrics rpcMetrics;
+
+    @Autowired
+    StepMetrics stepMetrics;
+
+    @Autowired
+    FlightRecordings flightRecordings;
+
+    private StepEvent currentStepEvent;
+
     private Map<String, AbstractConsumer> postConditionConsumers = ImmutableMap.of(
             "network-cleanup", new NetworkCleanupConsumer(99),
             "datadir-cleanup", new DatadirCleanupConsumer(1)
@@ -67,11 +113,20 @@ public class ExecutionHooks {
 
     @BeforeSpec
     public void beforeSpec(ExecutionContext context) {
+        stepMetrics.setCurrentSpecification(context.getCurrentSpecification().getName());
+        flightRecordings.start(context.getCurrentSpecification().getName());
+    }
+
+    @AfterSpec
+    public void afterSpec() {
+        flightRecordings.stop();
     }
 
     @BeforeScenario
     public void beforeScenario(ExecutionContext context) {
         logger.debug("---> START OF BEFORE-SCENARIO");
+        rpcMetrics.reset();
+        stepMetrics.setCurrentScenario(context.getCurrentScenario().getName());
         List<AbstractConsumer> consumers = context.getAllTags().stream()
                 .filter(tag -> tag.startsWith("pre-condition"))
                 .map(tag -> StringUtils.removeStart(tag, "pre-condition/"))
@@ -90,6 +145,11 @@ public class ExecutionHooks {
     @AfterScenario
     public void afterScenario(ExecutionContext context) {
         logger.debug("---> START OF AFTER-SCENARIO");
+        stopResourceSampling();
+        stopNetworkDisruptions();
+        stopChaos();
+        stopRaftChurnRecording();
+        stopConsistencyMonitor();
         context.getAllTags().stream()
                 .filter(tag -> tag.startsWith("post-condition"))
                 .map(tag -> StringUtils.removeStart(tag, "post-condition/"))
@@ -98,24 +158,145 @@ public class ExecutionHooks {
                 .sorted(Comparator.comparingInt(o -> o.index))
                 .collect(Collectors.toList())
                 .forEach(c -> c.accept(context));
+        writeRpcMetricsReport(context);
         logger.debug("---> END OF AFTER-SCENARIO");
     }
 
+    // disruptions are left running when the scenario fails before its stop step, disposing them restores the network
+    private void stopNetworkDisruptions() {
+        Disposable disruptions = (Disposable) DataStoreFactory.getScenarioDataStore().get("networkDisruptions");
+        if (disruptions != null) {
+            DataStoreFactory.getScenarioDataStore().remove("networkDisruptions");
+            disruptions.dispose();
+        }
+    }
+
+    // crashed containers must be started again when the scenario fails before its stop step
+    private void stopChaos() {
+        ChaosScheduler.Run run = (ChaosScheduler.Run) DataStoreFactory.getScenarioDataStore().get("chaosRun");
+        if (run != null) {
+            DataStoreFactory.getScenarioDataStore().remove("chaosRun");
+            run.stop();
+        }
+        LoadGenerator.Load load = (LoadGenerator.Load) DataStoreFactory.getScenarioDataStore().get("chaosLoad");
+        if (load != null) {
+            DataStoreFactory.getScenarioDataStore().remove("chaosLoad");
+            load.stop(Duration.ZERO);
+        }
+    }
+
+    // monitoring is left running when the scenario fails before its verify step
+    private void stopConsistencyMonitor() {
+        PrivateStateConsistencyChecker.ConsistencyMonitor monitor = (PrivateStateConsistencyChecker.ConsistencyMonitor) DataStoreFactory.getScenarioDataStore().get("consistencyMonitor");
+        if (monitor != null) {
+            DataStoreFactory.getScenarioDataStore().remove("consistencyMonitor");
+            monitor.stop();
+        }
+    }
+
+    private void stopRaftChurnRecording() {
+        RaftChurnRecorder.Recording recording = (RaftChurnRecorder.Recording) DataStoreFactory.getScenarioDataStore().get("raftChurnRecording");
+        if (recording == null) {
+            return;
+        }
+        DataStoreFactory.getScenarioDataStore().remove("raftChurnRecording");
+        try {
+            recording.stop(Paths.get(networkProperty.getInstrumentation().getReportsDir(), "raft-churn",
+                    "raft-churn-" + System.currentTimeMillis() + ".json").toFile());
+        } catch (IOException e) {
+            logger.warn("Unable to write raft churn report", e);
+        }
+    }
+
+    // sampling is left running when the scenario fails before its stop step
+    private void stopResourceSampling() {
+        ResourceSampler.Recording recording = (ResourceSampler.Recording) DataStoreFactory.getScenarioDataStore().get("resourceRecording");
+        if (recording == null) {
+            return;
+        }
+        DataStoreFactory.getScenarioDataStore().remove("resourceRecording");
+        try {
+            recording.stop();
+        } catch (IOException e) {
+            logger.warn("Unable to write resource usage report", e);
+        }
+    }
+
+    private void writeRpcMetricsReport(ExecutionContext context) {
+        if (!networkProperty.getInstrumentation().isEnabled()) {
+            return;
+        }
+        String specName = context.getCurrentSpecification().getName();
+        String scenarioName = context.getCurrentScenario().getName();
+        File report = Paths.get(networkProperty.getInstrumentation().getReportsDir(), "rpc-metrics",
+                fileName(specName) + "__" + fileName(scenarioName) + ".json").toFile();
+        try {
+            rpcMetrics.writeReport(report, ImmutableMap.of(
+                    "specification", specName,
+                    "scenario", scenarioName,
+                    "failed", context.getCurrentScenario().getIsFailing()));
+        } catch (IOException e) {
+            logger.warn("Unable to write JSON RPC metrics to {}: {}", report, e.getMessage());
+        }
+    }
+
+    private static String fileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]+", "_");
+    }
+
     @BeforeSuite
     public void setNetworkProperties() {
         // really dummy!!! make sure request ID starts from 1
         new Request<>("", Collections.emptyList(), null, ObjectResponse.class);
+        // build the topology once before steps start looking up nodes concurrently
+        networkProperty.refreshTopology();
         DataStoreFactory.getSuiteDataStore().put("networkProperties", networkProperty);
     }
 
+    @BeforeSuite
+    public void prewarmInfrastructure() {
+        // runs in the background, concurrently with the first specifications
+        infraService.prewarm()
+                .subscribeOn(Schedulers.io())
+                .subscribe(ok -> logger.debug("Infrastructure pre-warmed"), e -> logger.warn("Unable to pre-warm infrastructure: {}", e.getMessage()));
+    }
+
+    @AfterSuite
+    public void writeStepMetricsReport() {
+        if (!networkProperty.getInstrumentation().isEnabled()) {
+            return;
+        }
+        File report = Paths.get(networkProperty.getInstrumentation().getReportsDir(), StepMetrics.REPORT_FILE).toFile();
+        try {
+            stepMetrics.writeReport(report);
+        } catch (IOException e) {
+            logger.warn("Unable to write step metrics to {}: {}", report, e.getMessage());
+        }
+    }
+
     @BeforeStep
     public void beforeStepGlobal(ExecutionContext executionContext) {
         stepLogger.debug("--> STEP STARTS: {}", executionContext.getCurrentStep().getText());
+        currentStepEvent = new StepEvent();
+        currentStepEvent.begin();
     }
 
     @AfterStep
-    public void afterStepGlobal() {
+    public void afterStepGlobal(ExecutionContext executionContext) {
         stepLogger.debug("<-- STEP ENDS");
+        StepEvent event = currentStepEvent;
+        currentStepEvent = null;
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.specification = executionContext.getCurrentSpecification().getName();
+            event.scenario = executionContext.getCurrentScenario().getName();
+            event.step = executionContext.getCurrentStep().getText();
+            event.failed = executionContext.getCurrentStep().getIsFailing();
+            event.commit();
+        }
     }
 
     abstract class AbstractConsumer implements Consumer<ExecutionContext> {
@@ -138,6 +319,12 @@ public class ExecutionHooks {
                 infraService.deleteNetwork(networkResources).blockingSubscribe();
             } finally {
                 DataStoreFactory.getScenarioDataStore().remove("networkResources");
+                // a recreated network may reuse the same transaction hashes
+                transactionService.clearCaches();
+                networkProperty.getNodes().values().forEach(blockScanner::reset);
+                networkProperty.getNodes().values().forEach(logIndexer::reset);
+                raftService.clearCaches();
+                multicallService.clearCaches();
             }
         }
     }